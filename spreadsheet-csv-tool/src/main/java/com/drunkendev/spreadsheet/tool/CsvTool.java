@@ -0,0 +1,377 @@
+/*
+ * CsvTool.java    19 October 2026, 13:55
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.tool;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.ParameterException;
+import com.drunkendev.spreadsheet.csv.Csv;
+import com.drunkendev.spreadsheet.csv.CsvFormat;
+import com.drunkendev.spreadsheet.csv.CsvWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Command line tool for bulk transformation of large CSV files.
+ *
+ * Work is performed as a pipeline: a reader thread groups input lines into
+ * numbered chunks, a pool of workers parses, filters, converts and formats
+ * each chunk, and the calling thread writes chunks back out in input order,
+ * removing duplicates when requested. The number of chunks in flight is
+ * bounded so memory use does not depend on input size (other than the
+ * {@code --dedupe} set).
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvTool {
+
+    private final CsvToolOptions opts;
+    private final PrintStream log;
+
+    private long rowsIn;
+    private long rowsOut;
+    private long filtered;
+    private long duplicates;
+
+    /**
+     * Creates a new tool instance.
+     *
+     * @param   opts
+     *          Options to run with.
+     * @param   log
+     *          Stream progress and the final summary are reported to.
+     */
+    public CsvTool(CsvToolOptions opts, PrintStream log) {
+        this.opts = opts;
+        this.log = log;
+    }
+
+    public static void main(String[] args) {
+        CsvToolOptions opts = new CsvToolOptions();
+        JCommander jc = new JCommander(opts);
+        jc.setProgramName("spreadsheet-csv");
+        try {
+            jc.parse(args);
+        } catch (ParameterException ex) {
+            System.err.println(ex.getMessage());
+            jc.usage();
+            System.exit(2);
+        }
+        if (opts.help) {
+            jc.usage();
+            return;
+        }
+        try {
+            new CsvTool(opts, System.err).run();
+        } catch (IOException | IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(1);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Number of data rows read, excluding any header.
+     *
+     * @return  Rows read.
+     */
+    public long getRowsIn() {
+        return rowsIn;
+    }
+
+    /**
+     * Number of data rows written, excluding any header.
+     *
+     * @return  Rows written.
+     */
+    public long getRowsOut() {
+        return rowsOut;
+    }
+
+    /**
+     * Runs the transform.
+     *
+     * @throws  IOException
+     *          If reading or writing fails.
+     * @throws  InterruptedException
+     *          If interrupted while waiting on a pipeline stage.
+     * @throws  IllegalArgumentException
+     *          If an option is invalid.
+     */
+    public void run() throws IOException, InterruptedException {
+        char delim = single(opts.delimiter, "delimiter");
+        char outDelim = opts.outDelimiter == null ? delim : single(opts.outDelimiter, "out-delimiter");
+        char outQuote = single(opts.outQuote, "out-quote");
+        if (opts.threads < 1 || opts.chunkSize < 1 || opts.queueSize < 1) {
+            throw new IllegalArgumentException("threads, chunk and queue must be positive");
+        }
+
+        CsvFormat format = CsvFormat.DEFAULT.withDelimiter(delim).withTypeInference(false).withFormulas(false);
+
+        long start = System.nanoTime();
+        try (BufferedReader in = openInput();
+             Writer out = openOutput()) {
+            RowTransform transform;
+            if (opts.header) {
+                String line = in.readLine();
+                Object[] hdr = line == null ? new Object[0] : Csv.splitToArray(line, format);
+                String[] names = new String[hdr.length];
+                for (int i = 0; i < hdr.length; i++) {
+                    names[i] = hdr[i] == null ? null : hdr[i].toString();
+                }
+                transform = RowTransform.compile(opts, names);
+                if (line != null) {
+                    out.write(CsvWriter.format(transform.header(hdr), outDelim, outQuote));
+                    out.write(System.lineSeparator());
+                }
+            } else {
+                transform = RowTransform.compile(opts, null);
+            }
+            pipeline(in, out, transform, format, outDelim, outQuote, start);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        log.format("Read %,d rows, wrote %,d (%,d filtered, %,d duplicates) in %,d ms (%,.0f rows/sec)%n",
+                   rowsIn, rowsOut, filtered, duplicates, elapsed / 1_000_000, rate(rowsIn, elapsed));
+    }
+
+    private void pipeline(BufferedReader in,
+                          Writer out,
+                          RowTransform transform,
+                          CsvFormat format,
+                          char outDelim,
+                          char outQuote,
+                          long start) throws IOException, InterruptedException {
+        BlockingQueue<Chunk> work = new ArrayBlockingQueue<>(opts.queueSize + opts.threads);
+        BlockingQueue<Chunk> done = new LinkedBlockingQueue<>();
+        Semaphore inFlight = new Semaphore(opts.queueSize);
+        List<Thread> threads = new ArrayList<>(opts.threads + 1);
+
+        Thread reader = new Thread(() -> {
+            long seq = 0;
+            try {
+                List<String> lines = new ArrayList<>(opts.chunkSize);
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    lines.add(line);
+                    if (lines.size() == opts.chunkSize) {
+                        inFlight.acquire();
+                        work.put(new Chunk(seq++, lines));
+                        lines = new ArrayList<>(opts.chunkSize);
+                    }
+                }
+                if (!lines.isEmpty()) {
+                    inFlight.acquire();
+                    work.put(new Chunk(seq++, lines));
+                }
+                done.put(Chunk.end(seq));
+            } catch (IOException ex) {
+                done.add(Chunk.failed(seq, ex));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (int i = 0; i < opts.threads; i++) {
+                work.add(Chunk.POISON);
+            }
+        }, "csv-reader");
+        threads.add(reader);
+
+        for (int i = 0; i < opts.threads; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    Chunk c;
+                    while ((c = work.take()) != Chunk.POISON) {
+                        try {
+                            process(c, transform, format, outDelim, outQuote);
+                            done.put(c);
+                        } catch (RuntimeException ex) {
+                            done.put(Chunk.failed(c.seq, ex));
+                        }
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "csv-worker-" + (i + 1)));
+        }
+
+        for (Thread t : threads) {
+            t.setDaemon(true);
+            t.start();
+        }
+
+        try {
+            write(done, inFlight, out, start);
+        } finally {
+            for (Thread t : threads) {
+                t.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Ordered writer stage, chunks completed out of order are held until all
+     * earlier chunks have been written.
+     */
+    private void write(BlockingQueue<Chunk> done,
+                       Semaphore inFlight,
+                       Writer out,
+                       long start) throws IOException, InterruptedException {
+        Map<Long, Chunk> pending = new HashMap<>();
+        Set<String> seen = opts.dedupe ? new HashSet<>() : null;
+        long next = 0;
+        long reportNanos = opts.progress * 1_000_000_000L;
+        long lastReport = System.nanoTime();
+        while (true) {
+            Chunk c = done.take();
+            pending.put(c.seq, c);
+            while ((c = pending.remove(next)) != null) {
+                if (c.error != null) {
+                    if (c.error instanceof IOException) {
+                        throw (IOException) c.error;
+                    }
+                    throw (RuntimeException) c.error;
+                }
+                if (c.lines == null) {
+                    out.flush();
+                    return;
+                }
+                rowsIn += c.lines.size();
+                filtered += c.lines.size() - c.output.size();
+                for (String line : c.output) {
+                    if (seen != null && !seen.add(line)) {
+                        duplicates++;
+                        continue;
+                    }
+                    out.write(line);
+                    out.write(System.lineSeparator());
+                    rowsOut++;
+                }
+                inFlight.release();
+                next++;
+            }
+            long now = System.nanoTime();
+            if (reportNanos > 0 && now - lastReport >= reportNanos) {
+                lastReport = now;
+                log.format("%,d rows read, %,d written (%,.0f rows/sec)%n",
+                           rowsIn, rowsOut, rate(rowsIn, now - start));
+            }
+        }
+    }
+
+    /**
+     * Rows are split untyped so columns passed through are written as read,
+     * {@link RowTransform} types only the cells it filters on or converts.
+     */
+    private void process(Chunk c, RowTransform transform, CsvFormat format, char outDelim, char outQuote) {
+        List<String> res = new ArrayList<>(c.lines.size());
+        for (String line : c.lines) {
+            Object[] row = transform.apply(Csv.splitToArray(line, format));
+            if (row != null) {
+                res.add(CsvWriter.format(row, outDelim, outQuote));
+            }
+        }
+        c.output = res;
+    }
+
+    private BufferedReader openInput() throws IOException {
+        if ("-".equals(opts.input)) {
+            return new BufferedReader(new InputStreamReader(System.in, UTF_8));
+        }
+        return Files.newBufferedReader(Paths.get(opts.input), UTF_8);
+    }
+
+    private Writer openOutput() throws IOException {
+        if ("-".equals(opts.output)) {
+            return new BufferedWriter(new OutputStreamWriter(System.out, UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+        return Files.newBufferedWriter(Paths.get(opts.output), UTF_8);
+    }
+
+    private static char single(String s, String name) {
+        if (s == null || s.length() != 1) {
+            if ("\\t".equals(s)) {
+                return '\t';
+            }
+            throw new IllegalArgumentException(name + " must be a single character");
+        }
+        return s.charAt(0);
+    }
+
+    private static double rate(long rows, long nanos) {
+        return nanos <= 0 ? 0 : rows * 1e9 / nanos;
+    }
+
+
+    private static final class Chunk {
+
+        static final Chunk POISON = new Chunk(-1, null);
+
+        final long seq;
+        final List<String> lines;
+        List<String> output;
+        Throwable error;
+
+        Chunk(long seq, List<String> lines) {
+            this.seq = seq;
+            this.lines = lines;
+        }
+
+        static Chunk end(long seq) {
+            return new Chunk(seq, null);
+        }
+
+        static Chunk failed(long seq, Throwable error) {
+            Chunk c = new Chunk(seq, null);
+            c.error = error;
+            return c;
+        }
+
+    }
+
+}
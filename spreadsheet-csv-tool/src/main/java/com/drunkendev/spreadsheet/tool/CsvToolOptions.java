@@ -0,0 +1,104 @@
+/*
+ * CsvToolOptions.java    19 October 2026, 13:02
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.tool;
+
+import com.beust.jcommander.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Command line options for {@link CsvTool}.
+ *
+ * Columns may be referred to by name when {@code --header} is given, or by
+ * zero based index otherwise.
+ *
+ * @author  Brett Ryan
+ */
+public class CsvToolOptions {
+
+    @Parameter(names = {"-i", "--input"},
+               description = "Input file, - for stdin")
+    String input = "-";
+
+    @Parameter(names = {"-o", "--output"},
+               description = "Output file, - for stdout")
+    String output = "-";
+
+    @Parameter(names = {"--header"},
+               description = "First row is a header, it is transformed and written first")
+    boolean header;
+
+    @Parameter(names = {"-d", "--delimiter"},
+               description = "Input delimiter")
+    String delimiter = ",";
+
+    @Parameter(names = {"--out-delimiter"},
+               description = "Output delimiter, defaults to the input delimiter")
+    String outDelimiter;
+
+    @Parameter(names = {"--out-quote"},
+               description = "Output quote character")
+    String outQuote = "\"";
+
+    @Parameter(names = {"--numbered-text"},
+               description = "Accepted for compatibility, numbers in filtered and converted "
+                             + "columns are recognised whether quoted or not")
+    boolean numberedText;
+
+    @Parameter(names = {"-s", "--select"},
+               description = "Comma separated columns to output, in order")
+    String select;
+
+    @Parameter(names = {"-f", "--filter"},
+               description = "Row filter, repeatable and combined with AND. "
+                             + "Forms: col=value col!=value col~regex col<n col<=n col>n col>=n")
+    List<String> filters = new ArrayList<>();
+
+    @Parameter(names = {"-c", "--convert"},
+               description = "Column conversion, repeatable. "
+                             + "Forms: col:string col:number col:int col:boolean col:date[:pattern]")
+    List<String> conversions = new ArrayList<>();
+
+    @Parameter(names = {"--dedupe"},
+               description = "Drop output rows identical to an earlier output row")
+    boolean dedupe;
+
+    @Parameter(names = {"-t", "--threads"},
+               description = "Number of parse/transform workers")
+    int threads = Runtime.getRuntime().availableProcessors();
+
+    @Parameter(names = {"--chunk"},
+               description = "Number of lines handed to a worker at a time")
+    int chunkSize = 1024;
+
+    @Parameter(names = {"-q", "--queue"},
+               description = "Maximum number of chunks in flight between stages")
+    int queueSize = 64;
+
+    @Parameter(names = {"--progress"},
+               description = "Seconds between progress reports on stderr, 0 to disable")
+    int progress = 5;
+
+    @Parameter(names = {"-h", "--help"},
+               description = "Show usage",
+               help = true)
+    boolean help;
+
+}
@@ -0,0 +1,350 @@
+/*
+ * RowTransform.java    19 October 2026, 13:24
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.tool;
+
+import com.drunkendev.spreadsheet.csv.Csv;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.BooleanUtils;
+
+
+/**
+ * Compiled column selection, filtering and conversion applied to each row.
+ *
+ * Instances are immutable and may be shared between worker threads.
+ *
+ * @author  Brett Ryan
+ */
+final class RowTransform {
+
+    private static final String[] OPERATORS = {"!=", "<=", ">=", "=", "~", "<", ">"};
+    private static final Pattern NUMBER = Pattern.compile("[-+]?(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?");
+
+    private final int[] select;
+    private final List<Predicate<Object[]>> filters;
+    private final int[] convertCols;
+    private final List<Function<Object, Object>> converters;
+
+    private RowTransform(int[] select,
+                         List<Predicate<Object[]>> filters,
+                         int[] convertCols,
+                         List<Function<Object, Object>> converters) {
+        this.select = select;
+        this.filters = filters;
+        this.convertCols = convertCols;
+        this.converters = converters;
+    }
+
+    /**
+     * Compiles the transform described by {@code opts}.
+     *
+     * @param   opts
+     *          Options holding select, filter and convert expressions.
+     * @param   header
+     *          Header names used to resolve column names, may be null.
+     * @return  Compiled transform.
+     * @throws  IllegalArgumentException
+     *          If an expression is invalid or refers to an unknown column.
+     */
+    static RowTransform compile(CsvToolOptions opts, String[] header) {
+        int[] select = null;
+        if (opts.select != null && !opts.select.trim().isEmpty()) {
+            String[] refs = opts.select.split(",");
+            select = new int[refs.length];
+            for (int i = 0; i < refs.length; i++) {
+                select[i] = column(refs[i].trim(), header);
+            }
+        }
+
+        List<Predicate<Object[]>> filters = new ArrayList<>(opts.filters.size());
+        for (String f : opts.filters) {
+            filters.add(filter(f, header));
+        }
+
+        int[] convertCols = new int[opts.conversions.size()];
+        List<Function<Object, Object>> converters = new ArrayList<>(convertCols.length);
+        for (int i = 0; i < convertCols.length; i++) {
+            String c = opts.conversions.get(i);
+            int sep = c.indexOf(':');
+            if (sep < 1) {
+                throw new IllegalArgumentException("Invalid conversion: " + c);
+            }
+            convertCols[i] = column(c.substring(0, sep).trim(), header);
+            converters.add(converter(c.substring(sep + 1)));
+        }
+        return new RowTransform(select, filters, convertCols, converters);
+    }
+
+    /**
+     * Applies column selection to the header row.
+     *
+     * @param   header
+     *          Header cells.
+     * @return  Selected header cells.
+     */
+    Object[] header(Object[] header) {
+        return select(header);
+    }
+
+    /**
+     * Filters, converts and selects a row. Filters test and converters
+     * receive typed cells, every cell that is not converted is passed
+     * through as read.
+     *
+     * @param   row
+     *          Row split without type inference, may be modified.
+     * @return  Transformed row or {@code null} if the row was filtered out.
+     */
+    Object[] apply(Object[] row) {
+        for (int i = 0; i < filters.size(); i++) {
+            if (!filters.get(i).test(row)) {
+                return null;
+            }
+        }
+        for (int i = 0; i < convertCols.length; i++) {
+            int col = convertCols[i];
+            if (col < row.length) {
+                row[col] = converters.get(i).apply(typed(row[col]));
+            }
+        }
+        return select(row);
+    }
+
+    private Object[] select(Object[] row) {
+        if (select == null) {
+            return row;
+        }
+        Object[] res = new Object[select.length];
+        for (int i = 0; i < select.length; i++) {
+            int col = select[i];
+            res[i] = col < row.length ? row[col] : null;
+        }
+        return res;
+    }
+
+    private static int column(String ref, String[] header) {
+        if (header != null) {
+            for (int i = 0; i < header.length; i++) {
+                if (ref.equals(header[i])) {
+                    return i;
+                }
+            }
+        }
+        try {
+            int idx = Integer.parseInt(ref);
+            if (idx >= 0) {
+                return idx;
+            }
+        } catch (NumberFormatException ex) {
+            // Fall through.
+        }
+        throw new IllegalArgumentException("Unknown column: " + ref);
+    }
+
+    /**
+     * Types the text of a cell as the parser would with inference, numbers
+     * are recognised whether or not the cell was quoted. Rows are split
+     * untyped so only cells that are filtered on or converted are typed.
+     */
+    private static Object typed(Object v) {
+        if (!(v instanceof String)) {
+            return v;
+        }
+        String s = ((String) v).trim();
+        if (s.isEmpty()) {
+            return null;
+        }
+        if (NUMBER.matcher(s).matches()) {
+            return Double.valueOf(s);
+        }
+        return Csv.getTypedValue(s, Csv.DEFAULT_DATE_TIME);
+    }
+
+    private static Predicate<Object[]> filter(String expr, String[] header) {
+        int pos = -1;
+        String op = null;
+        for (String o : OPERATORS) {
+            int p = expr.indexOf(o);
+            if (p > 0 && (pos < 0 || p < pos)) {
+                pos = p;
+                op = o;
+            }
+        }
+        if (op == null) {
+            throw new IllegalArgumentException("Invalid filter: " + expr);
+        }
+        int col = column(expr.substring(0, pos).trim(), header);
+        String arg = expr.substring(pos + op.length());
+        Predicate<Object> p;
+        switch (op) {
+            case "=":
+                p = v -> matches(v, arg);
+                break;
+            case "!=":
+                p = v -> !matches(v, arg);
+                break;
+            case "~":
+                Pattern pattern = Pattern.compile(arg);
+                p = v -> v != null && pattern.matcher(text(v)).find();
+                break;
+            default:
+                Object target = Csv.getTypedValue(arg, Csv.DEFAULT_DATE_TIME);
+                Double num = toDouble(arg);
+                String o = op;
+                p = v -> {
+                    Integer cmp = compare(v, target, num);
+                    if (cmp == null) {
+                        return false;
+                    }
+                    switch (o) {
+                        case "<":
+                            return cmp < 0;
+                        case "<=":
+                            return cmp <= 0;
+                        case ">":
+                            return cmp > 0;
+                        default:
+                            return cmp >= 0;
+                    }
+                };
+                break;
+        }
+        return row -> p.test(col < row.length ? typed(row[col]) : null);
+    }
+
+    private static boolean matches(Object v, String arg) {
+        if (v == null) {
+            return arg.isEmpty();
+        }
+        if (v instanceof Number) {
+            Double d = toDouble(arg);
+            return d != null && d == ((Number) v).doubleValue();
+        }
+        if (v instanceof Boolean) {
+            return v.equals(BooleanUtils.toBooleanObject(arg));
+        }
+        return text(v).equals(arg);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Integer compare(Object v, Object target, Double num) {
+        if (v == null) {
+            return null;
+        }
+        if (v instanceof Number) {
+            return num == null ? null : Double.compare(((Number) v).doubleValue(), num);
+        }
+        if (v instanceof Temporal && target != null && v.getClass() == target.getClass()) {
+            return ((Comparable<Object>) v).compareTo(target);
+        }
+        return text(v).compareTo(target == null ? "" : text(target));
+    }
+
+    private static Function<Object, Object> converter(String spec) {
+        String type = spec;
+        String arg = null;
+        int sep = spec.indexOf(':');
+        if (sep >= 0) {
+            type = spec.substring(0, sep);
+            arg = spec.substring(sep + 1);
+        }
+        switch (type.trim().toLowerCase(Locale.ROOT)) {
+            case "string":
+                return v -> v == null ? null : text(v);
+            case "number":
+                return v -> {
+                    if (v == null || v instanceof Double) {
+                        return v;
+                    }
+                    if (v instanceof Number) {
+                        return ((Number) v).doubleValue();
+                    }
+                    return toDouble(v.toString());
+                };
+            case "int":
+                return v -> {
+                    if (v instanceof Number) {
+                        return ((Number) v).longValue();
+                    }
+                    Double d = v == null ? null : toDouble(v.toString());
+                    return d == null ? null : d.longValue();
+                };
+            case "boolean":
+                return v -> {
+                    if (v == null || v instanceof Boolean) {
+                        return v;
+                    }
+                    if (v instanceof Number) {
+                        return ((Number) v).doubleValue() != 0;
+                    }
+                    return BooleanUtils.toBooleanObject(v.toString().trim());
+                };
+            case "date":
+                DateTimeFormatter fmt = arg == null ? DateTimeFormatter.ISO_LOCAL_DATE : DateTimeFormatter.ofPattern(arg);
+                return v -> {
+                    if (v == null || v instanceof LocalDate) {
+                        return v;
+                    }
+                    if (v instanceof LocalDateTime) {
+                        return ((LocalDateTime) v).toLocalDate();
+                    }
+                    if (v instanceof ZonedDateTime) {
+                        return ((ZonedDateTime) v).toLocalDate();
+                    }
+                    try {
+                        return fmt.parse(v.toString().trim(), LocalDate::from);
+                    } catch (DateTimeParseException ex) {
+                        return null;
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown conversion type: " + spec);
+        }
+    }
+
+    private static Double toDouble(String s) {
+        try {
+            return Double.valueOf(s.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static String text(Object v) {
+        if (v instanceof Double) {
+            double d = (Double) v;
+            if (d == Math.rint(d) && Math.abs(d) < 1e15) {
+                return Long.toString((long) d);
+            }
+        }
+        return v.toString();
+    }
+
+}
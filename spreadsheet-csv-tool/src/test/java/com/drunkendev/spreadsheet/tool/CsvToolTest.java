@@ -0,0 +1,130 @@
+/*
+ * CsvToolTest.java    19 October 2026, 14:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.tool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvToolTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testTransformPreservesOrder() throws Exception {
+        System.out.println("tool - ordered transform");
+
+        List<String> in = new ArrayList<>();
+        in.add("id,name,amount,when");
+        List<String> expected = new ArrayList<>();
+        expected.add("when|id|amount");
+        for (int i = 0; i < 500; i++) {
+            in.add(String.format("%d,name %d,%d.5,%02d/01/2014", i, i, i % 7, i % 28 + 1));
+            if (i % 2 == 1 && i % 7 >= 2) {
+                expected.add(String.format("2014-01-%02d|%d|%d", i % 28 + 1, i, i % 7));
+            }
+        }
+        Path input = tmp.newFile("in.csv").toPath();
+        Files.write(input, in);
+        Path output = tmp.newFile("out.csv").toPath();
+
+        CsvToolOptions opts = new CsvToolOptions();
+        opts.input = input.toString();
+        opts.output = output.toString();
+        opts.header = true;
+        opts.outDelimiter = "|";
+        opts.select = "when,id,amount";
+        opts.filters = Arrays.asList("amount>=2", "name~[13579]$");
+        opts.conversions = Arrays.asList("amount:int", "when:date:dd/MM/yyyy");
+        opts.threads = 3;
+        opts.chunkSize = 7;
+        opts.queueSize = 2;
+
+        CsvTool tool = new CsvTool(opts, new PrintStream(new ByteArrayOutputStream()));
+        tool.run();
+        assertEquals(expected, Files.readAllLines(output));
+        assertEquals(500, tool.getRowsIn());
+        assertEquals(expected.size() - 1, tool.getRowsOut());
+    }
+
+    @Test
+    public void testPassThroughUnchanged() throws Exception {
+        System.out.println("tool - untouched columns written as read");
+
+        Path input = tmp.newFile("in.csv").toPath();
+        Files.write(input, Arrays.asList("id,n,zip,y", "1,yes,02134,1.50", "2,no,007,n", "10,yes,0,y"));
+        Path output = tmp.newFile("out.csv").toPath();
+
+        CsvToolOptions opts = new CsvToolOptions();
+        opts.input = input.toString();
+        opts.output = output.toString();
+        opts.header = true;
+        opts.select = "n,zip,y,id";
+        opts.filters = Arrays.asList("n=yes", "id>2");
+        opts.threads = 2;
+        opts.chunkSize = 1;
+
+        CsvTool tool = new CsvTool(opts, new PrintStream(new ByteArrayOutputStream()));
+        tool.run();
+        assertEquals(Arrays.asList("n,zip,y,id", "yes,0,y,10"), Files.readAllLines(output));
+
+        opts.filters = Arrays.asList("n=yes");
+        tool = new CsvTool(opts, new PrintStream(new ByteArrayOutputStream()));
+        tool.run();
+        assertEquals(Arrays.asList("n,zip,y,id", "yes,02134,1.50,1", "yes,0,y,10"), Files.readAllLines(output));
+    }
+
+    @Test
+    public void testDedupe() throws Exception {
+        System.out.println("tool - dedupe");
+
+        Path input = tmp.newFile("in.csv").toPath();
+        Files.write(input, Arrays.asList("a,1", "b,2", "a,3", "c,4", "b,5"));
+        Path output = tmp.newFile("out.csv").toPath();
+
+        CsvToolOptions opts = new CsvToolOptions();
+        opts.input = input.toString();
+        opts.output = output.toString();
+        opts.select = "0";
+        opts.dedupe = true;
+        opts.threads = 2;
+        opts.chunkSize = 1;
+
+        CsvTool tool = new CsvTool(opts, new PrintStream(new ByteArrayOutputStream()));
+        tool.run();
+        assertEquals(Arrays.asList("a", "b", "c"), Files.readAllLines(output));
+    }
+
+}
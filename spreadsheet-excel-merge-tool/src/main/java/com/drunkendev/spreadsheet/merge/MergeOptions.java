@@ -0,0 +1,74 @@
+/*
+ * MergeOptions.java    19 October 2026, 09:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.merge;
+
+import com.beust.jcommander.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Command line options for {@link MergeTool}.
+ *
+ * @author  Brett Ryan
+ */
+public class MergeOptions {
+
+    @Parameter(description = "Input CSV or XLSX files")
+    List<String> inputs = new ArrayList<>();
+
+    @Parameter(names = {"-o", "--output"},
+               description = "Output file, .xlsx files are written as a workbook otherwise CSV",
+               required = true)
+    String output;
+
+    @Parameter(names = {"-f", "--format"},
+               description = "Output format (csv or xlsx), overrides the output file extension")
+    String format;
+
+    @Parameter(names = {"-t", "--threads"},
+               description = "Number of files read concurrently")
+    int threads = Runtime.getRuntime().availableProcessors();
+
+    @Parameter(names = {"-q", "--queue"},
+               description = "Number of row chunks buffered between the readers and the writer")
+    int queueSize = 64;
+
+    @Parameter(names = {"--chunk"},
+               description = "Number of rows handed to the writer at a time")
+    int chunkSize = 512;
+
+    @Parameter(names = {"--no-header"},
+               description = "Inputs have no header row, columns are merged by position")
+    boolean noHeader;
+
+    @Parameter(names = {"--source-column"},
+               description = "Adds a column with this name holding each row's source file name")
+    String sourceColumn;
+
+    @Parameter(names = {"-d", "--delimiter"},
+               description = "Delimiter used for CSV output")
+    String delimiter = ",";
+
+    @Parameter(names = {"-h", "--help"},
+               description = "Show usage",
+               help = true)
+    boolean help;
+
+}
@@ -0,0 +1,451 @@
+/*
+ * MergeSource.java    19 October 2026, 09:58
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.merge;
+
+import com.drunkendev.spreadsheet.csv.Csv;
+import com.drunkendev.spreadsheet.csv.CsvFormat;
+import com.drunkendev.spreadsheet.csv.FormulaValue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+
+/**
+ * Reads the header and rows of a CSV file or the first sheet of an XLSX
+ * workbook.
+ *
+ * @author  Brett Ryan
+ */
+abstract class MergeSource {
+
+    /**
+     * Consumer of rows that may block.
+     */
+    interface RowConsumer {
+
+        void accept(Object[] row) throws InterruptedException;
+
+    }
+
+    final Path path;
+
+    MergeSource(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Reads only the first row of the source.
+     *
+     * @return  Header names, empty if the source has no rows.
+     * @throws  IOException
+     *          If the source could not be read.
+     */
+    abstract String[] readHeader() throws IOException;
+
+    /**
+     * Reads every row of the source in order.
+     *
+     * @param   skipFirst
+     *          True to skip the header row.
+     * @param   consumer
+     *          Receives each row.
+     * @throws  IOException
+     *          If the source could not be read.
+     * @throws  InterruptedException
+     *          If interrupted while handing a row to {@code consumer}.
+     */
+    abstract void read(boolean skipFirst, RowConsumer consumer) throws IOException, InterruptedException;
+
+    static MergeSource of(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".xlsx") || name.endsWith(".xlsm")) {
+            return new Xlsx(path);
+        }
+        return new Delimited(path);
+    }
+
+
+    /**
+     * Delimited text read without type inference so each cell is written
+     * back exactly as it was read.
+     */
+    private static final class Delimited extends MergeSource {
+
+        private static final CsvFormat FORMAT = CsvFormat.DEFAULT.withTypeInference(false);
+
+        Delimited(Path path) {
+            super(path);
+        }
+
+        @Override
+        String[] readHeader() throws IOException {
+            try (Stream<Object[]> s = Csv.linesArray(path, FORMAT)) {
+                Object[] first = s.findFirst().orElse(new Object[0]);
+                String[] res = new String[first.length];
+                for (int i = 0; i < first.length; i++) {
+                    res[i] = first[i] == null ? null : first[i].toString();
+                }
+                return res;
+            }
+        }
+
+        @Override
+        void read(boolean skipFirst, RowConsumer consumer) throws IOException, InterruptedException {
+            try (Stream<Object[]> s = Csv.linesArray(path, FORMAT)) {
+                Iterator<Object[]> it = s.iterator();
+                if (skipFirst && it.hasNext()) {
+                    it.next();
+                }
+                while (it.hasNext()) {
+                    consumer.accept(it.next());
+                }
+            }
+        }
+
+    }
+
+
+    private static final class Xlsx extends MergeSource {
+
+        Xlsx(Path path) {
+            super(path);
+        }
+
+        /**
+         * Uses the SAX event model so only the first row is parsed rather
+         * than loading the whole workbook.
+         */
+        @Override
+        String[] readHeader() throws IOException {
+            List<String> res = new ArrayList<>();
+            try (OPCPackage pkg = open()) {
+                XSSFReader reader = new XSSFReader(pkg);
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return new String[0];
+                }
+                XMLReader parser = SAXParserFactory.newInstance().newSAXParser().getXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        reader.getStylesTable(),
+                        new ReadOnlySharedStringsTable(pkg),
+                        new HeaderHandler(res),
+                        false));
+                try (InputStream is = sheets.next()) {
+                    parser.parse(new InputSource(is));
+                } catch (HeaderComplete ex) {
+                    // First row has been read.
+                }
+            } catch (OpenXML4JException | SAXException | ParserConfigurationException ex) {
+                throw new IOException("Unable to read header from " + path, ex);
+            }
+            return res.toArray(new String[res.size()]);
+        }
+
+        /**
+         * Streams the rows of the first sheet with the SAX event model so
+         * memory does not grow with the size of the sheet.
+         */
+        @Override
+        void read(boolean skipFirst, RowConsumer consumer) throws IOException, InterruptedException {
+            try (OPCPackage pkg = open()) {
+                XSSFReader reader = new XSSFReader(pkg);
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return;
+                }
+                XMLReader parser = SAXParserFactory.newInstance().newSAXParser().getXMLReader();
+                StylesTable styles = reader.getStylesTable();
+                RowHandler rows = new RowHandler(styles, skipFirst, consumer);
+                parser.setContentHandler(new TypedSheetHandler(styles,
+                                                               new ReadOnlySharedStringsTable(pkg),
+                                                               rows));
+                try (InputStream is = sheets.next()) {
+                    parser.parse(new InputSource(is));
+                } catch (RowInterrupted ex) {
+                    throw ex.getCause();
+                }
+            } catch (OpenXML4JException | SAXException | ParserConfigurationException ex) {
+                throw new IOException("Unable to read rows from " + path, ex);
+            }
+        }
+
+        private OPCPackage open() throws IOException {
+            try {
+                return OPCPackage.open(path.toFile(), PackageAccess.READ);
+            } catch (InvalidFormatException ex) {
+                throw new IOException("Not a valid workbook: " + path, ex);
+            }
+        }
+
+    }
+
+
+    private static final class HeaderHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final List<String> names;
+        private boolean started;
+
+        HeaderHandler(List<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            if (started) {
+                throw new HeaderComplete();
+            }
+            started = true;
+        }
+
+        @Override
+        public void endRow() {
+            throw new HeaderComplete();
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue) {
+            int col = new CellReference(cellReference).getCol();
+            while (names.size() <= col) {
+                names.add(null);
+            }
+            names.set(col, formattedValue);
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+        }
+
+    }
+
+
+    /**
+     * Sheet handler which notes the type, style and formula of each cell so
+     * {@link RowHandler} can rebuild typed values from the text reported.
+     * Numbers are reported unformatted, and a formula without a cached
+     * result, which the base handler skips, is reported at the end of its
+     * cell.
+     */
+    private static final class TypedSheetHandler extends XSSFSheetXMLHandler {
+
+        private final RowHandler rows;
+        private final StringBuilder formula = new StringBuilder();
+        private String ref;
+        private boolean inFormula;
+
+        TypedSheetHandler(StylesTable styles, ReadOnlySharedStringsTable strings, RowHandler rows) {
+            super(styles, strings, rows, new RawFormatter(), true);
+            this.rows = rows;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String name, Attributes attributes)
+                throws SAXException {
+            if ("c".equals(name)) {
+                ref = attributes.getValue("r");
+                rows.type = attributes.getValue("t");
+                rows.style = attributes.getValue("s");
+                rows.formula = false;
+                rows.reported = false;
+                formula.setLength(0);
+            } else if ("f".equals(name)) {
+                rows.formula = true;
+                inFormula = true;
+            }
+            super.startElement(uri, localName, name, attributes);
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            if (inFormula) {
+                formula.append(ch, start, length);
+            }
+            super.characters(ch, start, length);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String name) throws SAXException {
+            super.endElement(uri, localName, name);
+            if ("f".equals(name)) {
+                inFormula = false;
+            } else if ("c".equals(name) && rows.formula && !rows.reported) {
+                rows.cell(ref, formula.toString());
+            }
+        }
+
+    }
+
+
+    /**
+     * Formats numbers as their exact value so they can be parsed back.
+     */
+    private static final class RawFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return Double.toString(value);
+        }
+
+    }
+
+
+    /**
+     * Collects the typed cells of each row and hands the row on, typing
+     * cells as {@link org.apache.poi.ss.usermodel.Cell} values would be:
+     * numbers, dates, booleans, strings and {@link FormulaValue}. Error
+     * cells and formulas without text, such as all but the first cell of a
+     * shared formula, are empty.
+     */
+    private static final class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final StylesTable styles;
+        private final RowConsumer consumer;
+        private final List<Object> cells = new ArrayList<>();
+        private boolean skip;
+        private String type;
+        private String style;
+        private boolean formula;
+        private boolean reported;
+
+        RowHandler(StylesTable styles, boolean skipFirst, RowConsumer consumer) {
+            this.styles = styles;
+            this.skip = skipFirst;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow() {
+            if (skip) {
+                skip = false;
+                return;
+            }
+            try {
+                consumer.accept(cells.toArray());
+            } catch (InterruptedException ex) {
+                throw new RowInterrupted(ex);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue) {
+            int col = new CellReference(cellReference).getCol();
+            while (cells.size() <= col) {
+                cells.add(null);
+            }
+            cells.set(col, value(formattedValue));
+            reported = true;
+        }
+
+        private Object value(String text) {
+            if (formula) {
+                return text == null || text.isEmpty() ? null : new FormulaValue(text);
+            }
+            if (type == null || "n".equals(type)) {
+                double d = Double.parseDouble(text);
+                if (style != null) {
+                    XSSFCellStyle cs = styles.getStyleAt(Integer.parseInt(style));
+                    if (DateUtil.isADateFormat(cs.getDataFormat(), cs.getDataFormatString())
+                            && DateUtil.isValidExcelDate(d)) {
+                        LocalDateTime dt = LocalDateTime.ofInstant(DateUtil.getJavaDate(d).toInstant(),
+                                                                   ZoneId.systemDefault());
+                        return dt.toLocalTime().toNanoOfDay() == 0 ? dt.toLocalDate() : dt;
+                    }
+                }
+                return d;
+            }
+            switch (type) {
+                case "b":
+                    return "TRUE".equals(text);
+                case "e":
+                    return null;
+                default:
+                    return text;
+            }
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+        }
+
+    }
+
+
+    /**
+     * Carries an interruption of the row consumer out of the SAX parser.
+     */
+    private static final class RowInterrupted extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        RowInterrupted(InterruptedException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized InterruptedException getCause() {
+            return (InterruptedException) super.getCause();
+        }
+
+    }
+
+
+    /**
+     * Thrown to stop SAX parsing once the header row has been read.
+     */
+    private static final class HeaderComplete extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        HeaderComplete() {
+            super(null, null, false, false);
+        }
+
+    }
+
+}
@@ -0,0 +1,405 @@
+/*
+ * MergeTool.java    19 October 2026, 10:21
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.merge;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.ParameterException;
+import com.drunkendev.spreadsheet.csv.CsvWriter;
+import com.drunkendev.spreadsheet.excel.XlsxStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Merges many CSV and XLSX files into a single CSV or XLSX output.
+ *
+ * Inputs are read concurrently by a bounded pool of reader threads which hand
+ * chunks of rows through a bounded queue to a single writer. Headers are
+ * reconciled by name so files with differing or reordered columns land in the
+ * correct output column. Rows from different files are interleaved in the
+ * order they are read.
+ *
+ * @author  Brett Ryan
+ */
+public final class MergeTool {
+
+    private static final List<Object[]> END = Collections.emptyList();
+
+    private final MergeOptions opts;
+    private final PrintStream log;
+
+    /**
+     * Creates a new merge tool.
+     *
+     * @param   opts
+     *          Options to merge with.
+     * @param   log
+     *          Stream progress and timing are reported to.
+     */
+    public MergeTool(MergeOptions opts, PrintStream log) {
+        this.opts = opts;
+        this.log = log;
+    }
+
+    public static void main(String[] args) {
+        MergeOptions opts = new MergeOptions();
+        JCommander jc = new JCommander(opts);
+        jc.setProgramName("spreadsheet-merge");
+        try {
+            jc.parse(args);
+        } catch (ParameterException ex) {
+            System.err.println(ex.getMessage());
+            jc.usage();
+            System.exit(2);
+        }
+        if (opts.help) {
+            jc.usage();
+            return;
+        }
+        if (opts.inputs.isEmpty()) {
+            System.err.println("No input files given");
+            jc.usage();
+            System.exit(2);
+        }
+        try {
+            System.exit(new MergeTool(opts, System.err).run() ? 0 : 1);
+        } catch (IOException | IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(1);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Performs the merge.
+     *
+     * @return  True if every input was merged, false if any input failed.
+     * @throws  IOException
+     *          If the output could not be written or a header could not be
+     *          read.
+     * @throws  InterruptedException
+     *          If interrupted while merging.
+     */
+    public boolean run() throws IOException, InterruptedException {
+        if (opts.threads < 1 || opts.queueSize < 1 || opts.chunkSize < 1) {
+            throw new IllegalArgumentException("threads, queue and chunk must be positive");
+        }
+        if (opts.inputs.isEmpty()) {
+            throw new IllegalArgumentException("No input files given");
+        }
+        List<MergeSource> sources = new ArrayList<>(opts.inputs.size());
+        for (String in : opts.inputs) {
+            Path p = Paths.get(in);
+            if (!Files.isRegularFile(p)) {
+                throw new IOException("Input does not exist: " + in);
+            }
+            sources.add(MergeSource.of(p));
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(opts.threads, r -> {
+            Thread t = new Thread(r, "merge-reader-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<String> header = new ArrayList<>();
+            int[][] mappings = reconcile(pool, sources, header);
+            int sourceIdx = -1;
+            if (opts.sourceColumn != null && !opts.noHeader) {
+                sourceIdx = header.size();
+                header.add(opts.sourceColumn);
+            }
+            return merge(pool, sources, mappings, header, sourceIdx, start);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads all headers concurrently and builds the union of column names in
+     * order of first appearance.
+     *
+     * @return  For each source an array mapping its columns to output columns.
+     */
+    private int[][] reconcile(ExecutorService pool, List<MergeSource> sources, List<String> header)
+            throws IOException, InterruptedException {
+        int[][] mappings = new int[sources.size()][];
+        if (opts.noHeader) {
+            return mappings;
+        }
+        List<Future<String[]>> futures = new ArrayList<>(sources.size());
+        for (MergeSource src : sources) {
+            futures.add(pool.submit(src::readHeader));
+        }
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        for (int f = 0; f < futures.size(); f++) {
+            String[] names;
+            try {
+                names = futures.get(f).get();
+            } catch (ExecutionException ex) {
+                throw new IOException("Unable to read header of " + sources.get(f).path, ex.getCause());
+            }
+            Map<String, Integer> seen = new LinkedHashMap<>();
+            int[] mapping = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i] == null ? "" : names[i].trim();
+                int n = seen.merge(name, 1, Integer::sum);
+                String key = n == 1 ? name : name + " (" + n + ")";
+                Integer idx = columns.get(key);
+                if (idx == null) {
+                    idx = columns.size();
+                    columns.put(key, idx);
+                    header.add(key);
+                }
+                mapping[i] = idx;
+            }
+            mappings[f] = mapping;
+        }
+        return mappings;
+    }
+
+    private boolean merge(ExecutorService pool,
+                          List<MergeSource> sources,
+                          int[][] mappings,
+                          List<String> header,
+                          int sourceIdx,
+                          long start) throws IOException, InterruptedException {
+        BlockingQueue<List<Object[]>> queue = new ArrayBlockingQueue<>(opts.queueSize);
+        AtomicInteger remaining = new AtomicInteger(sources.size());
+        List<Future<FileResult>> results = new ArrayList<>(sources.size());
+        int width = header.size();
+
+        for (int f = 0; f < sources.size(); f++) {
+            MergeSource src = sources.get(f);
+            int[] mapping = mappings[f];
+            results.add(pool.submit(() -> {
+                try {
+                    return readSource(src, mapping, width, sourceIdx, queue);
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        queue.put(END);
+                    }
+                }
+            }));
+        }
+
+        long written = 0;
+        try (RowWriter out = openWriter(header)) {
+            long lastReport = System.nanoTime();
+            List<Object[]> chunk;
+            while ((chunk = queue.take()) != END) {
+                for (Object[] row : chunk) {
+                    out.write(row);
+                }
+                written += chunk.size();
+                long now = System.nanoTime();
+                if (now - lastReport > 5_000_000_000L) {
+                    lastReport = now;
+                    log.format("%,d rows merged (%,.0f rows/sec)%n", written, rate(written, now - start));
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            pool.shutdownNow();
+            throw ex;
+        }
+
+        boolean ok = true;
+        for (int f = 0; f < results.size(); f++) {
+            try {
+                FileResult r = results.get(f).get();
+                log.format("%s: %,d rows in %,d ms (%,.0f rows/sec)%n",
+                           r.path, r.rows, r.nanos / 1_000_000, rate(r.rows, r.nanos));
+            } catch (ExecutionException ex) {
+                ok = false;
+                log.format("%s: FAILED %s%n", sources.get(f).path, ex.getCause());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        log.format("Merged %,d rows from %d files in %,d ms (%,.0f rows/sec)%n",
+                   written, sources.size(), elapsed / 1_000_000, rate(written, elapsed));
+        return ok;
+    }
+
+    private FileResult readSource(MergeSource src,
+                                  int[] mapping,
+                                  int width,
+                                  int sourceIdx,
+                                  BlockingQueue<List<Object[]>> queue) throws IOException, InterruptedException {
+        long t = System.nanoTime();
+        String name = src.path.getFileName().toString();
+        Chunker chunks = new Chunker(opts.chunkSize, queue);
+        src.read(!opts.noHeader, cells -> {
+            Object[] row;
+            if (mapping == null) {
+                // Positional merge, the source name is appended to each row.
+                row = opts.sourceColumn == null ? cells : Arrays.copyOf(cells, cells.length + 1);
+                if (opts.sourceColumn != null) {
+                    row[cells.length] = name;
+                }
+            } else {
+                row = new Object[width];
+                int len = Math.min(cells.length, mapping.length);
+                for (int i = 0; i < len; i++) {
+                    row[mapping[i]] = cells[i];
+                }
+                if (sourceIdx >= 0) {
+                    row[sourceIdx] = name;
+                }
+            }
+            chunks.add(row);
+        });
+        chunks.flush();
+        return new FileResult(src.path, chunks.rows, System.nanoTime() - t);
+    }
+
+    private RowWriter openWriter(List<String> header) throws IOException {
+        Path out = Paths.get(opts.output);
+        String fmt = opts.format;
+        if (fmt == null) {
+            fmt = out.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".xlsx") ? "xlsx" : "csv";
+        }
+        Object[] hdr = header.toArray();
+        switch (fmt.toLowerCase(Locale.ROOT)) {
+            case "xlsx":
+                XlsxStreamWriter xw = new XlsxStreamWriter(new BufferedOutputStream(Files.newOutputStream(out)));
+                if (hdr.length > 0) {
+                    xw.setHeader(hdr);
+                }
+                return new RowWriter() {
+                    @Override
+                    public void write(Object[] row) {
+                        xw.writeRow(row);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        xw.close();
+                    }
+                };
+            case "csv":
+                if (opts.delimiter.length() != 1) {
+                    throw new IllegalArgumentException("delimiter must be a single character");
+                }
+                CsvWriter cw = new CsvWriter(Files.newBufferedWriter(out, UTF_8), opts.delimiter.charAt(0), '"');
+                if (hdr.length > 0) {
+                    cw.writeRow(hdr);
+                }
+                return new RowWriter() {
+                    @Override
+                    public void write(Object[] row) throws IOException {
+                        cw.writeRow(row);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        cw.close();
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown output format: " + fmt);
+        }
+    }
+
+    private static double rate(long rows, long nanos) {
+        return nanos <= 0 ? 0 : rows * 1e9 / nanos;
+    }
+
+
+    private interface RowWriter extends Closeable {
+
+        void write(Object[] row) throws IOException;
+
+    }
+
+
+    /**
+     * Groups the rows of one source into chunks for the writer queue.
+     */
+    private static final class Chunker {
+
+        private final int size;
+        private final BlockingQueue<List<Object[]>> queue;
+        private List<Object[]> chunk;
+        long rows;
+
+        Chunker(int size, BlockingQueue<List<Object[]>> queue) {
+            this.size = size;
+            this.queue = queue;
+            this.chunk = new ArrayList<>(size);
+        }
+
+        void add(Object[] row) throws InterruptedException {
+            chunk.add(row);
+            rows++;
+            if (chunk.size() >= size) {
+                queue.put(chunk);
+                chunk = new ArrayList<>(size);
+            }
+        }
+
+        void flush() throws InterruptedException {
+            if (!chunk.isEmpty()) {
+                queue.put(chunk);
+                chunk = new ArrayList<>(size);
+            }
+        }
+
+    }
+
+
+    private static final class FileResult {
+
+        final Path path;
+        final long rows;
+        final long nanos;
+
+        FileResult(Path path, long rows, long nanos) {
+            this.path = path;
+            this.rows = rows;
+            this.nanos = nanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * MergeToolTest.java    19 October 2026, 11:05
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.merge;
+
+import com.drunkendev.spreadsheet.csv.Csv;
+import com.drunkendev.spreadsheet.csv.CsvLine;
+import com.drunkendev.spreadsheet.csv.FormulaValue;
+import com.drunkendev.spreadsheet.excel.XlsxStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class MergeToolTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testMergeReconcilesHeaders() throws Exception {
+        System.out.println("merge - reconcile headers");
+
+        Path a = tmp.newFile("a.csv").toPath();
+        Files.write(a, Arrays.asList("id,name", "1,one", "2,two"));
+        Path b = tmp.newFile("b.csv").toPath();
+        Files.write(b, Arrays.asList("name,id,extra", "three,3,x"));
+        Path c = tmp.newFile("c.xlsx").toPath();
+        XlsxStreamWriter.writeArrays(Stream.of(new Object[]{"extra", "id"},
+                                               new Object[]{"why", 4.0}), c);
+
+        File out = tmp.newFile("out.csv");
+        MergeOptions opts = new MergeOptions();
+        opts.inputs = Arrays.asList(a.toString(), b.toString(), c.toString());
+        opts.output = out.toString();
+        opts.threads = 2;
+        opts.chunkSize = 1;
+        opts.queueSize = 1;
+        opts.sourceColumn = "source";
+
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        assertTrue(new MergeTool(opts, new PrintStream(log, true)).run());
+        assertTrue(log.toString().contains("Merged 4 rows from 3 files"));
+
+        List<CsvLine> lines = Csv.lines(out.toPath()).collect(toList());
+        assertEquals(5, lines.size());
+        assertEquals("id", lines.get(0).getString(0));
+        assertEquals("name", lines.get(0).getString(1));
+        assertEquals("extra", lines.get(0).getString(2));
+        assertEquals("source", lines.get(0).getString(3));
+
+        Map<Integer, CsvLine> byId = lines.stream().skip(1).collect(toMap(n -> n.getInt(0), n -> n));
+        assertEquals("one", byId.get(1).getString(1));
+        assertEquals("a.csv", byId.get(1).getString(3));
+        assertEquals("three", byId.get(3).getString(1));
+        assertEquals("x", byId.get(3).getString(2));
+        assertEquals(null, byId.get(4).getString(1));
+        assertEquals("why", byId.get(4).getString(2));
+        assertEquals("c.xlsx", byId.get(4).getString(3));
+    }
+
+    @Test
+    public void testDelimitedCellsUnchanged() throws Exception {
+        System.out.println("merge - delimited cells written as read");
+
+        Path a = tmp.newFile("a.csv").toPath();
+        Files.write(a, Arrays.asList("x,y,n", "02134,1.50,yes", "007,n,y"));
+
+        File out = tmp.newFile("out.csv");
+        MergeOptions opts = new MergeOptions();
+        opts.inputs = Arrays.asList(a.toString());
+        opts.output = out.toString();
+
+        assertTrue(new MergeTool(opts, new PrintStream(new ByteArrayOutputStream(), true)).run());
+        assertEquals(Arrays.asList("x,y,n", "02134,1.50,yes", "007,n,y"), Files.readAllLines(out.toPath()));
+        assertArrayEquals(new String[]{"x", "y", "n"}, MergeSource.of(a).readHeader());
+    }
+
+    @Test
+    public void testXlsxTypedRows() throws Exception {
+        System.out.println("merge - stream typed xlsx rows");
+
+        Path x = tmp.newFile("typed.xlsx").toPath();
+        XlsxStreamWriter.writeArrays(Stream.of(
+                new Object[]{"name", "qty", "ok", "day", "at", "calc"},
+                new Object[]{"a", 2.5, true, LocalDate.of(2014, 1, 2),
+                             LocalDateTime.of(2014, 1, 2, 10, 30), new FormulaValue("B2*2")},
+                new Object[]{null, null, false}), x);
+
+        List<Object[]> rows = new ArrayList<>();
+        MergeSource.of(x).read(true, rows::add);
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[]{"a", 2.5, true, LocalDate.of(2014, 1, 2),
+                                       LocalDateTime.of(2014, 1, 2, 10, 30), new FormulaValue("B2*2")},
+                          rows.get(0));
+        assertArrayEquals(new Object[]{null, null, false}, rows.get(1));
+        assertArrayEquals(new String[]{"name", "qty", "ok", "day", "at", "calc"},
+                          MergeSource.of(x).readHeader());
+    }
+
+}
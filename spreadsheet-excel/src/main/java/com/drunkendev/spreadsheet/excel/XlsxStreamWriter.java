@@ -0,0 +1,437 @@
+/*
+ * XlsxStreamWriter.java    18 October 2026, 22:51
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.excel;
+
+import com.drunkendev.spreadsheet.csv.CsvLine;
+import com.drunkendev.spreadsheet.csv.FormulaValue;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.FormulaParseException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+
+/**
+ * Writes rows into an .xlsx workbook using the POI SXSSF sliding window.
+ *
+ * Only the last {@code windowSize} rows are held in memory, earlier rows are
+ * flushed to a temporary file, so memory use stays flat regardless of how
+ * many rows are written. When a sheet reaches its row limit a new sheet is
+ * started and the header (if any) repeated.
+ *
+ * <p>Cell values are mapped as follows:</p>
+ *
+ * <ul>
+ *     <li>{@link FormulaValue}: formula cell</li>
+ *     <li>{@link Number}: numeric cell</li>
+ *     <li>{@link Boolean}: boolean cell</li>
+ *     <li>{@link LocalDate}, {@link LocalDateTime}, {@link ZonedDateTime}:
+ *         numeric cell with a date style</li>
+ *     <li>anything else: string cell using {@link Object#toString()}</li>
+ * </ul>
+ *
+ * Instances are not thread-safe.
+ *
+ * @author  Brett Ryan
+ */
+public final class XlsxStreamWriter implements Closeable {
+
+    /**
+     * Default number of rows kept in memory before being flushed.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+
+    /**
+     * Maximum rows permitted within a single sheet.
+     */
+    public static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    /**
+     * Default format applied to {@link LocalDate} cells.
+     */
+    public static final String DEFAULT_DATE_FORMAT = "yyyy-mm-dd";
+
+    /**
+     * Default format applied to {@link LocalDateTime} cells.
+     */
+    public static final String DEFAULT_DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+    private static final long EXCEL_EPOCH_DAY = LocalDate.of(1899, 12, 30).toEpochDay();
+    private static final long EXCEL_LEAP_BUG_DAY = LocalDate.of(1900, 3, 1).toEpochDay();
+    private static final long EXCEL_MIN_DAY = LocalDate.of(1900, 1, 1).toEpochDay();
+    private static final double NANOS_PER_DAY = 86_400_000_000_000.0;
+
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook;
+    private final int rowsPerSheet;
+    private final DataFormat dataFormat;
+    private final Map<String, CellStyle> styles = new HashMap<>();
+
+    private String sheetName = "Sheet";
+    private String dateFormat = DEFAULT_DATE_FORMAT;
+    private String dateTimeFormat = DEFAULT_DATE_TIME_FORMAT;
+    private Object[] header;
+
+    private Sheet sheet;
+    private int sheetCount;
+    private int sheetRow;
+    private long rowCount;
+    private boolean closed;
+
+    /**
+     * Creates a new writer using the default window size and row limit.
+     *
+     * @param   out
+     *          Stream the workbook will be written to on {@link #close()}.
+     */
+    public XlsxStreamWriter(OutputStream out) {
+        this(out, DEFAULT_WINDOW_SIZE, MAX_ROWS);
+    }
+
+    /**
+     * Creates a new writer.
+     *
+     * @param   out
+     *          Stream the workbook will be written to on {@link #close()}.
+     * @param   windowSize
+     *          Number of rows kept in memory before being flushed.
+     * @param   rowsPerSheet
+     *          Number of rows (including any header) written to a sheet
+     *          before rolling over to a new sheet.
+     */
+    public XlsxStreamWriter(OutputStream out, int windowSize, int rowsPerSheet) {
+        if (out == null) {
+            throw new IllegalArgumentException("out may not be null");
+        }
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        if (rowsPerSheet < 1 || rowsPerSheet > MAX_ROWS) {
+            throw new IllegalArgumentException("rowsPerSheet must be between 1 and " + MAX_ROWS);
+        }
+        this.out = out;
+        this.rowsPerSheet = rowsPerSheet;
+        this.workbook = new SXSSFWorkbook(windowSize);
+        this.workbook.setCompressTempFiles(true);
+        this.dataFormat = workbook.createDataFormat();
+    }
+
+    /**
+     * Sets the base name used for sheets, subsequent sheets are suffixed with
+     * their ordinal. Must be set before the first row is written.
+     *
+     * @param   sheetName
+     *          Base sheet name.
+     */
+    public void setSheetName(String sheetName) {
+        checkNotStarted();
+        this.sheetName = sheetName;
+    }
+
+    /**
+     * Sets a header row written at the top of every sheet. Must be set before
+     * the first row is written.
+     *
+     * @param   header
+     *          Header cells.
+     */
+    public void setHeader(Object[] header) {
+        checkNotStarted();
+        if (header != null && header.length > 0 && rowsPerSheet < 2) {
+            throw new IllegalStateException("rowsPerSheet must allow a header and at least one row");
+        }
+        this.header = header == null ? null : header.clone();
+    }
+
+    /**
+     * Sets the Excel number format applied to {@link LocalDate} cells.
+     *
+     * @param   dateFormat
+     *          Excel format string.
+     */
+    public void setDateFormat(String dateFormat) {
+        this.dateFormat = dateFormat;
+    }
+
+    /**
+     * Sets the Excel number format applied to {@link LocalDateTime} and
+     * {@link ZonedDateTime} cells.
+     *
+     * @param   dateTimeFormat
+     *          Excel format string.
+     */
+    public void setDateTimeFormat(String dateTimeFormat) {
+        this.dateTimeFormat = dateTimeFormat;
+    }
+
+    /**
+     * Total number of data rows written, excluding repeated headers.
+     *
+     * @return  Number of rows written.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Number of sheets created so far.
+     *
+     * @return  Sheet count.
+     */
+    public int getSheetCount() {
+        return sheetCount;
+    }
+
+    /**
+     * Writes a single row.
+     *
+     * @param   line
+     *          Line to write.
+     */
+    public void writeRow(CsvLine line) {
+        int len = line.size();
+        Row row = nextRow();
+        for (int i = 0; i < len; i++) {
+            setCell(row, i, line.getObject(i));
+        }
+        rowCount++;
+    }
+
+    /**
+     * Writes a single row.
+     *
+     * @param   cells
+     *          Cells to write.
+     */
+    public void writeRow(Object[] cells) {
+        Row row = nextRow();
+        for (int i = 0; i < cells.length; i++) {
+            setCell(row, i, cells[i]);
+        }
+        rowCount++;
+    }
+
+    /**
+     * Writes the workbook to the underlying stream, closes it and removes any
+     * temporary files.
+     *
+     * @throws  IOException
+     *          If the workbook could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (OutputStream os = out) {
+            if (sheet == null) {
+                newSheet();
+            }
+            workbook.write(os);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    private void checkNotStarted() {
+        if (sheet != null) {
+            throw new IllegalStateException("Rows have already been written");
+        }
+    }
+
+    private Row nextRow() {
+        if (closed) {
+            throw new IllegalStateException("Writer has been closed");
+        }
+        if (sheet == null || sheetRow >= rowsPerSheet) {
+            newSheet();
+        }
+        return sheet.createRow(sheetRow++);
+    }
+
+    private void newSheet() {
+        sheetCount++;
+        sheet = workbook.createSheet(sheetCount == 1 ? sheetName : sheetName + " " + sheetCount);
+        sheetRow = 0;
+        if (header != null && header.length > 0) {
+            Row row = sheet.createRow(sheetRow++);
+            for (int i = 0; i < header.length; i++) {
+                setCell(row, i, header[i]);
+            }
+        }
+    }
+
+    private void setCell(Row row, int idx, Object v) {
+        if (v == null) {
+            return;
+        }
+        Cell cell = row.createCell(idx);
+        if (v instanceof String) {
+            cell.setCellValue((String) v);
+        } else if (v instanceof Number) {
+            cell.setCellValue(((Number) v).doubleValue());
+        } else if (v instanceof Boolean) {
+            cell.setCellValue((Boolean) v);
+        } else if (v instanceof FormulaValue) {
+            try {
+                cell.setCellFormula(((FormulaValue) v).getValue());
+            } catch (FormulaParseException ex) {
+                cell.setCellValue(v.toString());
+            }
+        } else if (v instanceof LocalDate) {
+            setDate(cell, (LocalDate) v, 0, dateFormat);
+        } else if (v instanceof LocalDateTime) {
+            LocalDateTime dt = (LocalDateTime) v;
+            setDate(cell, dt.toLocalDate(), dt.toLocalTime().toNanoOfDay(), dateTimeFormat);
+        } else if (v instanceof ZonedDateTime) {
+            LocalDateTime dt = ((ZonedDateTime) v).toLocalDateTime();
+            setDate(cell, dt.toLocalDate(), dt.toLocalTime().toNanoOfDay(), dateTimeFormat);
+        } else {
+            cell.setCellValue(v.toString());
+        }
+    }
+
+    /**
+     * Sets an Excel serial date directly, avoiding the {@link java.util.Date}
+     * and {@link java.util.Calendar} round trip POI would otherwise perform.
+     */
+    private void setDate(Cell cell, LocalDate date, long nanoOfDay, String format) {
+        long day = date.toEpochDay();
+        if (day < EXCEL_MIN_DAY) {
+            cell.setCellValue(date.toString());
+            return;
+        }
+        // Excel treats 1900 as a leap year, serials prior to 1 March 1900 are one less.
+        long serial = day - EXCEL_EPOCH_DAY - (day < EXCEL_LEAP_BUG_DAY ? 1 : 0);
+        cell.setCellValue(serial + nanoOfDay / NANOS_PER_DAY);
+        cell.setCellStyle(style(format));
+    }
+
+    private CellStyle style(String format) {
+        CellStyle cs = styles.get(format);
+        if (cs == null) {
+            cs = workbook.createCellStyle();
+            cs.setDataFormat(dataFormat.getFormat(format));
+            styles.put(format, cs);
+        }
+        return cs;
+    }
+
+    /**
+     * Writes all {@code lines} to a new workbook at {@code path}.
+     *
+     * @param   lines
+     *          Lines to write.
+     * @param   path
+     *          Destination file.
+     * @return  Number of rows written.
+     *
+     * @throws  IOException
+     *          If the workbook could not be written.
+     */
+    public static long write(Stream<CsvLine> lines, Path path) throws IOException {
+        return write(lines, new BufferedOutputStream(Files.newOutputStream(path)));
+    }
+
+    /**
+     * Writes all {@code lines} to a new workbook written to {@code out}, the
+     * stream is closed on completion.
+     *
+     * @param   lines
+     *          Lines to write.
+     * @param   out
+     *          Destination stream.
+     * @return  Number of rows written.
+     *
+     * @throws  IOException
+     *          If the workbook could not be written.
+     */
+    public static long write(Stream<CsvLine> lines, OutputStream out) throws IOException {
+        try (XlsxStreamWriter w = new XlsxStreamWriter(out)) {
+            Iterator<CsvLine> it = lines.iterator();
+            while (it.hasNext()) {
+                w.writeRow(it.next());
+            }
+            return w.getRowCount();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Writes all {@code rows} to a new workbook at {@code path}.
+     *
+     * @param   rows
+     *          Rows to write.
+     * @param   path
+     *          Destination file.
+     * @return  Number of rows written.
+     *
+     * @throws  IOException
+     *          If the workbook could not be written.
+     */
+    public static long writeArrays(Stream<Object[]> rows, Path path) throws IOException {
+        return writeArrays(rows, new BufferedOutputStream(Files.newOutputStream(path)));
+    }
+
+    /**
+     * Writes all {@code rows} to a new workbook written to {@code out}, the
+     * stream is closed on completion.
+     *
+     * @param   rows
+     *          Rows to write.
+     * @param   out
+     *          Destination stream.
+     * @return  Number of rows written.
+     *
+     * @throws  IOException
+     *          If the workbook could not be written.
+     */
+    public static long writeArrays(Stream<Object[]> rows, OutputStream out) throws IOException {
+        try (XlsxStreamWriter w = new XlsxStreamWriter(out)) {
+            Iterator<Object[]> it = rows.iterator();
+            while (it.hasNext()) {
+                w.writeRow(it.next());
+            }
+            return w.getRowCount();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * XlsxStreamWriterTest.java    18 October 2026, 23:12
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.excel;
+
+import com.drunkendev.spreadsheet.csv.Csv;
+import com.drunkendev.spreadsheet.csv.CsvLine;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class XlsxStreamWriterTest {
+
+    @Test
+    public void testCellTypes() throws Exception {
+        System.out.println("xlsx - cell types");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = XlsxStreamWriter.write(Stream.of(
+                Csv.split("one,2,true,2014-01-01,2014-01-01T10:44,\"=A2+1\"")), out);
+        assertEquals(1, count);
+
+        XSSFWorkbook wb = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        Row row = wb.getSheetAt(0).getRow(0);
+        assertEquals("one", row.getCell(0).getStringCellValue());
+        assertEquals(2.0, row.getCell(1).getNumericCellValue(), 0);
+        assertEquals(true, row.getCell(2).getBooleanCellValue());
+
+        Cell date = row.getCell(3);
+        assertTrue(DateUtil.isCellDateFormatted(date));
+        assertEquals(41640.0, date.getNumericCellValue(), 0);
+
+        Cell dateTime = row.getCell(4);
+        assertTrue(DateUtil.isCellDateFormatted(dateTime));
+        assertEquals(41640.0 + (10 * 60 + 44) / 1440.0, dateTime.getNumericCellValue(), 1e-9);
+
+        assertEquals(Cell.CELL_TYPE_FORMULA, row.getCell(5).getCellType());
+        assertEquals("A2+1", row.getCell(5).getCellFormula());
+    }
+
+    @Test
+    public void testLeapBugSerials() throws Exception {
+        System.out.println("xlsx - 1900 serials");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XlsxStreamWriter.writeArrays(Stream.<Object[]>of(new Object[]{
+            LocalDate.of(1900, 1, 1),
+            LocalDate.of(1900, 2, 28),
+            LocalDate.of(1900, 3, 1),
+            LocalDateTime.of(1899, 1, 1, 0, 0)
+        }), out);
+
+        XSSFWorkbook wb = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        Row row = wb.getSheetAt(0).getRow(0);
+        assertEquals(1.0, row.getCell(0).getNumericCellValue(), 0);
+        assertEquals(59.0, row.getCell(1).getNumericCellValue(), 0);
+        assertEquals(61.0, row.getCell(2).getNumericCellValue(), 0);
+        assertEquals("1899-01-01", row.getCell(3).getStringCellValue());
+    }
+
+    @Test
+    public void testSheetRollover() throws Exception {
+        System.out.println("xlsx - sheet rollover");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XlsxStreamWriter w = new XlsxStreamWriter(out, 10, 4)) {
+            w.setSheetName("Data");
+            w.setHeader(new Object[]{"id", "name"});
+            IntStream.range(0, 7).forEach(n -> w.writeRow(new CsvLine(new Object[]{(double) n, "row " + n})));
+            assertEquals(7, w.getRowCount());
+            assertEquals(3, w.getSheetCount());
+        }
+
+        XSSFWorkbook wb = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(3, wb.getNumberOfSheets());
+        assertEquals("Data", wb.getSheetName(0));
+        assertEquals("Data 2", wb.getSheetName(1));
+        assertEquals("Data 3", wb.getSheetName(2));
+
+        Sheet s2 = wb.getSheetAt(1);
+        assertEquals("id", s2.getRow(0).getCell(0).getStringCellValue());
+        assertEquals(3.0, s2.getRow(1).getCell(0).getNumericCellValue(), 0);
+        assertEquals(3, s2.getLastRowNum());
+
+        Sheet s3 = wb.getSheetAt(2);
+        assertEquals(1, s3.getLastRowNum());
+        assertEquals("row 6", s3.getRow(1).getCell(1).getStringCellValue());
+    }
+
+}
@@ -18,14 +18,14 @@
 
 package com.drunkendev.spreadsheet.csv;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.text.ParsePosition;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
@@ -33,15 +33,23 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.Temporal;
-import java.util.ArrayList;
+import java.time.temporal.TemporalQuery;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.format.DateTimeFormatter.ISO_TIME;
 import static java.util.stream.Collectors.toList;
 
@@ -49,14 +57,15 @@ import static java.util.stream.Collectors.toList;
 /**
  * Provides static methods for working with CSV documents.
  *
+ * Files and streams read as UTF-8 are decoded by {@link CsvDecoder}, which
+ * removes a UTF-8 or UTF-16 byte order mark and replaces malformed input
+ * with {@code U+FFFD}. Files read with any other charset are decoded by
+ * {@link Files#lines(Path, Charset)}.
+ *
  * @author  Brett Ryan
  */
 public final class Csv {
 
-    private static final int INIT = 1;
-    private static final int ISI_NUMBER = 5;
-    private static final int ISI_STRING = 2;
-    private static final int ISI_STRING_UNQUOTED = 7;
     public static final HashSet<String> DEFAULT_NULL;
 
     static {
@@ -120,6 +129,9 @@ public final class Csv {
         if (bval != null) {
             return bval;
         }
+        if (!matches(formatter, val)) {
+            return val;
+        }
         try {
             return formatter.parseBest(val,
                                        ZonedDateTime::from,
@@ -130,6 +142,37 @@ public final class Csv {
         }
     }
 
+    /**
+     * Tests whether the whole of {@code text} matches the pattern of
+     * {@code formatter}. A mismatch is reported through the parse position
+     * rather than a {@link DateTimeParseException}, so text that is not a
+     * date costs no exception and the throwing parse methods are only
+     * reached by text that will almost always resolve.
+     */
+    static boolean matches(DateTimeFormatter formatter, CharSequence text) {
+        ParsePosition pos = new ParsePosition(0);
+        return formatter.parseUnresolved(text, pos) != null &&
+               pos.getErrorIndex() < 0 &&
+               pos.getIndex() == text.length();
+    }
+
+    /**
+     * Parses {@code text} with {@code formatter}, returning {@code null}
+     * when it is not a valid date rather than throwing, see
+     * {@link #matches(DateTimeFormatter, CharSequence)}.
+     */
+    static <T> T parse(DateTimeFormatter formatter, CharSequence text, TemporalQuery<T> query) {
+        if (!matches(formatter, text)) {
+            return null;
+        }
+        try {
+            return formatter.parse(text, query);
+        } catch (DateTimeParseException ex) {
+            // Matched the pattern with an invalid field such as 30 February.
+            return null;
+        }
+    }
+
     /**
      * Given a string will return many strings separated by the ',' character.
      *
@@ -143,11 +186,28 @@ public final class Csv {
      * @see     #splitToArray(String, boolean, DateTimeFormatter)
      */
     public static Object[] splitToArray(String string) {
-        return splitToArray(string, false, DEFAULT_DATE_TIME);
+        return splitToArray(string, CsvFormat.DEFAULT);
+    }
+
+    /**
+     * Splits {@code string} into cells as described by {@code format}.
+     *
+     * @param   string
+     *          String object to split.
+     * @param   format
+     *          Precompiled format to split with.
+     * @return  An array of cell values.
+     */
+    public static Object[] splitToArray(String string, CsvFormat format) {
+        return CsvParser.split(string, format);
+    }
+
+    public static CsvLine split(String string, CsvFormat format) {
+        return CsvParser.splitLine(string, format);
     }
 
     public static CsvLine split(String string) {
-        return new CsvLine(splitToArray(string));
+        return CsvParser.splitLine(string, CsvFormat.DEFAULT);
     }
 
     /**
@@ -171,7 +231,7 @@ public final class Csv {
     }
 
     public static CsvLine split(String string, boolean numberedText, char delim) {
-        return new CsvLine(splitToArray(string, numberedText, delim));
+        return split(string, numberedText, delim, DEFAULT_DATE_TIME);
     }
 
     /**
@@ -193,7 +253,7 @@ public final class Csv {
     }
 
     public static CsvLine split(String string, boolean numberedText) {
-        return new CsvLine(splitToArray(string, numberedText));
+        return split(string, numberedText, ',');
     }
 
     /**
@@ -217,7 +277,7 @@ public final class Csv {
     }
 
     public static CsvLine split(String string, boolean numberedText, DateTimeFormatter format) {
-        return new CsvLine(splitToArray(string, numberedText, format));
+        return split(string, numberedText, ',', format);
     }
 
     public static Object[] splitToArray(String string,
@@ -235,10 +295,7 @@ public final class Csv {
                                 boolean numberedText,
                                 char delim,
                                 DateTimeFormatter formatter) {
-        return new CsvLine(splitToArray(string,
-                                        numberedText,
-                                        delim,
-                                        formatter));
+        return CsvParser.splitLine(string, CsvFormat.of(numberedText, delim, formatter, DEFAULT_NULL));
     }
 
     /**
@@ -267,178 +324,7 @@ public final class Csv {
                                  DateTimeFormatter formatter,
                                  HashSet<String> nullValues) {
 
-        char currentChar;
-
-        int state = INIT;
-        int len = string.length();
-
-        ArrayList res = new ArrayList();
-
-        int startPos = 0;
-        char quoteChar = '"';
-        String quoteString = "\"";
-        String escapedQuote = "\"\"";
-
-        StringBuilder priorLines = new StringBuilder();
-
-        boolean func = false;
-        for (int i = 0; i < len; i++) {
-            currentChar = string.charAt(i);
-            switch (state) {
-                case INIT:
-                    priorLines.setLength(0);
-                    startPos = i;
-                    func = false;
-                    if (currentChar == delim) {
-                        if (i == 0 || string.charAt(i - 1) == delim) {
-                            res.add(null);
-                        }
-                        // If last character is a comma there is a final null value.
-                        if (i == len - 1) {
-                            res.add(null);
-                        }
-                        break;
-                    } else {
-                        switch (currentChar) {
-                            case '"':
-                            case '\'':
-                                state = ISI_STRING;
-                                startPos++;
-                                quoteChar = currentChar;
-                                quoteString = new String(new char[]{currentChar});
-                                escapedQuote = new String(new char[]{currentChar, currentChar});
-                                break;
-                            case '=':
-                                state = ISI_STRING_UNQUOTED;
-                                func = true;
-                                break;
-                            case '-':
-                            case '.':
-                                state = ISI_NUMBER;
-                                break;
-                            default:
-                                if (Character.isWhitespace(currentChar)) {
-                                } else if (Character.isDigit(currentChar)) {
-                                    state = ISI_NUMBER;
-                                    startPos = i;
-                                } else {
-                                    state = ISI_STRING_UNQUOTED;
-                                }
-                                break;
-                        }
-                    }
-
-                    if (i < len - 1 &&
-                        (state == ISI_STRING ||
-                         state == ISI_STRING_UNQUOTED)) {
-                        for (int x = i + 1; x < len; x++) {
-                            if (string.charAt(x) == '=') {
-                                func = true;
-                                i = x;
-                                break;
-                            } else if (string.charAt(x) != ' ') {
-                                break;
-                            }
-                        }
-                    }
-                    break;
-
-                case ISI_STRING_UNQUOTED:
-                    if (currentChar == delim || i == len - 1) {
-                        String v = startPos == i
-                                ? null
-                                : string.substring(startPos, i < len - 1 ? i : i + 1);
-                        if (v == null || (nullValues != null && nullValues.contains(v))) {
-                            res.add(null);
-                        } else {
-                            res.add(func ? new FormulaValue(v) : getTypedValue(v, formatter));
-                        }
-                        state = INIT;
-                    }
-                    break;
-
-                case ISI_STRING:
-                    if (currentChar == quoteChar) {
-                        // is next char also a quote?
-                        if (i + 1 < len && string.charAt(i + 1) == quoteChar) {
-                            i++;
-                            break;
-                        }
-
-                        String v = priorLines.toString() + string.substring(startPos, i).replace(escapedQuote, quoteString);
-
-                        if (func) {
-                            res.add(new FormulaValue(v));
-                        } else if (numberedText) {
-                            addDoubleOrString(res, v);
-                        } else {
-                            res.add(v);
-                        }
-                        state = INIT;
-                    } else if (i == len - 1) {
-                        // new line character
-                        priorLines.append(string.substring(startPos).replace(escapedQuote, quoteString))
-                                .append(System.lineSeparator());
-                    }
-                    break;
-
-                case ISI_NUMBER:
-                    if (currentChar == delim) {
-                        String n = string.substring(startPos, i).trim();
-                        addDoubleOrString(res, n);
-                        state = INIT;
-                    } else if (i == len - 1) {
-                        String n = string.substring(startPos, i + 1).trim();
-                        addDoubleOrString(res, n);
-                        state = INIT;
-                    } else if (!Character.isDigit(currentChar) &&
-                               !Character.isWhitespace(currentChar) &&
-                               currentChar != '.') {
-                        state = ISI_STRING_UNQUOTED;
-                    }
-                    break;
-
-                default:
-                    break;
-            }
-        }
-
-        switch (state) {
-            case ISI_STRING_UNQUOTED:
-                String n = new Character(string.charAt(startPos)).toString();
-                if (nullValues != null && nullValues.contains(n)) {
-                    res.add(null);
-                } else {
-                    res.add(getTypedValue(n, formatter));
-                }
-                priorLines.setLength(0);
-                break;
-            case ISI_NUMBER:
-                addDoubleOrString(res, new Character(string.charAt(startPos)).toString());
-                break;
-            default:
-                break;
-        }
-        if (priorLines.length() > 0) {
-            res.add(priorLines.toString());
-        }
-        return res.toArray();
-    }
-
-    /**
-     * Will attempt to convert the provided {@code val} value to a {@see Double} and add it to {@code list}.
-     *
-     * @param   list
-     *          List to add value to.
-     * @param   val
-     *          Value to add.
-     */
-    private static void addDoubleOrString(List<Object> list, String val) {
-        try {
-            list.add(Double.valueOf(val));
-        } catch (NumberFormatException nfe) {
-            list.add(val);
-        }
+        return CsvParser.split(string, CsvFormat.of(numberedText, delim, formatter, nullValues));
     }
 
     /**
@@ -460,23 +346,319 @@ public final class Csv {
      * @see     #linesArray(Path, Charset, boolean, DateTimeFormatter)
      */
     public static Stream<Object[]> linesArray(Path path) throws IOException {
-        return Files.lines(path).map(n -> splitToArray(n, false));
+        return linesArray(path, UTF_8, CsvFormat.DEFAULT);
     }
 
     public static Stream<CsvLine> lines(Path path) throws IOException {
-        return linesArray(path).map(n -> new CsvLine(n));
+        return lines(path, UTF_8, CsvFormat.DEFAULT);
     }
 
     public static Stream<Object[]> linesArray(InputStream stream) throws IOException {
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(stream))) {
-            return br.lines().map(n -> splitToArray(n, false));
-        }
+        return decoded(new CsvDecoder(stream, true), n -> CsvParser.split(n, CsvFormat.DEFAULT));
     }
 
     public static Stream<CsvLine> lines(InputStream stream) throws IOException {
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(stream))) {
-            return br.lines().map(n -> new CsvLine(splitToArray(n, false)));
+        return lines(stream, CsvFormat.DEFAULT);
+    }
+
+    /**
+     * Produces a {@link Stream} for the given {@code stream} decoded as UTF-8.
+     * Malformed input is replaced with {@code U+FFFD}. The input stream is
+     * closed when the returned stream is closed.
+     *
+     * @param   stream
+     *          Stream to read.
+     * @param   format
+     *          Format of the content.
+     * @return  {@link Stream} of {@link CsvLine} for each row.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs opening the stream
+     */
+    public static Stream<CsvLine> lines(InputStream stream, CsvFormat format) throws IOException {
+        return decoded(new CsvDecoder(stream, true), n -> CsvParser.splitLine(n, format));
+    }
+
+    /**
+     * Produces a {@link Stream} for the given {@code stream} decoded as UTF-8.
+     * When {@code header} is set the first line is parsed once into a
+     * {@link CsvHeader} which every following row shares, so cells may be
+     * read by name, and is not itself returned. Malformed input is replaced
+     * with {@code U+FFFD}. The input stream is closed when the returned
+     * stream is closed.
+     *
+     * @param   stream
+     *          Stream to read.
+     * @param   format
+     *          Format of the content.
+     * @param   header
+     *          Whether the first line names the columns.
+     * @return  {@link Stream} of {@link CsvLine} for each row.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs reading the header
+     */
+    public static Stream<CsvLine> lines(InputStream stream, CsvFormat format, boolean header) throws IOException {
+        CsvDecoder decoder = new CsvDecoder(stream, true);
+        if (!header) {
+            return decoded(decoder, n -> CsvParser.splitLine(n, format));
+        }
+        CsvHeader names;
+        try {
+            names = header(decoder, format);
+        } catch (IOException | RuntimeException ex) {
+            decoder.close();
+            throw ex;
+        }
+        return decoded(decoder, n -> CsvParser.splitLine(n, format, names));
+    }
+
+    /**
+     * Reads the first line as a header.
+     */
+    private static CsvHeader header(CsvDecoder decoder, CsvFormat format) throws IOException {
+        CsvDecoder.Line line = new CsvDecoder.Line();
+        return decoder.readLine(line) ? CsvHeader.parse(line, format) : CsvHeader.of();
+    }
+
+    /**
+     * Stream of records of {@code path}, read with the decoding fast path
+     * when {@code charset} is UTF-8.
+     */
+    private static <T> Stream<T> decoded(Path path,
+                                         Charset charset,
+                                         Function<CharSequence, T> parser) throws IOException {
+        if (UTF_8.equals(charset)) {
+            return decoded(new CsvDecoder(Files.newInputStream(path), true), parser);
         }
+        return Files.lines(path, charset).map(parser);
+    }
+
+    /**
+     * Stream of records read with the decoding fast path, see
+     * {@link CsvDecoder}. Each record is parsed from the reused line buffer.
+     */
+    private static <T> Stream<T> decoded(CsvDecoder decoder, Function<CharSequence, T> parser) {
+        CsvDecoder.Line line = new CsvDecoder.Line();
+        Spliterator<T> s = new Spliterators.AbstractSpliterator<T>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!decoder.readLine(line)) {
+                        return false;
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                action.accept(parser.apply(line));
+                return true;
+            }
+        };
+        return StreamSupport.stream(s, false).onClose(() -> {
+            try {
+                decoder.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Produces a {@link Stream} for the given {@code stream} decoded as
+     * UTF-8, passing malformed records to {@code errors} instead of failing.
+     * The input stream is closed when the returned stream is closed.
+     *
+     * Records with malformed UTF-8, an unterminated quote or a cell count
+     * differing from the first record are reported and skipped, see
+     * {@link CsvError.Kind}. No exception is created for a malformed record.
+     *
+     * @param   stream
+     *          Stream to read.
+     * @param   format
+     *          Format of the content.
+     * @param   errors
+     *          Receives each malformed record.
+     * @return  {@link Stream} of {@link CsvLine} for each well formed row.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs opening the stream
+     */
+    public static Stream<CsvLine> lines(InputStream stream, CsvFormat format, Consumer<? super CsvError> errors) throws IOException {
+        return lenient(new CsvLenientReader(stream, format, null, errors));
+    }
+
+    /**
+     * Stream of well formed records of a lenient reader.
+     */
+    private static Stream<CsvLine> lenient(CsvLenientReader reader) {
+        Spliterator<CsvLine> s = new Spliterators.AbstractSpliterator<CsvLine>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super CsvLine> action) {
+                CsvLine n;
+                try {
+                    n = reader.next();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                if (n == null) {
+                    return false;
+                }
+                action.accept(n);
+                return true;
+            }
+        };
+        return StreamSupport.stream(s, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private static CsvFormat legacy(boolean numberedText, DateTimeFormatter formatter) {
+        return CsvFormat.of(numberedText, ',', formatter, DEFAULT_NULL);
+    }
+
+    /**
+     * Produces a {@link Stream} for the given {@code path} decoded as UTF-8.
+     *
+     * @param   path
+     *          the path to the file
+     * @param   format
+     *          Format of the file.
+     * @return  {@link Stream} of {@link Object} array representing each row/cell.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs opening the file
+     */
+    public static Stream<Object[]> linesArray(Path path, CsvFormat format) throws IOException {
+        return linesArray(path, UTF_8, format);
+    }
+
+    /**
+     * Produces a {@link Stream} for the given {@code path}.
+     *
+     * UTF-8 files are read through {@link CsvDecoder} which removes a byte
+     * order mark and decodes records without an intermediate line string.
+     *
+     * @param   path
+     *          the path to the file
+     * @param   charset
+     *          the charset to use for decoding
+     * @param   format
+     *          Format of the file.
+     * @return  {@link Stream} of {@link Object} array representing each row/cell.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs opening the file
+     */
+    public static Stream<Object[]> linesArray(Path path, Charset charset, CsvFormat format) throws IOException {
+        return decoded(path, charset, n -> CsvParser.split(n, format));
+    }
+
+    public static Stream<CsvLine> lines(Path path, CsvFormat format) throws IOException {
+        return lines(path, UTF_8, format);
+    }
+
+    /**
+     * Produces a {@link Stream} for the given {@code path} decoded as UTF-8,
+     * see {@link #lines(InputStream, CsvFormat, boolean)}.
+     *
+     * @param   path
+     *          the path to the file
+     * @param   format
+     *          Format of the file.
+     * @param   header
+     *          Whether the first line names the columns.
+     * @return  {@link Stream} of {@link CsvLine} for each row.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs opening the file
+     */
+    public static Stream<CsvLine> lines(Path path, CsvFormat format, boolean header) throws IOException {
+        return lines(Files.newInputStream(path), format, header);
+    }
+
+    /**
+     * Produces a {@link Stream} for the given {@code path} decoded as UTF-8,
+     * passing malformed records to {@code errors} instead of failing.
+     *
+     * Records with malformed UTF-8, an unterminated quote or a cell count
+     * differing from the first record are reported and skipped, see
+     * {@link CsvError.Kind}. No exception is created for a malformed record.
+     *
+     * @param   path
+     *          the path to the file
+     * @param   format
+     *          Format of the file.
+     * @param   errors
+     *          Receives each malformed record.
+     * @return  {@link Stream} of {@link CsvLine} for each well formed row.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs opening the file
+     */
+    public static Stream<CsvLine> lines(Path path, CsvFormat format, Consumer<? super CsvError> errors) throws IOException {
+        return lines(Files.newInputStream(path), format, errors);
+    }
+
+    public static Stream<CsvLine> lines(Path path, Charset charset, CsvFormat format) throws IOException {
+        return decoded(path, charset, n -> CsvParser.splitLine(n, format));
+    }
+
+    /**
+     * Produces a {@link Stream} of data rows for the given {@code path}
+     * decoded with the schema's {@link CsvSchema#getCharset() charset},
+     * converting cells with a fixed {@code schema}. Any header row described
+     * by the schema is skipped. As with {@link #lines(Path, CsvFormat)},
+     * empty lines are returned as rows.
+     *
+     * @param   path
+     *          the path to the file
+     * @param   schema
+     *          Schema of the file, see {@link CsvSniffer}.
+     * @return  {@link Stream} of {@link Object} array representing each row/cell.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs opening the file
+     */
+    public static Stream<Object[]> linesArray(Path path, CsvSchema schema) throws IOException {
+        CsvFormat raw = schema.getRawFormat();
+        Stream<Object[]> rows = decoded(path, schema.getCharset(), n -> schema.convert(CsvParser.split(n, raw), null));
+        return schema.hasHeader() ? rows.skip(1) : rows;
+    }
+
+    public static Stream<CsvLine> lines(Path path, CsvSchema schema) throws IOException {
+        return linesArray(path, schema).map(n -> new CsvLine(n));
+    }
+
+    /**
+     * Produces a {@link Stream} of data rows for the given {@code path}
+     * decoded as UTF-8, whatever the schema's charset, converting cells with
+     * a fixed {@code schema} and passing malformed records to {@code errors}
+     * instead of failing. Empty lines are skipped rather than reported.
+     *
+     * Records with malformed UTF-8, an unterminated quote or a cell count
+     * differing from the schema are reported and skipped. Cells violating
+     * their column type are reported and inferred as without a schema, see
+     * {@link CsvError.Kind}.
+     *
+     * @param   path
+     *          the path to the file
+     * @param   schema
+     *          Schema of the file, see {@link CsvSniffer}.
+     * @param   errors
+     *          Receives each malformed record and cell.
+     * @return  {@link Stream} of {@link CsvLine} for each well formed row.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs opening the file
+     */
+    public static Stream<CsvLine> lines(Path path, CsvSchema schema, Consumer<? super CsvError> errors) throws IOException {
+        return lenient(new CsvLenientReader(Files.newInputStream(path), null, schema, errors));
     }
 
     /**
@@ -500,11 +682,11 @@ public final class Csv {
      * @see     #linesArray(Path, Charset, boolean, DateTimeFormatter)
      */
     public static Stream<Object[]> linesArray(Path path, Charset charset) throws IOException {
-        return Files.lines(path, charset).map(n -> splitToArray(n, false));
+        return linesArray(path, charset, CsvFormat.DEFAULT);
     }
 
     public static Stream<CsvLine> lines(Path path, Charset charset) throws IOException {
-        return linesArray(path, charset).map(n -> new CsvLine(n));
+        return lines(path, charset, CsvFormat.DEFAULT);
     }
 
     /**
@@ -528,11 +710,11 @@ public final class Csv {
      * @see     #linesArray(Path, Charset, boolean, DateTimeFormatter)
      */
     public static Stream<Object[]> linesArray(Path path, boolean numberedText) throws IOException {
-        return Files.lines(path).map(n -> splitToArray(n, numberedText));
+        return linesArray(path, UTF_8, legacy(numberedText, DEFAULT_DATE_TIME));
     }
 
     public static Stream<CsvLine> lines(Path path, boolean numberedText) throws IOException {
-        return linesArray(path, numberedText).map(n -> new CsvLine(n));
+        return lines(path, UTF_8, legacy(numberedText, DEFAULT_DATE_TIME));
     }
 
     /**
@@ -558,11 +740,11 @@ public final class Csv {
      * @see     #linesArray(Path, Charset, boolean, DateTimeFormatter)
      */
     public static Stream<Object[]> linesArray(Path path, Charset charset, boolean numberedText) throws IOException {
-        return Files.lines(path, charset).map(n -> splitToArray(n, numberedText));
+        return linesArray(path, charset, legacy(numberedText, DEFAULT_DATE_TIME));
     }
 
     public static Stream<CsvLine> lines(Path path, Charset charset, boolean numberedText) throws IOException {
-        return linesArray(path, charset, numberedText).map(n -> new CsvLine(n));
+        return lines(path, charset, legacy(numberedText, DEFAULT_DATE_TIME));
     }
 
     /**
@@ -587,11 +769,11 @@ public final class Csv {
      * @see     #linesArray(Path, Charset, boolean, DateTimeFormatter)
      */
     public static Stream<Object[]> linesArray(Path path, DateTimeFormatter format) throws IOException {
-        return Files.lines(path).map(n -> splitToArray(n, false, format));
+        return linesArray(path, UTF_8, legacy(false, format));
     }
 
     public static Stream<CsvLine> lines(Path path, DateTimeFormatter format) throws IOException {
-        return linesArray(path, format).map(n -> new CsvLine(n));
+        return lines(path, UTF_8, legacy(false, format));
     }
 
     /**
@@ -618,11 +800,11 @@ public final class Csv {
      * @see     #linesArray(Path, Charset, boolean, DateTimeFormatter)
      */
     public static Stream<Object[]> linesArray(Path path, Charset charset, DateTimeFormatter format) throws IOException {
-        return Files.lines(path, charset).map(n -> splitToArray(n, false, format));
+        return linesArray(path, charset, legacy(false, format));
     }
 
     public static Stream<CsvLine> lines(Path path, Charset charset, DateTimeFormatter format) throws IOException {
-        return linesArray(path, charset, format).map(n -> new CsvLine(n));
+        return lines(path, charset, legacy(false, format));
     }
 
     /**
@@ -649,11 +831,11 @@ public final class Csv {
      * @see     #linesArray(Path, Charset, boolean, DateTimeFormatter)
      */
     public static Stream<Object[]> linesArray(Path path, boolean numberedText, DateTimeFormatter format) throws IOException {
-        return Files.lines(path).map(n -> splitToArray(n, numberedText, format));
+        return linesArray(path, UTF_8, legacy(numberedText, format));
     }
 
     public static Stream<CsvLine> lines(Path path, boolean numberedText, DateTimeFormatter format) throws IOException {
-        return linesArray(path, numberedText, format).map(n -> new CsvLine(n));
+        return lines(path, UTF_8, legacy(numberedText, format));
     }
 
     /**
@@ -682,11 +864,11 @@ public final class Csv {
      * @see     #linesArray(Path, boolean, DateTimeFormatter)
      */
     public static Stream<Object[]> linesArray(Path path, Charset charset, boolean numberedText, DateTimeFormatter format) throws IOException {
-        return Files.lines(path, charset).map(n -> splitToArray(n, numberedText, format));
+        return linesArray(path, charset, legacy(numberedText, format));
     }
 
     public static Stream<CsvLine> lines(Path path, Charset charset, boolean numberedText, DateTimeFormatter format) throws IOException {
-        return linesArray(path, charset, numberedText, format).map(n -> new CsvLine(n));
+        return lines(path, charset, legacy(numberedText, format));
     }
 
     /**
@@ -733,4 +915,161 @@ public final class Csv {
         return lines(file.toPath(), numberedText, format).collect(toList());
     }
 
+    /**
+     * Load files contents with the given {@link java.io.File File}.
+     *
+     * @param   file
+     *          {@link File} to be loaded.
+     * @param   format
+     *          Format of the file.
+     *
+     * @return  {@link List} of {@link Object} array representing each row/cell.
+     *
+     * @throws  IOException
+     *          If there was a problem reading the source file.
+     */
+    public static List<Object[]> load(File file, CsvFormat format) throws IOException {
+        try (Stream<Object[]> s = linesArray(file.toPath(), format)) {
+            return s.collect(toList());
+        }
+    }
+
+    public static List<CsvLine> loadLines(File file, CsvFormat format) throws IOException {
+        try (Stream<CsvLine> s = lines(file.toPath(), format)) {
+            return s.collect(toList());
+        }
+    }
+
+    /**
+     * Produces a {@link Stream} of column oriented batches of up to
+     * {@code batchSize} rows for the given {@code path} decoded as UTF-8.
+     *
+     * Batches passed back with {@link CsvBatch#recycle()} are refilled
+     * rather than allocating new ones, so a consumer that recycles each batch
+     * before requesting the next parses the whole file with a single batch.
+     *
+     * @param   path
+     *          the path to the file
+     * @param   format
+     *          Format of the file.
+     * @param   batchSize
+     *          Maximum rows per batch.
+     * @return  {@link Stream} of batches which must be closed.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs opening the file
+     * @throws  IllegalArgumentException
+     *          if {@code batchSize} is not positive, checked before the
+     *          file is opened
+     */
+    public static Stream<CsvBatch> batches(Path path, CsvFormat format, int batchSize) throws IOException {
+        checkBatchSize(batchSize);
+        return batches(new CsvDecoder(Files.newInputStream(path), true), format, batchSize);
+    }
+
+    /**
+     * Produces a {@link Stream} of column oriented batches of up to
+     * {@code batchSize} rows for the given {@code stream} decoded as UTF-8.
+     * Malformed input is replaced with {@code U+FFFD}. The input stream is
+     * closed when the returned stream is closed.
+     *
+     * Batches passed back with {@link CsvBatch#recycle()} are refilled
+     * rather than allocating new ones, as for
+     * {@link #batches(Path, CsvFormat, int)}.
+     *
+     * @param   stream
+     *          Stream to read.
+     * @param   format
+     *          Format of the content.
+     * @param   batchSize
+     *          Maximum rows per batch.
+     * @return  {@link Stream} of batches which must be closed.
+     *
+     * @throws  IllegalArgumentException
+     *          if {@code batchSize} is not positive
+     */
+    public static Stream<CsvBatch> batches(InputStream stream, CsvFormat format, int batchSize) {
+        checkBatchSize(batchSize);
+        return batches(new CsvDecoder(stream, true), format, batchSize);
+    }
+
+    /**
+     * Passes batches of up to {@code batchSize} rows of {@code path} to
+     * {@code action}. A single batch is reused, it is only valid until
+     * {@code action} returns.
+     *
+     * @param   path
+     *          the path to the file
+     * @param   format
+     *          Format of the file.
+     * @param   batchSize
+     *          Maximum rows per batch.
+     * @param   action
+     *          Action performed for each batch.
+     *
+     * @throws  IOException
+     *          if an I/O error occurs reading the file
+     */
+    public static void forEachBatch(Path path,
+                                    CsvFormat format,
+                                    int batchSize,
+                                    Consumer<? super CsvBatch> action) throws IOException {
+        CsvBatch batch = new CsvBatch(batchSize);
+        CsvDecoder.Line line = new CsvDecoder.Line();
+        try (CsvDecoder dec = new CsvDecoder(Files.newInputStream(path), true)) {
+            while (fill(dec, line, format, batch)) {
+                action.accept(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Validates a batch size before any file is opened.
+     */
+    private static void checkBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+    }
+
+    private static Stream<CsvBatch> batches(CsvDecoder dec, CsvFormat format, int batchSize) {
+        Queue<CsvBatch> pool = new ConcurrentLinkedQueue<>();
+        CsvDecoder.Line line = new CsvDecoder.Line();
+        Spliterator<CsvBatch> s = new Spliterators.AbstractSpliterator<CsvBatch>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super CsvBatch> action) {
+                CsvBatch batch = pool.poll();
+                if (batch == null) {
+                    batch = new CsvBatch(batchSize, pool);
+                }
+                try {
+                    if (!fill(dec, line, format, batch)) {
+                        batch.recycle();
+                        return false;
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                action.accept(batch);
+                return true;
+            }
+        };
+        return StreamSupport.stream(s, false).onClose(() -> {
+            try {
+                dec.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private static boolean fill(CsvDecoder dec, CsvDecoder.Line line, CsvFormat format, CsvBatch batch) throws IOException {
+        while (!batch.isFull() && dec.readLine(line)) {
+            CsvParser.splitInto(line, format, batch);
+        }
+        return batch.size() > 0;
+    }
+
 }
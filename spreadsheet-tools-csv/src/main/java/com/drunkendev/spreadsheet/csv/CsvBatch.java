@@ -0,0 +1,349 @@
+/*
+ * CsvBatch.java    20 October 2026, 09:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.util.Arrays;
+import java.util.Queue;
+
+
+/**
+ * A block of rows stored by column.
+ *
+ * Each column holds a type tag, a primitive slot and a lazily created
+ * reference slot per row, the same layout as {@link CsvLine} turned on its
+ * side. The parser writes cells straight into the column arrays, and the
+ * arrays are kept when the batch is {@link #clear() cleared} so a recycled
+ * batch parses further rows without allocating containers.
+ *
+ * Batches obtained from {@link Csv#batches(java.nio.file.Path, CsvFormat, int)}
+ * should be handed back with {@link #recycle()} once consumed, the stream
+ * reuses recycled batches and only allocates new ones when none are free.
+ * A batch must not be used after it is recycled.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvBatch {
+
+    private static final byte[][] NO_TAGS = new byte[0][];
+    private static final long[][] NO_VALUES = new long[0][];
+    private static final Object[][] NO_REFS = new Object[0][];
+
+    private final int capacity;
+    private final Queue<CsvBatch> pool;
+    private final Cursor cursor = new Cursor();
+
+    private byte[][] tags = NO_TAGS;
+    private long[][] values = NO_VALUES;
+    private Object[][] refs = NO_REFS;
+    private final int[] widths;
+    private int columns;
+    private int size;
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param   capacity
+     *          Maximum rows held.
+     * @throws  IllegalArgumentException
+     *          If {@code capacity} is not positive.
+     */
+    public CsvBatch(int capacity) {
+        this(capacity, null);
+    }
+
+    CsvBatch(int capacity, Queue<CsvBatch> pool) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.pool = pool;
+        this.widths = new int[capacity];
+    }
+
+    /**
+     * Number of rows held.
+     *
+     * @return  Row count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Maximum number of rows held.
+     *
+     * @return  Capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Tests if no more rows may be added.
+     *
+     * @return  True if full.
+     */
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Number of columns of the widest row.
+     *
+     * @return  Column count.
+     */
+    public int getColumnCount() {
+        return columns;
+    }
+
+    /**
+     * Number of cells of a row.
+     *
+     * @param   row
+     *          Row index.
+     * @return  Cell count.
+     */
+    public int getWidth(int row) {
+        check(row);
+        return widths[row];
+    }
+
+    private void check(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+    }
+
+    byte tag(int row, int col) {
+        return col < 0 || col >= widths[row] ? CsvLine.T_NULL : tags[col][row];
+    }
+
+    /**
+     * Tests if a cell is empty or does not exist.
+     *
+     * @param   row
+     *          Row index.
+     * @param   col
+     *          Column index.
+     * @return  True if the cell has no value.
+     */
+    public boolean isNull(int row, int col) {
+        check(row);
+        return tag(row, col) == CsvLine.T_NULL;
+    }
+
+    /**
+     * Tests if a cell was parsed as a number.
+     *
+     * @param   row
+     *          Row index.
+     * @param   col
+     *          Column index.
+     * @return  True if the cell holds a number.
+     */
+    public boolean isNumber(int row, int col) {
+        check(row);
+        return tag(row, col) == CsvLine.T_NUMBER;
+    }
+
+    /**
+     * Numeric value of a cell, read straight from the column slot when the
+     * cell was parsed as a number.
+     *
+     * @param   row
+     *          Row index.
+     * @param   col
+     *          Column index.
+     * @param   def
+     *          Value when the cell is empty or not numeric.
+     * @return  Cell value.
+     * @see     CsvLine#getDouble(int, double)
+     */
+    public double getDouble(int row, int col, double def) {
+        check(row);
+        if (tag(row, col) == CsvLine.T_NUMBER) {
+            return Double.longBitsToDouble(values[col][row]);
+        }
+        return cursor.at(row).getDouble(col, def);
+    }
+
+    /**
+     * Typed value of a cell as it was parsed.
+     *
+     * @param   row
+     *          Row index.
+     * @param   col
+     *          Column index.
+     * @return  Cell value or {@code null}.
+     */
+    public Object getObject(int row, int col) {
+        check(row);
+        return cursor.at(row).getObject(col);
+    }
+
+    /**
+     * A view of a row supporting all {@link CsvLine} getters. The same view
+     * is returned for every call, it is only valid until the next call and
+     * until the batch is cleared.
+     *
+     * @param   row
+     *          Row index.
+     * @return  Shared row view.
+     */
+    public CsvLine getLine(int row) {
+        check(row);
+        return cursor.at(row);
+    }
+
+    /**
+     * An independent copy of a row which remains valid after the batch is
+     * reused.
+     *
+     * @param   row
+     *          Row index.
+     * @return  New line.
+     */
+    public CsvLine copyLine(int row) {
+        check(row);
+        int n = widths[row];
+        byte[] t = new byte[n];
+        long[] v = new long[n];
+        Object[] r = null;
+        for (int c = 0; c < n; c++) {
+            t[c] = tags[c][row];
+            v[c] = values[c][row];
+            if (t[c] == CsvLine.T_OBJECT) {
+                if (r == null) {
+                    r = new Object[n];
+                }
+                r[c] = refs[c][row];
+            }
+        }
+        return new CsvLine(t, v, r);
+    }
+
+    /**
+     * Removes all rows keeping the column arrays for reuse.
+     */
+    public void clear() {
+        for (Object[] r : refs) {
+            if (r != null) {
+                Arrays.fill(r, 0, size, null);
+            }
+        }
+        size = 0;
+        columns = 0;
+    }
+
+    /**
+     * Clears the batch and returns it to the stream it came from. Has the
+     * same effect as {@link #clear()} for a batch created directly.
+     */
+    public void recycle() {
+        clear();
+        if (pool != null) {
+            pool.offer(this);
+        }
+    }
+
+    /**
+     * Starts a new row, the parser then calls {@link #set(int, byte, long)}
+     * or {@link #set(int, Object)} for each cell in order and
+     * {@link #endRow(int)}.
+     */
+    void startRow() {
+        if (size == capacity) {
+            throw new IllegalStateException("Batch is full");
+        }
+    }
+
+    void set(int col, byte tag, long value) {
+        column(col);
+        tags[col][size] = tag;
+        values[col][size] = value;
+    }
+
+    void set(int col, Object ref) {
+        column(col);
+        if (refs[col] == null) {
+            refs[col] = new Object[capacity];
+        }
+        tags[col][size] = CsvLine.T_OBJECT;
+        refs[col][size] = ref;
+    }
+
+    void endRow(int width) {
+        widths[size++] = width;
+    }
+
+    private void column(int col) {
+        if (col < columns) {
+            return;
+        }
+        if (col >= tags.length) {
+            int n = Math.max(col + 1, tags.length * 2);
+            tags = Arrays.copyOf(tags, n);
+            values = Arrays.copyOf(values, n);
+            refs = Arrays.copyOf(refs, n);
+        }
+        while (columns <= col) {
+            if (tags[columns] == null) {
+                tags[columns] = new byte[capacity];
+                values[columns] = new long[capacity];
+            }
+            columns++;
+        }
+    }
+
+
+    /**
+     * Reused view of one row.
+     */
+    private final class Cursor extends CsvLine {
+
+        private int row;
+
+        Cursor at(int row) {
+            this.row = row;
+            return this;
+        }
+
+        @Override
+        public int size() {
+            return widths[row];
+        }
+
+        @Override
+        byte tag(int idx) {
+            return CsvBatch.this.tag(row, idx);
+        }
+
+        @Override
+        long bits(int idx) {
+            return values[idx][row];
+        }
+
+        @Override
+        Object ref(int idx) {
+            return refs[idx][row];
+        }
+
+    }
+
+}
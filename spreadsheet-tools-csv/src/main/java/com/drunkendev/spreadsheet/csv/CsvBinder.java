@@ -0,0 +1,711 @@
+/*
+ * CsvBinder.java    19 October 2026, 18:35
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+
+/**
+ * Binds {@link CsvLine} rows to instances of a class.
+ *
+ * The target class is inspected once, the result being shared by all
+ * binders for that class. Properties are resolved to {@link MethodHandle}s
+ * for the constructor, setters and fields, and each header column is
+ * matched to a property with a converter chosen for the property type when
+ * the binder is created, so binding a row performs no reflection or lookup.
+ *
+ * Classes are bound in one of three ways:
+ *
+ *  <ul>
+ *      <li>Records, through their canonical constructor.</li>
+ *      <li>Classes with a no argument constructor, through public setters
+ *          and non-final instance fields.</li>
+ *      <li>Otherwise through the constructor with the most parameters whose
+ *          names are known, either from {@link CsvColumn} or by compiling
+ *          with {@code -parameters}.</li>
+ *  </ul>
+ *
+ * Header names are matched to properties ignoring case and any characters
+ * other than letters and digits, so {@code "First Name"} binds to
+ * {@code firstName}. {@link CsvColumn} may be used to give a property an
+ * explicit name. Columns without a property are ignored and properties
+ * without a column are left at their default value.
+ *
+ * Rows are best read without type inference: each property is then
+ * converted from the cell's text, so a {@link BigDecimal} keeps every digit
+ * the file had. {@link #bind(Path, CsvFormat, Class)} reads a file this way.
+ *
+ * Binders are immutable and may be shared between threads.
+ *
+ * @param   <T>
+ *          Type of object bound.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvBinder<T> implements Function<CsvLine, T> {
+
+    private static final ClassValue<Model> MODELS = new ClassValue<Model>() {
+        @Override
+        protected Model computeValue(Class<?> type) {
+            return Model.create(type);
+        }
+    };
+
+    private static final Map<Class<?>, Object> DEFAULTS = new HashMap<>();
+
+    static {
+        DEFAULTS.put(int.class, 0);
+        DEFAULTS.put(long.class, 0L);
+        DEFAULTS.put(double.class, 0d);
+        DEFAULTS.put(float.class, 0f);
+        DEFAULTS.put(short.class, (short) 0);
+        DEFAULTS.put(byte.class, (byte) 0);
+        DEFAULTS.put(char.class, '\0');
+        DEFAULTS.put(boolean.class, false);
+    }
+
+    private static final int K_REF = 0;
+    private static final int K_INT = 1;
+    private static final int K_LONG = 2;
+    private static final int K_DOUBLE = 3;
+    private static final int K_BOOLEAN = 4;
+
+    private final Class<T> type;
+    private final Model model;
+    private final Property[] properties;
+    private final int[] columns;
+
+    private CsvBinder(Class<T> type, Model model, Property[] properties, int[] columns) {
+        this.type = type;
+        this.model = model;
+        this.properties = properties;
+        this.columns = columns;
+    }
+
+    /**
+     * Creates a binder mapping columns by position to the properties of
+     * {@code type} in declaration order.
+     *
+     * @param   <T>
+     *          Type of object bound.
+     * @param   type
+     *          Class to bind.
+     * @return  Binder for {@code type}.
+     * @throws  IllegalArgumentException
+     *          If {@code type} can not be bound.
+     */
+    public static <T> CsvBinder<T> of(Class<T> type) {
+        Model m = MODELS.get(type);
+        int[] columns = new int[m.properties.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = i;
+        }
+        return new CsvBinder<>(type, m, m.properties, columns);
+    }
+
+    /**
+     * Creates a binder mapping columns by header name.
+     *
+     * @param   <T>
+     *          Type of object bound.
+     * @param   type
+     *          Class to bind.
+     * @param   header
+     *          Header column names.
+     * @return  Binder for {@code type}.
+     * @throws  IllegalArgumentException
+     *          If {@code type} can not be bound.
+     */
+    public static <T> CsvBinder<T> of(Class<T> type, List<String> header) {
+        Model m = MODELS.get(type);
+        List<Property> props = new ArrayList<>();
+        List<Integer> cols = new ArrayList<>();
+        boolean[] bound = new boolean[m.properties.length];
+        for (int c = 0; c < header.size(); c++) {
+            if (header.get(c) == null) {
+                continue;
+            }
+            String key = key(header.get(c));
+            for (int p = 0; p < m.properties.length; p++) {
+                if (!bound[p] && m.properties[p].key.equals(key)) {
+                    bound[p] = true;
+                    props.add(m.properties[p]);
+                    cols.add(c);
+                    break;
+                }
+            }
+        }
+        int[] columns = new int[cols.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = cols.get(i);
+        }
+        return new CsvBinder<>(type, m, props.toArray(new Property[props.size()]), columns);
+    }
+
+    /**
+     * Creates a binder mapping columns by header name.
+     *
+     * @param   <T>
+     *          Type of object bound.
+     * @param   type
+     *          Class to bind.
+     * @param   header
+     *          Header column names.
+     * @return  Binder for {@code type}.
+     * @throws  IllegalArgumentException
+     *          If {@code type} can not be bound.
+     */
+    public static <T> CsvBinder<T> of(Class<T> type, String... header) {
+        return of(type, Arrays.asList(header));
+    }
+
+    /**
+     * Creates a binder mapping columns by the names in a header row. The
+     * row should be parsed without type inference, otherwise names such as
+     * {@code "y"} or {@code "01"} are read back as their inferred value.
+     *
+     * @param   <T>
+     *          Type of object bound.
+     * @param   type
+     *          Class to bind.
+     * @param   header
+     *          Header row.
+     * @return  Binder for {@code type}.
+     * @throws  IllegalArgumentException
+     *          If {@code type} can not be bound.
+     */
+    public static <T> CsvBinder<T> of(Class<T> type, CsvLine header) {
+        List<String> names = new ArrayList<>(header.size());
+        for (int i = 0; i < header.size(); i++) {
+            names.add(header.getString(i));
+        }
+        return of(type, names);
+    }
+
+    /**
+     * Binds every row of {@code lines}. When the rows carry a
+     * {@link CsvHeader}, as read by {@link Csv#lines(Path, CsvFormat, boolean)},
+     * columns are matched by its names and every row is bound; otherwise the
+     * first row is taken as the header, see {@link #of(Class, CsvLine)}.
+     * Closing the returned stream closes {@code lines}.
+     *
+     * @param   <T>
+     *          Type of object bound.
+     * @param   lines
+     *          Rows including a header.
+     * @param   type
+     *          Class to bind.
+     * @return  Stream of bound objects.
+     */
+    public static <T> Stream<T> bind(Stream<CsvLine> lines, Class<T> type) {
+        Iterator<CsvLine> it = lines.iterator();
+        if (!it.hasNext()) {
+            return Stream.<T>empty().onClose(lines::close);
+        }
+        CsvLine first = it.next();
+        CsvHeader header = first.getHeader();
+        CsvBinder<T> binder = header == null ? of(type, first) : of(type, header.getNames());
+        Stream<T> rows = StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED), false)
+                .map(binder);
+        if (header != null) {
+            rows = Stream.concat(Stream.of(binder.bind(first)), rows);
+        }
+        return rows.onClose(lines::close);
+    }
+
+    /**
+     * Binds every row of {@code path} after the header. Cells are read
+     * without type inference so header names match exactly and each
+     * property is converted from the cell's text, {@link BigDecimal}
+     * properties keeping every digit. Closing the returned stream closes
+     * the file.
+     *
+     * @param   <T>
+     *          Type of object bound.
+     * @param   path
+     *          File to read, decoded as UTF-8.
+     * @param   format
+     *          Format of the file.
+     * @param   type
+     *          Class to bind.
+     * @return  Stream of bound objects.
+     * @throws  IOException
+     *          If an I/O error occurs opening the file.
+     */
+    public static <T> Stream<T> bind(Path path, CsvFormat format, Class<T> type) throws IOException {
+        return bind(Csv.lines(path, format.withTypeInference(false), true), type);
+    }
+
+    /**
+     * Names of the bound properties in column order.
+     *
+     * @return  Property names.
+     */
+    public List<String> getPropertyNames() {
+        List<String> res = new ArrayList<>(properties.length);
+        for (Property p : properties) {
+            res.add(p.name);
+        }
+        return res;
+    }
+
+    @Override
+    public T apply(CsvLine line) {
+        return bind(line);
+    }
+
+    /**
+     * Creates a new instance from {@code cells}.
+     *
+     * @param   cells
+     *          Cell values in column order.
+     * @return  New instance.
+     * @throws  IllegalStateException
+     *          If the constructor or a setter throws a checked exception.
+     */
+    public T bind(Object[] cells) {
+        return bind(new CsvLine(cells));
+    }
+
+    /**
+     * Creates a new instance from {@code line}.
+     *
+     * @param   line
+     *          Row to bind.
+     * @return  New instance.
+     * @throws  IllegalStateException
+     *          If the constructor or a setter throws a checked exception.
+     */
+    @SuppressWarnings("unchecked")
+    public T bind(CsvLine line) {
+        int size = line.size();
+        try {
+            if (model.arguments != null) {
+                Object[] args = model.arguments.clone();
+                for (int i = 0; i < properties.length; i++) {
+                    if (columns[i] < size) {
+                        args[properties[i].arg] = properties[i].converter.get(line, columns[i]);
+                    }
+                }
+                return (T) (Object) model.ctor.invokeExact(args);
+            }
+            Object o = (Object) model.ctor.invokeExact();
+            for (int i = 0; i < properties.length; i++) {
+                int c = columns[i];
+                if (c >= size) {
+                    continue;
+                }
+                Property p = properties[i];
+                switch (p.kind) {
+                    case K_INT:
+                        p.setter.invokeExact(o, line.getInt(c));
+                        break;
+                    case K_LONG:
+                        p.setter.invokeExact(o, toLong(line.getObject(c)));
+                        break;
+                    case K_DOUBLE:
+                        p.setter.invokeExact(o, line.getDouble(c));
+                        break;
+                    case K_BOOLEAN:
+                        p.setter.invokeExact(o, line.getBoolean(c));
+                        break;
+                    default:
+                        p.setter.invokeExact(o, p.converter.get(line, c));
+                        break;
+                }
+            }
+            return (T) o;
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Could not bind " + type.getName(), ex);
+        }
+    }
+
+    private static String key(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static long toLong(Object v) {
+        if (v instanceof Number) {
+            return ((Number) v).longValue();
+        }
+        return v == null ? 0 : (long) NumberUtils.toDouble(v.toString().trim(), 0);
+    }
+
+
+    @FunctionalInterface
+    private interface Converter {
+
+        Object get(CsvLine line, int idx);
+
+    }
+
+
+    private static final class Property {
+
+        final String name;
+        final String key;
+        final int arg;
+        final int kind;
+        final MethodHandle setter;
+        final Converter converter;
+
+        Property(String name, Class<?> type, int arg, MethodHandle setter) {
+            this.name = name;
+            this.key = key(name);
+            this.arg = arg;
+            this.converter = converter(type);
+            if (setter == null) {
+                this.kind = K_REF;
+                this.setter = null;
+            } else {
+                this.kind = type == int.class ? K_INT
+                            : type == long.class ? K_LONG
+                              : type == double.class ? K_DOUBLE
+                                : type == boolean.class ? K_BOOLEAN
+                                  : K_REF;
+                Class<?> to = kind == K_REF ? Object.class : type;
+                this.setter = setter.asType(MethodType.methodType(void.class, Object.class, to));
+            }
+        }
+
+    }
+
+
+    /**
+     * Per class binding information, shared by all binders of the class.
+     */
+    private static final class Model {
+
+        final MethodHandle ctor;
+        final Object[] arguments;
+        final Property[] properties;
+
+        Model(MethodHandle ctor, Object[] arguments, Property[] properties) {
+            this.ctor = ctor;
+            this.arguments = arguments;
+            this.properties = properties;
+        }
+
+        static Model create(Class<?> type) {
+            try {
+                Model m = record(type);
+                if (m != null) {
+                    return m;
+                }
+                for (Constructor<?> c : type.getDeclaredConstructors()) {
+                    if (c.getParameterCount() == 0) {
+                        return beans(type, c);
+                    }
+                }
+                Constructor<?> best = null;
+                for (Constructor<?> c : type.getDeclaredConstructors()) {
+                    if (named(c) && (best == null || c.getParameterCount() > best.getParameterCount())) {
+                        best = c;
+                    }
+                }
+                if (best != null) {
+                    String[] names = new String[best.getParameterCount()];
+                    Parameter[] params = best.getParameters();
+                    for (int i = 0; i < params.length; i++) {
+                        CsvColumn col = params[i].getAnnotation(CsvColumn.class);
+                        names[i] = col == null ? params[i].getName() : col.value();
+                    }
+                    return constructor(best, names);
+                }
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                throw new IllegalArgumentException("Can not bind " + type.getName() + ": " + ex.getMessage(), ex);
+            }
+            throw new IllegalArgumentException("Can not bind " + type.getName() +
+                                               ": no constructor with known parameter names");
+        }
+
+        private static boolean named(Constructor<?> c) {
+            if (c.isSynthetic()) {
+                return false;
+            }
+            for (Parameter p : c.getParameters()) {
+                if (!p.isNamePresent() && p.getAnnotation(CsvColumn.class) == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Records are found reflectively so the module may still target
+         * releases that predate them.
+         */
+        private static Model record(Class<?> type) throws ReflectiveOperationException {
+            Method isRecord;
+            try {
+                isRecord = Class.class.getMethod("isRecord");
+            } catch (NoSuchMethodException ex) {
+                return null;
+            }
+            if (!(Boolean) isRecord.invoke(type)) {
+                return null;
+            }
+            Object[] comps = (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+            Class<?>[] types = new Class<?>[comps.length];
+            String[] names = new String[comps.length];
+            for (int i = 0; i < comps.length; i++) {
+                types[i] = (Class<?>) comps[i].getClass().getMethod("getType").invoke(comps[i]);
+                names[i] = (String) comps[i].getClass().getMethod("getName").invoke(comps[i]);
+            }
+            Constructor<?> c = type.getDeclaredConstructor(types);
+            Parameter[] params = c.getParameters();
+            for (int i = 0; i < params.length; i++) {
+                CsvColumn col = params[i].getAnnotation(CsvColumn.class);
+                if (col != null) {
+                    names[i] = col.value();
+                }
+            }
+            return constructor(c, names);
+        }
+
+        private static Model constructor(Constructor<?> c, String[] names) throws IllegalAccessException {
+            accessible(c);
+            Class<?>[] types = c.getParameterTypes();
+            Object[] args = new Object[types.length];
+            Property[] props = new Property[types.length];
+            for (int i = 0; i < types.length; i++) {
+                args[i] = DEFAULTS.get(types[i]);
+                props[i] = new Property(names[i], types[i], i, null);
+            }
+            MethodHandle mh = MethodHandles.lookup().unreflectConstructor(c)
+                    .asSpreader(Object[].class, types.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new Model(mh, args, props);
+        }
+
+        private static Model beans(Class<?> type, Constructor<?> c) throws IllegalAccessException {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            accessible(c);
+            MethodHandle ctor = lookup.unreflectConstructor(c).asType(MethodType.methodType(Object.class));
+
+            Map<String, Method> setters = new LinkedHashMap<>();
+            for (Method m : type.getMethods()) {
+                if (!Modifier.isStatic(m.getModifiers()) &&
+                    m.getParameterCount() == 1 &&
+                    m.getName().length() > 3 &&
+                    m.getName().startsWith("set")) {
+                    setters.put(m.getName().substring(3).toLowerCase(Locale.ROOT), m);
+                }
+            }
+
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> t = type; t != null && t != Object.class; t = t.getSuperclass()) {
+                List<Field> declared = new ArrayList<>();
+                for (Field f : t.getDeclaredFields()) {
+                    int mod = f.getModifiers();
+                    if (!Modifier.isStatic(mod) && !Modifier.isTransient(mod) && !f.isSynthetic()) {
+                        declared.add(f);
+                    }
+                }
+                fields.addAll(0, declared);
+            }
+
+            Map<String, Property> props = new LinkedHashMap<>();
+            for (Field f : fields) {
+                Method m = setters.remove(f.getName().toLowerCase(Locale.ROOT));
+                if (m != null && accessible(m)) {
+                    CsvColumn col = m.getAnnotation(CsvColumn.class);
+                    if (col == null) {
+                        col = f.getAnnotation(CsvColumn.class);
+                    }
+                    String name = col == null ? f.getName() : col.value();
+                    props.putIfAbsent(name, new Property(name, m.getParameterTypes()[0], -1, lookup.unreflect(m)));
+                } else if (!Modifier.isFinal(f.getModifiers()) && accessible(f)) {
+                    CsvColumn col = f.getAnnotation(CsvColumn.class);
+                    String name = col == null ? f.getName() : col.value();
+                    props.putIfAbsent(name, new Property(name, f.getType(), -1, lookup.unreflectSetter(f)));
+                }
+            }
+            for (Method m : setters.values()) {
+                if (accessible(m)) {
+                    CsvColumn col = m.getAnnotation(CsvColumn.class);
+                    String name = col == null
+                                  ? Character.toLowerCase(m.getName().charAt(3)) + m.getName().substring(4)
+                                  : col.value();
+                    props.putIfAbsent(name, new Property(name, m.getParameterTypes()[0], -1, lookup.unreflect(m)));
+                }
+            }
+            return new Model(ctor, null, props.values().toArray(new Property[props.size()]));
+        }
+
+        private static boolean accessible(AccessibleObject o) {
+            try {
+                o.setAccessible(true);
+                return true;
+            } catch (RuntimeException ex) {
+                return false;
+            }
+        }
+
+    }
+
+    /**
+     * Converter producing a value assignable to {@code type}, primitive
+     * types never produce {@code null}.
+     */
+    private static Converter converter(Class<?> type) {
+        if (type == String.class) {
+            return CsvLine::getString;
+        }
+        if (type == int.class) {
+            return CsvLine::getInt;
+        }
+        if (type == long.class) {
+            return (l, i) -> toLong(l.getObject(i));
+        }
+        if (type == double.class) {
+            return CsvLine::getDouble;
+        }
+        if (type == float.class) {
+            return (l, i) -> (float) l.getDouble(i);
+        }
+        if (type == short.class) {
+            return (l, i) -> (short) l.getInt(i);
+        }
+        if (type == byte.class) {
+            return (l, i) -> (byte) l.getInt(i);
+        }
+        if (type == boolean.class) {
+            return CsvLine::getBoolean;
+        }
+        if (type == char.class) {
+            return (l, i) -> {
+                String s = l.getString(i);
+                return s == null || s.isEmpty() ? '\0' : s.charAt(0);
+            };
+        }
+        if (type == Integer.class) {
+            return (l, i) -> l.getObject(i) == null ? null : l.getInt(i);
+        }
+        if (type == Long.class) {
+            return (l, i) -> l.getObject(i) == null ? null : toLong(l.getObject(i));
+        }
+        if (type == Double.class) {
+            return (l, i) -> l.getObject(i) == null ? null : l.getDouble(i);
+        }
+        if (type == Float.class) {
+            return (l, i) -> l.getObject(i) == null ? null : (float) l.getDouble(i);
+        }
+        if (type == Short.class) {
+            return (l, i) -> l.getObject(i) == null ? null : (short) l.getInt(i);
+        }
+        if (type == Byte.class) {
+            return (l, i) -> l.getObject(i) == null ? null : (byte) l.getInt(i);
+        }
+        if (type == Boolean.class) {
+            return (l, i) -> l.getObject(i) == null ? null : l.getBoolean(i);
+        }
+        if (type == Character.class) {
+            return (l, i) -> {
+                String s = l.getString(i);
+                return s == null || s.isEmpty() ? null : s.charAt(0);
+            };
+        }
+        if (type == BigDecimal.class) {
+            return (l, i) -> {
+                Object v = l.getObject(i);
+                if (v instanceof String) {
+                    String s = ((String) v).trim();
+                    return CsvParser.isDecimal(s) ? new BigDecimal(s) : null;
+                }
+                if (v instanceof BigDecimal) {
+                    return v;
+                }
+                if (v instanceof BigInteger) {
+                    return new BigDecimal((BigInteger) v);
+                }
+                if (v instanceof Long || v instanceof Integer || v instanceof Short || v instanceof Byte) {
+                    return BigDecimal.valueOf(((Number) v).longValue());
+                }
+                return v instanceof Number ? BigDecimal.valueOf(((Number) v).doubleValue()) : null;
+            };
+        }
+        if (type == LocalDate.class) {
+            return CsvLine::getLocalDate;
+        }
+        if (type == LocalDateTime.class) {
+            return CsvLine::getLocalDateTime;
+        }
+        if (type == ZonedDateTime.class) {
+            return CsvLine::getZonedDateTime;
+        }
+        if (type.isEnum()) {
+            Map<String, Object> constants = new HashMap<>();
+            for (Object c : type.getEnumConstants()) {
+                constants.put(((Enum<?>) c).name().toLowerCase(Locale.ROOT), c);
+            }
+            return (l, i) -> {
+                String s = l.getString(i);
+                return s == null ? null : constants.get(s.trim().toLowerCase(Locale.ROOT));
+            };
+        }
+        if (type == Object.class) {
+            return CsvLine::getObject;
+        }
+        return (l, i) -> {
+            Object v = l.getObject(i);
+            return type.isInstance(v) ? v : null;
+        };
+    }
+
+}
@@ -0,0 +1,351 @@
+/*
+ * CsvCache.java    20 October 2026, 13:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+
+/**
+ * Cache of loaded files for data read many times, such as test fixtures.
+ *
+ * Entries are keyed by the absolute path and the {@link CsvFormat} used to
+ * parse it, and are only returned while the file's modification time and
+ * size are unchanged, which costs one attribute read per lookup. The cache
+ * is bounded by entry count and by an estimate of the heap used by the
+ * rows; the least recently used entries are evicted first. Entries may
+ * optionally be held by {@link SoftReference} so the collector can reclaim
+ * them under memory pressure.
+ *
+ * Cached lists are unmodifiable and shared between all callers and
+ * threads, {@link CsvLine} itself has no mutators.
+ *
+ * <pre>
+ * List&lt;CsvLine&gt; rows = CsvCache.shared().loadLines(path, CsvFormat.DEFAULT);
+ * </pre>
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvCache {
+
+    /**
+     * Default maximum entries of {@link #shared()}.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    /**
+     * Default maximum estimated heap bytes of {@link #shared()}.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final CsvCache SHARED = new CsvCache(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES, true);
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final boolean soft;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param   maxEntries
+     *          Maximum number of files held.
+     * @param   maxBytes
+     *          Maximum estimated heap bytes of all held rows.
+     * @param   soft
+     *          Hold rows by soft reference.
+     */
+    public CsvCache(int maxEntries, long maxBytes, boolean soft) {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("maxEntries and maxBytes must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.soft = soft;
+    }
+
+    /**
+     * The process wide cache, soft referenced and bounded by
+     * {@link #DEFAULT_MAX_ENTRIES} and {@link #DEFAULT_MAX_BYTES}.
+     *
+     * @return  Shared cache.
+     */
+    public static CsvCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Rows of a UTF-8 file, as {@link Csv#loadLines(java.io.File, CsvFormat)}.
+     *
+     * @param   path
+     *          File to load.
+     * @param   format
+     *          Format of the file.
+     * @return  Unmodifiable shared list of rows.
+     * @throws  IOException
+     *          If the file can not be read.
+     */
+    public List<CsvLine> loadLines(Path path, CsvFormat format) throws IOException {
+        Path abs = path.toAbsolutePath().normalize();
+        BasicFileAttributes attrs = Files.readAttributes(abs, BasicFileAttributes.class);
+        long mtime = attrs.lastModifiedTime().toMillis();
+        long size = attrs.size();
+        Key key = new Key(abs, format);
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e != null) {
+                List<CsvLine> rows = e.get();
+                if (rows != null && e.mtime == mtime && e.size == size) {
+                    hits.incrementAndGet();
+                    return rows;
+                }
+                remove(key, e);
+            }
+        }
+        misses.incrementAndGet();
+        List<CsvLine> rows;
+        try (Stream<CsvLine> s = Csv.lines(abs, format)) {
+            rows = Collections.unmodifiableList(s.collect(toList()));
+        }
+        long weight = weigh(rows);
+        if (weight > maxBytes) {
+            return rows;
+        }
+        synchronized (entries) {
+            Entry old = entries.get(key);
+            if (old != null) {
+                remove(key, old);
+            }
+            entries.put(key, new Entry(rows, soft, mtime, size, weight));
+            bytes += weight;
+            trim();
+        }
+        return rows;
+    }
+
+    /**
+     * Rows of a UTF-8 file as arrays, as
+     * {@link Csv#load(java.io.File, CsvFormat)}. The arrays are new copies
+     * made from the cached rows, only reading and parsing are saved.
+     *
+     * @param   path
+     *          File to load.
+     * @param   format
+     *          Format of the file.
+     * @return  Unmodifiable list of new row arrays.
+     * @throws  IOException
+     *          If the file can not be read.
+     */
+    public List<Object[]> load(Path path, CsvFormat format) throws IOException {
+        List<CsvLine> lines = loadLines(path, format);
+        List<Object[]> res = new ArrayList<>(lines.size());
+        for (CsvLine n : lines) {
+            res.add(n.toArray());
+        }
+        return Collections.unmodifiableList(res);
+    }
+
+    private void remove(Key key, Entry e) {
+        entries.remove(key);
+        bytes -= e.weight;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+            Entry e = it.next().getValue();
+            it.remove();
+            bytes -= e.weight;
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Rough heap size of rows: object headers and slot arrays per row, and
+     * header plus two bytes per character for each string.
+     */
+    private static long weigh(List<CsvLine> rows) {
+        long w = 16L + 4L * rows.size();
+        for (CsvLine n : rows) {
+            int cells = n.size();
+            w += 24 + 3 * 16 + 9L * cells;
+            for (int i = 0; i < cells; i++) {
+                if (n.tag(i) == CsvLine.T_OBJECT) {
+                    w += 4;
+                    Object v = n.ref(i);
+                    w += v instanceof String ? 40 + 2L * ((String) v).length() : 48;
+                }
+            }
+        }
+        return w;
+    }
+
+    /**
+     * Removes all entries, statistics are kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    /**
+     * Number of files held, including any whose soft references have been
+     * cleared but not yet looked up.
+     *
+     * @return  Entry count.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Estimated heap bytes of the rows held.
+     *
+     * @return  Estimated bytes.
+     */
+    public long getEstimatedBytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    /**
+     * Lookups answered from the cache.
+     *
+     * @return  Hit count.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Lookups that loaded the file, because it was not held, had changed or
+     * had been collected.
+     *
+     * @return  Miss count.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Entries removed to stay within the bounds.
+     *
+     * @return  Eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Fraction of lookups answered from the cache.
+     *
+     * @return  Hit ratio, {@code 0} before any lookup.
+     */
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CsvCache{entries=" + size() + ", bytes=" + getEstimatedBytes() +
+               ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + '}';
+    }
+
+
+    private static final class Key {
+
+        private final Path path;
+        private final CsvFormat format;
+
+        Key(Path path, CsvFormat format) {
+            this.path = path;
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key o = (Key) obj;
+            return path.equals(o.path) && format.equals(o.format);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, format);
+        }
+
+    }
+
+
+    private static final class Entry {
+
+        private final Object rows;
+        private final long mtime;
+        private final long size;
+        private final long weight;
+
+        Entry(List<CsvLine> rows, boolean soft, long mtime, long size, long weight) {
+            this.rows = soft ? new SoftReference<>(rows) : rows;
+            this.mtime = mtime;
+            this.size = size;
+            this.weight = weight;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<CsvLine> get() {
+            if (rows instanceof SoftReference) {
+                return ((SoftReference<List<CsvLine>>) rows).get();
+            }
+            return (List<CsvLine>) rows;
+        }
+
+    }
+
+}
@@ -0,0 +1,410 @@
+/*
+ * CsvDecoder.java    20 October 2026, 11:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.MalformedInputException;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_16BE;
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+
+
+/**
+ * Reads lines of a byte stream into a reused character buffer.
+ *
+ * A leading byte order mark is detected and removed. UTF-8 input (with or
+ * without a mark) is decoded in place: bytes are copied with a plain ASCII
+ * loop until the first byte with the high bit set, multi-byte sequences are
+ * then decoded inline and the ASCII loop resumes, so no byte is read twice
+ * and no {@link java.nio.charset.CharsetDecoder} is involved. UTF-16 input
+ * is decoded through a {@link Reader}.
+ *
+ * Lines are split as by {@link java.io.BufferedReader#readLine()} and
+ * handed to the parser as a {@link Line} whose characters are only copied
+ * into the cell values, never into a line {@link String}. Malformed UTF-8
+ * throws {@link MalformedInputException} like {@code Files.lines}, unless
+ * the decoder replaces it, in which case each malformed sequence becomes
+ * {@code U+FFFD} and the offset of the first is kept for the line.
+ *
+ * @author  Brett Ryan
+ */
+final class CsvDecoder implements Closeable {
+
+    private static final int BUFFER = 64 * 1024;
+
+    private final InputStream in;
+    private final boolean replace;
+    private final byte[] buf;
+    private long base;
+    private long lineStart;
+    private long malformed = -1;
+    private int pos;
+    private int lim;
+    private boolean eof;
+    private boolean started;
+    private boolean skipLf;
+    private Reader reader;
+    private char[] chars;
+
+    /**
+     * Creates a decoder over {@code in}, which is closed by
+     * {@link #close()}.
+     *
+     * @param   in
+     *          Stream to decode.
+     */
+    CsvDecoder(InputStream in) {
+        this(in, false);
+    }
+
+    /**
+     * Creates a decoder over {@code in}, which is closed by
+     * {@link #close()}.
+     *
+     * @param   in
+     *          Stream to decode.
+     * @param   replace
+     *          Whether malformed UTF-8 is replaced rather than thrown.
+     */
+    CsvDecoder(InputStream in, boolean replace) {
+        this.in = in;
+        this.replace = replace;
+        this.buf = new byte[BUFFER];
+    }
+
+    /**
+     * Creates a decoder over a slice of UTF-8 bytes, which are used in
+     * place rather than copied. Malformed input is replaced, UTF-16 input is
+     * not supported.
+     *
+     * @param   data
+     *          Bytes to decode.
+     * @param   off
+     *          Start of the slice.
+     * @param   len
+     *          Length of the slice.
+     * @param   first
+     *          True if the slice starts the input, when a leading UTF-8
+     *          byte order mark is removed.
+     */
+    CsvDecoder(byte[] data, int off, int len, boolean first) {
+        this.in = null;
+        this.replace = true;
+        this.buf = data;
+        this.pos = off;
+        this.lim = off + len;
+        this.eof = true;
+        this.started = !first;
+    }
+
+    /**
+     * Byte offset of the start of the last line read.
+     *
+     * @return  Offset, {@code -1} for UTF-16 input.
+     */
+    long offset() {
+        return reader == null ? lineStart : -1;
+    }
+
+    /**
+     * Byte offset of the first malformed sequence replaced in the last line
+     * read.
+     *
+     * @return  Offset, {@code -1} if the line was well formed.
+     */
+    long malformed() {
+        return malformed;
+    }
+
+    /**
+     * Reads the next line into {@code line}.
+     *
+     * @param   line
+     *          Buffer receiving the line without its terminator.
+     * @return  False at the end of input.
+     * @throws  IOException
+     *          If the stream can not be read or is malformed.
+     */
+    boolean readLine(Line line) throws IOException {
+        if (!started) {
+            start();
+        }
+        line.len = 0;
+        malformed = -1;
+        return reader == null ? readUtf8(line) : readChars(line);
+    }
+
+    /**
+     * Detects a byte order mark and switches UTF-16 input to a reader.
+     */
+    private void start() throws IOException {
+        started = true;
+        while (lim < 3 && fill()) {
+            // Need up to three bytes to detect a mark.
+        }
+        int b0 = lim > 0 ? buf[0] & 0xff : -1;
+        int b1 = lim > 1 ? buf[1] & 0xff : -1;
+        int b2 = lim > 2 ? buf[2] & 0xff : -1;
+        if (b0 == 0xef && b1 == 0xbb && b2 == 0xbf) {
+            pos = 3;
+        } else if (b0 == 0xfe && b1 == 0xff) {
+            utf16(UTF_16BE);
+        } else if (b0 == 0xff && b1 == 0xfe) {
+            utf16(UTF_16LE);
+        }
+    }
+
+    private void utf16(Charset cs) throws IOException {
+        if (in == null) {
+            throw new IOException("UTF-16 input can not be decoded from a byte slice");
+        }
+        InputStream rest = new SequenceInputStream(new ByteArrayInputStream(buf, 2, lim - 2), in);
+        reader = new InputStreamReader(rest, cs);
+        chars = new char[BUFFER / 2];
+        pos = lim = 0;
+    }
+
+    /**
+     * Appends bytes after {@code lim}, keeping any unread bytes.
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (pos > 0 && pos == lim) {
+            base += pos;
+            pos = lim = 0;
+        } else if (lim == buf.length) {
+            base += pos;
+            System.arraycopy(buf, pos, buf, 0, lim - pos);
+            lim -= pos;
+            pos = 0;
+        }
+        int n = in.read(buf, lim, buf.length - lim);
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        lim += n;
+        return true;
+    }
+
+    private boolean readUtf8(Line line) throws IOException {
+        while (true) {
+            if (pos == lim && !fill()) {
+                return line.len > 0;
+            }
+            if (skipLf) {
+                skipLf = false;
+                if (buf[pos] == '\n') {
+                    pos++;
+                    continue;
+                }
+            }
+            if (line.len == 0) {
+                lineStart = base + pos;
+            }
+            final byte[] b = buf;
+            int p = pos;
+            final int l = lim;
+            char[] dst = line.ensure(l - p);
+            int n = line.len;
+            // ASCII until a terminator or a byte with the high bit set.
+            while (p < l) {
+                byte c = b[p];
+                if (c < 0) {
+                    break;
+                }
+                if (c == '\n' || c == '\r') {
+                    pos = p + 1;
+                    line.len = n;
+                    skipLf = c == '\r';
+                    return true;
+                }
+                dst[n++] = (char) c;
+                p++;
+            }
+            pos = p;
+            line.len = n;
+            if (p < l) {
+                multiByte(line);
+            }
+        }
+    }
+
+    /**
+     * Decodes the sequence starting at {@code pos}, reading more input if it
+     * is split across reads.
+     */
+    private void multiByte(Line line) throws IOException {
+        int lead = buf[pos] & 0xff;
+        int need;
+        int min;
+        int max;
+        if (lead >= 0xc2 && lead <= 0xdf) {
+            need = 2;
+            min = 0x80;
+            max = 0xbf;
+        } else if (lead >= 0xe0 && lead <= 0xef) {
+            need = 3;
+            min = lead == 0xe0 ? 0xa0 : 0x80;
+            max = lead == 0xed ? 0x9f : 0xbf;
+        } else if (lead >= 0xf0 && lead <= 0xf4) {
+            need = 4;
+            min = lead == 0xf0 ? 0x90 : 0x80;
+            max = lead == 0xf4 ? 0x8f : 0xbf;
+        } else {
+            malformed(line, 1);
+            return;
+        }
+        while (lim - pos < need) {
+            if (!fill()) {
+                malformed(line, lim - pos);
+                return;
+            }
+        }
+        int cp = lead & (0xff >> (need + 1));
+        for (int i = 1; i < need; i++) {
+            int c = buf[pos + i] & 0xff;
+            if (c < (i == 1 ? min : 0x80) || c > (i == 1 ? max : 0xbf)) {
+                malformed(line, i);
+                return;
+            }
+            cp = cp << 6 | c & 0x3f;
+        }
+        pos += need;
+        char[] dst = line.ensure(2);
+        if (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            dst[line.len++] = (char) cp;
+        } else {
+            dst[line.len++] = Character.highSurrogate(cp);
+            dst[line.len++] = Character.lowSurrogate(cp);
+        }
+    }
+
+    /**
+     * Throws for the malformed {@code length} bytes at {@code pos}, or
+     * skips them and appends a replacement character.
+     */
+    private void malformed(Line line, int length) throws MalformedInputException {
+        if (!replace) {
+            throw new MalformedInputException(length);
+        }
+        if (malformed < 0) {
+            malformed = base + pos;
+        }
+        pos += length;
+        line.ensure(1)[line.len++] = '\uFFFD';
+    }
+
+    private boolean readChars(Line line) throws IOException {
+        while (true) {
+            if (pos == lim) {
+                int n = reader.read(chars, 0, chars.length);
+                if (n < 0) {
+                    return line.len > 0;
+                }
+                pos = 0;
+                lim = n;
+            }
+            if (skipLf) {
+                skipLf = false;
+                if (chars[pos] == '\n') {
+                    pos++;
+                    continue;
+                }
+            }
+            char[] dst = line.ensure(lim - pos);
+            int n = line.len;
+            int p = pos;
+            while (p < lim) {
+                char c = chars[p++];
+                if (c == '\n' || c == '\r') {
+                    pos = p;
+                    line.len = n;
+                    skipLf = c == '\r';
+                    return true;
+                }
+                dst[n++] = c;
+            }
+            pos = p;
+            line.len = n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        } else if (in != null) {
+            in.close();
+        }
+    }
+
+
+    /**
+     * Reused character buffer of one line. Sub sequences are created
+     * directly as strings from the buffer.
+     */
+    static final class Line implements CharSequence {
+
+        private char[] buf = new char[256];
+        private int len;
+
+        char[] ensure(int extra) {
+            if (len + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+            }
+            return buf;
+        }
+
+        @Override
+        public int length() {
+            return len;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= len) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+            return buf[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(buf, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buf, 0, len);
+        }
+
+    }
+
+}
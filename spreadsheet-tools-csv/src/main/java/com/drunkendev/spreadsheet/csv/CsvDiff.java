@@ -0,0 +1,572 @@
+/*
+ * CsvDiff.java    20 October 2026, 16:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Keyed comparison of two UTF-8 files without loading either into memory.
+ *
+ * Rows are matched on the values of the key columns and reported to a
+ * {@link Listener} as inserted (only in the right file), deleted (only in
+ * the left file) or changed. Cells are compared by their typed values as
+ * produced by {@link Csv#getTypedValue(String, java.time.format.DateTimeFormatter)}
+ * under the configured {@link CsvFormat}, so {@code 1} and {@code 1.0} are
+ * equal while {@code 1} and {@code "1"} with numbered text are not.
+ *
+ * Two strategies are available:
+ * <ul>
+ * <li>{@link #diffSorted(Path, Path, Listener)} merge-joins inputs already
+ * sorted by key, holding one row of each file at a time;</li>
+ * <li>{@link #diff(Path, Path, Listener)} hash-partitions both files into
+ * temporary files by key, then diffs each pair of partitions in memory on
+ * a pool of threads. Memory use is bounded by the largest partition.</li>
+ * </ul>
+ *
+ * Listener calls are never concurrent, but with partitioning are not in
+ * file order.
+ *
+ * <pre>
+ * CsvDiff.Summary s = new CsvDiff(0).withHeader(true).diff(yesterday, today, listener);
+ * </pre>
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvDiff {
+
+    /**
+     * Receives differences.
+     */
+    public interface Listener {
+
+        /**
+         * A row only in the right file.
+         *
+         * @param   right
+         *          Inserted row.
+         */
+        void inserted(CsvLine right);
+
+        /**
+         * A row only in the left file.
+         *
+         * @param   left
+         *          Deleted row.
+         */
+        void deleted(CsvLine left);
+
+        /**
+         * A row whose key is in both files but whose cells differ.
+         *
+         * @param   left
+         *          Row of the left file.
+         * @param   right
+         *          Row of the right file.
+         * @param   columns
+         *          Indexes of the differing cells in ascending order.
+         */
+        void changed(CsvLine left, CsvLine right, int[] columns);
+
+    }
+
+    /**
+     * Default number of partitions used by {@link #diff(Path, Path, Listener)}.
+     */
+    public static final int DEFAULT_PARTITIONS = 64;
+
+    private final int[] keys;
+    private final CsvFormat format;
+    private final boolean header;
+    private final int partitions;
+    private final int parallelism;
+
+    /**
+     * Creates a diff using {@link CsvFormat#DEFAULT} without header rows.
+     *
+     * @param   keys
+     *          Zero based key columns.
+     */
+    public CsvDiff(int... keys) {
+        this(keys.clone(), CsvFormat.DEFAULT, false, DEFAULT_PARTITIONS,
+             Runtime.getRuntime().availableProcessors());
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one key column is required");
+        }
+        for (int k : keys) {
+            if (k < 0) {
+                throw new IllegalArgumentException("Invalid key column " + k);
+            }
+        }
+    }
+
+    private CsvDiff(int[] keys, CsvFormat format, boolean header, int partitions, int parallelism) {
+        this.keys = keys;
+        this.format = format;
+        this.header = header;
+        this.partitions = partitions;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Format used to parse both files.
+     *
+     * @param   format
+     *          New format.
+     * @return  New diff.
+     */
+    public CsvDiff withFormat(CsvFormat format) {
+        return new CsvDiff(keys, Objects.requireNonNull(format), header, partitions, parallelism);
+    }
+
+    /**
+     * Whether the first row of each file is a header, headers are not
+     * compared.
+     *
+     * @param   header
+     *          True to skip the first row.
+     * @return  New diff.
+     */
+    public CsvDiff withHeader(boolean header) {
+        return new CsvDiff(keys, format, header, partitions, parallelism);
+    }
+
+    /**
+     * Number of partitions used by {@link #diff(Path, Path, Listener)}.
+     *
+     * @param   partitions
+     *          Partition count.
+     * @return  New diff.
+     */
+    public CsvDiff withPartitions(int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive");
+        }
+        return new CsvDiff(keys, format, header, partitions, parallelism);
+    }
+
+    /**
+     * Number of partitions diffed at once by
+     * {@link #diff(Path, Path, Listener)}.
+     *
+     * @param   parallelism
+     *          Thread count.
+     * @return  New diff.
+     */
+    public CsvDiff withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        return new CsvDiff(keys, format, header, partitions, parallelism);
+    }
+
+    /**
+     * Diffs files sorted in ascending key order, see
+     * {@link #compareKeys(Object[], Object[])}, in constant memory.
+     *
+     * @param   left
+     *          Old file.
+     * @param   right
+     *          New file.
+     * @param   listener
+     *          Receiver of differences.
+     * @return  Counts of differences.
+     * @throws  IOException
+     *          If a file can not be read.
+     * @throws  IllegalStateException
+     *          If a file is not sorted by key.
+     */
+    public Summary diffSorted(Path left, Path right, Listener listener) throws IOException {
+        Summary sum = new Summary();
+        try (Stream<CsvLine> ls = Csv.lines(left, format);
+             Stream<CsvLine> rs = Csv.lines(right, format)) {
+            Sorted a = new Sorted(ls.iterator(), left);
+            Sorted b = new Sorted(rs.iterator(), right);
+            while (a.line != null || b.line != null) {
+                int cmp = a.line == null ? 1
+                          : b.line == null ? -1
+                            : compareKeys(a.key, b.key);
+                if (cmp < 0) {
+                    sum.deleted(a.line, listener);
+                    a.next();
+                } else if (cmp > 0) {
+                    sum.inserted(b.line, listener);
+                    b.next();
+                } else {
+                    sum.compare(a.line, b.line, listener);
+                    a.next();
+                    b.next();
+                }
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return sum;
+    }
+
+    /**
+     * Diffs files in any order by partitioning them on disk by key.
+     *
+     * @param   left
+     *          Old file.
+     * @param   right
+     *          New file.
+     * @param   listener
+     *          Receiver of differences.
+     * @return  Counts of differences.
+     * @throws  IOException
+     *          If a file can not be read or partitions can not be written.
+     */
+    public Summary diff(Path left, Path right, Listener listener) throws IOException {
+        Path dir = Files.createTempDirectory("csvdiff");
+        try {
+            Path[] lp = partition(left, dir, "l");
+            Path[] rp = partition(right, dir, "r");
+            Summary sum = new Summary();
+            ExecutorService exec = Executors.newFixedThreadPool(Math.min(parallelism, partitions), r -> {
+                Thread t = new Thread(r, "csv-diff");
+                t.setDaemon(true);
+                return t;
+            });
+            try {
+                List<Future<?>> tasks = new ArrayList<>(partitions);
+                for (int i = 0; i < partitions; i++) {
+                    Path l = lp[i];
+                    Path r = rp[i];
+                    tasks.add(exec.submit(() -> {
+                        diffPartition(l, r, sum, listener);
+                        return null;
+                    }));
+                }
+                for (Future<?> f : tasks) {
+                    f.get();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", ex);
+            } catch (ExecutionException ex) {
+                Throwable c = ex.getCause();
+                if (c instanceof IOException) {
+                    throw (IOException) c;
+                }
+                if (c instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) c).getCause();
+                }
+                if (c instanceof RuntimeException) {
+                    throw (RuntimeException) c;
+                }
+                throw new IOException(c);
+            } finally {
+                exec.shutdownNow();
+            }
+            return sum;
+        } finally {
+            try (Stream<Path> s = Files.list(dir)) {
+                for (Iterator<Path> it = s.iterator(); it.hasNext();) {
+                    Files.deleteIfExists(it.next());
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    /**
+     * Copies the records of a file into partition files by key hash. Records
+     * are copied as read, so they parse identically when diffed.
+     */
+    private Path[] partition(Path file, Path dir, String prefix) throws IOException {
+        Path[] paths = new Path[partitions];
+        Writer[] out = new Writer[partitions];
+        try (CsvDecoder in = new CsvDecoder(Files.newInputStream(file))) {
+            for (int i = 0; i < partitions; i++) {
+                paths[i] = dir.resolve(prefix + i + ".csv");
+                out[i] = new BufferedWriter(Files.newBufferedWriter(paths[i], UTF_8), 16 * 1024);
+            }
+            CsvDecoder.Line line = new CsvDecoder.Line();
+            boolean skip = header;
+            while (in.readLine(line)) {
+                if (skip) {
+                    skip = false;
+                    continue;
+                }
+                int h = Arrays.hashCode(key(CsvParser.splitLine(line, format)));
+                Writer w = out[Math.floorMod(h ^ (h >>> 16), partitions)];
+                w.append(line).append('\n');
+            }
+        } finally {
+            IOException failure = null;
+            for (Writer w : out) {
+                if (w != null) {
+                    try {
+                        w.close();
+                    } catch (IOException ex) {
+                        failure = ex;
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Diffs one partition in memory. Rows whose key repeats are paired in
+     * file order, as in {@link #diffSorted(Path, Path, Listener)}.
+     */
+    private void diffPartition(Path left, Path right, Summary sum, Listener listener) throws IOException {
+        Map<List<Object>, Deque<CsvLine>> old = new HashMap<>();
+        try (Stream<CsvLine> s = Csv.lines(left, format)) {
+            s.forEach(n -> old.computeIfAbsent(Arrays.asList(key(n)), k -> new ArrayDeque<>(1)).add(n));
+        }
+        try (Stream<CsvLine> s = Csv.lines(right, format)) {
+            s.forEach(n -> {
+                List<Object> k = Arrays.asList(key(n));
+                Deque<CsvLine> prior = old.get(k);
+                if (prior == null) {
+                    sum.inserted(n, listener);
+                } else {
+                    sum.compare(prior.poll(), n, listener);
+                    if (prior.isEmpty()) {
+                        old.remove(k);
+                    }
+                }
+            });
+        }
+        for (Deque<CsvLine> rows : old.values()) {
+            for (CsvLine n : rows) {
+                sum.deleted(n, listener);
+            }
+        }
+    }
+
+    private Object[] key(CsvLine line) {
+        Object[] k = new Object[keys.length];
+        for (int i = 0; i < k.length; i++) {
+            k[i] = line.getObject(keys[i]);
+        }
+        return k;
+    }
+
+    /**
+     * Indexes of the cells that differ by typed value.
+     *
+     * @param   left
+     *          First row.
+     * @param   right
+     *          Second row.
+     * @return  Differing columns, empty if equal.
+     */
+    public static int[] differences(CsvLine left, CsvLine right) {
+        int n = Math.max(left.size(), right.size());
+        int[] res = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (!Objects.equals(left.getObject(i), right.getObject(i))) {
+                res[count++] = i;
+            }
+        }
+        return Arrays.copyOf(res, count);
+    }
+
+    /**
+     * Order of keys expected by {@link #diffSorted(Path, Path, Listener)}.
+     * Values are compared column by column: empty first, then numbers
+     * numerically, then other values of the same type by natural order and
+     * otherwise by text.
+     *
+     * @param   a
+     *          First key.
+     * @param   b
+     *          Second key.
+     * @return  Negative, zero or positive as {@code a} sorts before, with
+     *          or after {@code b}.
+     */
+    public static int compareKeys(Object[] a, Object[] b) {
+        for (int i = 0; i < a.length; i++) {
+            int c = compareValues(a[i], b[i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Order of single cell values, see {@link #compareKeys(Object[], Object[])}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compareValues(Object x, Object y) {
+        if (x == null || y == null) {
+            return x == null ? (y == null ? 0 : -1) : 1;
+        }
+        if (x instanceof Number && y instanceof Number) {
+            return Double.compare(((Number) x).doubleValue(), ((Number) y).doubleValue());
+        }
+        if (x instanceof Number || y instanceof Number) {
+            return x instanceof Number ? -1 : 1;
+        }
+        if (x.getClass() == y.getClass() && x instanceof Comparable) {
+            return ((Comparable) x).compareTo(y);
+        }
+        return x.toString().compareTo(y.toString());
+    }
+
+
+    /**
+     * Cursor over a sorted file which verifies the order.
+     */
+    private final class Sorted {
+
+        private final Iterator<CsvLine> it;
+        private final Path file;
+        private CsvLine line;
+        private Object[] key;
+        private long row;
+
+        Sorted(Iterator<CsvLine> it, Path file) {
+            this.it = it;
+            this.file = file;
+            if (header && it.hasNext()) {
+                it.next();
+                row++;
+            }
+            next();
+        }
+
+        void next() {
+            if (!it.hasNext()) {
+                line = null;
+                return;
+            }
+            line = it.next();
+            row++;
+            Object[] k = key(line);
+            if (key != null && compareKeys(key, k) > 0) {
+                throw new IllegalStateException(file + " is not sorted by key at row " + row);
+            }
+            key = k;
+        }
+
+    }
+
+
+    /**
+     * Counts of the differences found.
+     */
+    public static final class Summary {
+
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong deleted = new AtomicLong();
+        private final AtomicLong changed = new AtomicLong();
+        private final AtomicLong unchanged = new AtomicLong();
+
+        Summary() {
+        }
+
+        synchronized void inserted(CsvLine n, Listener listener) {
+            inserted.incrementAndGet();
+            listener.inserted(n);
+        }
+
+        synchronized void deleted(CsvLine n, Listener listener) {
+            deleted.incrementAndGet();
+            listener.deleted(n);
+        }
+
+        void compare(CsvLine left, CsvLine right, Listener listener) {
+            int[] cols = differences(left, right);
+            if (cols.length == 0) {
+                unchanged.incrementAndGet();
+                return;
+            }
+            synchronized (this) {
+                changed.incrementAndGet();
+                listener.changed(left, right, cols);
+            }
+        }
+
+        /**
+         * Rows only in the right file.
+         *
+         * @return  Inserted count.
+         */
+        public long getInserted() {
+            return inserted.get();
+        }
+
+        /**
+         * Rows only in the left file.
+         *
+         * @return  Deleted count.
+         */
+        public long getDeleted() {
+            return deleted.get();
+        }
+
+        /**
+         * Rows in both files with differing cells.
+         *
+         * @return  Changed count.
+         */
+        public long getChanged() {
+            return changed.get();
+        }
+
+        /**
+         * Rows in both files with equal cells.
+         *
+         * @return  Unchanged count.
+         */
+        public long getUnchanged() {
+            return unchanged.get();
+        }
+
+        @Override
+        public String toString() {
+            return "Summary{inserted=" + inserted + ", deleted=" + deleted +
+                   ", changed=" + changed + ", unchanged=" + unchanged + '}';
+        }
+
+    }
+
+}
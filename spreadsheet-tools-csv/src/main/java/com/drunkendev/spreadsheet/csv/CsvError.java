@@ -0,0 +1,136 @@
+/*
+ * CsvError.java    21 October 2026, 09:30
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+
+/**
+ * A problem found in a record when reading with an error handler, see
+ * {@link Csv#lines(java.nio.file.Path, CsvFormat, java.util.function.Consumer)}.
+ *
+ * Errors are plain values passed to the handler, no exception is created
+ * for a malformed record.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvError {
+
+    /**
+     * Kind of problem.
+     */
+    public enum Kind {
+        /**
+         * A quoted value is not closed before the end of the record. The
+         * record is skipped.
+         */
+        UNTERMINATED_QUOTE,
+        /**
+         * The record has a different number of cells to the first record or
+         * the schema. The record is skipped.
+         */
+        COLUMN_COUNT,
+        /**
+         * The record contains bytes that are not valid UTF-8. The record is
+         * skipped.
+         */
+        ENCODING,
+        /**
+         * A cell does not convert to the type of its schema column. The
+         * record is kept with the cell inferred as without a schema.
+         */
+        CONVERSION
+    }
+
+    private final Kind kind;
+    private final long offset;
+    private final long line;
+    private final int column;
+    private final String text;
+    private final String message;
+
+    CsvError(Kind kind, long offset, long line, int column, String text, String message) {
+        this.kind = kind;
+        this.offset = offset;
+        this.line = line;
+        this.column = column;
+        this.text = text;
+        this.message = message;
+    }
+
+    /**
+     * Kind of problem.
+     *
+     * @return  Error kind.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Byte offset in the input of the first malformed byte for
+     * {@link Kind#ENCODING}, otherwise of the start of the record.
+     *
+     * @return  Zero based offset, {@code -1} when input is not UTF-8.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Line number of the record.
+     *
+     * @return  One based line number.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * Cell the problem was found in. For {@link Kind#COLUMN_COUNT} this is
+     * the first missing or extra cell.
+     *
+     * @return  Zero based cell index, {@code -1} if not known.
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Text of the record, with malformed bytes replaced by {@code U+FFFD}.
+     *
+     * @return  Record text.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Description of the problem.
+     *
+     * @return  Message.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " at line " + line + ", column " + column + " (offset " + offset + "): " + message;
+    }
+
+}
@@ -0,0 +1,417 @@
+/*
+ * CsvFiles.java    19 October 2026, 22:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.stream.Collectors.toList;
+
+
+/**
+ * Reads many CSV files concurrently.
+ *
+ * Files are opened and parsed by a pool of readers: virtual threads when
+ * the runtime provides them, otherwise a fixed pool of daemon platform
+ * threads. At most {@code parallelism} files are open at once. Rows are
+ * either handed to a callback on the reader threads, or merged into a
+ * single stream through a bounded buffer so readers block when the
+ * consumer falls behind. Each row is a {@link CsvSourceLine} carrying its
+ * file and line number. Rows of one file arrive in order, rows of
+ * different files are interleaved.
+ *
+ * Files are read as UTF-8 through {@link CsvDecoder}, so a byte order mark
+ * is removed and malformed input replaced with {@code U+FFFD}. Every line
+ * is returned, including any header which may be recognised by
+ * {@link CsvSourceLine#getRow()} being {@code 1}.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvFiles {
+
+    /**
+     * Default number of files read at once.
+     */
+    public static final int DEFAULT_PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Default number of rows buffered between readers and a merged stream.
+     */
+    public static final int DEFAULT_BUFFER_ROWS = 16 * 1024;
+
+    private static final int CHUNK = 256;
+
+    private CsvFiles() {
+    }
+
+    /**
+     * Finds regular files below {@code dir} whose path relative to
+     * {@code dir} matches {@code glob}, for example {@code *.csv} for the
+     * directory itself or <code>**&#47;*.csv</code> for sub directories.
+     *
+     * @param   dir
+     *          Directory to search.
+     * @param   glob
+     *          Glob pattern as described by
+     *          {@link java.nio.file.FileSystem#getPathMatcher(String)}.
+     * @return  Matching files in path order.
+     * @throws  IOException
+     *          If the directory can not be walked.
+     */
+    public static List<Path> find(Path dir, String glob) throws IOException {
+        PathMatcher m = dir.getFileSystem().getPathMatcher("glob:" + glob);
+        try (Stream<Path> s = Files.walk(dir)) {
+            return s.filter(Files::isRegularFile)
+                    .filter(n -> m.matches(dir.relativize(n)))
+                    .sorted()
+                    .collect(toList());
+        }
+    }
+
+    /**
+     * Merged stream of the rows of all files under {@code dir} matching
+     * {@code glob} using default parallelism and buffering.
+     *
+     * @param   dir
+     *          Directory to search.
+     * @param   glob
+     *          Glob pattern, see {@link #find(Path, String)}.
+     * @param   format
+     *          Format of the files.
+     * @return  Stream of rows which must be closed.
+     * @throws  IOException
+     *          If the directory can not be walked.
+     */
+    public static Stream<CsvSourceLine> lines(Path dir, String glob, CsvFormat format) throws IOException {
+        return lines(find(dir, glob), format, DEFAULT_PARALLELISM, DEFAULT_BUFFER_ROWS);
+    }
+
+    /**
+     * Merged stream of the rows of {@code files}.
+     *
+     * Reading starts on the first request for a row. Closing the stream
+     * stops all readers. An error reading any file is thrown from the stream
+     * as an {@link UncheckedIOException}.
+     *
+     * @param   files
+     *          Files to read.
+     * @param   format
+     *          Format of the files.
+     * @param   parallelism
+     *          Maximum files open at once.
+     * @param   bufferRows
+     *          Approximate number of rows buffered ahead of the consumer.
+     * @return  Stream of rows which must be closed.
+     */
+    public static Stream<CsvSourceLine> lines(Collection<Path> files,
+                                              CsvFormat format,
+                                              int parallelism,
+                                              int bufferRows) {
+        if (parallelism < 1 || bufferRows < 1) {
+            throw new IllegalArgumentException("parallelism and bufferRows must be positive");
+        }
+        Merger m = new Merger(new ArrayList<>(files), format, parallelism, bufferRows);
+        return StreamSupport.stream(m, false).onClose(m::close);
+    }
+
+    /**
+     * Reads {@code files} concurrently passing every row to {@code action}
+     * on the reading thread. {@code action} must therefore be thread safe.
+     *
+     * @param   files
+     *          Files to read.
+     * @param   format
+     *          Format of the files.
+     * @param   parallelism
+     *          Maximum files open at once.
+     * @param   action
+     *          Action performed for each row.
+     * @throws  IOException
+     *          If a file can not be read, remaining files are abandoned.
+     * @throws  InterruptedException
+     *          If interrupted while waiting for readers.
+     */
+    public static void forEach(Collection<Path> files,
+                               CsvFormat format,
+                               int parallelism,
+                               Consumer<? super CsvSourceLine> action) throws IOException, InterruptedException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        ExecutorService exec = executor(parallelism);
+        Semaphore open = new Semaphore(parallelism);
+        try {
+            List<Future<?>> futures = new ArrayList<>(files.size());
+            for (Path p : files) {
+                futures.add(exec.submit(() -> {
+                    open.acquire();
+                    try {
+                        read(p, format, action);
+                    } finally {
+                        open.release();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException ex) {
+                    throw rethrow(ex.getCause());
+                }
+            }
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    private static void read(Path p, CsvFormat format, Consumer<? super CsvSourceLine> action) throws IOException, InterruptedException {
+        try (CsvDecoder in = new CsvDecoder(Files.newInputStream(p), true)) {
+            CsvDecoder.Line line = new CsvDecoder.Line();
+            long row = 0;
+            while (in.readLine(line)) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                action.accept(new CsvSourceLine(p, ++row, CsvParser.splitLine(line, format)));
+            }
+        }
+    }
+
+    private static IOException rethrow(Throwable t) {
+        if (t instanceof IOException) {
+            return (IOException) t;
+        }
+        if (t instanceof UncheckedIOException) {
+            return ((UncheckedIOException) t).getCause();
+        }
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IOException(t);
+    }
+
+    /**
+     * A virtual thread per task executor when the runtime has one, bounded
+     * by the caller with a semaphore, otherwise a fixed pool of daemon
+     * threads.
+     */
+    private static ExecutorService executor(int threads) {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            AtomicInteger n = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "csv-files-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+
+    /**
+     * Spliterator draining chunks of rows produced by the readers.
+     */
+    private static final class Merger implements Spliterator<CsvSourceLine> {
+
+        private static final Object END = new Object();
+        private static final long POLL_MILLIS = 100;
+
+        private final List<Path> files;
+        private final CsvFormat format;
+        private final int parallelism;
+        private final BlockingQueue<Object> queue;
+        private final AtomicInteger remaining;
+
+        private ExecutorService exec;
+        private volatile boolean closed;
+        private volatile Throwable failure;
+        private List<CsvSourceLine> chunk;
+        private int pos;
+        private boolean done;
+
+        Merger(List<Path> files, CsvFormat format, int parallelism, int bufferRows) {
+            this.files = files;
+            this.format = format;
+            this.parallelism = parallelism;
+            this.queue = new ArrayBlockingQueue<>(Math.max(2, bufferRows / CHUNK));
+            this.remaining = new AtomicInteger(files.size());
+        }
+
+        private void start() {
+            exec = executor(parallelism);
+            if (files.isEmpty()) {
+                queue.add(END);
+                return;
+            }
+            Semaphore open = new Semaphore(parallelism);
+            for (Path p : files) {
+                exec.execute(() -> {
+                    try {
+                        open.acquire();
+                        try {
+                            produce(p);
+                        } finally {
+                            open.release();
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (Throwable ex) {
+                        failed(ex);
+                    } finally {
+                        finished();
+                    }
+                });
+            }
+        }
+
+        private void produce(Path p) throws IOException, InterruptedException {
+            List<CsvSourceLine> rows = new ArrayList<>(CHUNK);
+            try (CsvDecoder in = new CsvDecoder(Files.newInputStream(p), true)) {
+                CsvDecoder.Line line = new CsvDecoder.Line();
+                long row = 0;
+                while (!closed && in.readLine(line)) {
+                    rows.add(new CsvSourceLine(p, ++row, CsvParser.splitLine(line, format)));
+                    if (rows.size() == CHUNK) {
+                        queue.put(rows);
+                        rows = new ArrayList<>(CHUNK);
+                    }
+                }
+            }
+            if (!rows.isEmpty()) {
+                queue.put(rows);
+            }
+        }
+
+        /**
+         * Counts a reader as done, however it ended, signalling the end of
+         * input once all have.
+         */
+        private void finished() {
+            if (remaining.decrementAndGet() == 0 && !closed) {
+                try {
+                    queue.put(END);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void failed(Throwable ex) {
+            if (!closed && failure == null) {
+                failure = ex;
+                closed = true;
+                // Release readers blocked on a full buffer.
+                queue.clear();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super CsvSourceLine> action) {
+            if (done) {
+                return false;
+            }
+            if (exec == null) {
+                start();
+            }
+            while (chunk == null || pos == chunk.size()) {
+                Object next;
+                try {
+                    while ((next = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null && failure == null) {
+                        // Waiting on readers.
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    throw new IllegalStateException("Interrupted waiting for rows", ex);
+                }
+                if (failure != null) {
+                    done = true;
+                    close();
+                    if (failure instanceof IOException) {
+                        throw new UncheckedIOException((IOException) failure);
+                    }
+                    if (failure instanceof Error) {
+                        throw (Error) failure;
+                    }
+                    throw (RuntimeException) failure;
+                }
+                if (next == END) {
+                    done = true;
+                    close();
+                    return false;
+                }
+                chunk = (List<CsvSourceLine>) next;
+                pos = 0;
+            }
+            action.accept(chunk.get(pos++));
+            return true;
+        }
+
+        void close() {
+            closed = true;
+            if (exec != null) {
+                exec.shutdownNow();
+            }
+        }
+
+        @Override
+        public Spliterator<CsvSourceLine> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return NONNULL;
+        }
+
+    }
+
+}
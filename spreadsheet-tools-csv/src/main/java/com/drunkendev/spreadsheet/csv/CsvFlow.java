@@ -0,0 +1,115 @@
+/*
+ * CsvFlow.java    19 October 2026, 23:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+
+/**
+ * Reactive streams interfaces with the same shape and rules as
+ * {@code java.util.concurrent.Flow} and {@code org.reactivestreams}.
+ *
+ * This library targets Java 8 where {@code Flow} is not available, adapting
+ * to either of the above only requires forwarding each method.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvFlow {
+
+    private CsvFlow() {
+    }
+
+    /**
+     * Producer of items requested by a {@link Subscriber}.
+     *
+     * @param   <T>
+     *          Item type.
+     */
+    public interface Publisher<T> {
+
+        /**
+         * Adds a subscriber, which is always signalled with
+         * {@link Subscriber#onSubscribe(Subscription)} first.
+         *
+         * @param   subscriber
+         *          Subscriber to add.
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+
+    }
+
+    /**
+     * Receiver of items.
+     *
+     * @param   <T>
+     *          Item type.
+     */
+    public interface Subscriber<T> {
+
+        /**
+         * Called before any other method.
+         *
+         * @param   subscription
+         *          Subscription used to request items.
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Next item, never called more often than requested.
+         *
+         * @param   item
+         *          Item.
+         */
+        void onNext(T item);
+
+        /**
+         * Terminal error, no further methods are called.
+         *
+         * @param   throwable
+         *          Error.
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Terminal completion, no further methods are called.
+         */
+        void onComplete();
+
+    }
+
+    /**
+     * Link between a publisher and a subscriber.
+     */
+    public interface Subscription {
+
+        /**
+         * Adds {@code n} items to the demand.
+         *
+         * @param   n
+         *          Items requested, must be positive.
+         */
+        void request(long n);
+
+        /**
+         * Stops delivery, the publisher may still deliver items already in
+         * flight.
+         */
+        void cancel();
+
+    }
+
+}
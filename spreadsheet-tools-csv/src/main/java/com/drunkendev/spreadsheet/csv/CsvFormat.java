@@ -0,0 +1,518 @@
+/*
+ * CsvFormat.java    19 October 2026, 15:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+
+/**
+ * Immutable description of a CSV dialect.
+ *
+ * All configuration (delimiter, quote characters, trimming, null tokens and
+ * type inference) is compiled once into a character class lookup table and a
+ * null token trie, so the tokenizer only needs a single table lookup per
+ * character and can detect null tokens on the character range without
+ * creating a substring. Instances are safe to share between threads and
+ * should be reused rather than created per line.
+ *
+ * <p>New formats are derived from {@link #DEFAULT} with the {@code with}
+ * methods:</p>
+ *
+ * <pre>
+ * CsvFormat fmt = CsvFormat.DEFAULT.withDelimiter('|').withNumberedText(true);
+ * </pre>
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvFormat {
+
+    static final byte C_OTHER = 0;
+    static final byte C_DELIM = 1;
+    static final byte C_QUOTE = 2;
+    static final byte C_EQUALS = 3;
+    static final byte C_MINUS = 4;
+    static final byte C_DOT = 5;
+    static final byte C_DIGIT = 6;
+    static final byte C_SPACE = 7;
+
+    /**
+     * Default format: {@code ,} delimited, {@code "} and {@code '} quoted,
+     * {@code null} as the null token, values trimmed, types inferred using
+     * {@link Csv#DEFAULT_DATE_TIME} and formulas recognised.
+     */
+    public static final CsvFormat DEFAULT = new CsvFormat(',',
+                                                          new char[]{'"', '\''},
+                                                          true,
+                                                          false,
+                                                          true,
+                                                          true,
+                                                          Csv.DEFAULT_DATE_TIME,
+                                                          Collections.singleton("null"),
+                                                          0);
+
+    private static volatile CsvFormat lastLegacy = DEFAULT;
+
+    private final char delimiter;
+    private final char[] quoteChars;
+    private final boolean trim;
+    private final boolean numberedText;
+    private final boolean typeInference;
+    private final boolean formulas;
+    private final DateTimeFormatter formatter;
+    private final Set<String> nullValues;
+    private final int valueCache;
+
+    private final byte[] classes = new byte[128];
+    private final NullTrie nullTrie;
+    private final ThreadLocal<CsvValueCache> caches;
+
+    private CsvFormat(char delimiter,
+                      char[] quoteChars,
+                      boolean trim,
+                      boolean numberedText,
+                      boolean typeInference,
+                      boolean formulas,
+                      DateTimeFormatter formatter,
+                      Set<String> nullValues,
+                      int valueCache) {
+        if (formatter == null) {
+            throw new IllegalArgumentException("formatter may not be null");
+        }
+        for (char q : quoteChars) {
+            if (q == delimiter) {
+                throw new IllegalArgumentException("delimiter may not also be a quote character");
+            }
+        }
+        this.delimiter = delimiter;
+        this.quoteChars = quoteChars;
+        this.trim = trim;
+        this.numberedText = numberedText;
+        this.typeInference = typeInference;
+        this.formulas = formulas;
+        this.formatter = formatter;
+        this.nullValues = nullValues;
+        this.nullTrie = new NullTrie(nullValues);
+        this.valueCache = valueCache;
+        this.caches = valueCache > 0 ? ThreadLocal.withInitial(() -> new CsvValueCache(valueCache)) : null;
+
+        for (char c = 0; c < 128; c++) {
+            classes[c] = classify(c);
+        }
+    }
+
+    /**
+     * Returns a format for the legacy {@link Csv} overloads, reusing the most
+     * recently compiled format when the arguments are unchanged so repeated
+     * calls do not recompile lookup tables.
+     */
+    static CsvFormat of(boolean numberedText,
+                        char delim,
+                        DateTimeFormatter formatter,
+                        Set<String> nullValues) {
+        if (DEFAULT.matches(numberedText, delim, formatter, nullValues)) {
+            return DEFAULT;
+        }
+        CsvFormat last = lastLegacy;
+        if (last.matches(numberedText, delim, formatter, nullValues)) {
+            return last;
+        }
+        CsvFormat res = DEFAULT.withNumberedText(numberedText)
+                .withDelimiter(delim)
+                .withFormatter(formatter)
+                .withNullValues(nullValues == null ? Collections.<String>emptySet() : nullValues);
+        lastLegacy = res;
+        return res;
+    }
+
+    private boolean matches(boolean numberedText,
+                            char delim,
+                            DateTimeFormatter formatter,
+                            Set<String> nullValues) {
+        return this.numberedText == numberedText &&
+               this.delimiter == delim &&
+               this.formatter == formatter &&
+               Objects.equals(this.nullValues, nullValues == null ? Collections.emptySet() : nullValues);
+    }
+
+    /**
+     * Character used to delimit cells.
+     *
+     * @return  Delimiter character.
+     */
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Characters that may open a quoted value.
+     *
+     * @return  Copy of the quote characters.
+     */
+    public char[] getQuoteChars() {
+        return quoteChars.clone();
+    }
+
+    /**
+     * Whether whitespace surrounding unquoted values is ignored.
+     *
+     * @return  True if values are trimmed.
+     */
+    public boolean isTrim() {
+        return trim;
+    }
+
+    /**
+     * Whether quoted numbers are converted to numbers.
+     *
+     * @return  True if quoted numbers are treated as numbers.
+     */
+    public boolean isNumberedText() {
+        return numberedText;
+    }
+
+    /**
+     * Whether unquoted values are converted to numbers, booleans and
+     * temporal values. When disabled unquoted values are returned as strings.
+     *
+     * @return  True if types are inferred.
+     */
+    public boolean isTypeInference() {
+        return typeInference;
+    }
+
+    /**
+     * Whether values starting with {@code =} are returned as
+     * {@link FormulaValue} instances.
+     *
+     * @return  True if formulas are recognised.
+     */
+    public boolean isFormulas() {
+        return formulas;
+    }
+
+    /**
+     * Formatter used to parse temporal values.
+     *
+     * @return  Date time formatter.
+     */
+    public DateTimeFormatter getFormatter() {
+        return formatter;
+    }
+
+    /**
+     * Unquoted values that are considered null.
+     *
+     * @return  Unmodifiable set of null tokens.
+     */
+    public Set<String> getNullValues() {
+        return nullValues;
+    }
+
+    /**
+     * Entries per column of the typed value cache.
+     *
+     * @return  Cache capacity, {@code 0} when values are not cached.
+     */
+    public int getValueCache() {
+        return valueCache;
+    }
+
+    /**
+     * Returns a copy of this format using {@code delimiter} to delimit cells.
+     */
+    public CsvFormat withDelimiter(char delimiter) {
+        if (delimiter == this.delimiter) {
+            return this;
+        }
+        return new CsvFormat(delimiter, quoteChars, trim, numberedText, typeInference, formulas, formatter, nullValues, valueCache);
+    }
+
+    /**
+     * Returns a copy of this format with the given quote characters.
+     */
+    public CsvFormat withQuoteChars(char... quoteChars) {
+        return new CsvFormat(delimiter, quoteChars.clone(), trim, numberedText, typeInference, formulas, formatter, nullValues, valueCache);
+    }
+
+    /**
+     * Returns a copy of this format with trimming enabled or disabled.
+     */
+    public CsvFormat withTrim(boolean trim) {
+        if (trim == this.trim) {
+            return this;
+        }
+        return new CsvFormat(delimiter, quoteChars, trim, numberedText, typeInference, formulas, formatter, nullValues, valueCache);
+    }
+
+    /**
+     * Returns a copy of this format with quoted number conversion enabled or disabled.
+     */
+    public CsvFormat withNumberedText(boolean numberedText) {
+        if (numberedText == this.numberedText) {
+            return this;
+        }
+        return new CsvFormat(delimiter, quoteChars, trim, numberedText, typeInference, formulas, formatter, nullValues, valueCache);
+    }
+
+    /**
+     * Returns a copy of this format with type inference enabled or disabled.
+     */
+    public CsvFormat withTypeInference(boolean typeInference) {
+        if (typeInference == this.typeInference) {
+            return this;
+        }
+        return new CsvFormat(delimiter, quoteChars, trim, numberedText, typeInference, formulas, formatter, nullValues, valueCache);
+    }
+
+    /**
+     * Returns a copy of this format with formula recognition enabled or disabled.
+     */
+    public CsvFormat withFormulas(boolean formulas) {
+        if (formulas == this.formulas) {
+            return this;
+        }
+        return new CsvFormat(delimiter, quoteChars, trim, numberedText, typeInference, formulas, formatter, nullValues, valueCache);
+    }
+
+    /**
+     * Returns a copy of this format parsing temporal values with {@code formatter}.
+     */
+    public CsvFormat withFormatter(DateTimeFormatter formatter) {
+        if (formatter == this.formatter) {
+            return this;
+        }
+        return new CsvFormat(delimiter, quoteChars, trim, numberedText, typeInference, formulas, formatter, nullValues, valueCache);
+    }
+
+    /**
+     * Returns a copy of this format with the given null tokens.
+     */
+    public CsvFormat withNullValues(Set<String> nullValues) {
+        return new CsvFormat(delimiter, quoteChars, trim, numberedText, typeInference, formulas, formatter,
+                             Collections.unmodifiableSet(new LinkedHashSet<>(nullValues)), valueCache);
+    }
+
+    /**
+     * Returns a copy of this format with the given null tokens.
+     */
+    public CsvFormat withNullValues(String... nullValues) {
+        return withNullValues(new LinkedHashSet<>(Arrays.asList(nullValues)));
+    }
+
+    /**
+     * Returns a copy of this format caching the typed value of unquoted
+     * cells by their text, for columns such as dates and flags that repeat a
+     * small set of values. Each thread parsing with the format has its own
+     * cache, so parallel parsing never contends on it, holding up to
+     * {@code capacity} values per column, see {@link CsvValueCache}.
+     *
+     * @param   capacity
+     *          Entries per column, rounded up to a power of two, or
+     *          {@code 0} to disable caching.
+     * @return  New format.
+     */
+    public CsvFormat withValueCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity may not be negative");
+        }
+        if (capacity == valueCache) {
+            return this;
+        }
+        return new CsvFormat(delimiter, quoteChars, trim, numberedText, typeInference, formulas, formatter, nullValues, capacity);
+    }
+
+    /**
+     * Typed value cache of the calling thread.
+     *
+     * @return  Cache, {@code null} when values are not cached.
+     */
+    CsvValueCache valueCache() {
+        return caches == null ? null : caches.get();
+    }
+
+    /**
+     * Class of character {@code c} for the tokenizer.
+     */
+    byte classOf(char c) {
+        return c < 128 ? classes[c] : classify(c);
+    }
+
+    /**
+     * Tests if the characters {@code start} (inclusive) to {@code end}
+     * (exclusive) of {@code s} are a null token.
+     */
+    boolean isNull(CharSequence s, int start, int end) {
+        return nullTrie.matches(s, start, end);
+    }
+
+    private byte classify(char c) {
+        if (c == delimiter) {
+            return C_DELIM;
+        }
+        for (char q : quoteChars) {
+            if (c == q) {
+                return C_QUOTE;
+            }
+        }
+        switch (c) {
+            case '=':
+                return C_EQUALS;
+            case '-':
+                return C_MINUS;
+            case '.':
+                return C_DOT;
+            default:
+                if (Character.isWhitespace(c)) {
+                    return C_SPACE;
+                }
+                if (Character.isDigit(c)) {
+                    return C_DIGIT;
+                }
+                return C_OTHER;
+        }
+    }
+
+    /**
+     * Formats are equal when all settings are equal, formatters are compared
+     * by identity as {@link DateTimeFormatter} does not implement equality.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        CsvFormat o = (CsvFormat) obj;
+        return delimiter == o.delimiter &&
+               trim == o.trim &&
+               numberedText == o.numberedText &&
+               typeInference == o.typeInference &&
+               formulas == o.formulas &&
+               formatter == o.formatter &&
+               valueCache == o.valueCache &&
+               Arrays.equals(quoteChars, o.quoteChars) &&
+               nullValues.equals(o.nullValues);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = delimiter;
+        h = 31 * h + Arrays.hashCode(quoteChars);
+        h = 31 * h + (trim ? 1 : 0);
+        h = 31 * h + (numberedText ? 1 : 0);
+        h = 31 * h + (typeInference ? 1 : 0);
+        h = 31 * h + (formulas ? 1 : 0);
+        h = 31 * h + System.identityHashCode(formatter);
+        h = 31 * h + nullValues.hashCode();
+        h = 31 * h + valueCache;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "CsvFormat{delimiter=" + delimiter +
+               ", quoteChars=" + Arrays.toString(quoteChars) +
+               ", trim=" + trim +
+               ", numberedText=" + numberedText +
+               ", typeInference=" + typeInference +
+               ", formulas=" + formulas +
+               ", nullValues=" + nullValues +
+               ", valueCache=" + valueCache + '}';
+    }
+
+
+    /**
+     * Trie of null tokens matched directly against a character range.
+     */
+    private static final class NullTrie {
+
+        private final Node root = new Node();
+        private final int minLength;
+        private final int maxLength;
+
+        NullTrie(Set<String> tokens) {
+            int min = Integer.MAX_VALUE;
+            int max = -1;
+            for (String t : tokens) {
+                if (t == null) {
+                    continue;
+                }
+                min = Math.min(min, t.length());
+                max = Math.max(max, t.length());
+                Node n = root;
+                for (int i = 0; i < t.length(); i++) {
+                    n = n.child(t.charAt(i), true);
+                }
+                n.terminal = true;
+            }
+            this.minLength = min;
+            this.maxLength = max;
+        }
+
+        boolean matches(CharSequence s, int start, int end) {
+            int len = end - start;
+            if (len < minLength || len > maxLength) {
+                return false;
+            }
+            Node n = root;
+            for (int i = start; i < end; i++) {
+                n = n.child(s.charAt(i), false);
+                if (n == null) {
+                    return false;
+                }
+            }
+            return n.terminal;
+        }
+
+    }
+
+
+    private static final class Node {
+
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private boolean terminal;
+
+        Node child(char c, boolean create) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            if (!create) {
+                return null;
+            }
+            Node n = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = c;
+            children[children.length - 1] = n;
+            return n;
+        }
+
+    }
+
+}
@@ -0,0 +1,942 @@
+/*
+ * CsvFormula.java    20 October 2026, 14:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * A compiled spreadsheet formula.
+ *
+ * The formula text is parsed once into an expression tree which is then
+ * compiled into a tree of evaluator lambdas. Arithmetic is evaluated on
+ * primitive {@code double} values without boxing. Compiled formulas are
+ * immutable and cached by text, so identical formulas in many rows share
+ * one compiled form. The cache holds the most recently used formulas.
+ *
+ * <p>Supported syntax:</p>
+ * <ul>
+ * <li>numbers, {@code "text"} (with {@code ""} escapes), {@code TRUE} and
+ * {@code FALSE};</li>
+ * <li>cell references such as {@code B2} or {@code $B$2}, where column
+ * {@code A} and row {@code 1} are index {@code 0};</li>
+ * <li>{@code + - * / ^}, unary minus, {@code &} concatenation and the
+ * comparisons {@code = <> < > <= >=}, with spreadsheet precedence: unary
+ * minus binds tighter than {@code ^}, which folds left to right;</li>
+ * <li>{@code SUM}, {@code AVG} (or {@code AVERAGE}), {@code MIN},
+ * {@code MAX}, {@code IF} and {@code CONCAT} (or {@code CONCATENATE}),
+ * where the aggregates accept ranges such as {@code A1:C3}.</li>
+ * </ul>
+ *
+ * Empty cells are {@code 0} in arithmetic and empty in text. Aggregates
+ * skip empty and text cells of ranges. Text that is not a number yields
+ * {@code NaN} in arithmetic, division by zero follows IEEE rules.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvFormula {
+
+    /**
+     * Source of cell values for evaluation.
+     */
+    @FunctionalInterface
+    public interface Cells {
+
+        /**
+         * Value of a cell.
+         *
+         * @param   row
+         *          Zero based row.
+         * @param   col
+         *          Zero based column.
+         * @return  Value, {@code null} when empty or out of range.
+         */
+        Object get(int row, int col);
+
+    }
+
+    private static final int CACHE_LIMIT = 4096;
+    private static final Map<String, CsvFormula> CACHE = new LinkedHashMap<String, CsvFormula>(256, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CsvFormula> eldest) {
+            return size() > CACHE_LIMIT;
+        }
+    };
+
+    private final String text;
+    private final Val val;
+    private final int[][] references;
+
+    private CsvFormula(String text, Parser parser) {
+        Node root = parser.parse();
+        this.text = text;
+        this.val = root.val();
+        this.references = parser.refs.toArray(new int[0][]);
+    }
+
+    /**
+     * Compiles a formula, returning a cached instance for text already
+     * compiled.
+     *
+     * @param   text
+     *          Formula with or without the leading {@code =}.
+     * @return  Compiled formula.
+     * @throws  IllegalArgumentException
+     *          If the formula is not valid.
+     */
+    public static CsvFormula compile(String text) {
+        String key = text.startsWith("=") ? text.substring(1).trim() : text.trim();
+        CsvFormula f;
+        synchronized (CACHE) {
+            f = CACHE.get(key);
+        }
+        if (f == null) {
+            f = new CsvFormula(key, new Parser(key));
+            synchronized (CACHE) {
+                CsvFormula prior = CACHE.putIfAbsent(key, f);
+                if (prior != null) {
+                    f = prior;
+                }
+            }
+        }
+        return f;
+    }
+
+    /**
+     * Compiles a formula cell.
+     *
+     * @param   formula
+     *          Formula value.
+     * @return  Compiled formula.
+     * @throws  IllegalArgumentException
+     *          If the formula is not valid.
+     */
+    public static CsvFormula compile(FormulaValue formula) {
+        return compile(formula.getValue());
+    }
+
+    /**
+     * Formula text without the leading {@code =}.
+     *
+     * @return  Formula text.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Cells read by the formula, each as a rectangle of zero based
+     * {@code {row1, col1, row2, col2}} with single references as one cell.
+     * The arrays are shared and must not be modified.
+     */
+    int[][] references() {
+        return references;
+    }
+
+    /**
+     * Evaluates the formula.
+     *
+     * @param   cells
+     *          Cell values.
+     * @return  {@link Double}, {@link Boolean} or {@link String} result.
+     */
+    public Object evaluate(Cells cells) {
+        return val.get(cells);
+    }
+
+    /**
+     * Evaluates a formula against rows, formula cells it refers to are
+     * evaluated as needed.
+     *
+     * @param   formula
+     *          Formula to evaluate.
+     * @param   rows
+     *          Rows providing cell values.
+     * @return  Result of the formula.
+     * @throws  IllegalStateException
+     *          If the formula refers back to itself.
+     */
+    public static Object evaluate(FormulaValue formula, List<? extends CsvLine> rows) {
+        return compile(formula).evaluate(cells(rows));
+    }
+
+    /**
+     * Cells backed by rows where referenced {@link FormulaValue} cells are
+     * evaluated recursively. The result of each formula cell is kept for the
+     * life of the returned cells, so a cell shared by many formulas is
+     * evaluated once and the rows must not change while they are in use.
+     * The result is not thread safe.
+     *
+     * @param   rows
+     *          Rows providing cell values.
+     * @return  Cell source.
+     */
+    public static Cells cells(List<? extends CsvLine> rows) {
+        Set<Long> active = new HashSet<>();
+        Map<Long, Object> results = new HashMap<>();
+        return new Cells() {
+            @Override
+            public Object get(int row, int col) {
+                if (row < 0 || row >= rows.size()) {
+                    return null;
+                }
+                Object v = rows.get(row).getObject(col);
+                if (v instanceof FormulaValue) {
+                    Long k = (long) row << 32 | col;
+                    Object res = results.get(k);
+                    if (res != null || results.containsKey(k)) {
+                        return res;
+                    }
+                    if (!active.add(k)) {
+                        throw new IllegalStateException("Circular reference at " + name(row, col));
+                    }
+                    try {
+                        res = compile((FormulaValue) v).evaluate(this);
+                    } finally {
+                        active.remove(k);
+                    }
+                    results.put(k, res);
+                    return res;
+                }
+                return v;
+            }
+        };
+    }
+
+    /**
+     * A1 style name of a cell.
+     *
+     * @param   row
+     *          Zero based row.
+     * @param   col
+     *          Zero based column.
+     * @return  Cell name such as {@code B3}.
+     */
+    public static String name(int row, int col) {
+        StringBuilder sb = new StringBuilder();
+        for (int c = col + 1; c > 0; c = (c - 1) / 26) {
+            sb.insert(0, (char) ('A' + (c - 1) % 26));
+        }
+        return sb.append(row + 1).toString();
+    }
+
+    @Override
+    public String toString() {
+        return "=" + text;
+    }
+
+    static double number(Object v) {
+        if (v == null) {
+            return 0;
+        }
+        if (v instanceof Number) {
+            return ((Number) v).doubleValue();
+        }
+        if (v instanceof Boolean) {
+            return (Boolean) v ? 1 : 0;
+        }
+        String s = v.toString().trim();
+        if (s.isEmpty()) {
+            return 0;
+        }
+        return CsvParser.toDouble(s, Double.NaN);
+    }
+
+    static String text(Object v) {
+        if (v == null) {
+            return "";
+        }
+        if (v instanceof Double) {
+            double d = (Double) v;
+            if (d == Math.rint(d) && !Double.isInfinite(d) && Math.abs(d) < 1e15) {
+                return Long.toString((long) d);
+            }
+            return v.toString();
+        }
+        if (v instanceof Boolean) {
+            return (Boolean) v ? "TRUE" : "FALSE";
+        }
+        return v.toString();
+    }
+
+    static boolean truth(Object v) {
+        if (v instanceof Boolean) {
+            return (Boolean) v;
+        }
+        if (v instanceof String) {
+            return "TRUE".equalsIgnoreCase((String) v);
+        }
+        return number(v) != 0;
+    }
+
+
+    /**
+     * Evaluator returning any value.
+     */
+    @FunctionalInterface
+    interface Val {
+
+        Object get(Cells c);
+
+    }
+
+
+    /**
+     * Evaluator returning a number.
+     */
+    @FunctionalInterface
+    interface Num {
+
+        double get(Cells c);
+
+    }
+
+
+    /**
+     * Expression tree node, compiled into evaluators.
+     */
+    abstract static class Node {
+
+        abstract Val val();
+
+        Num num() {
+            Val v = val();
+            return c -> number(v.get(c));
+        }
+
+    }
+
+
+    private static final class Const extends Node {
+
+        private final Object value;
+
+        Const(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        Val val() {
+            Object v = value;
+            return c -> v;
+        }
+
+        @Override
+        Num num() {
+            double d = number(value);
+            return c -> d;
+        }
+
+    }
+
+
+    private static final class Ref extends Node {
+
+        private final int row;
+        private final int col;
+
+        Ref(int row, int col) {
+            this.row = row;
+            this.col = col;
+        }
+
+        @Override
+        Val val() {
+            int r = row;
+            int k = col;
+            return c -> c.get(r, k);
+        }
+
+    }
+
+
+    private static final class Range extends Node {
+
+        private final int row1;
+        private final int col1;
+        private final int row2;
+        private final int col2;
+
+        Range(Ref a, Ref b) {
+            this.row1 = Math.min(a.row, b.row);
+            this.col1 = Math.min(a.col, b.col);
+            this.row2 = Math.max(a.row, b.row);
+            this.col2 = Math.max(a.col, b.col);
+        }
+
+        @Override
+        Val val() {
+            throw new IllegalArgumentException("Range " + name(row1, col1) + ":" + name(row2, col2)
+                                               + " may only be used as a function argument");
+        }
+
+    }
+
+
+    private static final class Negate extends Node {
+
+        private final Node operand;
+
+        Negate(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Val val() {
+            Num n = num();
+            return c -> n.get(c);
+        }
+
+        @Override
+        Num num() {
+            Num n = operand.num();
+            return c -> -n.get(c);
+        }
+
+    }
+
+
+    private static final class Binary extends Node {
+
+        private final char op;
+        private final Node left;
+        private final Node right;
+
+        Binary(char op, Node left, Node right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        private boolean isNumeric() {
+            return "+-*/^".indexOf(op) >= 0;
+        }
+
+        @Override
+        Val val() {
+            if (isNumeric()) {
+                Num n = num();
+                return c -> n.get(c);
+            }
+            Val a = left.val();
+            Val b = right.val();
+            switch (op) {
+                case '&':
+                    return c -> text(a.get(c)) + text(b.get(c));
+                case '=':
+                    return c -> compare(a.get(c), b.get(c)) == 0;
+                case '!':
+                    return c -> compare(a.get(c), b.get(c)) != 0;
+                case '<':
+                    return c -> compare(a.get(c), b.get(c)) < 0;
+                case '>':
+                    return c -> compare(a.get(c), b.get(c)) > 0;
+                case 'l':
+                    return c -> compare(a.get(c), b.get(c)) <= 0;
+                case 'g':
+                    return c -> compare(a.get(c), b.get(c)) >= 0;
+                default:
+                    throw new IllegalStateException("Unknown operator " + op);
+            }
+        }
+
+        @Override
+        Num num() {
+            if (!isNumeric()) {
+                return super.num();
+            }
+            Num a = left.num();
+            Num b = right.num();
+            switch (op) {
+                case '+':
+                    return c -> a.get(c) + b.get(c);
+                case '-':
+                    return c -> a.get(c) - b.get(c);
+                case '*':
+                    return c -> a.get(c) * b.get(c);
+                case '/':
+                    return c -> a.get(c) / b.get(c);
+                default:
+                    return c -> Math.pow(a.get(c), b.get(c));
+            }
+        }
+
+        private static int compare(Object a, Object b) {
+            boolean an = !(a instanceof String);
+            boolean bn = !(b instanceof String);
+            if (an && bn) {
+                return Double.compare(number(a), number(b));
+            }
+            if (an != bn && (a == null || b == null)) {
+                return text(a).compareToIgnoreCase(text(b));
+            }
+            if (an != bn) {
+                // Text sorts after numbers.
+                return an ? -1 : 1;
+            }
+            return ((String) a).compareToIgnoreCase((String) b);
+        }
+
+    }
+
+
+    private static final class Call extends Node {
+
+        private final String function;
+        private final List<Node> args;
+
+        Call(String function, List<Node> args) {
+            this.function = function;
+            this.args = args;
+            switch (function) {
+                case "SUM":
+                case "AVG":
+                case "MIN":
+                case "MAX":
+                    if (args.isEmpty()) {
+                        throw new IllegalArgumentException(function + " requires arguments");
+                    }
+                    break;
+                case "IF":
+                    if (args.size() < 2 || args.size() > 3) {
+                        throw new IllegalArgumentException("IF requires two or three arguments");
+                    }
+                    break;
+                case "CONCAT":
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown function " + function);
+            }
+        }
+
+        @Override
+        Val val() {
+            switch (function) {
+                case "IF":
+                    Val test = args.get(0).val();
+                    Val then = args.get(1).val();
+                    Val other = args.size() > 2 ? args.get(2).val() : c -> Boolean.FALSE;
+                    return c -> truth(test.get(c)) ? then.get(c) : other.get(c);
+                case "CONCAT":
+                    Val[] parts = new Val[args.size()];
+                    for (int i = 0; i < parts.length; i++) {
+                        parts[i] = args.get(i).val();
+                    }
+                    return c -> {
+                        StringBuilder sb = new StringBuilder();
+                        for (Val p : parts) {
+                            sb.append(text(p.get(c)));
+                        }
+                        return sb.toString();
+                    };
+                default:
+                    Num n = num();
+                    return c -> n.get(c);
+            }
+        }
+
+        @Override
+        Num num() {
+            if ("IF".equals(function) || "CONCAT".equals(function)) {
+                return super.num();
+            }
+            Aggregate agg = new Aggregate(args);
+            switch (function) {
+                case "SUM":
+                    return c -> agg.run(c, Aggregate.SUM);
+                case "AVG":
+                    return c -> agg.run(c, Aggregate.AVG);
+                case "MIN":
+                    return c -> agg.run(c, Aggregate.MIN);
+                default:
+                    return c -> agg.run(c, Aggregate.MAX);
+            }
+        }
+
+    }
+
+
+    /**
+     * Numeric aggregate over ranges and scalar arguments.
+     */
+    private static final class Aggregate {
+
+        static final int SUM = 0;
+        static final int AVG = 1;
+        static final int MIN = 2;
+        static final int MAX = 3;
+
+        private final int[][] ranges;
+        private final Num[] scalars;
+
+        Aggregate(List<Node> args) {
+            List<int[]> r = new ArrayList<>();
+            List<Num> s = new ArrayList<>();
+            for (Node n : args) {
+                if (n instanceof Range) {
+                    Range g = (Range) n;
+                    r.add(new int[]{g.row1, g.col1, g.row2, g.col2});
+                } else {
+                    s.add(n.num());
+                }
+            }
+            this.ranges = r.toArray(new int[0][]);
+            this.scalars = s.toArray(new Num[0]);
+        }
+
+        double run(Cells c, int kind) {
+            double sum = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            long count = 0;
+            for (int[] g : ranges) {
+                for (int row = g[0]; row <= g[2]; row++) {
+                    for (int col = g[1]; col <= g[3]; col++) {
+                        Object v = c.get(row, col);
+                        if (v instanceof Number) {
+                            double d = ((Number) v).doubleValue();
+                            sum += d;
+                            min = Math.min(min, d);
+                            max = Math.max(max, d);
+                            count++;
+                        }
+                    }
+                }
+            }
+            for (Num n : scalars) {
+                double d = n.get(c);
+                sum += d;
+                min = Math.min(min, d);
+                max = Math.max(max, d);
+                count++;
+            }
+            switch (kind) {
+                case SUM:
+                    return sum;
+                case AVG:
+                    return count == 0 ? Double.NaN : sum / count;
+                case MIN:
+                    return count == 0 ? 0 : min;
+                default:
+                    return count == 0 ? 0 : max;
+            }
+        }
+
+    }
+
+
+    /**
+     * Recursive descent parser producing the expression tree.
+     */
+    private static final class Parser {
+
+        private final String s;
+        private final List<int[]> refs = new ArrayList<>();
+        private int pos;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        Node parse() {
+            if (s.isEmpty()) {
+                throw error("Empty formula");
+            }
+            Node n = comparison();
+            skip();
+            if (pos != s.length()) {
+                throw error("Unexpected '" + s.charAt(pos) + "'");
+            }
+            return n;
+        }
+
+        private IllegalArgumentException error(String msg) {
+            return new IllegalArgumentException(msg + " at " + pos + " in formula: " + s);
+        }
+
+        private void skip() {
+            while (pos < s.length() && s.charAt(pos) == ' ') {
+                pos++;
+            }
+        }
+
+        private boolean eat(String token) {
+            skip();
+            if (s.startsWith(token, pos)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private Node comparison() {
+            Node n = concat();
+            while (true) {
+                char op;
+                if (eat("<>")) {
+                    op = '!';
+                } else if (eat("<=")) {
+                    op = 'l';
+                } else if (eat(">=")) {
+                    op = 'g';
+                } else if (eat("=")) {
+                    op = '=';
+                } else if (eat("<")) {
+                    op = '<';
+                } else if (eat(">")) {
+                    op = '>';
+                } else {
+                    return n;
+                }
+                n = new Binary(op, n, concat());
+            }
+        }
+
+        private Node concat() {
+            Node n = additive();
+            while (eat("&")) {
+                n = new Binary('&', n, additive());
+            }
+            return n;
+        }
+
+        private Node additive() {
+            Node n = term();
+            while (true) {
+                if (eat("+")) {
+                    n = new Binary('+', n, term());
+                } else if (eat("-")) {
+                    n = new Binary('-', n, term());
+                } else {
+                    return n;
+                }
+            }
+        }
+
+        private Node term() {
+            Node n = power();
+            while (true) {
+                if (eat("*")) {
+                    n = new Binary('*', n, power());
+                } else if (eat("/")) {
+                    n = new Binary('/', n, power());
+                } else {
+                    return n;
+                }
+            }
+        }
+
+        /**
+         * Exponentiation folds left to right as in a spreadsheet, so
+         * {@code 2^3^2} is {@code 64}.
+         */
+        private Node power() {
+            Node n = unary();
+            while (eat("^")) {
+                n = new Binary('^', n, unary());
+            }
+            return n;
+        }
+
+        /**
+         * Unary signs bind tighter than {@code ^} as in a spreadsheet, so
+         * {@code -2^2} is {@code 4}.
+         */
+        private Node unary() {
+            if (eat("-")) {
+                return new Negate(unary());
+            }
+            if (eat("+")) {
+                return unary();
+            }
+            return primary();
+        }
+
+        private Node primary() {
+            skip();
+            if (pos >= s.length()) {
+                throw error("Unexpected end");
+            }
+            char c = s.charAt(pos);
+            if (c == '(') {
+                pos++;
+                Node n = comparison();
+                if (!eat(")")) {
+                    throw error("Expected ')'");
+                }
+                return n;
+            }
+            if (c == '"') {
+                return string();
+            }
+            if (c >= '0' && c <= '9' || c == '.') {
+                return number();
+            }
+            if (Character.isLetter(c) || c == '$') {
+                return word();
+            }
+            throw error("Unexpected '" + c + "'");
+        }
+
+        private Node string() {
+            StringBuilder sb = new StringBuilder();
+            pos++;
+            while (pos < s.length()) {
+                char c = s.charAt(pos++);
+                if (c == '"') {
+                    if (pos < s.length() && s.charAt(pos) == '"') {
+                        sb.append('"');
+                        pos++;
+                    } else {
+                        return new Const(sb.toString());
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private Node number() {
+            int start = pos;
+            while (pos < s.length() && (Character.isDigit(s.charAt(pos)) || s.charAt(pos) == '.')) {
+                pos++;
+            }
+            if (pos < s.length() && (s.charAt(pos) == 'e' || s.charAt(pos) == 'E')) {
+                int mark = pos++;
+                if (pos < s.length() && (s.charAt(pos) == '+' || s.charAt(pos) == '-')) {
+                    pos++;
+                }
+                if (pos < s.length() && Character.isDigit(s.charAt(pos))) {
+                    while (pos < s.length() && Character.isDigit(s.charAt(pos))) {
+                        pos++;
+                    }
+                } else {
+                    pos = mark;
+                }
+            }
+            try {
+                return new Const(Double.parseDouble(s.substring(start, pos)));
+            } catch (NumberFormatException ex) {
+                throw error("Invalid number");
+            }
+        }
+
+        private Node word() {
+            int start = pos;
+            while (pos < s.length() && (Character.isLetterOrDigit(s.charAt(pos)) || s.charAt(pos) == '$')) {
+                pos++;
+            }
+            String w = s.substring(start, pos).toUpperCase(Locale.ROOT);
+            if (eat("(")) {
+                return call(w, start);
+            }
+            if ("TRUE".equals(w)) {
+                return new Const(Boolean.TRUE);
+            }
+            if ("FALSE".equals(w)) {
+                return new Const(Boolean.FALSE);
+            }
+            Ref a = ref(w, start);
+            if (eat(":")) {
+                skip();
+                int at = pos;
+                while (pos < s.length() && (Character.isLetterOrDigit(s.charAt(pos)) || s.charAt(pos) == '$')) {
+                    pos++;
+                }
+                Range g = new Range(a, ref(s.substring(at, pos).toUpperCase(Locale.ROOT), at));
+                refs.add(new int[]{g.row1, g.col1, g.row2, g.col2});
+                return g;
+            }
+            refs.add(new int[]{a.row, a.col, a.row, a.col});
+            return a;
+        }
+
+        private Ref ref(String w, int at) {
+            int i = 0;
+            int n = w.length();
+            if (i < n && w.charAt(i) == '$') {
+                i++;
+            }
+            int col = 0;
+            int letters = i;
+            while (i < n && w.charAt(i) >= 'A' && w.charAt(i) <= 'Z') {
+                col = col * 26 + (w.charAt(i++) - 'A' + 1);
+            }
+            if (i == letters) {
+                pos = at;
+                throw error("Invalid reference " + w);
+            }
+            if (i < n && w.charAt(i) == '$') {
+                i++;
+            }
+            int digits = i;
+            int row = 0;
+            while (i < n && w.charAt(i) >= '0' && w.charAt(i) <= '9') {
+                row = row * 10 + (w.charAt(i++) - '0');
+            }
+            if (i != n || i == digits || row == 0) {
+                pos = at;
+                throw error("Invalid reference " + w);
+            }
+            return new Ref(row - 1, col - 1);
+        }
+
+        private Node call(String name, int at) {
+            String fn;
+            switch (name) {
+                case "AVERAGE":
+                    fn = "AVG";
+                    break;
+                case "CONCATENATE":
+                    fn = "CONCAT";
+                    break;
+                default:
+                    fn = name;
+                    break;
+            }
+            List<Node> args = new ArrayList<>();
+            if (!eat(")")) {
+                do {
+                    args.add(comparison());
+                } while (eat(","));
+                if (!eat(")")) {
+                    throw error("Expected ')'");
+                }
+            }
+            try {
+                return new Call(fn, args);
+            } catch (IllegalArgumentException ex) {
+                pos = at;
+                throw error(ex.getMessage());
+            }
+        }
+
+    }
+
+}
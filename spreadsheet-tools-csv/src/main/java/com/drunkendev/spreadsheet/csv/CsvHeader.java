@@ -0,0 +1,268 @@
+/*
+ * CsvHeader.java    21 October 2026, 11:30
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Immutable index of the column names of a file, shared by all of its rows.
+ *
+ * Names are placed in an open addressed table whose size is doubled, up to
+ * a limit, until no two names share a slot, so a lookup is normally one
+ * multiplicative hash of the name's cached hash code and one
+ * {@link String#equals(Object)}. Should no perfect size be found within the
+ * limit, colliding names are probed linearly.
+ *
+ * Rows read with {@link Csv#lines(java.nio.file.Path, CsvFormat, boolean)}
+ * carry the header of their file and may be read by name, such as
+ * {@link CsvLine#getDouble(String)}. Loops over many rows should instead
+ * resolve names once with {@link #column(String)} and read cells by index:
+ *
+ * <pre>
+ * int price = line.getHeader().column("price");
+ * double total = 0;
+ * while (...) {
+ *     total += line.getDouble(price);
+ * }
+ * </pre>
+ *
+ * Empty names can not be looked up and when a name repeats the first column
+ * of that name is found.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvHeader {
+
+    /**
+     * Table size relative to the name count at which collisions are
+     * accepted rather than growing further.
+     */
+    private static final int MAX_SPREAD = 64;
+
+    private final String[] names;
+    private final String[] keys;
+    private final int[] columns;
+    private final int shift;
+
+    private CsvHeader(String[] names) {
+        this.names = names;
+        String[] unique = new String[names.length];
+        int[] index = new int[names.length];
+        Set<String> seen = new HashSet<>();
+        int n = 0;
+        for (int i = 0; i < names.length; i++) {
+            String s = names[i];
+            if (s == null || s.isEmpty()) {
+                continue;
+            }
+            if (seen.add(s)) {
+                unique[n] = s;
+                index[n++] = i;
+            }
+        }
+        int bits = 1;
+        while ((1 << bits) < n * 2) {
+            bits++;
+        }
+        while ((1 << bits) < n * MAX_SPREAD && bits < 30 && !perfect(unique, n, bits)) {
+            bits++;
+        }
+        this.shift = 32 - bits;
+        this.keys = new String[1 << bits];
+        this.columns = new int[1 << bits];
+        Arrays.fill(columns, -1);
+        int mask = (1 << bits) - 1;
+        for (int i = 0; i < n; i++) {
+            int slot = slot(unique[i].hashCode());
+            while (columns[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = unique[i];
+            columns[slot] = index[i];
+        }
+    }
+
+    private static boolean perfect(String[] names, int n, int bits) {
+        boolean[] used = new boolean[1 << bits];
+        for (int i = 0; i < n; i++) {
+            int slot = (names[i].hashCode() * 0x9e3779b9) >>> (32 - bits);
+            if (used[slot]) {
+                return false;
+            }
+            used[slot] = true;
+        }
+        return true;
+    }
+
+    private int slot(int hash) {
+        return (hash * 0x9e3779b9) >>> shift;
+    }
+
+    /**
+     * Creates a header of the given names.
+     *
+     * @param   names
+     *          Column names in order.
+     * @return  New header.
+     */
+    public static CsvHeader of(String... names) {
+        return new CsvHeader(names.clone());
+    }
+
+    /**
+     * Creates a header of the given names.
+     *
+     * @param   names
+     *          Column names in order.
+     * @return  New header.
+     */
+    public static CsvHeader of(List<String> names) {
+        return new CsvHeader(names.toArray(new String[0]));
+    }
+
+    /**
+     * Creates a header from the cells of a header row.
+     *
+     * @param   line
+     *          Header row.
+     * @return  New header.
+     */
+    public static CsvHeader of(CsvLine line) {
+        String[] res = new String[line.size()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = line.getString(i);
+        }
+        return new CsvHeader(res);
+    }
+
+    /**
+     * Parses a header row. Names are never typed, so a column named
+     * {@code 2020} is the string {@code "2020"}.
+     */
+    static CsvHeader parse(CharSequence line, CsvFormat format) {
+        Object[] cells = CsvParser.split(line, format.withTypeInference(false).withNumberedText(false));
+        String[] names = new String[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            names[i] = cells[i] == null ? null : cells[i].toString();
+        }
+        return new CsvHeader(names);
+    }
+
+    /**
+     * Number of columns.
+     *
+     * @return  Column count.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Name of a column.
+     *
+     * @param   idx
+     *          Zero based column.
+     * @return  Name, {@code null} if the header cell was empty.
+     */
+    public String getName(int idx) {
+        return names[idx];
+    }
+
+    /**
+     * Names of all columns in order.
+     *
+     * @return  Unmodifiable list of names.
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * Index of the column of the given name.
+     *
+     * @param   name
+     *          Column name.
+     * @return  Zero based column, {@code -1} if there is none.
+     */
+    public int indexOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        for (int slot = slot(name.hashCode()); columns[slot] >= 0; slot = (slot + 1) & mask) {
+            if (keys[slot].equals(name)) {
+                return columns[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Tests if a column of the given name exists.
+     *
+     * @param   name
+     *          Column name.
+     * @return  True if the header has the column.
+     */
+    public boolean contains(String name) {
+        return indexOf(name) >= 0;
+    }
+
+    /**
+     * Resolves a name to the index accepted by the {@link CsvLine}
+     * accessors, for use in loops over many rows.
+     *
+     * @param   name
+     *          Column name.
+     * @return  Zero based column.
+     * @throws  IllegalArgumentException
+     *          If there is no column of that name.
+     */
+    public int column(String name) {
+        int idx = indexOf(name);
+        if (idx < 0) {
+            throw new IllegalArgumentException("No column named " + name);
+        }
+        return idx;
+    }
+
+    @Override
+    public String toString() {
+        return "CsvHeader" + Arrays.toString(names);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        return obj instanceof CsvHeader && Arrays.equals(names, ((CsvHeader) obj).names);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(names);
+    }
+
+}
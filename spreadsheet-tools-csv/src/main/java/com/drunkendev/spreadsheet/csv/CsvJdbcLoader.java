@@ -0,0 +1,437 @@
+/*
+ * CsvJdbcLoader.java    20 October 2026, 10:20
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+
+
+/**
+ * Inserts rows into a database with batched prepared statements.
+ *
+ * The calling thread pulls rows from the source stream (parsing them) and
+ * hands blocks of {@link #withBatchSize(int) batch size} rows through a
+ * bounded queue to one insert thread per connection. Each insert thread
+ * prepares the statement once, binds every row with
+ * {@link PreparedStatement#addBatch()} and runs
+ * {@link PreparedStatement#executeBatch()} per block, committing every
+ * {@link #withCommitInterval(int) commit interval} rows and at the end.
+ *
+ * The setter for each column is chosen once, from the type of the first
+ * value seen in that column: numbers are bound with {@code setDouble},
+ * booleans with {@code setBoolean}, dates with {@code setDate}, date times
+ * with {@code setTimestamp} and everything else with {@code setString}, so
+ * the per cell cost is a tag check and a primitive read. A later cell of
+ * another type is bound with {@code setString} of its text in a text column,
+ * converted between date and date time in a date or date time column, and
+ * otherwise bound with {@code setObject}.
+ *
+ * <pre>
+ * long n = new CsvJdbcLoader("INSERT INTO item VALUES (?, ?, ?)")
+ *         .withBatchSize(500)
+ *         .withConnections(4)
+ *         .load(Csv.lines(path, CsvFormat.DEFAULT).skip(1), dataSource);
+ * </pre>
+ *
+ * Rows must not be views that are reused by their source, such as those
+ * passed to {@link CsvTable#forEach(java.util.function.Consumer)}.
+ * Instances are immutable and may be shared.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvJdbcLoader {
+
+    /**
+     * Default rows per {@code executeBatch}.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * Default rows per commit.
+     */
+    public static final int DEFAULT_COMMIT_INTERVAL = 10000;
+
+    private static final List<CsvLine> END = Collections.emptyList();
+    private static final Setter UNRESOLVED = (ps, param, line, col) -> ps.setNull(param, Types.VARCHAR);
+    private static final long POLL_MILLIS = 100;
+
+    private final String sql;
+    private final int batchSize;
+    private final int commitInterval;
+    private final int connections;
+    private final int[] columns;
+
+    /**
+     * Creates a loader for an insert statement whose parameters are bound
+     * from the first cells of each row.
+     *
+     * @param   sql
+     *          Statement with one {@code ?} per bound cell.
+     */
+    public CsvJdbcLoader(String sql) {
+        this(sql, DEFAULT_BATCH_SIZE, DEFAULT_COMMIT_INTERVAL, 1, null);
+    }
+
+    private CsvJdbcLoader(String sql, int batchSize, int commitInterval, int connections, int[] columns) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        if (commitInterval < 0) {
+            throw new IllegalArgumentException("commitInterval must not be negative");
+        }
+        if (connections < 1) {
+            throw new IllegalArgumentException("connections must be positive");
+        }
+        this.sql = sql;
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+        this.connections = connections;
+        this.columns = columns;
+    }
+
+    /**
+     * Returns a copy of this loader executing batches of {@code batchSize}
+     * rows.
+     */
+    public CsvJdbcLoader withBatchSize(int batchSize) {
+        return new CsvJdbcLoader(sql, batchSize, commitInterval, connections, columns);
+    }
+
+    /**
+     * Returns a copy of this loader committing after at least
+     * {@code commitInterval} rows per connection, {@code 0} commits only
+     * once all rows are inserted.
+     */
+    public CsvJdbcLoader withCommitInterval(int commitInterval) {
+        return new CsvJdbcLoader(sql, batchSize, commitInterval, connections, columns);
+    }
+
+    /**
+     * Returns a copy of this loader inserting on {@code connections}
+     * connections concurrently. Rows are not inserted in source order when
+     * more than one connection is used.
+     */
+    public CsvJdbcLoader withConnections(int connections) {
+        return new CsvJdbcLoader(sql, batchSize, commitInterval, connections, columns);
+    }
+
+    /**
+     * Returns a copy of this loader binding statement parameter {@code i}
+     * from cell {@code columns[i - 1]}.
+     */
+    public CsvJdbcLoader withColumns(int... columns) {
+        return new CsvJdbcLoader(sql, batchSize, commitInterval, connections, columns.clone());
+    }
+
+    /**
+     * Inserts all {@code lines} using connections from {@code dataSource}.
+     * Each connection is switched to manual commit and closed when done.
+     *
+     * @param   lines
+     *          Rows to insert.
+     * @param   dataSource
+     *          Source of connections.
+     * @return  Number of rows inserted.
+     * @throws  SQLException
+     *          If any insert fails; rows committed before the failure
+     *          remain, uncommitted rows are rolled back.
+     * @throws  InterruptedException
+     *          If interrupted while waiting for the insert threads.
+     */
+    public long load(Stream<? extends CsvLine> lines, DataSource dataSource) throws SQLException, InterruptedException {
+        List<Connection> cons = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                cons.add(dataSource.getConnection());
+            }
+            return load(lines, cons);
+        } finally {
+            SQLException ex = null;
+            for (Connection c : cons) {
+                try {
+                    c.close();
+                } catch (SQLException e) {
+                    ex = ex == null ? e : ex;
+                }
+            }
+            if (ex != null) {
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Inserts all {@code lines} using a single connection, which is left
+     * open. The setting passed to {@link #withConnections(int)} is ignored.
+     *
+     * @param   lines
+     *          Rows to insert.
+     * @param   connection
+     *          Connection to insert with.
+     * @return  Number of rows inserted.
+     * @throws  SQLException
+     *          If any insert fails; rows committed before the failure
+     *          remain, uncommitted rows are rolled back.
+     * @throws  InterruptedException
+     *          If interrupted while waiting for the insert thread.
+     */
+    public long load(Stream<? extends CsvLine> lines, Connection connection) throws SQLException, InterruptedException {
+        return load(lines, Collections.singletonList(connection));
+    }
+
+    private long load(Stream<? extends CsvLine> lines, List<Connection> cons) throws SQLException, InterruptedException {
+        BlockingQueue<List<CsvLine>> queue = new ArrayBlockingQueue<>(cons.size() * 2);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong inserted = new AtomicLong();
+        List<Thread> threads = new ArrayList<>(cons.size());
+        for (Connection c : cons) {
+            Thread t = new Thread(() -> insert(c, queue, failure, inserted), "csv-jdbc-" + (threads.size() + 1));
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+        try {
+            List<CsvLine> block = new ArrayList<>(batchSize);
+            Iterator<? extends CsvLine> it = lines.iterator();
+            while (it.hasNext() && failure.get() == null) {
+                block.add(it.next());
+                if (block.size() == batchSize) {
+                    offer(queue, block, failure);
+                    block = new ArrayList<>(batchSize);
+                }
+            }
+            if (!block.isEmpty()) {
+                offer(queue, block, failure);
+            }
+        } catch (Throwable ex) {
+            // Any failure, including interruption, must roll back the insert threads.
+            failure.compareAndSet(null, ex);
+            throw ex;
+        } finally {
+            for (int i = 0; i < threads.size(); i++) {
+                offer(queue, END, failure);
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+        }
+        Throwable ex = failure.get();
+        if (ex instanceof SQLException) {
+            throw (SQLException) ex;
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        if (ex != null) {
+            throw (RuntimeException) ex;
+        }
+        return inserted.get();
+    }
+
+    /**
+     * Queues a block unless an insert thread has failed, in which case the
+     * remaining threads are stopping and the queue may never drain.
+     */
+    private static void offer(BlockingQueue<List<CsvLine>> queue,
+                              List<CsvLine> block,
+                              AtomicReference<Throwable> failure) throws InterruptedException {
+        while (!queue.offer(block, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (failure.get() != null) {
+                return;
+            }
+        }
+    }
+
+    private void insert(Connection con,
+                        BlockingQueue<List<CsvLine>> queue,
+                        AtomicReference<Throwable> failure,
+                        AtomicLong inserted) {
+        try {
+            boolean auto = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                int params = columns != null ? columns.length : ps.getParameterMetaData().getParameterCount();
+                Setter[] setters = new Setter[params];
+                long uncommitted = 0;
+                List<CsvLine> block;
+                while ((block = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) != END) {
+                    if (failure.get() != null) {
+                        break;
+                    }
+                    if (block == null) {
+                        continue;
+                    }
+                    for (CsvLine line : block) {
+                        for (int p = 0; p < params; p++) {
+                            int col = columns != null ? columns[p] : p;
+                            Setter s = setters[p];
+                            if (s == null || s == UNRESOLVED && !line.isNull(col)) {
+                                s = setters[p] = setter(line, col);
+                            }
+                            s.set(ps, p + 1, line, col);
+                        }
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    uncommitted += block.size();
+                    if (commitInterval > 0 && uncommitted >= commitInterval) {
+                        con.commit();
+                        inserted.addAndGet(uncommitted);
+                        uncommitted = 0;
+                    }
+                }
+                if (failure.get() == null) {
+                    con.commit();
+                    inserted.addAndGet(uncommitted);
+                } else {
+                    con.rollback();
+                }
+            } catch (SQLException | RuntimeException | Error ex) {
+                failure.compareAndSet(null, ex);
+                try {
+                    con.rollback();
+                } catch (SQLException e) {
+                    ex.addSuppressed(e);
+                }
+            } finally {
+                con.setAutoCommit(auto);
+            }
+        } catch (SQLException ex) {
+            failure.compareAndSet(null, ex);
+        } catch (InterruptedException ex) {
+            failure.compareAndSet(null, new SQLException("Interrupted", ex));
+        }
+    }
+
+    /**
+     * Chooses the setter of a column from its first value, a column that is
+     * empty is resolved again on the next row.
+     */
+    private static Setter setter(CsvLine line, int col) {
+        switch (line.tag(col)) {
+            case CsvLine.T_NULL:
+                return UNRESOLVED;
+            case CsvLine.T_NUMBER:
+                return CsvJdbcLoader::setDouble;
+            case CsvLine.T_BOOLEAN:
+                return CsvJdbcLoader::setBoolean;
+            default:
+                Object v = line.ref(col);
+                if (v instanceof LocalDate) {
+                    return CsvJdbcLoader::setDate;
+                }
+                if (v instanceof LocalDateTime || v instanceof ZonedDateTime) {
+                    return CsvJdbcLoader::setTimestamp;
+                }
+                return CsvJdbcLoader::setString;
+        }
+    }
+
+    private static void setDouble(PreparedStatement ps, int param, CsvLine line, int col) throws SQLException {
+        switch (line.tag(col)) {
+            case CsvLine.T_NUMBER:
+                ps.setDouble(param, Double.longBitsToDouble(line.bits(col)));
+                break;
+            case CsvLine.T_NULL:
+                ps.setNull(param, Types.DOUBLE);
+                break;
+            default:
+                ps.setObject(param, line.getObject(col));
+        }
+    }
+
+    private static void setBoolean(PreparedStatement ps, int param, CsvLine line, int col) throws SQLException {
+        switch (line.tag(col)) {
+            case CsvLine.T_BOOLEAN:
+                ps.setBoolean(param, line.bits(col) != 0);
+                break;
+            case CsvLine.T_NULL:
+                ps.setNull(param, Types.BOOLEAN);
+                break;
+            default:
+                ps.setObject(param, line.getObject(col));
+        }
+    }
+
+    private static void setDate(PreparedStatement ps, int param, CsvLine line, int col) throws SQLException {
+        Object v = line.getObject(col);
+        if (v instanceof LocalDate) {
+            ps.setDate(param, Date.valueOf((LocalDate) v));
+        } else if (v instanceof LocalDateTime) {
+            ps.setDate(param, Date.valueOf(((LocalDateTime) v).toLocalDate()));
+        } else if (v == null) {
+            ps.setNull(param, Types.DATE);
+        } else {
+            ps.setObject(param, v);
+        }
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int param, CsvLine line, int col) throws SQLException {
+        Object v = line.getObject(col);
+        if (v instanceof LocalDateTime) {
+            ps.setTimestamp(param, Timestamp.valueOf((LocalDateTime) v));
+        } else if (v instanceof ZonedDateTime) {
+            ps.setTimestamp(param, Timestamp.from(((ZonedDateTime) v).toInstant()));
+        } else if (v instanceof LocalDate) {
+            ps.setTimestamp(param, Timestamp.valueOf(((LocalDate) v).atStartOfDay()));
+        } else if (v == null) {
+            ps.setNull(param, Types.TIMESTAMP);
+        } else {
+            ps.setObject(param, v);
+        }
+    }
+
+    private static void setString(PreparedStatement ps, int param, CsvLine line, int col) throws SQLException {
+        if (line.isNull(col)) {
+            ps.setNull(param, Types.VARCHAR);
+        } else {
+            ps.setString(param, line.getString(col));
+        }
+    }
+
+
+    /**
+     * Binds one cell to a statement parameter.
+     */
+    @FunctionalInterface
+    private interface Setter {
+
+        void set(PreparedStatement ps, int param, CsvLine line, int col) throws SQLException;
+
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * CsvLenientReader.java    21 October 2026, 10:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+
+/**
+ * Reads records, reporting malformed ones to an error handler and carrying
+ * on with the next record.
+ *
+ * Input is decoded as UTF-8 with malformed bytes replaced, and each record
+ * is checked in turn for invalid encoding, an unterminated quote and a cell
+ * count differing from the schema, or from the first record without one.
+ * The first problem found is reported and the record skipped. Records that
+ * pass are converted with the schema, if any, reporting each cell that
+ * violates its column type. Blank lines are skipped silently.
+ *
+ * Problems are found by the decoder and tokenizer as they go, so a dirty
+ * file costs no more than a clean one: nothing is thrown, caught or
+ * reparsed except to describe a record already known to be bad.
+ *
+ * @author  Brett Ryan
+ */
+final class CsvLenientReader implements Closeable {
+
+    private final CsvDecoder decoder;
+    private final CsvDecoder.Line line = new CsvDecoder.Line();
+    private final CsvFormat format;
+    private final CsvSchema schema;
+    private final Consumer<? super CsvError> errors;
+    private final IntConsumer mismatch = this::mismatch;
+    private int width;
+    private boolean header;
+    private long lineNo;
+    private Object[] cells;
+
+    /**
+     * Creates a reader over {@code in}, which is closed by
+     * {@link #close()}.
+     *
+     * @param   in
+     *          UTF-8 input.
+     * @param   format
+     *          Format of the input, ignored if {@code schema} is given.
+     * @param   schema
+     *          Schema of the input, or {@code null}.
+     * @param   errors
+     *          Receives each problem found.
+     */
+    CsvLenientReader(InputStream in, CsvFormat format, CsvSchema schema, Consumer<? super CsvError> errors) {
+        this.decoder = new CsvDecoder(in, true);
+        this.format = schema == null ? format : schema.getRawFormat();
+        this.schema = schema;
+        this.errors = errors;
+        this.width = schema == null ? -1 : schema.getColumnCount();
+        this.header = schema != null && schema.hasHeader();
+    }
+
+    /**
+     * Reads the next well formed record.
+     *
+     * @return  Record, {@code null} at the end of input.
+     * @throws  IOException
+     *          If the input can not be read.
+     */
+    CsvLine next() throws IOException {
+        while (decoder.readLine(line)) {
+            lineNo++;
+            if (line.length() == 0) {
+                continue;
+            }
+            if (header) {
+                header = false;
+                continue;
+            }
+            cells = CsvParser.splitChecked(line, format);
+            if (decoder.malformed() >= 0) {
+                report(CsvError.Kind.ENCODING, decoder.malformed(), replaced(), "Malformed UTF-8");
+            } else if (cells == null) {
+                report(CsvError.Kind.UNTERMINATED_QUOTE, decoder.offset(),
+                       CsvParser.split(line, format).length - 1, "Unterminated quote");
+            } else if (width >= 0 && cells.length != width) {
+                report(CsvError.Kind.COLUMN_COUNT, decoder.offset(), Math.min(cells.length, width),
+                       "Expected " + width + " cells but found " + cells.length);
+            } else {
+                width = cells.length;
+                return new CsvLine(schema == null ? cells : schema.convert(cells, mismatch));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Index of the first cell holding a replacement character.
+     */
+    private int replaced() {
+        Object[] c = cells == null ? CsvParser.split(line, format) : cells;
+        for (int i = 0; i < c.length; i++) {
+            if (c[i] != null && c[i].toString().indexOf('\uFFFD') >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void mismatch(int idx) {
+        report(CsvError.Kind.CONVERSION, decoder.offset(), idx,
+               "Cell is not a " + schema.getType(idx) + ": " + cells[idx]);
+    }
+
+    private void report(CsvError.Kind kind, long offset, int column, String message) {
+        errors.accept(new CsvError(kind, offset, lineNo, column, line.toString(), message));
+    }
+
+    @Override
+    public void close() throws IOException {
+        decoder.close();
+    }
+
+}
@@ -23,75 +23,304 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import org.apache.commons.lang3.BooleanUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 
 /**
+ * A parsed row.
+ *
+ * Cells are held in parallel slots: a type tag per cell, a primitive
+ * {@code long} slot holding numbers (as raw {@code double} bits) and
+ * booleans, and a reference slot only for strings, temporals and other
+ * objects. The primitive accessors read the slots directly without boxing,
+ * {@link #getObject(int)} boxes on demand.
  *
  * @author  Brett Ryan
  */
 public class CsvLine {
 
-    private final Object[] cells;
+    static final byte T_NULL = 0;
+    static final byte T_NUMBER = 1;
+    static final byte T_BOOLEAN = 2;
+    static final byte T_OBJECT = 3;
+
+    private static final byte[] NO_TAGS = new byte[0];
+    private static final long[] NO_VALUES = new long[0];
+
+    private final byte[] tags;
+    private final long[] values;
+    private final Object[] refs;
+    private final CsvHeader header;
 
     public CsvLine(Object[] cells) {
-        this.cells = cells;
+        int len = cells.length;
+        this.tags = new byte[len];
+        this.values = new long[len];
+        Object[] r = null;
+        for (int i = 0; i < len; i++) {
+            Object v = cells[i];
+            if (v == null) {
+                continue;
+            }
+            if (v.getClass() == Double.class) {
+                tags[i] = T_NUMBER;
+                values[i] = Double.doubleToRawLongBits((Double) v);
+            } else if (v.getClass() == Boolean.class) {
+                tags[i] = T_BOOLEAN;
+                values[i] = (Boolean) v ? 1 : 0;
+            } else {
+                if (r == null) {
+                    r = new Object[len];
+                }
+                tags[i] = T_OBJECT;
+                r[i] = v;
+            }
+        }
+        this.refs = r;
+        this.header = null;
     }
 
-    public String getString(int idx) {
-        if (cells.length < idx) {
-            return null;
+    /**
+     * Creates an empty line, used by views overriding the slot accessors.
+     */
+    CsvLine() {
+        this(NO_TAGS, NO_VALUES, null);
+    }
+
+    /**
+     * Creates a line over slots filled by the parser, the arrays are not
+     * copied.
+     *
+     * @param   tags
+     *          Type tag of each cell.
+     * @param   values
+     *          Primitive slot of each cell.
+     * @param   refs
+     *          Reference slot of each cell, may be null if no cell is
+     *          {@link #T_OBJECT}.
+     */
+    CsvLine(byte[] tags, long[] values, Object[] refs) {
+        this(tags, values, refs, null);
+    }
+
+    /**
+     * Creates a line over slots filled by the parser with the header of its
+     * file, the arrays are not copied.
+     */
+    CsvLine(byte[] tags, long[] values, Object[] refs, CsvHeader header) {
+        this.tags = tags;
+        this.values = values;
+        this.refs = refs;
+        this.header = header;
+    }
+
+    /**
+     * Header of the file this line was read from, see
+     * {@link Csv#lines(java.nio.file.Path, CsvFormat, boolean)}.
+     *
+     * @return  Header, or {@code null} if the line was read without one.
+     */
+    public CsvHeader getHeader() {
+        return header;
+    }
+
+    /**
+     * Copy of this line sharing its cells and carrying {@code header}, so
+     * cells may be read by name.
+     *
+     * @param   header
+     *          Header of the line.
+     * @return  New line.
+     */
+    public CsvLine withHeader(CsvHeader header) {
+        int n = size();
+        byte[] t = new byte[n];
+        long[] v = new long[n];
+        Object[] r = null;
+        for (int i = 0; i < n; i++) {
+            t[i] = tag(i);
+            if (t[i] == T_OBJECT) {
+                if (r == null) {
+                    r = new Object[n];
+                }
+                r[i] = ref(i);
+            } else if (t[i] != T_NULL) {
+                v[i] = bits(i);
+            }
         }
-        Object v = cells[idx];
-        if (v == null) {
-            return null;
+        return new CsvLine(t, v, r, header);
+    }
+
+    /**
+     * Index of a named column through the header of this line.
+     *
+     * @param   name
+     *          Column name.
+     * @return  Zero based column.
+     * @throws  IllegalStateException
+     *          If the line has no header.
+     * @throws  IllegalArgumentException
+     *          If the header has no column of that name.
+     */
+    public int indexOf(String name) {
+        CsvHeader h = getHeader();
+        if (h == null) {
+            throw new IllegalStateException("Line has no header");
+        }
+        return h.column(name);
+    }
+
+    /**
+     * Number of cells within this line.
+     *
+     * @return  Cell count.
+     */
+    public int size() {
+        return tags.length;
+    }
+
+    /**
+     * Type tag of a cell, {@link #T_NULL} when out of range.
+     */
+    byte tag(int idx) {
+        return idx < 0 || idx >= tags.length ? T_NULL : tags[idx];
+    }
+
+    /**
+     * Primitive slot of a cell tagged {@link #T_NUMBER} or
+     * {@link #T_BOOLEAN}.
+     */
+    long bits(int idx) {
+        return values[idx];
+    }
+
+    /**
+     * Reference slot of a cell tagged {@link #T_OBJECT}.
+     */
+    Object ref(int idx) {
+        return refs[idx];
+    }
+
+    /**
+     * Tests if a cell is empty or does not exist.
+     *
+     * @param   idx
+     *          Cell index.
+     * @return  True if the cell has no value.
+     */
+    public boolean isNull(int idx) {
+        return tag(idx) == T_NULL;
+    }
+
+    /**
+     * Retrieves the typed value of a cell as it was parsed.
+     *
+     * @param   idx
+     *          Cell index.
+     * @return  Cell value or {@code null} if the cell is empty or does not exist.
+     */
+    public Object getObject(int idx) {
+        switch (tag(idx)) {
+            case T_NUMBER:
+                return Double.longBitsToDouble(bits(idx));
+            case T_BOOLEAN:
+                return bits(idx) != 0;
+            case T_OBJECT:
+                return ref(idx);
+            default:
+                return null;
         }
-        if (v instanceof String) {
-            return (String) v;
+    }
+
+    /**
+     * Boxed copy of all cells.
+     *
+     * @return  New array of cell values.
+     */
+    public Object[] toArray() {
+        Object[] res = new Object[size()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = getObject(i);
+        }
+        return res;
+    }
+
+    public String getString(int idx) {
+        switch (tag(idx)) {
+            case T_NUMBER:
+                return Double.toString(Double.longBitsToDouble(bits(idx)));
+            case T_BOOLEAN:
+                return bits(idx) != 0 ? "true" : "false";
+            case T_OBJECT:
+                Object v = ref(idx);
+                if (v instanceof String) {
+                    return (String) v;
+                }
+                return v.toString();
+            default:
+                return null;
         }
-        return v.toString();
     }
 
     public int getInt(int idx, int def) {
-        if (cells.length < idx) {
-            return def;
-        }
-        Object v = cells[idx];
-        if (v == null) {
-            return def;
-        }
-        if (v instanceof Number) {
-            return ((Number) v).intValue();
-        }
-        if (v instanceof String) {
-            return (int)NumberUtils.toDouble((String) v, def);
+        switch (tag(idx)) {
+            case T_NUMBER:
+                return (int) Double.longBitsToDouble(bits(idx));
+            case T_OBJECT:
+                Object v = ref(idx);
+                if (v instanceof Number) {
+                    return ((Number) v).intValue();
+                }
+                if (v instanceof String) {
+                    return (int) CsvParser.toDouble((String) v, def);
+                }
+                return (int) CsvParser.toDouble(v.toString(), def);
+            default:
+                return def;
         }
-        return (int)NumberUtils.toDouble(v.toString(), def);
     }
 
     public int getInt(int idx) {
         return getInt(idx, 0);
     }
 
-    public double getDouble(int idx, double def) {
-        if (cells.length < idx) {
-            return def;
-        }
-        Object v = cells[idx];
-        if (v == null) {
-            return def;
-        }
-        if (v instanceof Number) {
-            return ((Number) v).doubleValue();
+    public long getLong(int idx, long def) {
+        switch (tag(idx)) {
+            case T_NUMBER:
+                return (long) Double.longBitsToDouble(bits(idx));
+            case T_OBJECT:
+                Object v = ref(idx);
+                if (v instanceof Number) {
+                    return ((Number) v).longValue();
+                }
+                return (long) CsvParser.toDouble(v.toString(), def);
+            default:
+                return def;
         }
-        if (v instanceof String) {
-            return NumberUtils.toDouble((String) v, def);
+    }
+
+    public long getLong(int idx) {
+        return getLong(idx, 0);
+    }
+
+    public double getDouble(int idx, double def) {
+        switch (tag(idx)) {
+            case T_NUMBER:
+                return Double.longBitsToDouble(bits(idx));
+            case T_OBJECT:
+                Object v = ref(idx);
+                if (v instanceof Number) {
+                    return ((Number) v).doubleValue();
+                }
+                if (v instanceof String) {
+                    return CsvParser.toDouble((String) v, def);
+                }
+                return CsvParser.toDouble(v.toString(), def);
+            default:
+                return def;
         }
-        return NumberUtils.toDouble(v.toString(), def);
     }
 
     public double getDouble(int idx) {
@@ -99,30 +328,32 @@ public class CsvLine {
     }
 
     public boolean getBoolean(int idx) {
-        if (cells.length < idx) {
-            return false;
-        }
-        Object v = cells[idx];
-        if (v == null) {
-            return false;
-        }
-        if (v instanceof Boolean) {
-            return (boolean) v;
-        }
-        if (v instanceof String) {
-            if (v == "1") {
-                return true;
-            }
-            return BooleanUtils.toBoolean((String) v);
+        switch (tag(idx)) {
+            case T_BOOLEAN:
+                return bits(idx) != 0;
+            case T_OBJECT:
+                Object v = ref(idx);
+                if (v instanceof Boolean) {
+                    return (boolean) v;
+                }
+                if (v instanceof String) {
+                    if (v == "1") {
+                        return true;
+                    }
+                    return BooleanUtils.toBoolean((String) v);
+                }
+                return BooleanUtils.toBoolean(v.toString());
+            default:
+                return false;
         }
-        return BooleanUtils.toBoolean(v.toString());
+    }
+
+    private Object object(int idx) {
+        return tag(idx) == T_OBJECT ? ref(idx) : null;
     }
 
     public LocalDate getLocalDate(int idx) {
-        if (cells.length < idx) {
-            return null;
-        }
-        Object v = cells[idx];
+        Object v = object(idx);
         if (v == null) {
             return null;
         }
@@ -134,21 +365,14 @@ public class CsvLine {
         }
         if (v instanceof String) {
             if (isNotBlank((String) v)) {
-                try {
-                    return DateTimeFormatter.ISO_LOCAL_DATE.parse(v.toString(), LocalDate::from);
-                } catch (DateTimeParseException ex) {
-                    return null;
-                }
+                return Csv.parse(DateTimeFormatter.ISO_LOCAL_DATE, (String) v, LocalDate::from);
             }
         }
         return null;
     }
 
     public LocalDate getLocalDate(int idx, String format) {
-        if (cells.length < idx) {
-            return null;
-        }
-        Object v = cells[idx];
+        Object v = object(idx);
         if (v == null) {
             return null;
         }
@@ -160,21 +384,14 @@ public class CsvLine {
         }
         if (v instanceof String) {
             if (isNotBlank((String) v)) {
-                try {
-                    return DateTimeFormatter.ofPattern(format).parse(v.toString(), LocalDate::from);
-                } catch (DateTimeParseException ex) {
-                    return null;
-                }
+                return Csv.parse(DateTimeFormatter.ofPattern(format), (String) v, LocalDate::from);
             }
         }
         return null;
     }
 
     public LocalDateTime getLocalDateTime(int idx) {
-        if (cells.length < idx) {
-            return null;
-        }
-        Object v = cells[idx];
+        Object v = object(idx);
         if (v == null) {
             return null;
         }
@@ -186,21 +403,14 @@ public class CsvLine {
         }
         if (v instanceof String) {
             if (isNotBlank((String) v)) {
-                try {
-                    return DateTimeFormatter.ISO_LOCAL_DATE_TIME.parse(v.toString(), LocalDateTime::from);
-                } catch (DateTimeParseException ex) {
-                    return null;
-                }
+                return Csv.parse(DateTimeFormatter.ISO_LOCAL_DATE_TIME, (String) v, LocalDateTime::from);
             }
         }
         return null;
     }
 
     public ZonedDateTime getZonedDateTime(int idx) {
-        if (cells.length < idx) {
-            return null;
-        }
-        Object v = cells[idx];
+        Object v = object(idx);
         if (v == null) {
             return null;
         }
@@ -212,14 +422,66 @@ public class CsvLine {
         }
         if (v instanceof String) {
             if (isNotBlank((String) v)) {
-                try {
-                    return DateTimeFormatter.ISO_LOCAL_DATE_TIME.parse(v.toString(), ZonedDateTime::from);
-                } catch (DateTimeParseException ex) {
-                    return null;
-                }
+                return Csv.parse(DateTimeFormatter.ISO_LOCAL_DATE_TIME, (String) v, ZonedDateTime::from);
             }
         }
         return null;
     }
 
+    /**
+     * Retrieves the typed value of a named cell, see
+     * {@link #indexOf(String)}.
+     *
+     * @param   name
+     *          Column name.
+     * @return  Cell value or {@code null} if the cell is empty or does not exist.
+     */
+    public Object getObject(String name) {
+        return getObject(indexOf(name));
+    }
+
+    public String getString(String name) {
+        return getString(indexOf(name));
+    }
+
+    public int getInt(String name) {
+        return getInt(indexOf(name));
+    }
+
+    public int getInt(String name, int def) {
+        return getInt(indexOf(name), def);
+    }
+
+    public long getLong(String name) {
+        return getLong(indexOf(name));
+    }
+
+    public long getLong(String name, long def) {
+        return getLong(indexOf(name), def);
+    }
+
+    public double getDouble(String name) {
+        return getDouble(indexOf(name));
+    }
+
+    public double getDouble(String name, double def) {
+        return getDouble(indexOf(name), def);
+    }
+
+    public boolean getBoolean(String name) {
+        return getBoolean(indexOf(name));
+    }
+
+    public LocalDate getLocalDate(String name) {
+        return getLocalDate(indexOf(name));
+    }
+
+    public LocalDateTime getLocalDateTime(String name) {
+        return getLocalDateTime(indexOf(name));
+    }
+
+    public ZonedDateTime getZonedDateTime(String name) {
+        return getZonedDateTime(indexOf(name));
+    }
+
 }
@@ -0,0 +1,688 @@
+/*
+ * CsvParser.java    19 October 2026, 15:48
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.StringUtils;
+
+import static com.drunkendev.spreadsheet.csv.CsvFormat.C_DELIM;
+import static com.drunkendev.spreadsheet.csv.CsvFormat.C_DIGIT;
+import static com.drunkendev.spreadsheet.csv.CsvFormat.C_DOT;
+import static com.drunkendev.spreadsheet.csv.CsvFormat.C_EQUALS;
+import static com.drunkendev.spreadsheet.csv.CsvFormat.C_MINUS;
+import static com.drunkendev.spreadsheet.csv.CsvFormat.C_QUOTE;
+import static com.drunkendev.spreadsheet.csv.CsvFormat.C_SPACE;
+
+
+/**
+ * Tokenizer driven by a precompiled {@link CsvFormat}.
+ *
+ * @author  Brett Ryan
+ */
+final class CsvParser {
+
+    private static final int INIT = 1;
+    private static final int ISI_NUMBER = 5;
+    private static final int ISI_STRING = 2;
+    private static final int ISI_STRING_UNQUOTED = 7;
+
+    private static final Object[] EMPTY = new Object[0];
+    private static final byte[] EMPTY_TAGS = new byte[0];
+    private static final long[] EMPTY_VALUES = new long[0];
+
+    private CsvParser() {
+    }
+
+    /**
+     * Splits a single record into its typed cells.
+     *
+     * @param   string
+     *          Record to split.
+     * @param   fmt
+     *          Format describing the record.
+     * @return  Cells of the record.
+     */
+    static Object[] split(CharSequence string, CsvFormat fmt) {
+        if (string.length() == 0) {
+            return EMPTY;
+        }
+        ArrayCells out = new ArrayCells(width(string, fmt));
+        split(string, fmt, out);
+        return out.toArray();
+    }
+
+    /**
+     * Splits a single record as {@link #split(CharSequence, CsvFormat)}
+     * unless it ends inside a quoted value.
+     *
+     * @param   string
+     *          Record to split.
+     * @param   fmt
+     *          Format describing the record.
+     * @return  Cells of the record, {@code null} if a quote is not
+     *          terminated.
+     */
+    static Object[] splitChecked(CharSequence string, CsvFormat fmt) {
+        if (string.length() == 0) {
+            return EMPTY;
+        }
+        ArrayCells out = new ArrayCells(width(string, fmt));
+        return split(string, fmt, out) ? out.toArray() : null;
+    }
+
+    /**
+     * Splits a single record straight into the primitive slots of a
+     * {@link CsvLine}, numbers and booleans are never boxed.
+     *
+     * @param   string
+     *          Record to split.
+     * @param   fmt
+     *          Format describing the record.
+     * @return  Line holding the cells of the record.
+     */
+    static CsvLine splitLine(CharSequence string, CsvFormat fmt) {
+        return splitLine(string, fmt, null);
+    }
+
+    /**
+     * Splits a single record into a {@link CsvLine} carrying the header of
+     * its file.
+     *
+     * @param   string
+     *          Record to split.
+     * @param   fmt
+     *          Format describing the record.
+     * @param   header
+     *          Shared header, may be {@code null}.
+     * @return  Line holding the cells of the record.
+     */
+    static CsvLine splitLine(CharSequence string, CsvFormat fmt, CsvHeader header) {
+        if (string.length() == 0) {
+            return new CsvLine(EMPTY_TAGS, EMPTY_VALUES, null, header);
+        }
+        LineCells out = new LineCells(width(string, fmt));
+        split(string, fmt, out);
+        return out.toLine(header);
+    }
+
+    /**
+     * Splits a single record into the next row of {@code batch}.
+     *
+     * @param   string
+     *          Record to split.
+     * @param   fmt
+     *          Format describing the record.
+     * @param   batch
+     *          Batch receiving the row, must not be full.
+     */
+    static void splitInto(CharSequence string, CsvFormat fmt, CsvBatch batch) {
+        batch.startRow();
+        BatchCells out = new BatchCells(batch);
+        if (string.length() != 0) {
+            split(string, fmt, out);
+        }
+        batch.endRow(out.count);
+    }
+
+    /**
+     * Upper bound of the cell count in the common case, used to size the
+     * output so it rarely needs growing or trimming.
+     */
+    private static int width(CharSequence string, CsvFormat fmt) {
+        char delim = fmt.getDelimiter();
+        int n = 1;
+        for (int i = 0, len = string.length(); i < len; i++) {
+            if (string.charAt(i) == delim) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Splits {@code string} into {@code out}.
+     *
+     * @return  False when the record ends inside a quoted value, which is
+     *          then added as text running to the end of the record.
+     */
+    private static boolean split(CharSequence string, CsvFormat fmt, Cells out) {
+        final int len = string.length();
+        final char delim = fmt.getDelimiter();
+        final boolean trim = fmt.isTrim();
+        final boolean formulas = fmt.isFormulas();
+        final CsvValueCache cache = fmt.valueCache();
+
+        int state = INIT;
+        int startPos = 0;
+        char quoteChar = '"';
+        String priorLines = null;
+        boolean func = false;
+
+        for (int i = 0; i < len; i++) {
+            char currentChar = string.charAt(i);
+            byte cls = fmt.classOf(currentChar);
+            switch (state) {
+                case INIT:
+                    startPos = i;
+                    func = false;
+                    if (cls == C_DELIM) {
+                        if (i == 0 || string.charAt(i - 1) == delim) {
+                            out.addNull();
+                        }
+                        // If last character is a delimiter there is a final null value.
+                        if (i == len - 1) {
+                            out.addNull();
+                        }
+                        break;
+                    }
+                    switch (cls) {
+                        case C_QUOTE:
+                            state = ISI_STRING;
+                            startPos++;
+                            quoteChar = currentChar;
+                            break;
+                        case C_EQUALS:
+                            state = ISI_STRING_UNQUOTED;
+                            func = formulas;
+                            break;
+                        case C_MINUS:
+                        case C_DOT:
+                            state = ISI_NUMBER;
+                            break;
+                        case C_SPACE:
+                            if (!trim) {
+                                state = ISI_STRING_UNQUOTED;
+                            }
+                            break;
+                        case C_DIGIT:
+                            state = ISI_NUMBER;
+                            break;
+                        default:
+                            state = ISI_STRING_UNQUOTED;
+                            break;
+                    }
+
+                    if (formulas &&
+                        i < len - 1 &&
+                        (state == ISI_STRING || state == ISI_STRING_UNQUOTED)) {
+                        for (int x = i + 1; x < len; x++) {
+                            char c = string.charAt(x);
+                            if (c == '=') {
+                                func = true;
+                                i = x;
+                                break;
+                            } else if (c != ' ') {
+                                break;
+                            }
+                        }
+                    }
+                    break;
+
+                case ISI_STRING_UNQUOTED:
+                    if (cls == C_DELIM || i == len - 1) {
+                        int end = i < len - 1 ? i : i + 1;
+                        if (startPos == i || fmt.isNull(string, startPos, end)) {
+                            out.addNull();
+                        } else if (func) {
+                            out.add(new FormulaValue(string.subSequence(startPos, end).toString()));
+                        } else if (cache != null && end - startPos <= CsvValueCache.MAX_LENGTH) {
+                            out.add(cached(cache, out.size(), string, startPos, end, fmt));
+                        } else {
+                            out.add(typed(string.subSequence(startPos, end).toString(), fmt));
+                        }
+                        state = INIT;
+                    }
+                    break;
+
+                case ISI_STRING:
+                    if (currentChar == quoteChar) {
+                        // is next char also a quote?
+                        if (i + 1 < len && string.charAt(i + 1) == quoteChar) {
+                            i++;
+                            break;
+                        }
+                        String v = unescape(string, startPos, i, quoteChar);
+                        if (func) {
+                            out.add(new FormulaValue(v));
+                        } else if (fmt.isNumberedText()) {
+                            numberOrString(v, out);
+                        } else {
+                            out.add(v);
+                        }
+                        state = INIT;
+                    } else if (i == len - 1) {
+                        // Unterminated quote, value continues to the end of the line.
+                        priorLines = unescape(string, startPos, len, quoteChar) + System.lineSeparator();
+                    }
+                    break;
+
+                case ISI_NUMBER:
+                    if (cls == C_DELIM) {
+                        number(string.subSequence(startPos, i).toString().trim(), fmt, out);
+                        state = INIT;
+                    } else if (i == len - 1) {
+                        number(string.subSequence(startPos, i + 1).toString().trim(), fmt, out);
+                        state = INIT;
+                    } else if (cls != C_DIGIT && cls != C_SPACE && cls != C_DOT) {
+                        state = ISI_STRING_UNQUOTED;
+                    }
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        switch (state) {
+            case ISI_STRING_UNQUOTED:
+                if (fmt.isNull(string, startPos, startPos + 1)) {
+                    out.addNull();
+                } else {
+                    out.add(typed(String.valueOf(string.charAt(startPos)), fmt));
+                }
+                priorLines = null;
+                break;
+            case ISI_NUMBER:
+                number(String.valueOf(string.charAt(startPos)), fmt, out);
+                break;
+            default:
+                break;
+        }
+        if (priorLines != null) {
+            out.add(priorLines);
+            return false;
+        }
+        return true;
+    }
+
+    private static Object typed(String v, CsvFormat fmt) {
+        if (!fmt.isTrim() &&
+            (Character.isWhitespace(v.charAt(0)) || Character.isWhitespace(v.charAt(v.length() - 1)))) {
+            return v;
+        }
+        if (fmt.isTypeInference()) {
+            return Csv.getTypedValue(v, fmt.getFormatter());
+        }
+        return fmt.isTrim() ? StringUtils.trimToNull(v) : v;
+    }
+
+    /**
+     * Typed value of a cell through the cache, the cell text is only
+     * created on a miss.
+     */
+    private static Object cached(CsvValueCache cache, int col, CharSequence s, int start, int end, CsvFormat fmt) {
+        int h = CsvValueCache.hash(s, start, end);
+        Object v = cache.get(col, h, s, start, end);
+        if (v == null) {
+            String text = s.subSequence(start, end).toString();
+            v = typed(text, fmt);
+            cache.put(col, h, text, v);
+        }
+        return v;
+    }
+
+    private static void number(String v, CsvFormat fmt, Cells out) {
+        if (fmt.isTypeInference()) {
+            numberOrString(v, out);
+        } else {
+            out.add(v);
+        }
+    }
+
+    /**
+     * Adds {@code val} as a number when it parses as one, text that is not
+     * a number never constructs an exception.
+     */
+    private static void numberOrString(String val, Cells out) {
+        if (isDecimal(val)) {
+            out.addNumber(Double.parseDouble(val));
+            return;
+        }
+        if (isDouble(val)) {
+            try {
+                out.addNumber(Double.parseDouble(val));
+                return;
+            } catch (NumberFormatException nfe) {
+                // Malformed hexadecimal, the only form not checked up front.
+            }
+        }
+        out.add(val);
+    }
+
+    /**
+     * Parses {@code s} as by {@link Double#parseDouble(String)}, returning
+     * {@code def} when it is not a number. Text is checked with
+     * {@link #isDouble(CharSequence)} first so a miss costs no
+     * {@link NumberFormatException}.
+     *
+     * @param   s
+     *          Text to parse.
+     * @param   def
+     *          Value returned when {@code s} is not a number.
+     * @return  Parsed value or {@code def}.
+     */
+    static double toDouble(String s, double def) {
+        if (isDecimal(s)) {
+            return Double.parseDouble(s);
+        }
+        if (!isDouble(s)) {
+            return def;
+        }
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException ex) {
+            // Malformed hexadecimal, the only form not checked up front.
+            return def;
+        }
+    }
+
+    /**
+     * Tests whether {@code s} may be parsed by
+     * {@link Double#parseDouble(String)}: surrounding whitespace, a sign,
+     * {@code NaN}, {@code Infinity} and a trailing type suffix are allowed
+     * as well as plain decimals. Hexadecimal values are accepted without
+     * further checking.
+     */
+    static boolean isDouble(CharSequence s) {
+        int start = 0;
+        int end = s.length();
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return false;
+        }
+        int i = start;
+        if (s.charAt(i) == '-' || s.charAt(i) == '+') {
+            i++;
+        }
+        if (equals(s, i, end, "NaN") || equals(s, i, end, "Infinity")) {
+            return true;
+        }
+        if (end - i > 2 && s.charAt(i) == '0' && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X')) {
+            return true;
+        }
+        switch (s.charAt(end - 1)) {
+            case 'd':
+            case 'D':
+            case 'f':
+            case 'F':
+                end--;
+                break;
+            default:
+                break;
+        }
+        return isDecimal(start == 0 && end == s.length() ? s : s.subSequence(start, end));
+    }
+
+    private static boolean equals(CharSequence s, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (s.charAt(start + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests whether {@code s} is a plain decimal number such as {@code -1},
+     * {@code .5} or {@code 1.5e3} without constructing an exception.
+     */
+    static boolean isDecimal(CharSequence s) {
+        int len = s.length();
+        int i = 0;
+        if (i < len && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < len && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+            i++;
+            digits++;
+        }
+        if (i < len && s.charAt(i) == '.') {
+            i++;
+            while (i < len && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < len && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < len && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                i++;
+            }
+            int exp = i;
+            while (i < len && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                i++;
+            }
+            if (i == exp) {
+                return false;
+            }
+        }
+        return i == len;
+    }
+
+    /**
+     * Extracts {@code start} to {@code end} of {@code s} collapsing doubled
+     * quote characters.
+     */
+    private static String unescape(CharSequence s, int start, int end, char quote) {
+        int q = -1;
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) == quote) {
+                q = i;
+                break;
+            }
+        }
+        if (q < 0) {
+            return s.subSequence(start, end).toString();
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        sb.append(s, start, q);
+        for (int i = q; i < end; i++) {
+            char c = s.charAt(i);
+            sb.append(c);
+            if (c == quote && i + 1 < end && s.charAt(i + 1) == quote) {
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+
+    /**
+     * Destination of the cells of a record.
+     */
+    private abstract static class Cells {
+
+        abstract void addNull();
+
+        abstract void addNumber(double v);
+
+        abstract void add(Object v);
+
+        /**
+         * Number of cells added so far.
+         */
+        abstract int size();
+
+    }
+
+
+    private static final class ArrayCells extends Cells {
+
+        private Object[] res;
+        private int count;
+
+        ArrayCells(int capacity) {
+            res = new Object[capacity];
+        }
+
+        @Override
+        void addNull() {
+            if (count == res.length) {
+                res = Arrays.copyOf(res, count * 2);
+            }
+            count++;
+        }
+
+        @Override
+        void addNumber(double v) {
+            add(v);
+        }
+
+        @Override
+        void add(Object v) {
+            if (count == res.length) {
+                res = Arrays.copyOf(res, count * 2);
+            }
+            res[count++] = v;
+        }
+
+        @Override
+        int size() {
+            return count;
+        }
+
+        Object[] toArray() {
+            return count == res.length ? res : Arrays.copyOf(res, count);
+        }
+
+    }
+
+
+    private static final class LineCells extends Cells {
+
+        private byte[] tags;
+        private long[] values;
+        private Object[] refs;
+        private int count;
+
+        LineCells(int capacity) {
+            tags = new byte[capacity];
+            values = new long[capacity];
+        }
+
+        private void ensure() {
+            if (count == tags.length) {
+                tags = Arrays.copyOf(tags, count * 2);
+                values = Arrays.copyOf(values, count * 2);
+                if (refs != null) {
+                    refs = Arrays.copyOf(refs, count * 2);
+                }
+            }
+        }
+
+        @Override
+        void addNull() {
+            ensure();
+            count++;
+        }
+
+        @Override
+        void addNumber(double v) {
+            ensure();
+            tags[count] = CsvLine.T_NUMBER;
+            values[count++] = Double.doubleToRawLongBits(v);
+        }
+
+        @Override
+        void add(Object v) {
+            if (v == null) {
+                addNull();
+            } else if (v instanceof Boolean) {
+                ensure();
+                tags[count] = CsvLine.T_BOOLEAN;
+                values[count++] = (Boolean) v ? 1 : 0;
+            } else {
+                ensure();
+                if (refs == null) {
+                    refs = new Object[tags.length];
+                }
+                tags[count] = CsvLine.T_OBJECT;
+                refs[count++] = v;
+            }
+        }
+
+        @Override
+        int size() {
+            return count;
+        }
+
+        CsvLine toLine(CsvHeader header) {
+            if (count == tags.length) {
+                return new CsvLine(tags, values, refs, header);
+            }
+            return new CsvLine(Arrays.copyOf(tags, count),
+                               Arrays.copyOf(values, count),
+                               refs == null ? null : Arrays.copyOf(refs, count),
+                               header);
+        }
+
+    }
+
+
+    private static final class BatchCells extends Cells {
+
+        private final CsvBatch batch;
+        private int count;
+
+        BatchCells(CsvBatch batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        void addNull() {
+            batch.set(count++, CsvLine.T_NULL, 0);
+        }
+
+        @Override
+        void addNumber(double v) {
+            batch.set(count++, CsvLine.T_NUMBER, Double.doubleToRawLongBits(v));
+        }
+
+        @Override
+        void add(Object v) {
+            if (v == null) {
+                addNull();
+            } else if (v instanceof Boolean) {
+                batch.set(count++, CsvLine.T_BOOLEAN, (Boolean) v ? 1 : 0);
+            } else {
+                batch.set(count++, v);
+            }
+        }
+
+        @Override
+        int size() {
+            return count;
+        }
+
+    }
+
+}
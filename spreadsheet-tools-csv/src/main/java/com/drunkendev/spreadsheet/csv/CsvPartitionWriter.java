@@ -0,0 +1,477 @@
+/*
+ * CsvPartitionWriter.java    20 October 2026, 19:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Writes rows to one file per partition.
+ *
+ * A partition function maps each row to a key, and rows of the same key are
+ * written to {@code prefix + key + ".csv"} (or {@code ".csv.gz"}) in the
+ * output directory, with characters other than letters, digits,
+ * {@code -}, {@code .} and {@code _} in the key replaced by {@code _}.
+ * Each open partition has its own buffered writer and lock, so rows for
+ * different partitions are written concurrently and rows are formatted
+ * before any lock is taken.
+ *
+ * Rows written with {@link #write(CsvLine)} are formatted from their cells,
+ * so typed cells are written in their canonical form. To copy rows byte for
+ * byte pass the record text with {@link #write(CsvLine, CharSequence)}, or
+ * use {@link #writeAll(Path, CsvFormat)}. Every row ends with {@code \n}
+ * whatever the platform.
+ *
+ * At most {@code maxOpen} files are open at once. Opening another closes
+ * the least recently written partition, which is reopened for appending if
+ * more rows arrive; gzip output then holds several gzip members, which
+ * {@link java.util.zip.GZIPInputStream} reads as one stream.
+ *
+ * <pre>
+ * try (CsvPartitionWriter out = new CsvPartitionWriter(dir, CsvPartitionWriter.hash(16, 0))) {
+ *     out.writeAll(path, CsvFormat.DEFAULT);
+ * }
+ * </pre>
+ *
+ * @author  Brett Ryan
+ */
+public class CsvPartitionWriter implements Closeable {
+
+    /**
+     * Default maximum number of open files.
+     */
+    public static final int DEFAULT_MAX_OPEN = 64;
+
+    private static final int BUFFER = 64 * 1024;
+    private static final char EOL = '\n';
+
+    private final Path dir;
+    private final String prefix;
+    private final Function<? super CsvLine, ?> partitioner;
+    private final int maxOpen;
+    private final boolean gzip;
+    private final Object[] header;
+
+    private final ConcurrentHashMap<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final Set<Partition> open = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger openCount = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final Object evicting = new Object();
+    private volatile boolean closed;
+
+    /**
+     * Creates a writer of uncompressed partitions named after their key,
+     * without headers and with at most {@link #DEFAULT_MAX_OPEN} open files.
+     *
+     * @param   dir
+     *          Output directory, created if missing.
+     * @param   partitioner
+     *          Maps rows to partition keys.
+     * @throws  IOException
+     *          If the directory can not be created.
+     */
+    public CsvPartitionWriter(Path dir, Function<? super CsvLine, ?> partitioner) throws IOException {
+        this(dir, "", partitioner, DEFAULT_MAX_OPEN, false, null);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param   dir
+     *          Output directory, created if missing.
+     * @param   prefix
+     *          Prefix of each file name.
+     * @param   partitioner
+     *          Maps rows to partition keys.
+     * @param   maxOpen
+     *          Maximum number of files open at once.
+     * @param   gzip
+     *          Whether to compress files with gzip.
+     * @param   header
+     *          Header written at the start of each file, or {@code null}.
+     * @throws  IOException
+     *          If the directory can not be created.
+     */
+    public CsvPartitionWriter(Path dir,
+                              String prefix,
+                              Function<? super CsvLine, ?> partitioner,
+                              int maxOpen,
+                              boolean gzip,
+                              Object[] header) throws IOException {
+        if (maxOpen < 1) {
+            throw new IllegalArgumentException("maxOpen must be positive");
+        }
+        this.dir = Files.createDirectories(dir);
+        this.prefix = prefix == null ? "" : prefix;
+        this.partitioner = partitioner;
+        this.maxOpen = maxOpen;
+        this.gzip = gzip;
+        this.header = header == null ? null : header.clone();
+    }
+
+    /**
+     * Partitions by the hash of key columns.
+     *
+     * @param   partitions
+     *          Number of partitions.
+     * @param   columns
+     *          Key columns.
+     * @return  Partition function yielding {@code 0} to
+     *          {@code partitions - 1}.
+     */
+    public static Function<CsvLine, Integer> hash(int partitions, int... columns) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive");
+        }
+        int[] cols = columns.clone();
+        return n -> {
+            Object[] key = new Object[cols.length];
+            for (int i = 0; i < cols.length; i++) {
+                key[i] = n.getObject(cols[i]);
+            }
+            int h = Arrays.hashCode(key);
+            return Math.floorMod(h ^ (h >>> 16), partitions);
+        };
+    }
+
+    /**
+     * Partitions by the value of a column, such as a date.
+     *
+     * @param   column
+     *          Column naming the partition.
+     * @return  Partition function.
+     */
+    public static Function<CsvLine, Object> column(int column) {
+        return n -> n.getObject(column);
+    }
+
+    /**
+     * Partitions into consecutive files of at most {@code rowsPerFile}
+     * rows, numbered from {@code 0} in the order rows are written.
+     *
+     * @param   rowsPerFile
+     *          Maximum rows per file.
+     * @return  Stateful partition function for one writer.
+     */
+    public static Function<CsvLine, Long> rows(long rowsPerFile) {
+        if (rowsPerFile < 1) {
+            throw new IllegalArgumentException("rowsPerFile must be positive");
+        }
+        AtomicLong count = new AtomicLong();
+        return n -> count.getAndIncrement() / rowsPerFile;
+    }
+
+    /**
+     * Writes a row to its partition. May be called from many threads.
+     *
+     * @param   line
+     *          Row to write.
+     * @throws  IOException
+     *          If the partition can not be written.
+     */
+    public void write(CsvLine line) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        StringBuilder sb = new StringBuilder(line.size() * 8 + 2);
+        append(sb, line.toArray());
+        write(partitioner.apply(line), sb);
+    }
+
+    /**
+     * Writes the text of a record to the partition of its parsed row,
+     * unchanged. May be called from many threads.
+     *
+     * @param   line
+     *          Parsed row, used only to find the partition.
+     * @param   raw
+     *          Text of the record without a line terminator.
+     * @throws  IOException
+     *          If the partition can not be written.
+     */
+    public void write(CsvLine line, CharSequence raw) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        StringBuilder sb = new StringBuilder(raw.length() + 1).append(raw).append(EOL);
+        write(partitioner.apply(line), sb);
+    }
+
+    private void write(Object key, StringBuilder sb) throws IOException {
+        Partition p = partitions.computeIfAbsent(fileName(key), k -> new Partition(dir.resolve(k)));
+        p.lock.lock();
+        try {
+            if (p.out == null) {
+                open(p);
+            }
+            p.used = clock.incrementAndGet();
+            p.out.append(sb);
+            p.rows++;
+        } finally {
+            p.lock.unlock();
+        }
+        rows.incrementAndGet();
+        if (openCount.get() > maxOpen) {
+            evict();
+        }
+    }
+
+    /**
+     * Writes all rows of a stream, in parallel if the stream is parallel.
+     *
+     * @param   lines
+     *          Rows to write.
+     * @return  Number of rows written.
+     * @throws  IOException
+     *          If a partition can not be written.
+     */
+    public long writeAll(Stream<? extends CsvLine> lines) throws IOException {
+        AtomicLong count = new AtomicLong();
+        try {
+            lines.forEach(n -> {
+                try {
+                    write(n);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                count.incrementAndGet();
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return count.get();
+    }
+
+    /**
+     * Copies every record of a UTF-8 file to its partition byte for byte,
+     * see {@link #write(CsvLine, CharSequence)}. Records are parsed with
+     * {@code format} only to find their partition. A byte order mark is
+     * removed and malformed input replaced with {@code U+FFFD}.
+     *
+     * @param   path
+     *          File to partition.
+     * @param   format
+     *          Format of the file.
+     * @return  Number of rows written.
+     * @throws  IOException
+     *          If the file can not be read or a partition written.
+     */
+    public long writeAll(Path path, CsvFormat format) throws IOException {
+        long count = 0;
+        try (CsvDecoder in = new CsvDecoder(Files.newInputStream(path), true)) {
+            CsvDecoder.Line line = new CsvDecoder.Line();
+            while (in.readLine(line)) {
+                write(CsvParser.splitLine(line, format), line);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void append(StringBuilder sb, Object[] cells) {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            CsvWriter.appendCell(sb, cells[i], ',', '"');
+        }
+        sb.append(EOL);
+    }
+
+    private String fileName(Object key) {
+        String k = String.valueOf(key);
+        StringBuilder sb = new StringBuilder(prefix.length() + k.length() + 7).append(prefix);
+        for (int i = 0; i < k.length(); i++) {
+            char c = k.charAt(i);
+            sb.append(Character.isLetterOrDigit(c) || c == '-' || c == '.' || c == '_' ? c : '_');
+        }
+        return sb.append(gzip ? ".csv.gz" : ".csv").toString();
+    }
+
+    /**
+     * Opens a partition, truncating on first use and appending after it was
+     * evicted. The caller holds the partition lock.
+     */
+    private void open(Partition p) throws IOException {
+        OutputStream os = p.created
+                          ? Files.newOutputStream(p.path, StandardOpenOption.APPEND)
+                          : Files.newOutputStream(p.path);
+        if (gzip) {
+            os = new GZIPOutputStream(os, BUFFER);
+        }
+        p.out = new BufferedWriter(new OutputStreamWriter(os, UTF_8), BUFFER);
+        if (!p.created) {
+            p.created = true;
+            if (header != null) {
+                StringBuilder sb = new StringBuilder();
+                append(sb, header);
+                p.out.append(sb);
+            }
+        }
+        open.add(p);
+        openCount.incrementAndGet();
+    }
+
+    /**
+     * Closes least recently written partitions until within the limit.
+     * Partitions being written are skipped rather than waited for, so the
+     * limit may briefly be exceeded under contention.
+     */
+    private void evict() throws IOException {
+        synchronized (evicting) {
+            while (openCount.get() > maxOpen) {
+                List<Partition> oldest = new ArrayList<>(open);
+                oldest.sort((a, b) -> Long.compare(a.used, b.used));
+                boolean any = false;
+                for (Partition p : oldest) {
+                    if (openCount.get() <= maxOpen) {
+                        break;
+                    }
+                    if (p.lock.tryLock()) {
+                        try {
+                            if (p.out != null) {
+                                closePartition(p);
+                                any = true;
+                            }
+                        } finally {
+                            p.lock.unlock();
+                        }
+                    }
+                }
+                if (!any) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void closePartition(Partition p) throws IOException {
+        open.remove(p);
+        openCount.decrementAndGet();
+        Writer w = p.out;
+        p.out = null;
+        w.close();
+    }
+
+    /**
+     * Number of rows written.
+     *
+     * @return  Row count.
+     */
+    public long getRowCount() {
+        return rows.get();
+    }
+
+    /**
+     * Number of files currently open.
+     *
+     * @return  Open file count.
+     */
+    public int getOpenCount() {
+        return openCount.get();
+    }
+
+    /**
+     * Files written so far, with their row counts.
+     *
+     * @return  Row counts by file.
+     */
+    public Map<Path, Long> getFiles() {
+        Map<Path, Long> res = new TreeMap<>();
+        for (Partition p : partitions.values()) {
+            p.lock.lock();
+            try {
+                res.put(p.path, p.rows);
+            } finally {
+                p.lock.unlock();
+            }
+        }
+        return Collections.unmodifiableMap(res);
+    }
+
+    /**
+     * Closes all open files. Writes after closing fail.
+     *
+     * @throws  IOException
+     *          If a file can not be flushed or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        IOException failure = null;
+        for (Partition p : partitions.values()) {
+            p.lock.lock();
+            try {
+                if (p.out != null) {
+                    closePartition(p);
+                }
+            } catch (IOException ex) {
+                failure = ex;
+            } finally {
+                p.lock.unlock();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+
+    private static final class Partition {
+
+        private final Path path;
+        private final ReentrantLock lock = new ReentrantLock();
+        private Writer out;
+        private boolean created;
+        private volatile long used;
+        private long rows;
+
+        Partition(Path path) {
+            this.path = path;
+        }
+
+    }
+
+}
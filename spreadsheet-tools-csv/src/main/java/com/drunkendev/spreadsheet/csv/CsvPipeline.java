@@ -0,0 +1,510 @@
+/*
+ * CsvPipeline.java    21 October 2026, 14:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Parses a UTF-8 stream that can not be split by offset, such as standard
+ * input or a socket, on several threads.
+ *
+ * A scanner thread reads the stream into slices of about
+ * {@code sliceSize} bytes, each ending at a line terminator, and hands
+ * them through a bounded buffer to {@code workers} threads which decode,
+ * tokenize and infer types. Records never span lines in this library, a
+ * quoted value can not contain a line break, so the scanner only looks
+ * for terminators and never tracks quotes; terminators do not occur inside
+ * UTF-8 multi-byte sequences, so slices are cut without decoding. At most
+ * four slices per worker are in flight, so a slow consumer stalls the
+ * scanner rather than buffering the stream.
+ *
+ * Rows are returned in input order by default, parsed slices then wait in
+ * a reorder stage for any earlier slice still being parsed. Unordered
+ * output returns each slice as soon as it is parsed. Rows match
+ * {@link Csv#lines(InputStream, CsvFormat)} (or
+ * {@link Csv#lines(InputStream, CsvFormat, boolean)} with a header),
+ * including the replacement of malformed input with {@code U+FFFD}.
+ *
+ * <pre>
+ * try (Stream&lt;CsvLine&gt; rows = new CsvPipeline().withWorkers(4).lines(System.in)) {
+ *     rows.forEach(...);
+ * }
+ * </pre>
+ *
+ * Rows are delivered a slice at a time, so a slowly written stream is
+ * seen with a delay of up to one slice. Closing the returned stream closes
+ * the input and stops the threads.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvPipeline {
+
+    /**
+     * Default number of worker threads, leaving one processor for the
+     * scanner.
+     */
+    public static final int DEFAULT_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    /**
+     * Default slice size in bytes.
+     */
+    public static final int DEFAULT_SLICE_SIZE = 64 * 1024;
+
+    private static final int SLICES_PER_WORKER = 4;
+    private static final long POLL_MILLIS = 100;
+
+    private final CsvFormat format;
+    private final boolean header;
+    private final int workers;
+    private final boolean ordered;
+    private final int sliceSize;
+
+    /**
+     * Creates an ordered pipeline using {@link CsvFormat#DEFAULT} without a
+     * header and with default workers and slice size.
+     */
+    public CsvPipeline() {
+        this(CsvFormat.DEFAULT, false, DEFAULT_WORKERS, true, DEFAULT_SLICE_SIZE);
+    }
+
+    private CsvPipeline(CsvFormat format, boolean header, int workers, boolean ordered, int sliceSize) {
+        this.format = format;
+        this.header = header;
+        this.workers = workers;
+        this.ordered = ordered;
+        this.sliceSize = sliceSize;
+    }
+
+    /**
+     * Format of the input.
+     *
+     * @param   format
+     *          New format.
+     * @return  New pipeline.
+     */
+    public CsvPipeline withFormat(CsvFormat format) {
+        return new CsvPipeline(Objects.requireNonNull(format), header, workers, ordered, sliceSize);
+    }
+
+    /**
+     * Whether the first line is a header shared by all rows, see
+     * {@link CsvHeader}.
+     *
+     * @param   header
+     *          True if the first line names the columns.
+     * @return  New pipeline.
+     */
+    public CsvPipeline withHeader(boolean header) {
+        return new CsvPipeline(format, header, workers, ordered, sliceSize);
+    }
+
+    /**
+     * Number of threads parsing slices.
+     *
+     * @param   workers
+     *          Worker count.
+     * @return  New pipeline.
+     */
+    public CsvPipeline withWorkers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        return new CsvPipeline(format, header, workers, ordered, sliceSize);
+    }
+
+    /**
+     * Whether rows are returned in input order.
+     *
+     * @param   ordered
+     *          False to return slices as they are parsed.
+     * @return  New pipeline.
+     */
+    public CsvPipeline withOrdered(boolean ordered) {
+        return new CsvPipeline(format, header, workers, ordered, sliceSize);
+    }
+
+    /**
+     * Bytes read into each slice. A slice grows to hold a longer line.
+     *
+     * @param   sliceSize
+     *          Slice size in bytes.
+     * @return  New pipeline.
+     */
+    public CsvPipeline withSliceSize(int sliceSize) {
+        if (sliceSize < 1) {
+            throw new IllegalArgumentException("sliceSize must be positive");
+        }
+        return new CsvPipeline(format, header, workers, ordered, sliceSize);
+    }
+
+    /**
+     * Parses {@code in} on the pipeline threads, which start with the first
+     * row requested.
+     *
+     * @param   in
+     *          UTF-8 input, closed when the returned stream is closed.
+     * @return  Sequential stream of rows.
+     */
+    public Stream<CsvLine> lines(InputStream in) {
+        Reader r = new Reader(in);
+        return StreamSupport.stream(r, false).onClose(r::close);
+    }
+
+    /**
+     * Offset following the last complete line of {@code b}, {@code 0} if
+     * there is none. A final {@code \r} does not end a line, as a
+     * {@code \n} may follow in the next read.
+     */
+    static int boundary(byte[] b, int len) {
+        for (int i = len - 1; i >= 0; i--) {
+            if (b[i] == '\n' || b[i] == '\r' && i < len - 1) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+
+    /**
+     * Bytes of whole lines, numbered in input order.
+     */
+    private static final class Slice {
+
+        private static final Slice END = new Slice(-1, null, 0, 0);
+
+        private final long seq;
+        private final byte[] data;
+        private final int off;
+        private final int len;
+
+        Slice(long seq, byte[] data, int off, int len) {
+            this.seq = seq;
+            this.data = data;
+            this.off = off;
+            this.len = len;
+        }
+
+    }
+
+
+    /**
+     * Parsed rows of a slice.
+     */
+    private static final class Parsed {
+
+        private static final Parsed END = new Parsed(-1, null);
+
+        private final long seq;
+        private final List<CsvLine> rows;
+
+        Parsed(long seq, List<CsvLine> rows) {
+            this.seq = seq;
+            this.rows = rows;
+        }
+
+    }
+
+
+    /**
+     * Spliterator running the scanner and workers and draining their
+     * output, in order when requested.
+     */
+    private final class Reader implements Spliterator<CsvLine> {
+
+        private final InputStream in;
+        private final int window = workers * SLICES_PER_WORKER;
+        private final Semaphore inFlight = new Semaphore(window);
+        private final BlockingQueue<Slice> slices = new ArrayBlockingQueue<>(window + workers);
+        private final BlockingQueue<Parsed> parsed = new ArrayBlockingQueue<>(window + 1);
+        private final AtomicInteger running = new AtomicInteger(workers);
+        private final Map<Long, Parsed> pending = new HashMap<>();
+
+        private ExecutorService exec;
+        private volatile CsvHeader names;
+        private volatile boolean closed;
+        private volatile Throwable failure;
+        private List<CsvLine> rows;
+        private int pos;
+        private long expected;
+        private boolean ended;
+        private boolean done;
+
+        Reader(InputStream in) {
+            this.in = in;
+        }
+
+        private void start() {
+            AtomicInteger n = new AtomicInteger();
+            exec = Executors.newFixedThreadPool(workers + 1, r -> {
+                Thread t = new Thread(r, "csv-pipeline-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            // Workers are started first so a scanner failing at once can not
+            // shut the pool down while tasks are still being submitted.
+            for (int i = 0; i < workers; i++) {
+                exec.execute(() -> {
+                    try {
+                        work();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (Throwable ex) {
+                        failed(ex);
+                    }
+                });
+            }
+            exec.execute(() -> {
+                try {
+                    scan();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable ex) {
+                    failed(ex);
+                }
+            });
+        }
+
+        private void scan() throws IOException, InterruptedException {
+            byte[] buf = new byte[sliceSize];
+            int len = 0;
+            long seq = 0;
+            boolean first = true;
+            boolean eof = false;
+            while (!eof && !closed) {
+                int n = in.read(buf, len, buf.length - len);
+                if (n < 0) {
+                    eof = true;
+                } else {
+                    len += n;
+                    if (len < buf.length) {
+                        continue;
+                    }
+                }
+                int cut = eof ? len : boundary(buf, len);
+                if (cut == 0) {
+                    if (len == buf.length) {
+                        buf = Arrays.copyOf(buf, buf.length * 2);
+                    }
+                    continue;
+                }
+                int off = 0;
+                if (first) {
+                    first = false;
+                    off = start(buf, cut);
+                }
+                inFlight.acquire();
+                slices.put(new Slice(seq++, buf, off, cut - off));
+                byte[] next = new byte[Math.max(sliceSize, len - cut)];
+                System.arraycopy(buf, cut, next, 0, len - cut);
+                buf = next;
+                len -= cut;
+            }
+            for (int i = 0; i < workers; i++) {
+                slices.put(Slice.END);
+            }
+        }
+
+        /**
+         * Checks the encoding and reads any header from the first slice.
+         *
+         * @return  Offset of the first row.
+         */
+        private int start(byte[] buf, int len) throws IOException {
+            if (len > 1 && (buf[0] == (byte) 0xfe && buf[1] == (byte) 0xff ||
+                            buf[0] == (byte) 0xff && buf[1] == (byte) 0xfe)) {
+                throw new IOException("UTF-16 input is not supported, use Csv.lines");
+            }
+            if (!header) {
+                return 0;
+            }
+            int end = 0;
+            while (end < len && buf[end] != '\n' && buf[end] != '\r') {
+                end++;
+            }
+            CsvDecoder.Line line = new CsvDecoder.Line();
+            names = new CsvDecoder(buf, 0, end, true).readLine(line)
+                    ? CsvHeader.parse(line, format)
+                    : CsvHeader.of();
+            if (end < len && buf[end] == '\r' && end + 1 < len && buf[end + 1] == '\n') {
+                end++;
+            }
+            return Math.min(end + 1, len);
+        }
+
+        private void work() throws IOException, InterruptedException {
+            CsvDecoder.Line line = new CsvDecoder.Line();
+            Slice s;
+            while ((s = slices.take()) != Slice.END && !closed) {
+                CsvHeader h = names;
+                List<CsvLine> res = new ArrayList<>();
+                CsvDecoder dec = new CsvDecoder(s.data, s.off, s.len, s.seq == 0 && !header);
+                while (dec.readLine(line)) {
+                    res.add(CsvParser.splitLine(line, format, h));
+                }
+                parsed.put(new Parsed(s.seq, res));
+            }
+            if (running.decrementAndGet() == 0) {
+                parsed.put(Parsed.END);
+            }
+        }
+
+        /**
+         * Records the first failure of any thread, including an
+         * {@link Error}, so the consumer stops waiting and rethrows it.
+         */
+        private void failed(Throwable ex) {
+            if (!closed && failure == null) {
+                failure = ex;
+                close();
+            }
+        }
+
+        /**
+         * Next parsed slice in the requested order.
+         *
+         * @return  Slice, {@code null} once all have been returned.
+         */
+        private Parsed next() {
+            while (true) {
+                if (ordered) {
+                    Parsed p = pending.remove(expected);
+                    if (p != null) {
+                        expected++;
+                        return p;
+                    }
+                }
+                if (ended) {
+                    return null;
+                }
+                Parsed p = poll();
+                if (p == Parsed.END) {
+                    ended = true;
+                } else if (!ordered) {
+                    return p;
+                } else {
+                    pending.put(p.seq, p);
+                }
+            }
+        }
+
+        private Parsed poll() {
+            Parsed p;
+            try {
+                while ((p = parsed.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null && failure == null) {
+                    // Waiting on workers.
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted waiting for rows", ex);
+            }
+            if (failure != null) {
+                done = true;
+                if (failure instanceof IOException) {
+                    throw new UncheckedIOException((IOException) failure);
+                }
+                if (failure instanceof Error) {
+                    throw (Error) failure;
+                }
+                throw (RuntimeException) failure;
+            }
+            return p;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super CsvLine> action) {
+            if (done) {
+                return false;
+            }
+            if (exec == null) {
+                start();
+            }
+            while (rows == null || pos == rows.size()) {
+                if (rows != null) {
+                    rows = null;
+                    inFlight.release();
+                }
+                Parsed p = next();
+                if (p == null) {
+                    done = true;
+                    close();
+                    return false;
+                }
+                rows = p.rows;
+                pos = 0;
+            }
+            action.accept(rows.get(pos++));
+            return true;
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (exec != null) {
+                exec.shutdownNow();
+            }
+            try {
+                in.close();
+            } catch (IOException ex) {
+                if (failure == null) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<CsvLine> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ordered ? ORDERED | NONNULL : NONNULL;
+        }
+
+    }
+
+}
@@ -0,0 +1,376 @@
+/*
+ * CsvProfile.java    20 October 2026, 17:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Column statistics produced by {@link CsvProfiler}.
+ *
+ * Counts, type distribution and minimum and maximum are exact. Distinct
+ * counts, quantiles and top values are estimates from fixed size sketches,
+ * see {@link CsvProfiler} for their accuracy.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvProfile {
+
+    private final long rows;
+    private final List<Column> columns;
+
+    CsvProfile(long rows, List<Column> columns, List<String> names) {
+        this.rows = rows;
+        for (int i = 0; i < columns.size(); i++) {
+            columns.get(i).name = names != null && i < names.size() ? names.get(i) : null;
+        }
+        this.columns = Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Number of rows profiled, excluding any header.
+     *
+     * @return  Row count.
+     */
+    public long getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Columns in order, as many as the widest row.
+     *
+     * @return  Unmodifiable list of columns.
+     */
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Statistics of one column.
+     *
+     * @param   idx
+     *          Zero based column.
+     * @return  Column statistics.
+     * @throws  IndexOutOfBoundsException
+     *          If no row had the column.
+     */
+    public Column getColumn(int idx) {
+        return columns.get(idx);
+    }
+
+    @Override
+    public String toString() {
+        return "CsvProfile{rows=" + rows + ", columns=" + columns + '}';
+    }
+
+
+    /**
+     * Statistics of one column, built by merging per thread partial
+     * columns.
+     */
+    public static final class Column {
+
+        private final int index;
+        private final CsvProfiler profiler;
+        private String name;
+        private long values;
+        private final Map<Class<?>, long[]> types = new HashMap<>();
+        private Object min;
+        private Object max;
+        private CsvProfiler.Cardinality distinct;
+        private CsvProfiler.Quantiles quantiles;
+        private CsvProfiler.Frequent frequent;
+        private long rows;
+
+        Column(int index, CsvProfiler profiler) {
+            this.index = index;
+            this.profiler = profiler;
+        }
+
+        void add(Object v) {
+            values++;
+            long[] n = types.get(v.getClass());
+            if (n == null) {
+                types.put(v.getClass(), new long[]{1});
+            } else {
+                n[0]++;
+            }
+            if (min == null || CsvDiff.compareValues(v, min) < 0) {
+                min = v;
+            }
+            if (max == null || CsvDiff.compareValues(v, max) > 0) {
+                max = v;
+            }
+            if (distinct == null) {
+                distinct = new CsvProfiler.Cardinality(profiler.getPrecision());
+                frequent = new CsvProfiler.Frequent(profiler.getTopValues());
+            }
+            distinct.add(v);
+            frequent.add(v);
+            double d = ordinal(v);
+            if (!Double.isNaN(d)) {
+                if (quantiles == null) {
+                    quantiles = new CsvProfiler.Quantiles(profiler.getQuantileAccuracy());
+                }
+                quantiles.add(d);
+            }
+        }
+
+        void merge(Column o) {
+            values += o.values;
+            for (Map.Entry<Class<?>, long[]> e : o.types.entrySet()) {
+                long[] n = types.get(e.getKey());
+                if (n == null) {
+                    types.put(e.getKey(), e.getValue().clone());
+                } else {
+                    n[0] += e.getValue()[0];
+                }
+            }
+            if (o.min != null && (min == null || CsvDiff.compareValues(o.min, min) < 0)) {
+                min = o.min;
+            }
+            if (o.max != null && (max == null || CsvDiff.compareValues(o.max, max) > 0)) {
+                max = o.max;
+            }
+            if (o.distinct != null) {
+                if (distinct == null) {
+                    distinct = o.distinct;
+                    frequent = o.frequent;
+                } else {
+                    distinct.merge(o.distinct);
+                    frequent.merge(o.frequent);
+                }
+            }
+            if (o.quantiles != null) {
+                if (quantiles == null) {
+                    quantiles = o.quantiles;
+                } else {
+                    quantiles.merge(o.quantiles);
+                }
+            }
+        }
+
+        Column finish(long rows) {
+            this.rows = rows;
+            return this;
+        }
+
+        /**
+         * Zero based index of the column.
+         *
+         * @return  Column index.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Header of the column.
+         *
+         * @return  Name, or {@code null} when profiled without a header.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Rows with a value in this column.
+         *
+         * @return  Value count.
+         */
+        public long getValueCount() {
+            return values;
+        }
+
+        /**
+         * Rows where the cell is empty, a null token, or missing because the
+         * row is short.
+         *
+         * @return  Null count.
+         */
+        public long getNullCount() {
+            return rows - values;
+        }
+
+        /**
+         * Number of values of each inferred type, such as {@link Double},
+         * {@link String} or {@link LocalDate}.
+         *
+         * @return  Counts by type.
+         */
+        public Map<Class<?>, Long> getTypeCounts() {
+            Map<Class<?>, Long> res = new LinkedHashMap<>();
+            types.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                    .forEach(e -> res.put(e.getKey(), e.getValue()[0]));
+            return res;
+        }
+
+        /**
+         * Smallest value, numbers sort before other types, see
+         * {@link CsvDiff#compareKeys(Object[], Object[])}.
+         *
+         * @return  Minimum, {@code null} if the column has no values.
+         */
+        public Object getMin() {
+            return min;
+        }
+
+        /**
+         * Largest value, see {@link #getMin()}.
+         *
+         * @return  Maximum, {@code null} if the column has no values.
+         */
+        public Object getMax() {
+            return max;
+        }
+
+        /**
+         * Estimated number of distinct values.
+         *
+         * @return  Distinct count.
+         */
+        public long getDistinctCount() {
+            return distinct == null ? 0 : distinct.estimate();
+        }
+
+        /**
+         * Estimated quantile of the numeric and temporal values. Dates are
+         * measured in epoch days, times in seconds of the day and date
+         * times in epoch seconds (UTC for local date times).
+         *
+         * @param   q
+         *          Quantile between {@code 0} and {@code 1}, {@code 0.5}
+         *          for the median.
+         * @return  Estimated value, {@code NaN} without numeric or temporal
+         *          values.
+         */
+        public double getQuantile(double q) {
+            if (q < 0 || q > 1) {
+                throw new IllegalArgumentException("Quantile must be between 0 and 1");
+            }
+            return quantiles == null ? Double.NaN : quantiles.quantile(q);
+        }
+
+        /**
+         * Most frequent values with estimated counts, most frequent first.
+         * Counts may be underestimated by at most the row count divided by
+         * the sketch capacity.
+         *
+         * @return  Values and counts.
+         */
+        public Map<Object, Long> getTopValues() {
+            return frequent == null ? Collections.emptyMap() : frequent.top();
+        }
+
+        @Override
+        public String toString() {
+            return "Column{index=" + index + ", name=" + name + ", values=" + values +
+                   ", nulls=" + getNullCount() + ", distinct=" + getDistinctCount() +
+                   ", min=" + min + ", max=" + max + '}';
+        }
+
+        private static double ordinal(Object v) {
+            if (v instanceof Number) {
+                return ((Number) v).doubleValue();
+            }
+            if (v instanceof LocalDate) {
+                return ((LocalDate) v).toEpochDay();
+            }
+            if (v instanceof LocalDateTime) {
+                return ((LocalDateTime) v).toEpochSecond(ZoneOffset.UTC);
+            }
+            if (v instanceof ZonedDateTime) {
+                return ((ZonedDateTime) v).toEpochSecond();
+            }
+            if (v instanceof OffsetDateTime) {
+                return ((OffsetDateTime) v).toEpochSecond();
+            }
+            if (v instanceof LocalTime) {
+                return ((LocalTime) v).toSecondOfDay();
+            }
+            return Double.NaN;
+        }
+
+    }
+
+
+    /**
+     * Partial profile of the rows seen by one thread.
+     */
+    static final class Partial {
+
+        private final CsvProfiler profiler;
+        private final List<Column> columns = new ArrayList<>();
+        private long rows;
+
+        Partial(CsvProfiler profiler) {
+            this.profiler = profiler;
+        }
+
+        void add(CsvLine line) {
+            rows++;
+            int n = line.size();
+            for (int i = 0; i < n; i++) {
+                if (line.tag(i) == CsvLine.T_NULL) {
+                    continue;
+                }
+                while (columns.size() <= i) {
+                    columns.add(new Column(columns.size(), profiler));
+                }
+                columns.get(i).add(line.getObject(i));
+            }
+        }
+
+        void merge(Partial o) {
+            rows += o.rows;
+            for (int i = 0; i < o.columns.size(); i++) {
+                if (i < columns.size()) {
+                    columns.get(i).merge(o.columns.get(i));
+                } else {
+                    columns.add(o.columns.get(i));
+                }
+            }
+        }
+
+        CsvProfile finish(List<String> names) {
+            int width = Math.max(columns.size(), names == null ? 0 : names.size());
+            while (columns.size() < width) {
+                columns.add(new Column(columns.size(), profiler));
+            }
+            for (Column c : columns) {
+                c.finish(rows);
+            }
+            return new CsvProfile(rows, columns, names);
+        }
+
+    }
+
+}
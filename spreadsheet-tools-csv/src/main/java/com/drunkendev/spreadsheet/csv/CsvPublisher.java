@@ -0,0 +1,322 @@
+/*
+ * CsvPublisher.java    19 October 2026, 23:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import com.drunkendev.spreadsheet.csv.CsvFlow.Publisher;
+import com.drunkendev.spreadsheet.csv.CsvFlow.Subscriber;
+import com.drunkendev.spreadsheet.csv.CsvFlow.Subscription;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Parses UTF-8 byte chunks pushed by an upstream publisher into lines
+ * published to a single downstream subscriber.
+ *
+ * The publisher subscribes to a source of {@link ByteBuffer} chunks (such as
+ * an HTTP request body) and requests one chunk at a time, only when the
+ * lines already decoded can not satisfy downstream demand. No thread is
+ * ever blocked waiting for input: work happens on whichever thread delivers
+ * a chunk or requests lines, so any number of uploads can be parsed by a
+ * small pool of threads.
+ *
+ * Lines are split as by {@link java.io.BufferedReader#readLine()}, giving
+ * the same rows as {@link Csv#lines(java.io.InputStream, CsvFormat)}: a
+ * leading byte order mark is removed and malformed input is replaced with
+ * {@code U+FFFD}. UTF-16 input is not detected.
+ *
+ * <pre>
+ * CsvPublisher csv = new CsvPublisher(CsvFormat.DEFAULT);
+ * body.subscribe(csv);
+ * csv.subscribe(rowSubscriber);
+ * </pre>
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvPublisher implements Publisher<CsvLine>, Subscriber<ByteBuffer> {
+
+    private static final int CHARS = 8192;
+
+    private final CsvFormat format;
+    private final Queue<ByteBuffer> chunks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+    private final AtomicReference<Subscriber<? super CsvLine>> downstream = new AtomicReference<>();
+
+    private volatile boolean upstreamDone;
+    private volatile Throwable upstreamError;
+    private volatile boolean cancelled;
+    private volatile boolean awaiting;
+
+    // Confined to the drain loop.
+    private final CharsetDecoder decoder = UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer out = CharBuffer.allocate(CHARS);
+    private final StringBuilder pending = new StringBuilder();
+    private ByteBuffer carry;
+    private int start;
+    private boolean skipLf;
+    private boolean started;
+    private boolean flushed;
+    private boolean terminated;
+
+    /**
+     * Creates a new publisher.
+     *
+     * @param   format
+     *          Format of the input.
+     */
+    public CsvPublisher(CsvFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super CsvLine> subscriber) {
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("CsvPublisher allows only one subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    upstreamError = new IllegalArgumentException("request must be positive: " + n);
+                    upstreamDone = true;
+                    Subscription s = upstream.get();
+                    if (s != null) {
+                        s.cancel();
+                    }
+                } else {
+                    add(n);
+                }
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                Subscription s = upstream.get();
+                if (s != null) {
+                    s.cancel();
+                }
+            }
+        });
+        drain();
+    }
+
+    private void add(long n) {
+        long r;
+        long u;
+        do {
+            r = requested.get();
+            u = r + n < 0 ? Long.MAX_VALUE : r + n;
+        } while (!requested.compareAndSet(r, u));
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        if (!upstream.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        if (cancelled) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+        awaiting = false;
+        chunks.offer(item);
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        upstreamError = throwable;
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Subscriber<? super CsvLine> s = downstream.get();
+            if (s != null && !terminated) {
+                emit(s);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emit(Subscriber<? super CsvLine> s) {
+        long r = requested.get();
+        long e = 0;
+        while (e != r) {
+            if (cancelled) {
+                terminated = true;
+                return;
+            }
+            String line = nextLine();
+            if (line == null) {
+                break;
+            }
+            s.onNext(CsvParser.splitLine(line, format));
+            e++;
+        }
+        if (e != 0) {
+            requested.addAndGet(-e);
+        }
+        if (cancelled) {
+            terminated = true;
+            return;
+        }
+        if (upstreamError != null && upstreamDone) {
+            terminated = true;
+            s.onError(upstreamError);
+            return;
+        }
+        if (!flushed && upstreamDone && chunks.isEmpty() && start == pending.length()) {
+            decode(ByteBuffer.allocate(0), true);
+            flushed = true;
+        }
+        if (flushed && start == pending.length()) {
+            terminated = true;
+            s.onComplete();
+            return;
+        }
+        Subscription up = upstream.get();
+        if (up != null && requested.get() != 0 && !upstreamDone && !awaiting && chunks.isEmpty()) {
+            awaiting = true;
+            up.request(1);
+        }
+    }
+
+    /**
+     * Next complete line from decoded input, decoding more chunks as needed.
+     * Returns {@code null} when more input is required.
+     */
+    private String nextLine() {
+        while (true) {
+            int len = pending.length();
+            if (skipLf && start < len) {
+                if (pending.charAt(start) == '\n') {
+                    start++;
+                }
+                skipLf = false;
+            }
+            for (int i = start; i < len; i++) {
+                char c = pending.charAt(i);
+                if (c == '\n' || c == '\r') {
+                    String line = pending.substring(start, i);
+                    start = i + 1;
+                    skipLf = c == '\r';
+                    return line;
+                }
+            }
+            if (flushed) {
+                if (start < len) {
+                    String line = pending.substring(start, len);
+                    start = len;
+                    return line;
+                }
+                return null;
+            }
+            pending.delete(0, start);
+            start = 0;
+            ByteBuffer chunk = chunks.poll();
+            if (chunk != null) {
+                decode(chunk, false);
+            } else if (upstreamDone && upstreamError == null) {
+                decode(ByteBuffer.allocate(0), true);
+                flushed = true;
+            } else {
+                return null;
+            }
+        }
+    }
+
+    private void decode(ByteBuffer chunk, boolean last) {
+        ByteBuffer in = chunk;
+        if (carry != null) {
+            in = ByteBuffer.allocate(carry.remaining() + chunk.remaining());
+            in.put(carry).put(chunk).flip();
+            carry = null;
+        }
+        boolean overflow;
+        do {
+            overflow = decoder.decode(in, out, last).isOverflow();
+            append();
+        } while (overflow);
+        if (last) {
+            while (decoder.flush(out).isOverflow()) {
+                append();
+            }
+            append();
+        }
+        if (in.hasRemaining()) {
+            carry = ByteBuffer.allocate(in.remaining());
+            carry.put(in).flip();
+        }
+    }
+
+    private void append() {
+        out.flip();
+        pending.append(out);
+        out.clear();
+        if (!started && pending.length() > 0) {
+            started = true;
+            if (pending.charAt(0) == '\uFEFF') {
+                pending.deleteCharAt(0);
+            }
+        }
+    }
+
+}
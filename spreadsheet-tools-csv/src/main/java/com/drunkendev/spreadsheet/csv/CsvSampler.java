@@ -0,0 +1,300 @@
+/*
+ * CsvSampler.java    20 October 2026, 18:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Uniform random samples of the records of a UTF-8 file.
+ *
+ * Two modes are offered:
+ * <ul>
+ * <li>{@link #reservoir(Path, int)} reads every line but only parses the
+ * lines selected, using reservoir sampling with geometric skips
+ * (Li's algorithm L). The sample is exactly uniform.</li>
+ * <li>{@link #seek(Path, int)} reads only around the sampled records: it
+ * picks random byte offsets, moves forward to the start of the next record
+ * (wrapping from the end to the first record) and parses that record
+ * alone. Cost is independent of the file size, but records following long
+ * records are more likely to be chosen, so the sample is only
+ * approximately uniform when record lengths vary.</li>
+ * </ul>
+ *
+ * Records never span lines in this library, a quoted value can not contain
+ * a line break, so the byte after any line terminator starts a record and
+ * resynchronising never has to track quotes. Line terminators do not occur
+ * inside UTF-8 multi-byte sequences, so any offset is safe to seek to.
+ *
+ * Both modes return records in file order and the same seed always yields
+ * the same sample of the same file.
+ *
+ * <pre>
+ * List&lt;CsvLine&gt; rows = new CsvSampler(42).withHeader(true).seek(path, 1000);
+ * </pre>
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvSampler {
+
+    private static final int CHUNK = 8 * 1024;
+
+    private final long seed;
+    private final CsvFormat format;
+    private final boolean header;
+
+    /**
+     * Creates a sampler using {@link CsvFormat#DEFAULT} without a header.
+     *
+     * @param   seed
+     *          Seed of the random selection.
+     */
+    public CsvSampler(long seed) {
+        this(seed, CsvFormat.DEFAULT, false);
+    }
+
+    private CsvSampler(long seed, CsvFormat format, boolean header) {
+        this.seed = seed;
+        this.format = format;
+        this.header = header;
+    }
+
+    /**
+     * Format used to parse the sampled records.
+     *
+     * @param   format
+     *          New format.
+     * @return  New sampler.
+     */
+    public CsvSampler withFormat(CsvFormat format) {
+        return new CsvSampler(seed, Objects.requireNonNull(format), header);
+    }
+
+    /**
+     * Whether the first line is a header which is never sampled.
+     *
+     * @param   header
+     *          True to exclude the first line.
+     * @return  New sampler.
+     */
+    public CsvSampler withHeader(boolean header) {
+        return new CsvSampler(seed, format, header);
+    }
+
+    /**
+     * Exact uniform sample in a single scan of the file.
+     *
+     * @param   path
+     *          File to sample.
+     * @param   size
+     *          Number of records wanted.
+     * @return  Sampled records in file order, all records if the file has
+     *          no more than {@code size}.
+     * @throws  IOException
+     *          If the file can not be read.
+     */
+    public List<CsvLine> reservoir(Path path, int size) throws IOException {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        Random random = new Random(seed);
+        CsvLine[] rows = new CsvLine[size];
+        long[] index = new long[size];
+        int filled = 0;
+        try (CsvDecoder in = new CsvDecoder(Files.newInputStream(path))) {
+            CsvDecoder.Line line = new CsvDecoder.Line();
+            if (header && !in.readLine(line)) {
+                return new ArrayList<>();
+            }
+            long i = 0;
+            long next = 0;
+            double w = 1;
+            for (; in.readLine(line); i++) {
+                if (filled < size) {
+                    rows[filled] = CsvParser.splitLine(line, format);
+                    index[filled++] = i;
+                    if (filled == size) {
+                        w = Math.exp(Math.log(uniform(random)) / size);
+                        next = i + 1 + skip(random, w);
+                    }
+                } else if (i == next) {
+                    int slot = random.nextInt(size);
+                    rows[slot] = CsvParser.splitLine(line, format);
+                    index[slot] = i;
+                    w *= Math.exp(Math.log(uniform(random)) / size);
+                    next = i + 1 + skip(random, w);
+                }
+            }
+        }
+        TreeMap<Long, CsvLine> ordered = new TreeMap<>();
+        for (int j = 0; j < filled; j++) {
+            ordered.put(index[j], rows[j]);
+        }
+        return new ArrayList<>(ordered.values());
+    }
+
+    /**
+     * Approximate sample reading only the sampled records.
+     *
+     * Small files may yield fewer records than requested, as offsets that
+     * land on an already sampled record are retried a limited number of
+     * times.
+     *
+     * @param   path
+     *          File to sample.
+     * @param   size
+     *          Number of records wanted.
+     * @return  Distinct sampled records in file order.
+     * @throws  IOException
+     *          If the file can not be read.
+     */
+    public List<CsvLine> seek(Path path, int size) throws IOException {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        Random random = new Random(seed);
+        TreeMap<Long, CsvLine> sample = new TreeMap<>();
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long end = ch.size();
+            long start = start(ch);
+            if (start >= end) {
+                return new ArrayList<>();
+            }
+            Reader reader = new Reader(ch);
+            for (int attempt = 0; sample.size() < size && attempt < size * 4 + 16; attempt++) {
+                long offset = start + (long) (random.nextDouble() * (end - start));
+                long at = reader.boundary(offset);
+                if (at >= end) {
+                    // Wrap around so the first record follows the last.
+                    at = start;
+                }
+                if (sample.containsKey(at)) {
+                    continue;
+                }
+                sample.put(at, CsvParser.splitLine(reader.record(at), format));
+            }
+        }
+        return new ArrayList<>(sample.values());
+    }
+
+    /**
+     * Offset of the first record, after any byte order mark and header.
+     */
+    private long start(FileChannel ch) throws IOException {
+        ByteBuffer bom = ByteBuffer.allocate(3);
+        while (bom.hasRemaining() && ch.read(bom, bom.position()) > 0) {
+            // Read up to three bytes.
+        }
+        long start = bom.position() == 3 && (bom.get(0) & 0xff) == 0xef
+                     && (bom.get(1) & 0xff) == 0xbb && (bom.get(2) & 0xff) == 0xbf ? 3 : 0;
+        return header ? new Reader(ch).boundary(start) : start;
+    }
+
+    /**
+     * Uniform value in {@code (0, 1]}, safe to take the logarithm of.
+     */
+    private static double uniform(Random random) {
+        return 1 - random.nextDouble();
+    }
+
+    private static long skip(Random random, double w) {
+        return (long) Math.floor(Math.log(uniform(random)) / Math.log(1 - w));
+    }
+
+
+    /**
+     * Positional reads of lines from a channel.
+     */
+    private static final class Reader {
+
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocate(CHUNK);
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+
+        Reader(FileChannel ch) {
+            this.ch = ch;
+        }
+
+        /**
+         * Offset following the first line terminator at or after
+         * {@code pos}, a {@code \r\n} pair counting as one.
+         */
+        long boundary(long pos) throws IOException {
+            boolean cr = false;
+            while (true) {
+                buf.clear();
+                int n = ch.read(buf, pos);
+                if (n <= 0) {
+                    return cr ? pos : ch.size();
+                }
+                byte[] b = buf.array();
+                for (int i = 0; i < n; i++) {
+                    if (cr) {
+                        return b[i] == '\n' ? pos + i + 1 : pos + i;
+                    }
+                    if (b[i] == '\n') {
+                        return pos + i + 1;
+                    }
+                    cr = b[i] == '\r';
+                }
+                pos += n;
+            }
+        }
+
+        /**
+         * Text of the line starting at {@code pos}, without its terminator.
+         */
+        String record(long pos) throws IOException {
+            record.reset();
+            while (true) {
+                buf.clear();
+                int n = ch.read(buf, pos);
+                if (n <= 0) {
+                    break;
+                }
+                byte[] b = buf.array();
+                int i = 0;
+                while (i < n && b[i] != '\n' && b[i] != '\r') {
+                    i++;
+                }
+                record.write(b, 0, i);
+                if (i < n) {
+                    break;
+                }
+                pos += n;
+            }
+            return new String(record.toByteArray(), UTF_8);
+        }
+
+    }
+
+}
@@ -0,0 +1,344 @@
+/*
+ * CsvSchema.java    19 October 2026, 17:25
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import org.apache.commons.lang3.BooleanUtils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Fixed per column types for a CSV file, usually produced by
+ * {@link CsvSniffer}.
+ *
+ * Rows parsed through a schema are tokenized without type inference and
+ * each cell converted directly to its column's type. Only cells that do not
+ * conform to their column fall back to {@link Csv#getTypedValue(String,
+ * DateTimeFormatter)}. Columns beyond those known to the schema are always
+ * inferred.
+ *
+ * Instances are immutable and may be shared between threads.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvSchema {
+
+    /**
+     * Type of a column.
+     */
+    public enum Type {
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        DATE,
+        DATE_TIME
+    }
+
+    private final CsvFormat format;
+    private final CsvFormat rawFormat;
+    private final Charset charset;
+    private final boolean header;
+    private final String[] names;
+    private final Type[] types;
+    private final String[] patterns;
+    private final DateTimeFormatter[] formatters;
+
+    /**
+     * Creates a new schema.
+     *
+     * @param   format
+     *          Dialect of the file, type inference settings are used only
+     *          for cells that violate the schema.
+     * @param   header
+     *          True if the first row is a header.
+     * @param   names
+     *          Column names, may be null when there is no header.
+     * @param   types
+     *          Type of each column.
+     * @param   patterns
+     *          {@link DateTimeFormatter} pattern for {@link Type#DATE} and
+     *          {@link Type#DATE_TIME} columns, null entries use
+     *          {@link Csv#DEFAULT_DATE_TIME}.
+     */
+    public CsvSchema(CsvFormat format, boolean header, String[] names, Type[] types, String[] patterns) {
+        this(format, UTF_8, header, names, types, patterns);
+    }
+
+    private CsvSchema(CsvFormat format, Charset charset, boolean header, String[] names, Type[] types, String[] patterns) {
+        if (format == null || charset == null || types == null) {
+            throw new IllegalArgumentException("format, charset and types may not be null");
+        }
+        if ((names != null && names.length != types.length) ||
+            (patterns != null && patterns.length != types.length)) {
+            throw new IllegalArgumentException("names, types and patterns must be the same length");
+        }
+        this.format = format;
+        this.rawFormat = format.withTypeInference(false);
+        this.charset = charset;
+        this.header = header;
+        this.names = names == null ? new String[types.length] : names.clone();
+        this.types = types.clone();
+        this.patterns = patterns == null ? new String[types.length] : patterns.clone();
+        this.formatters = new DateTimeFormatter[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == Type.DATE || types[i] == Type.DATE_TIME) {
+                formatters[i] = this.patterns[i] == null
+                        ? Csv.DEFAULT_DATE_TIME
+                        : DateTimeFormatter.ofPattern(this.patterns[i]);
+            }
+        }
+    }
+
+    /**
+     * Dialect of the file.
+     *
+     * @return  Format with type inference as configured for fallback parsing.
+     */
+    public CsvFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Charset of the file, UTF-8 unless sniffed from a file of another
+     * charset.
+     *
+     * @return  Charset used by {@link Csv#linesArray(java.nio.file.Path, CsvSchema)}.
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Copy of this schema for a file of another charset.
+     *
+     * @param   charset
+     *          Charset of the file.
+     * @return  New schema.
+     */
+    public CsvSchema withCharset(Charset charset) {
+        return new CsvSchema(format, charset, header, names, types, patterns);
+    }
+
+    /**
+     * Whether the first row is a header.
+     *
+     * @return  True if the file has a header.
+     */
+    public boolean hasHeader() {
+        return header;
+    }
+
+    /**
+     * Number of columns.
+     *
+     * @return  Column count.
+     */
+    public int getColumnCount() {
+        return types.length;
+    }
+
+    /**
+     * Name of a column.
+     *
+     * @param   idx
+     *          Column index.
+     * @return  Column name, null when the file has no header.
+     */
+    public String getName(int idx) {
+        return names[idx];
+    }
+
+    /**
+     * Type of a column.
+     *
+     * @param   idx
+     *          Column index.
+     * @return  Column type.
+     */
+    public Type getType(int idx) {
+        return types[idx];
+    }
+
+    /**
+     * Date pattern of a column.
+     *
+     * @param   idx
+     *          Column index.
+     * @return  {@link DateTimeFormatter} pattern, null when the column is not
+     *          a date or uses {@link Csv#DEFAULT_DATE_TIME}.
+     */
+    public String getPattern(int idx) {
+        return patterns[idx];
+    }
+
+    /**
+     * Splits a record, converting each cell to its column type.
+     *
+     * @param   string
+     *          Record to split.
+     * @return  Typed cells.
+     */
+    public Object[] splitToArray(String string) {
+        return convert(CsvParser.split(string, rawFormat), null);
+    }
+
+    /**
+     * Splits a record, converting each cell to its column type.
+     *
+     * @param   string
+     *          Record to split.
+     * @return  Typed line.
+     */
+    public CsvLine split(String string) {
+        return new CsvLine(splitToArray(string));
+    }
+
+    /**
+     * Format splitting records into untyped cells for
+     * {@link #convert(Object[], IntConsumer)}.
+     */
+    CsvFormat getRawFormat() {
+        return rawFormat;
+    }
+
+    /**
+     * Converts the untyped cells of a record in place.
+     *
+     * @param   cells
+     *          Cells split with {@link #getRawFormat()}.
+     * @param   mismatch
+     *          Receives the index of each cell violating its type, may be
+     *          {@code null}.
+     * @return  {@code cells}.
+     */
+    Object[] convert(Object[] cells, IntConsumer mismatch) {
+        for (int i = 0; i < cells.length; i++) {
+            Object v = cells[i];
+            if (v instanceof String) {
+                cells[i] = convert(i, (String) v, mismatch);
+            }
+        }
+        return cells;
+    }
+
+    private Object convert(int idx, String v, IntConsumer mismatch) {
+        Type t = idx < types.length ? types[idx] : null;
+        if (t == Type.STRING) {
+            return v;
+        }
+        String s = v.trim();
+        if (s.isEmpty()) {
+            return null;
+        }
+        if (t != null) {
+            switch (t) {
+                case NUMBER:
+                    if (CsvParser.isDecimal(s)) {
+                        return Double.valueOf(s);
+                    }
+                    break;
+                case BOOLEAN:
+                    Boolean b = BooleanUtils.toBooleanObject(s);
+                    if (b != null) {
+                        return b;
+                    }
+                    break;
+                case DATE:
+                    LocalDate d = Csv.parse(formatters[idx], s, LocalDate::from);
+                    if (d != null) {
+                        return d;
+                    }
+                    break;
+                case DATE_TIME:
+                    LocalDateTime dt = Csv.parse(formatters[idx], s, LocalDateTime::from);
+                    if (dt != null) {
+                        return dt;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (mismatch != null) {
+                mismatch.accept(idx);
+            }
+        }
+        // Cell violates the schema, fall back to full inference.
+        if (format.isTypeInference()) {
+            if (CsvParser.isDecimal(s)) {
+                return Double.valueOf(s);
+            }
+            return Csv.getTypedValue(s, format.getFormatter());
+        }
+        return s;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CsvSchema{header=").append(header).append(", columns=[");
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            if (names[i] != null) {
+                sb.append(names[i]).append(':');
+            }
+            sb.append(types[i]);
+            if (patterns[i] != null) {
+                sb.append('(').append(patterns[i]).append(')');
+            }
+        }
+        return sb.append("], format=").append(format).append(", charset=").append(charset).append('}').toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        CsvSchema o = (CsvSchema) obj;
+        return header == o.header &&
+               format.equals(o.format) &&
+               charset.equals(o.charset) &&
+               Arrays.equals(names, o.names) &&
+               Arrays.equals(types, o.types) &&
+               Arrays.equals(patterns, o.patterns);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = format.hashCode();
+        h = 31 * h + charset.hashCode();
+        h = 31 * h + (header ? 1 : 0);
+        h = 31 * h + Arrays.hashCode(names);
+        h = 31 * h + Arrays.hashCode(types);
+        h = 31 * h + Arrays.hashCode(patterns);
+        return h;
+    }
+
+}
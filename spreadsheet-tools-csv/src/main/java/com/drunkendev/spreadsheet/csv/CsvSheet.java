@@ -0,0 +1,396 @@
+/*
+ * CsvSheet.java    20 October 2026, 15:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Mutable sheet of values and formulas with incremental recalculation.
+ *
+ * Every {@link FormulaValue} cell is compiled with {@link CsvFormula} and
+ * linked to the cells it reads, ranges are expanded to their cells. Edits
+ * made with {@link #set(int, int, Object)} only mark cells dirty;
+ * {@link #recalculate()}, or the next read, evaluates the formulas
+ * downstream of the dirty cells once each in dependency order. Cost is
+ * therefore proportional to the cells an edit affects rather than the size
+ * of the sheet. Affected formulas that share no dependencies form
+ * independent groups which are evaluated in parallel when there are enough
+ * of them.
+ *
+ * Circular references are rejected: by the constructor with
+ * {@link IllegalStateException} and by {@link #set(int, int, Object)} with
+ * {@link IllegalArgumentException}, leaving the sheet unchanged.
+ *
+ * Instances are not thread safe.
+ *
+ * <pre>
+ * CsvSheet sheet = new CsvSheet(Csv.loadLines(file, CsvFormat.DEFAULT));
+ * sheet.set(1, 1, 10.0);
+ * Object total = sheet.getValue(4, 3);
+ * </pre>
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvSheet {
+
+    /**
+     * Minimum number of affected formulas before independent groups are
+     * evaluated in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 512;
+
+    private final List<Object[]> grid = new ArrayList<>();
+    private final Map<Long, Cell> formulas = new HashMap<>();
+    private final Map<Long, List<Cell>> dependents = new HashMap<>();
+    private final Set<Long> dirty = new LinkedHashSet<>();
+    private final CsvFormula.Cells cells = this::current;
+
+    /**
+     * Creates a sheet from rows and evaluates all formulas.
+     *
+     * @param   rows
+     *          Rows of the sheet, values are copied.
+     * @throws  IllegalArgumentException
+     *          If a formula is not valid.
+     * @throws  IllegalStateException
+     *          If formulas refer to each other in a cycle.
+     */
+    public CsvSheet(List<? extends CsvLine> rows) {
+        for (int r = 0; r < rows.size(); r++) {
+            CsvLine line = rows.get(r);
+            Object[] values = new Object[line.size()];
+            for (int c = 0; c < values.length; c++) {
+                Object v = line.getObject(c);
+                values[c] = v;
+                if (v instanceof FormulaValue) {
+                    link(new Cell(r, c, CsvFormula.compile((FormulaValue) v)));
+                }
+            }
+            grid.add(values);
+        }
+        dirty.addAll(formulas.keySet());
+        if (recalculate() < formulas.size()) {
+            throw new IllegalStateException("Circular reference in sheet");
+        }
+    }
+
+    /**
+     * Number of rows.
+     *
+     * @return  Row count.
+     */
+    public int getRowCount() {
+        return grid.size();
+    }
+
+    /**
+     * Number of formula cells.
+     *
+     * @return  Formula count.
+     */
+    public int getFormulaCount() {
+        return formulas.size();
+    }
+
+    /**
+     * Value of a cell, the evaluated result for formula cells.
+     * Pending edits are recalculated first.
+     *
+     * @param   row
+     *          Zero based row.
+     * @param   col
+     *          Zero based column.
+     * @return  Cell value, {@code null} when empty or out of range.
+     */
+    public Object getValue(int row, int col) {
+        if (!dirty.isEmpty()) {
+            recalculate();
+        }
+        return current(row, col);
+    }
+
+    /**
+     * Formula of a cell.
+     *
+     * @param   row
+     *          Zero based row.
+     * @param   col
+     *          Zero based column.
+     * @return  Formula, or {@code null} if the cell is not a formula.
+     */
+    public FormulaValue getFormula(int row, int col) {
+        Object v = raw(row, col);
+        return v instanceof FormulaValue ? (FormulaValue) v : null;
+    }
+
+    /**
+     * Sets a cell, growing the sheet as needed. Dependent formulas are
+     * recalculated on the next read or {@link #recalculate()}.
+     *
+     * @param   row
+     *          Zero based row.
+     * @param   col
+     *          Zero based column.
+     * @param   value
+     *          New value, a {@link FormulaValue} makes the cell a formula.
+     * @throws  IllegalArgumentException
+     *          If a formula is not valid or would create a circular
+     *          reference.
+     */
+    public void set(int row, int col, Object value) {
+        if (row < 0 || col < 0) {
+            throw new IllegalArgumentException("Invalid cell " + row + "," + col);
+        }
+        Long key = key(row, col);
+        Cell next = value instanceof FormulaValue
+                    ? new Cell(row, col, CsvFormula.compile((FormulaValue) value))
+                    : null;
+        Cell prior = formulas.get(key);
+        if (prior != null) {
+            unlink(prior);
+        }
+        if (next != null) {
+            link(next);
+            if (reaches(key, key)) {
+                unlink(next);
+                if (prior != null) {
+                    link(prior);
+                }
+                throw new IllegalArgumentException("Circular reference at " + CsvFormula.name(row, col));
+            }
+        }
+        while (grid.size() <= row) {
+            grid.add(new Object[0]);
+        }
+        Object[] values = grid.get(row);
+        if (values.length <= col) {
+            values = Arrays.copyOf(values, col + 1);
+            grid.set(row, values);
+        }
+        values[col] = value;
+        dirty.add(key);
+    }
+
+    /**
+     * Evaluates formulas affected by edits since the last recalculation.
+     *
+     * @return  Number of formulas evaluated.
+     */
+    public int recalculate() {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        // Formulas downstream of the dirty cells.
+        Set<Cell> affected = new LinkedHashSet<>();
+        Deque<Long> work = new ArrayDeque<>(dirty);
+        dirty.clear();
+        while (!work.isEmpty()) {
+            Long k = work.poll();
+            Cell own = formulas.get(k);
+            if (own != null) {
+                affected.add(own);
+            }
+            List<Cell> deps = dependents.get(k);
+            if (deps != null) {
+                for (Cell d : deps) {
+                    if (affected.add(d)) {
+                        work.add(d.key);
+                    }
+                }
+            }
+        }
+
+        // Group into independent subgraphs, each in dependency order.
+        Map<Cell, Integer> pending = new HashMap<>();
+        Map<Cell, Cell> parent = new HashMap<>();
+        for (Cell c : affected) {
+            int n = 0;
+            for (long k : c.reads) {
+                Cell p = formulas.get(k);
+                if (p != null && affected.contains(p)) {
+                    n++;
+                    union(parent, c, p);
+                }
+            }
+            pending.put(c, n);
+        }
+        Map<Cell, List<Cell>> groups = new HashMap<>();
+        Deque<Cell> ready = new ArrayDeque<>();
+        for (Cell c : affected) {
+            if (pending.get(c) == 0) {
+                ready.add(c);
+            }
+        }
+        int ordered = 0;
+        while (!ready.isEmpty()) {
+            Cell c = ready.poll();
+            groups.computeIfAbsent(find(parent, c), x -> new ArrayList<>()).add(c);
+            ordered++;
+            List<Cell> deps = dependents.get(c.key);
+            if (deps != null) {
+                for (Cell d : deps) {
+                    Integer n = pending.get(d);
+                    if (n != null && n > 0) {
+                        pending.put(d, n - 1);
+                        if (n == 1) {
+                            ready.add(d);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (groups.size() > 1 && ordered >= PARALLEL_THRESHOLD) {
+            groups.values().parallelStream().forEach(this::evaluate);
+        } else {
+            groups.values().forEach(this::evaluate);
+        }
+        return ordered;
+    }
+
+    private void evaluate(List<Cell> group) {
+        for (Cell c : group) {
+            c.value = c.formula.evaluate(cells);
+        }
+    }
+
+    private Object raw(int row, int col) {
+        if (row < 0 || row >= grid.size()) {
+            return null;
+        }
+        Object[] values = grid.get(row);
+        return col < 0 || col >= values.length ? null : values[col];
+    }
+
+    private Object current(int row, int col) {
+        Object v = raw(row, col);
+        if (v instanceof FormulaValue) {
+            return formulas.get(key(row, col)).value;
+        }
+        return v;
+    }
+
+    private void link(Cell c) {
+        formulas.put(c.key, c);
+        for (long k : c.reads) {
+            dependents.computeIfAbsent(k, x -> new ArrayList<>(2)).add(c);
+        }
+    }
+
+    private void unlink(Cell c) {
+        formulas.remove(c.key);
+        for (long k : c.reads) {
+            List<Cell> deps = dependents.get(k);
+            deps.remove(c);
+            if (deps.isEmpty()) {
+                dependents.remove(k);
+            }
+        }
+    }
+
+    /**
+     * Whether {@code target} is read, directly or through other formulas,
+     * by the cells depending on {@code from}.
+     */
+    private boolean reaches(Long from, Long target) {
+        Set<Long> seen = new HashSet<>();
+        Deque<Long> work = new ArrayDeque<>();
+        work.add(from);
+        while (!work.isEmpty()) {
+            List<Cell> deps = dependents.get(work.poll());
+            if (deps != null) {
+                for (Cell d : deps) {
+                    if (d.key.equals(target)) {
+                        return true;
+                    }
+                    if (seen.add(d.key)) {
+                        work.add(d.key);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Cell find(Map<Cell, Cell> parent, Cell c) {
+        Cell p = parent.get(c);
+        if (p == null) {
+            return c;
+        }
+        Cell root = find(parent, p);
+        if (root != p) {
+            parent.put(c, root);
+        }
+        return root;
+    }
+
+    private static void union(Map<Cell, Cell> parent, Cell a, Cell b) {
+        Cell ra = find(parent, a);
+        Cell rb = find(parent, b);
+        if (ra != rb) {
+            parent.put(ra, rb);
+        }
+    }
+
+    private static Long key(int row, int col) {
+        return (long) row << 32 | col;
+    }
+
+
+    /**
+     * A formula cell and the cells it reads.
+     */
+    private static final class Cell {
+
+        private final Long key;
+        private final CsvFormula formula;
+        private final long[] reads;
+        private volatile Object value;
+
+        Cell(int row, int col, CsvFormula formula) {
+            this.key = key(row, col);
+            this.formula = formula;
+            Set<Long> keys = new LinkedHashSet<>();
+            for (int[] g : formula.references()) {
+                for (int r = g[0]; r <= g[2]; r++) {
+                    for (int c = g[1]; c <= g[3]; c++) {
+                        keys.add(key(r, c));
+                    }
+                }
+            }
+            this.reads = new long[keys.size()];
+            int i = 0;
+            for (Long k : keys) {
+                reads[i++] = k;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,515 @@
+/*
+ * CsvSniffer.java    19 October 2026, 17:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import com.drunkendev.spreadsheet.csv.CsvSchema.Type;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.BooleanUtils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Detects the dialect and column types of a CSV file from a sample of its
+ * first rows.
+ *
+ * The sample is used to choose a delimiter, quote characters, null tokens,
+ * whether the first row is a header and a type (with date pattern) for each
+ * column. The resulting {@link CsvSchema} then parses the remainder of the
+ * file without per cell inference.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvSniffer {
+
+    /**
+     * Default number of characters sampled from the start of a file.
+     */
+    public static final int DEFAULT_SAMPLE_SIZE = 64 * 1024;
+
+    /**
+     * Default maximum number of rows sampled.
+     */
+    public static final int DEFAULT_SAMPLE_ROWS = 1000;
+
+    /**
+     * Fraction of non-null values in a column that must conform to a type
+     * for it to be chosen, the remainder fall back to inference.
+     */
+    private static final double THRESHOLD = 0.9;
+
+    private static final char[] DELIMITERS = {',', ';', '\t', '|'};
+    private static final char[] QUOTES = {'"', '\''};
+
+    private static final String[] NULL_TOKENS = {
+        "null", "NULL", "Null", "NA", "N/A", "n/a", "\\N", "nil", "NIL", "None"
+    };
+
+    private static final String[] DATE_TIME_PATTERNS = {
+        null,
+        "dd/MM/yyyy HH:mm:ss",
+        "dd/MM/yyyy HH:mm",
+        "MM/dd/yyyy HH:mm:ss",
+        "MM/dd/yyyy HH:mm",
+        "dd-MM-yyyy HH:mm:ss",
+        "dd.MM.yyyy HH:mm:ss",
+        "yyyy/MM/dd HH:mm:ss"
+    };
+
+    private static final String[] DATE_PATTERNS = {
+        null,
+        "dd/MM/yyyy",
+        "MM/dd/yyyy",
+        "d/M/yyyy",
+        "M/d/yyyy",
+        "dd-MM-yyyy",
+        "dd.MM.yyyy",
+        "yyyy/MM/dd",
+        "dd-MMM-yyyy",
+        "d MMM yyyy"
+    };
+
+    private static final DateTimeFormatter[] DATE_TIME_FORMATTERS = formatters(DATE_TIME_PATTERNS);
+    private static final DateTimeFormatter[] DATE_FORMATTERS = formatters(DATE_PATTERNS);
+
+    private CsvSniffer() {
+    }
+
+    /**
+     * Sniffs a UTF-8 file using the default sample size.
+     *
+     * @param   path
+     *          File to sample.
+     * @return  Detected schema.
+     * @throws  IOException
+     *          If the file can not be read.
+     */
+    public static CsvSchema sniff(Path path) throws IOException {
+        return sniff(path, UTF_8, DEFAULT_SAMPLE_SIZE, DEFAULT_SAMPLE_ROWS);
+    }
+
+    /**
+     * Sniffs a file from at most {@code maxChars} characters and
+     * {@code maxRows} rows. UTF-8 files are read through {@link CsvDecoder},
+     * so a byte order mark is removed and malformed input replaced with
+     * {@code U+FFFD}.
+     *
+     * @param   path
+     *          File to sample.
+     * @param   charset
+     *          Charset of the file.
+     * @param   maxChars
+     *          Maximum characters to sample, a partial final line is
+     *          discarded.
+     * @param   maxRows
+     *          Maximum rows to sample.
+     * @return  Detected schema, reading with {@code charset}.
+     * @throws  IOException
+     *          If the file can not be read.
+     */
+    public static CsvSchema sniff(Path path, Charset charset, int maxChars, int maxRows) throws IOException {
+        if (maxChars < 1 || maxRows < 1) {
+            throw new IllegalArgumentException("maxChars and maxRows must be positive");
+        }
+        List<String> lines;
+        if (UTF_8.equals(charset)) {
+            try (CsvDecoder dec = new CsvDecoder(Files.newInputStream(path), true)) {
+                CsvDecoder.Line line = new CsvDecoder.Line();
+                lines = sample(() -> dec.readLine(line) ? line.toString() : null, maxChars, maxRows);
+            }
+        } else {
+            try (BufferedReader br = Files.newBufferedReader(path, charset)) {
+                lines = sample(br::readLine, maxChars, maxRows);
+            }
+        }
+        return sniff(lines).withCharset(charset);
+    }
+
+    /**
+     * Reads the non empty lines of a sample.
+     */
+    private static List<String> sample(LineReader in, int maxChars, int maxRows) throws IOException {
+        List<String> lines = new ArrayList<>();
+        int read = 0;
+        String line;
+        while (lines.size() < maxRows && (line = in.readLine()) != null) {
+            read += line.length() + 1;
+            if (read > maxChars && !lines.isEmpty()) {
+                break;
+            }
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Sniffs sample records.
+     *
+     * @param   lines
+     *          Records from the start of a file.
+     * @return  Detected schema.
+     */
+    public static CsvSchema sniff(List<String> lines) {
+        char[] quotes = detectQuotes(lines);
+        char delim = detectDelimiter(lines, quotes);
+        CsvFormat raw = CsvFormat.DEFAULT
+                .withDelimiter(delim)
+                .withQuoteChars(quotes)
+                .withTypeInference(false)
+                .withFormulas(false)
+                .withNullValues(new HashSet<>());
+
+        List<Object[]> rows = new ArrayList<>(lines.size());
+        int cols = 0;
+        for (String line : lines) {
+            Object[] row = CsvParser.split(line, raw);
+            rows.add(row);
+            cols = Math.max(cols, row.length);
+        }
+
+        Set<String> nulls = new LinkedHashSet<>(Csv.DEFAULT_NULL);
+        for (Object[] row : rows) {
+            for (Object v : row) {
+                if (v != null) {
+                    for (String t : NULL_TOKENS) {
+                        if (t.equals(v.toString().trim())) {
+                            nulls.add(t);
+                        }
+                    }
+                }
+            }
+        }
+
+        Type[] types = new Type[cols];
+        String[] patterns = new String[cols];
+        int first = rows.size() > 1 ? 1 : 0;
+        for (int c = 0; c < cols; c++) {
+            classify(rows, first, c, nulls, types, patterns);
+        }
+
+        boolean header = rows.size() > 1 && isHeader(rows, types, patterns, nulls);
+        String[] names = null;
+        if (header) {
+            Object[] hdr = rows.get(0);
+            names = new String[cols];
+            for (int c = 0; c < cols && c < hdr.length; c++) {
+                names[c] = hdr[c] == null ? null : hdr[c].toString().trim();
+            }
+        } else if (first == 1) {
+            // Without a header the first row is data too.
+            for (int c = 0; c < cols; c++) {
+                classify(rows, 0, c, nulls, types, patterns);
+            }
+        }
+
+        CsvFormat format = CsvFormat.DEFAULT
+                .withDelimiter(delim)
+                .withQuoteChars(quotes)
+                .withNullValues(nulls);
+        return new CsvSchema(format, header, names, types, patterns);
+    }
+
+    /**
+     * Quote characters seen both opening and closing a cell, defaults to a
+     * double quote.
+     */
+    private static char[] detectQuotes(List<String> lines) {
+        StringBuilder res = new StringBuilder(2);
+        for (char q : QUOTES) {
+            for (String line : lines) {
+                if (opensCell(line, q) && closesCell(line, q)) {
+                    res.append(q);
+                    break;
+                }
+            }
+        }
+        if (res.length() == 0) {
+            res.append('"');
+        }
+        return res.toString().toCharArray();
+    }
+
+    private static boolean opensCell(String line, char q) {
+        boolean start = true;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == q && start) {
+                return true;
+            }
+            start = isDelimiter(c) || (start && c == ' ');
+        }
+        return false;
+    }
+
+    private static boolean closesCell(String line, char q) {
+        boolean end = true;
+        for (int i = line.length() - 1; i > 0; i--) {
+            char c = line.charAt(i);
+            if (c == q && end) {
+                return true;
+            }
+            end = isDelimiter(c) || (end && c == ' ');
+        }
+        return false;
+    }
+
+    private static boolean isDelimiter(char c) {
+        for (char d : DELIMITERS) {
+            if (c == d) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Chooses the delimiter giving the most records with the same number of
+     * cells, preferring earlier candidates on a tie.
+     */
+    private static char detectDelimiter(List<String> lines, char[] quotes) {
+        char best = DELIMITERS[0];
+        int bestScore = 0;
+        for (char d : DELIMITERS) {
+            CsvFormat fmt = CsvFormat.DEFAULT
+                    .withDelimiter(d)
+                    .withQuoteChars(quotes)
+                    .withTypeInference(false)
+                    .withFormulas(false);
+            Map<Integer, Integer> freq = new HashMap<>();
+            for (String line : lines) {
+                freq.merge(CsvParser.split(line, fmt).length, 1, Integer::sum);
+            }
+            int score = 0;
+            for (Map.Entry<Integer, Integer> e : freq.entrySet()) {
+                if (e.getKey() > 1 && e.getValue() > score) {
+                    score = e.getValue();
+                }
+            }
+            if (score > bestScore) {
+                best = d;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Chooses the type for column {@code c} from rows {@code first} onward.
+     */
+    private static void classify(List<Object[]> rows,
+                                 int first,
+                                 int c,
+                                 Set<String> nulls,
+                                 Type[] types,
+                                 String[] patterns) {
+        int total = 0;
+        int numbers = 0;
+        int booleans = 0;
+        int[] dateTimes = new int[DATE_TIME_FORMATTERS.length];
+        int[] dates = new int[DATE_FORMATTERS.length];
+        for (int r = first; r < rows.size(); r++) {
+            String v = cell(rows.get(r), c, nulls);
+            if (v == null) {
+                continue;
+            }
+            total++;
+            if (CsvParser.isDecimal(v)) {
+                numbers++;
+                continue;
+            }
+            if (BooleanUtils.toBooleanObject(v) != null) {
+                booleans++;
+                continue;
+            }
+            for (int i = 0; i < dateTimes.length; i++) {
+                if (isDateTime(DATE_TIME_FORMATTERS[i], v)) {
+                    dateTimes[i]++;
+                }
+            }
+            for (int i = 0; i < dates.length; i++) {
+                if (isDate(DATE_FORMATTERS[i], v)) {
+                    dates[i]++;
+                }
+            }
+        }
+
+        types[c] = Type.STRING;
+        patterns[c] = null;
+        if (total == 0) {
+            return;
+        }
+        double min = total * THRESHOLD;
+        if (numbers >= min) {
+            types[c] = Type.NUMBER;
+        } else if (booleans >= min) {
+            types[c] = Type.BOOLEAN;
+        } else {
+            int dt = best(dateTimes);
+            int d = best(dates);
+            if (dateTimes[dt] >= min) {
+                types[c] = Type.DATE_TIME;
+                patterns[c] = DATE_TIME_PATTERNS[dt];
+            } else if (dates[d] >= min) {
+                types[c] = Type.DATE;
+                patterns[c] = DATE_PATTERNS[d];
+            }
+        }
+    }
+
+    /**
+     * The first row is taken as a header when it contains no nulls, no cell
+     * conforms to its typed column, and at least one column votes for it.
+     * Typed columns always vote for a header, text columns vote for one
+     * when all data values share a length the header cell does not.
+     */
+    private static boolean isHeader(List<Object[]> rows, Type[] types, String[] patterns, Set<String> nulls) {
+        Object[] hdr = rows.get(0);
+        int votes = 0;
+        for (int c = 0; c < types.length; c++) {
+            String v = cell(hdr, c, nulls);
+            if (v == null) {
+                return false;
+            }
+            switch (types[c]) {
+                case STRING:
+                    int len = -1;
+                    for (int r = 1; r < rows.size() && len != -2; r++) {
+                        String s = cell(rows.get(r), c, nulls);
+                        if (s != null) {
+                            len = len == -1 || len == s.length() ? s.length() : -2;
+                        }
+                    }
+                    if (len >= 0) {
+                        votes += len == v.length() ? -1 : 1;
+                    }
+                    break;
+                case NUMBER:
+                    if (CsvParser.isDecimal(v)) {
+                        return false;
+                    }
+                    votes++;
+                    break;
+                case BOOLEAN:
+                    if (BooleanUtils.toBooleanObject(v) != null) {
+                        return false;
+                    }
+                    votes++;
+                    break;
+                case DATE:
+                    if (isDate(formatter(patterns[c]), v)) {
+                        return false;
+                    }
+                    votes++;
+                    break;
+                case DATE_TIME:
+                    if (isDateTime(formatter(patterns[c]), v)) {
+                        return false;
+                    }
+                    votes++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return votes > 0;
+    }
+
+    private static String cell(Object[] row, int c, Set<String> nulls) {
+        if (c >= row.length || row[c] == null) {
+            return null;
+        }
+        String v = row[c].toString().trim();
+        return v.isEmpty() || nulls.contains(v) ? null : v;
+    }
+
+    private static boolean isDateTime(DateTimeFormatter f, String v) {
+        if (!Csv.matches(f, v)) {
+            return false;
+        }
+        try {
+            f.parse(v, LocalDateTime::from);
+            return true;
+        } catch (DateTimeParseException ex) {
+            return false;
+        }
+    }
+
+    private static boolean isDate(DateTimeFormatter f, String v) {
+        if (!Csv.matches(f, v)) {
+            return false;
+        }
+        try {
+            // The default formatter accepts an optional time, a date column must not have one.
+            return f.parseBest(v, LocalDateTime::from, LocalDate::from) instanceof LocalDate;
+        } catch (DateTimeParseException ex) {
+            return false;
+        }
+    }
+
+    private static int best(int[] counts) {
+        int res = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] > counts[res]) {
+                res = i;
+            }
+        }
+        return res;
+    }
+
+    private static DateTimeFormatter formatter(String pattern) {
+        return pattern == null ? Csv.DEFAULT_DATE_TIME : DateTimeFormatter.ofPattern(pattern);
+    }
+
+    private static DateTimeFormatter[] formatters(String[] patterns) {
+        DateTimeFormatter[] res = new DateTimeFormatter[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            res[i] = formatter(patterns[i]);
+        }
+        return res;
+    }
+
+
+    /**
+     * Source of sample lines, {@code null} at the end of input.
+     */
+    private interface LineReader {
+
+        String readLine() throws IOException;
+
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * CsvSourceLine.java    19 October 2026, 22:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.nio.file.Path;
+
+
+/**
+ * A {@link CsvLine} tagged with the file and line number it was read from.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvSourceLine extends CsvLine {
+
+    private final Path source;
+    private final long row;
+    private final CsvLine line;
+
+    /**
+     * Creates a new tagged line.
+     *
+     * @param   source
+     *          File the line was read from.
+     * @param   row
+     *          One based line number within {@code source}.
+     * @param   line
+     *          Parsed line.
+     */
+    public CsvSourceLine(Path source, long row, CsvLine line) {
+        this.source = source;
+        this.row = row;
+        this.line = line;
+    }
+
+    /**
+     * File the line was read from.
+     *
+     * @return  Source file.
+     */
+    public Path getSource() {
+        return source;
+    }
+
+    /**
+     * One based line number within the source file.
+     *
+     * @return  Line number.
+     */
+    public long getRow() {
+        return row;
+    }
+
+    /**
+     * The parsed line without its source.
+     *
+     * @return  Underlying line.
+     */
+    public CsvLine getLine() {
+        return line;
+    }
+
+    @Override
+    public CsvHeader getHeader() {
+        return line.getHeader();
+    }
+
+    @Override
+    public int size() {
+        return line.size();
+    }
+
+    @Override
+    byte tag(int idx) {
+        return line.tag(idx);
+    }
+
+    @Override
+    long bits(int idx) {
+        return line.bits(idx);
+    }
+
+    @Override
+    Object ref(int idx) {
+        return line.ref(idx);
+    }
+
+}
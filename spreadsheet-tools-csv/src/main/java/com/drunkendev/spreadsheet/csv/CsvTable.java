@@ -0,0 +1,414 @@
+/*
+ * CsvTable.java    19 October 2026, 21:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * A table of rows held outside the Java heap.
+ *
+ * Each row is stored as a cell count followed by a fixed width slot per
+ * cell (a one byte type tag and an eight byte value). Numbers, booleans and
+ * dates live in the slot itself, strings and other values are written to a
+ * variable length area the slot points to. A row index of eight bytes per
+ * row is also held off heap, so the only heap cost of a table is a handful
+ * of buffer objects regardless of its size, and garbage collection time
+ * does not grow with the data set.
+ *
+ * Storage is either direct memory (limited by
+ * {@code -XX:MaxDirectMemorySize}) or a temporary file mapped into memory
+ * which allows tables much larger than physical memory.
+ *
+ * The slots of a row share one 16MB segment, so a row may hold at most
+ * {@value #MAX_CELLS} cells. Strings are not limited, they are copied in
+ * bulk and may span segments.
+ *
+ * Rows are returned as {@link CsvLine} views reading the off heap slots
+ * on demand. A table may be read by any number of threads concurrently.
+ * Views must not be used after the table is closed.
+ *
+ * @author  Brett Ryan
+ */
+public final class CsvTable implements Closeable, Iterable<CsvLine> {
+
+    /**
+     * Where table memory is allocated.
+     */
+    public enum Storage {
+        /**
+         * Direct buffers.
+         */
+        DIRECT,
+        /**
+         * A temporary file mapped into memory.
+         */
+        MAPPED
+    }
+
+    private static final int DATA_SHIFT = 24;
+    private static final int INDEX_SHIFT = 20;
+
+    /**
+     * Most cells in a row, the slots of a row are held in one data segment.
+     */
+    static final int MAX_CELLS = ((1 << DATA_SHIFT) - 4) / 9;
+
+    private static final byte O_STRING = 3;
+    private static final byte O_DATE = 4;
+    private static final byte O_DATE_TIME = 5;
+    private static final byte O_ZONED = 6;
+    private static final byte O_FORMULA = 7;
+
+    private final OffHeapMemory data;
+    private final OffHeapMemory index;
+    private long rows;
+    private volatile boolean closed;
+
+    private CsvTable(OffHeapMemory data, OffHeapMemory index) {
+        this.data = data;
+        this.index = index;
+    }
+
+    /**
+     * Loads a UTF-8 file into direct memory.
+     *
+     * @param   path
+     *          File to load.
+     * @param   format
+     *          Format of the file.
+     * @return  New table, which must be closed.
+     * @throws  IOException
+     *          If the file can not be read.
+     */
+    public static CsvTable load(Path path, CsvFormat format) throws IOException {
+        return load(path, format, Storage.DIRECT);
+    }
+
+    /**
+     * Loads a UTF-8 file, a {@link Storage#MAPPED} table is backed by a file
+     * in {@code java.io.tmpdir}.
+     *
+     * @param   path
+     *          File to load.
+     * @param   format
+     *          Format of the file.
+     * @param   storage
+     *          Where to hold the table.
+     * @return  New table, which must be closed.
+     * @throws  IOException
+     *          If the file can not be read or storage can not be created.
+     */
+    public static CsvTable load(Path path, CsvFormat format, Storage storage) throws IOException {
+        try (Stream<CsvLine> lines = Csv.lines(path, format)) {
+            return of(lines, storage);
+        }
+    }
+
+    /**
+     * Loads a UTF-8 file into a table mapped from a temporary file in
+     * {@code dir}.
+     *
+     * @param   path
+     *          File to load.
+     * @param   format
+     *          Format of the file.
+     * @param   dir
+     *          Directory for the backing files.
+     * @return  New table, which must be closed.
+     * @throws  IOException
+     *          If the file can not be read or storage can not be created.
+     */
+    public static CsvTable load(Path path, CsvFormat format, Path dir) throws IOException {
+        try (Stream<CsvLine> lines = Csv.lines(path, format)) {
+            return of(lines, dir);
+        }
+    }
+
+    /**
+     * Creates a table from {@code lines}.
+     *
+     * @param   lines
+     *          Rows to store.
+     * @param   storage
+     *          Where to hold the table.
+     * @return  New table, which must be closed.
+     * @throws  IOException
+     *          If storage can not be created.
+     */
+    public static CsvTable of(Stream<CsvLine> lines, Storage storage) throws IOException {
+        if (storage == Storage.MAPPED) {
+            return of(lines, Paths.get(System.getProperty("java.io.tmpdir")));
+        }
+        return fill(new CsvTable(new OffHeapMemory(DATA_SHIFT), new OffHeapMemory(INDEX_SHIFT)), lines);
+    }
+
+    private static CsvTable of(Stream<CsvLine> lines, Path dir) throws IOException {
+        OffHeapMemory data = OffHeapMemory.mapped(DATA_SHIFT, dir);
+        OffHeapMemory index;
+        try {
+            index = OffHeapMemory.mapped(INDEX_SHIFT, dir);
+        } catch (IOException ex) {
+            data.close();
+            throw ex;
+        }
+        return fill(new CsvTable(data, index), lines);
+    }
+
+    private static CsvTable fill(CsvTable table, Stream<CsvLine> lines) throws IOException {
+        try {
+            Iterator<CsvLine> it = lines.iterator();
+            while (it.hasNext()) {
+                table.append(it.next());
+            }
+            return table;
+        } catch (IOException | RuntimeException ex) {
+            table.close();
+            throw ex;
+        }
+    }
+
+    private void append(CsvLine line) throws IOException {
+        int n = line.size();
+        if (n > MAX_CELLS) {
+            throw new IllegalArgumentException("Row of " + n + " cells exceeds the limit of " + MAX_CELLS);
+        }
+        long rec = data.allocate(4 + n * 9);
+        data.putInt(rec, n);
+        long tags = rec + 4;
+        long values = tags + n;
+        for (int i = 0; i < n; i++) {
+            byte tag = line.tag(i);
+            long v = 0;
+            switch (tag) {
+                case CsvLine.T_NUMBER:
+                case CsvLine.T_BOOLEAN:
+                    v = line.bits(i);
+                    break;
+                case CsvLine.T_OBJECT:
+                    Object o = line.ref(i);
+                    if (o instanceof LocalDate) {
+                        tag = O_DATE;
+                        v = ((LocalDate) o).toEpochDay();
+                    } else if (o instanceof LocalDateTime) {
+                        tag = O_DATE_TIME;
+                        v = dateTime((LocalDateTime) o);
+                    } else if (o instanceof Number) {
+                        tag = CsvLine.T_NUMBER;
+                        v = Double.doubleToRawLongBits(((Number) o).doubleValue());
+                    } else if (o instanceof ZonedDateTime) {
+                        tag = O_ZONED;
+                        v = string(o.toString());
+                    } else if (o instanceof FormulaValue) {
+                        tag = O_FORMULA;
+                        v = string(((FormulaValue) o).getValue());
+                    } else {
+                        tag = O_STRING;
+                        v = string(o.toString());
+                    }
+                    break;
+                default:
+                    break;
+            }
+            data.putByte(tags + i, tag);
+            data.putLong(values + 8L * i, v);
+        }
+        index.putLong(index.allocate(8), rec);
+        rows++;
+    }
+
+    private long string(String s) throws IOException {
+        byte[] b = s.getBytes(UTF_8);
+        long addr = data.allocate(4);
+        data.putInt(addr, b.length);
+        data.put(data.allocateBytes(b.length), b);
+        return addr;
+    }
+
+    private long dateTime(LocalDateTime v) throws IOException {
+        long addr = data.allocate(12);
+        data.putLong(addr, v.toEpochSecond(ZoneOffset.UTC));
+        data.putInt(addr + 8, v.getNano());
+        return addr;
+    }
+
+    /**
+     * Number of rows.
+     *
+     * @return  Row count.
+     */
+    public long size() {
+        return rows;
+    }
+
+    /**
+     * Off heap bytes used by rows, strings and the row index.
+     *
+     * @return  Bytes used.
+     */
+    public long getMemoryUsed() {
+        return data.size() + index.size();
+    }
+
+    /**
+     * Returns a view of a row.
+     *
+     * @param   row
+     *          Row index.
+     * @return  View reading the row from off heap storage.
+     * @throws  IndexOutOfBoundsException
+     *          If {@code row} is out of range.
+     * @throws  IllegalStateException
+     *          If the table is closed.
+     */
+    public CsvLine get(long row) {
+        return new Row().at(row);
+    }
+
+    /**
+     * Stream of row views, the stream may be made parallel.
+     *
+     * @return  Stream of rows in order.
+     */
+    public Stream<CsvLine> lines() {
+        return LongStream.range(0, rows).mapToObj(this::get);
+    }
+
+    @Override
+    public Iterator<CsvLine> iterator() {
+        return lines().iterator();
+    }
+
+    /**
+     * Visits every row with a single reused view, nothing is allocated per
+     * row. The view passed to {@code action} is only valid until it returns.
+     *
+     * @param   action
+     *          Action to perform for each row.
+     */
+    @Override
+    public void forEach(Consumer<? super CsvLine> action) {
+        Row cursor = new Row();
+        for (long r = 0; r < rows; r++) {
+            action.accept(cursor.at(r));
+        }
+    }
+
+    /**
+     * Releases the table memory.
+     *
+     * @throws  IOException
+     *          If mapped backing files can not be removed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            data.close();
+        } finally {
+            index.close();
+        }
+    }
+
+
+    /**
+     * {@link CsvLine} reading its cells from the table.
+     */
+    private final class Row extends CsvLine {
+
+        private long addr;
+        private int n;
+
+        Row at(long row) {
+            if (closed) {
+                throw new IllegalStateException("Table is closed");
+            }
+            if (row < 0 || row >= rows) {
+                throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+            }
+            addr = index.getLong(row << 3);
+            n = data.getInt(addr);
+            return this;
+        }
+
+        @Override
+        public int size() {
+            return n;
+        }
+
+        private byte raw(int idx) {
+            return idx < 0 || idx >= n ? T_NULL : data.getByte(addr + 4 + idx);
+        }
+
+        @Override
+        byte tag(int idx) {
+            byte t = raw(idx);
+            return t > T_BOOLEAN ? T_OBJECT : t;
+        }
+
+        @Override
+        long bits(int idx) {
+            return data.getLong(addr + 4 + n + 8L * idx);
+        }
+
+        @Override
+        Object ref(int idx) {
+            long v = bits(idx);
+            switch (raw(idx)) {
+                case O_DATE:
+                    return LocalDate.ofEpochDay(v);
+                case O_DATE_TIME:
+                    return LocalDateTime.ofEpochSecond(data.getLong(v), data.getInt(v + 8), ZoneOffset.UTC);
+                case O_ZONED:
+                    return ZonedDateTime.parse(string(v));
+                case O_FORMULA:
+                    return new FormulaValue(string(v));
+                case O_STRING:
+                    return string(v);
+                default:
+                    return null;
+            }
+        }
+
+        private String string(long v) {
+            int len = data.getInt(v);
+            byte[] b = new byte[len];
+            data.get(v + 4, b, len);
+            return new String(b, UTF_8);
+        }
+
+    }
+
+}
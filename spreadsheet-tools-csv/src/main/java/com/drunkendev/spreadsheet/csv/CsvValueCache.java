@@ -0,0 +1,175 @@
+/*
+ * CsvValueCache.java    21 October 2026, 13:20
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.util.Arrays;
+
+
+/**
+ * Bounded cache of typed cell values by cell text, used by one thread.
+ *
+ * Each column has its own direct mapped table: a cell's text hashes to a
+ * single slot which holds the last text seen there and its typed value. A
+ * lookup hashes and compares the character range of the record, so a hit
+ * creates no string and skips type inference, and a colliding text simply
+ * replaces the entry, bounding the cache to {@code capacity} entries per
+ * column without any eviction bookkeeping.
+ *
+ * Cached values are shared between rows, which is safe as inference only
+ * yields immutable values such as {@link String}, {@link Boolean} and the
+ * {@code java.time} types. Texts longer than {@link #MAX_LENGTH} and
+ * columns from {@link #MAX_COLUMNS} on are not cached, as they rarely
+ * repeat.
+ *
+ * @author  Brett Ryan
+ */
+final class CsvValueCache {
+
+    /**
+     * Longest text cached.
+     */
+    static final int MAX_LENGTH = 64;
+
+    /**
+     * Number of leading columns cached.
+     */
+    static final int MAX_COLUMNS = 256;
+
+    private final int capacity;
+    private String[][] keys = new String[8][];
+    private Object[][] values = new Object[8][];
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param   capacity
+     *          Entries per column, rounded up to a power of two.
+     */
+    CsvValueCache(int capacity) {
+        int c = 1;
+        while (c < capacity && c < 1 << 30) {
+            c <<= 1;
+        }
+        this.capacity = c;
+    }
+
+    /**
+     * Hash of the characters {@code start} to {@code end} of {@code s}, as
+     * {@link String#hashCode()} of the same text.
+     */
+    static int hash(CharSequence s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h;
+    }
+
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & (capacity - 1);
+    }
+
+    /**
+     * Value cached for a character range.
+     *
+     * @param   col
+     *          Zero based column.
+     * @param   hash
+     *          Hash of the range, see {@link #hash(CharSequence, int, int)}.
+     * @param   s
+     *          Record text.
+     * @param   start
+     *          Start of the cell, inclusive.
+     * @param   end
+     *          End of the cell, exclusive.
+     * @return  Cached value, {@code null} on a miss.
+     */
+    Object get(int col, int hash, CharSequence s, int start, int end) {
+        if (col >= keys.length || keys[col] == null) {
+            misses++;
+            return null;
+        }
+        int slot = slot(hash);
+        String k = keys[col][slot];
+        int len = end - start;
+        if (k == null || k.length() != len) {
+            misses++;
+            return null;
+        }
+        for (int i = 0; i < len; i++) {
+            if (k.charAt(i) != s.charAt(start + i)) {
+                misses++;
+                return null;
+            }
+        }
+        hits++;
+        return values[col][slot];
+    }
+
+    /**
+     * Caches the value of a text, replacing any entry in its slot.
+     *
+     * @param   col
+     *          Zero based column.
+     * @param   hash
+     *          Hash of {@code text}.
+     * @param   text
+     *          Cell text.
+     * @param   value
+     *          Typed value, not cached when {@code null}.
+     */
+    void put(int col, int hash, String text, Object value) {
+        if (value == null || col >= MAX_COLUMNS) {
+            return;
+        }
+        if (col >= keys.length) {
+            int n = Math.min(MAX_COLUMNS, Math.max(keys.length * 2, col + 1));
+            keys = Arrays.copyOf(keys, n);
+            values = Arrays.copyOf(values, n);
+        }
+        if (keys[col] == null) {
+            keys[col] = new String[capacity];
+            values[col] = new Object[capacity];
+        }
+        int slot = slot(hash);
+        keys[col][slot] = text;
+        values[col][slot] = value;
+    }
+
+    /**
+     * Lookups answered from the cache.
+     *
+     * @return  Hit count.
+     */
+    long getHits() {
+        return hits;
+    }
+
+    /**
+     * Lookups not answered from the cache.
+     *
+     * @return  Miss count.
+     */
+    long getMisses() {
+        return misses;
+    }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * CsvWriter.java    19 October 2026, 09:12
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+
+/**
+ * Writes rows as delimited text that can be read back with {@link Csv}.
+ *
+ * Strings are quoted when they contain the delimiter, quote or line breaks,
+ * have surrounding whitespace, start with {@code =} or are empty. Integral
+ * doubles are written without a fractional part and temporal values in their
+ * ISO form so they parse back with {@link Csv#DEFAULT_DATE_TIME}.
+ *
+ * Instances are not thread-safe.
+ *
+ * @author  Brett Ryan
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    private final Writer out;
+    private final char delim;
+    private final char quote;
+    private final StringBuilder buf = new StringBuilder(256);
+
+    /**
+     * Creates a new writer using {@code ,} as the delimiter and {@code "} as
+     * the quote character.
+     *
+     * @param   out
+     *          Destination writer.
+     */
+    public CsvWriter(Writer out) {
+        this(out, ',', '"');
+    }
+
+    /**
+     * Creates a new writer.
+     *
+     * @param   out
+     *          Destination writer.
+     * @param   delim
+     *          Character used to delimit cells.
+     * @param   quote
+     *          Character used to quote cells.
+     */
+    public CsvWriter(Writer out, char delim, char quote) {
+        if (out == null) {
+            throw new IllegalArgumentException("out may not be null");
+        }
+        if (delim == quote) {
+            throw new IllegalArgumentException("delim and quote may not be the same character");
+        }
+        this.out = out;
+        this.delim = delim;
+        this.quote = quote;
+    }
+
+    /**
+     * Writes a row followed by a line separator.
+     *
+     * @param   cells
+     *          Cells to write.
+     * @throws  IOException
+     *          If the underlying writer fails.
+     */
+    public void writeRow(Object[] cells) throws IOException {
+        buf.setLength(0);
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                buf.append(delim);
+            }
+            appendCell(buf, cells[i], delim, quote);
+        }
+        buf.append(System.lineSeparator());
+        out.append(buf);
+    }
+
+    /**
+     * Writes a row followed by a line separator.
+     *
+     * @param   line
+     *          Line to write.
+     * @throws  IOException
+     *          If the underlying writer fails.
+     */
+    public void writeRow(CsvLine line) throws IOException {
+        buf.setLength(0);
+        int len = line.size();
+        for (int i = 0; i < len; i++) {
+            if (i > 0) {
+                buf.append(delim);
+            }
+            appendCell(buf, line.getObject(i), delim, quote);
+        }
+        buf.append(System.lineSeparator());
+        out.append(buf);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Formats a row as a single line of text without a line separator.
+     *
+     * @param   cells
+     *          Cells to format.
+     * @param   delim
+     *          Character used to delimit cells.
+     * @param   quote
+     *          Character used to quote cells.
+     * @return  Formatted line.
+     */
+    public static String format(Object[] cells, char delim, char quote) {
+        StringBuilder sb = new StringBuilder(cells.length * 8);
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                sb.append(delim);
+            }
+            appendCell(sb, cells[i], delim, quote);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends a single formatted cell to {@code sb}.
+     *
+     * @param   sb
+     *          Destination buffer.
+     * @param   v
+     *          Cell value, {@code null} is written as an empty cell.
+     * @param   delim
+     *          Character used to delimit cells.
+     * @param   quote
+     *          Character used to quote cells.
+     */
+    public static void appendCell(StringBuilder sb, Object v, char delim, char quote) {
+        if (v == null) {
+            return;
+        }
+        if (v instanceof Double || v instanceof Float) {
+            double d = ((Number) v).doubleValue();
+            if (d == Math.rint(d) && Math.abs(d) < 1e15) {
+                sb.append((long) d);
+            } else {
+                sb.append(d);
+            }
+            return;
+        }
+        if (v instanceof Number || v instanceof Boolean) {
+            sb.append(v);
+            return;
+        }
+        String s = v.toString();
+        if (v instanceof FormulaValue || needsQuote(s, delim, quote)) {
+            sb.append(quote);
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == quote) {
+                    sb.append(quote);
+                }
+                sb.append(c);
+            }
+            sb.append(quote);
+        } else {
+            sb.append(s);
+        }
+    }
+
+    private static boolean needsQuote(String s, char delim, char quote) {
+        int len = s.length();
+        if (len == 0) {
+            return true;
+        }
+        char first = s.charAt(0);
+        if (first == '=' || first == '\'' || first == '"' ||
+            Character.isWhitespace(first) ||
+            Character.isWhitespace(s.charAt(len - 1))) {
+            return true;
+        }
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c == delim || c == quote || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,264 @@
+/*
+ * OffHeapMemory.java    19 October 2026, 20:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+
+/**
+ * Append only memory outside the Java heap addressed by {@code long}
+ * offsets.
+ *
+ * Memory is held in fixed size segments of direct buffers, or of regions
+ * mapped from a temporary file, so the total size is not limited by the
+ * 2GB capacity of a single {@link ByteBuffer}. An allocation from
+ * {@link #allocate(int)} never spans two segments so primitives may be read
+ * from anywhere within it, it is therefore limited to one segment. Byte
+ * arrays of any length are allocated with {@link #allocateBytes(int)} and
+ * may span segments. Reads use absolute access only so any number of
+ * threads may read once writing is complete.
+ *
+ * @author  Brett Ryan
+ */
+final class OffHeapMemory implements Closeable {
+
+    private final int shift;
+    private final int segmentSize;
+    private final long mask;
+    private final Path file;
+    private final FileChannel channel;
+
+    private ByteBuffer[] segments = new ByteBuffer[8];
+    private int count;
+    private long position;
+
+    /**
+     * Creates memory backed by direct buffers.
+     *
+     * @param   shift
+     *          Segment size as a power of two.
+     */
+    OffHeapMemory(int shift) {
+        this(shift, null, null);
+    }
+
+    /**
+     * Creates memory mapped from a new temporary file in {@code dir}, the
+     * file is deleted on {@link #close()}.
+     *
+     * @param   shift
+     *          Segment size as a power of two.
+     * @param   dir
+     *          Directory for the backing file.
+     * @throws  IOException
+     *          If the backing file can not be created.
+     */
+    static OffHeapMemory mapped(int shift, Path dir) throws IOException {
+        Path file = Files.createTempFile(dir, "csv-table", ".bin");
+        try {
+            return new OffHeapMemory(shift, file, FileChannel.open(file, READ, WRITE));
+        } catch (IOException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+    }
+
+    private OffHeapMemory(int shift, Path file, FileChannel channel) {
+        if (shift < 12 || shift > 30) {
+            throw new IllegalArgumentException("segment shift must be between 12 and 30");
+        }
+        this.shift = shift;
+        this.segmentSize = 1 << shift;
+        this.mask = segmentSize - 1;
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Reserves {@code size} contiguous bytes within one segment.
+     *
+     * @param   size
+     *          Bytes required.
+     * @return  Address of the first byte.
+     * @throws  IOException
+     *          If a mapped segment can not be created.
+     * @throws  IllegalArgumentException
+     *          If {@code size} is larger than a segment.
+     */
+    long allocate(int size) throws IOException {
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("Allocation of " + size + " bytes exceeds segment size " + segmentSize);
+        }
+        long addr = position;
+        if ((addr & mask) + size > segmentSize) {
+            addr = (addr | mask) + 1;
+        }
+        int seg = (int) ((addr + size - 1) >>> shift);
+        while (seg >= count) {
+            addSegment();
+        }
+        position = addr + size;
+        return addr;
+    }
+
+    /**
+     * Reserves {@code size} bytes directly after the last allocation, which
+     * may span segments. The bytes may only be accessed with
+     * {@link #put(long, byte[])} and {@link #get(long, byte[], int)}.
+     *
+     * @param   size
+     *          Bytes required.
+     * @return  Address of the first byte.
+     * @throws  IOException
+     *          If a mapped segment can not be created.
+     */
+    long allocateBytes(int size) throws IOException {
+        long addr = position;
+        if (size > 0) {
+            int seg = (int) ((addr + size - 1) >>> shift);
+            while (seg >= count) {
+                addSegment();
+            }
+            position = addr + size;
+        }
+        return addr;
+    }
+
+    private void addSegment() throws IOException {
+        if (count == segments.length) {
+            segments = Arrays.copyOf(segments, count * 2);
+        }
+        ByteBuffer b;
+        if (channel == null) {
+            b = ByteBuffer.allocateDirect(segmentSize);
+        } else {
+            b = channel.map(FileChannel.MapMode.READ_WRITE, (long) count << shift, segmentSize);
+        }
+        segments[count++] = b.order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Bytes allocated, including any padding at segment ends.
+     */
+    long size() {
+        return position;
+    }
+
+    /**
+     * Bytes reserved from the operating system.
+     */
+    long capacity() {
+        return (long) count << shift;
+    }
+
+    private ByteBuffer segment(long addr) {
+        return segments[(int) (addr >>> shift)];
+    }
+
+    private int offset(long addr) {
+        return (int) (addr & mask);
+    }
+
+    byte getByte(long addr) {
+        return segment(addr).get(offset(addr));
+    }
+
+    void putByte(long addr, byte v) {
+        segment(addr).put(offset(addr), v);
+    }
+
+    int getInt(long addr) {
+        return segment(addr).getInt(offset(addr));
+    }
+
+    void putInt(long addr, int v) {
+        segment(addr).putInt(offset(addr), v);
+    }
+
+    long getLong(long addr) {
+        return segment(addr).getLong(offset(addr));
+    }
+
+    void putLong(long addr, long v) {
+        segment(addr).putLong(offset(addr), v);
+    }
+
+    /**
+     * Copies {@code src} to {@code addr} in bulk, one copy per segment
+     * spanned.
+     */
+    void put(long addr, byte[] src) {
+        int done = 0;
+        while (done < src.length) {
+            int off = offset(addr + done);
+            int len = Math.min(src.length - done, segmentSize - off);
+            ByteBuffer b = segment(addr + done).duplicate();
+            b.position(off);
+            b.put(src, done, len);
+            done += len;
+        }
+    }
+
+    /**
+     * Copies {@code len} bytes from {@code addr} in bulk, one copy per
+     * segment spanned.
+     */
+    void get(long addr, byte[] dst, int len) {
+        int done = 0;
+        while (done < len) {
+            int off = offset(addr + done);
+            int n = Math.min(len - done, segmentSize - off);
+            ByteBuffer b = segment(addr + done).duplicate();
+            b.position(off);
+            b.get(dst, done, n);
+            done += n;
+        }
+    }
+
+    /**
+     * Releases the segments. Direct buffers are returned to the operating
+     * system once collected, a mapped backing file is closed and deleted.
+     *
+     * @throws  IOException
+     *          If the backing file can not be closed or deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        segments = new ByteBuffer[0];
+        count = 0;
+        if (channel != null) {
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * AllocationBudget.java    20 October 2026, 20:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+
+/**
+ * Measures bytes allocated per row by the calling thread using the
+ * HotSpot thread allocation counters.
+ *
+ * Each measurement is preceded by warm up runs so the body is compiled,
+ * and the lowest of several runs is taken as the collector and compiler
+ * may add noise to any single run. Tests are skipped on virtual machines
+ * without allocation counters.
+ *
+ * @author  Brett Ryan
+ */
+final class AllocationBudget {
+
+    private static final int WARMUP = 5;
+    private static final int RUNS = 5;
+
+    @FunctionalInterface
+    interface Body {
+
+        void run() throws Exception;
+
+    }
+
+    private AllocationBudget() {
+    }
+
+    /**
+     * Bytes allocated per row by {@code body}.
+     *
+     * @param   rows
+     *          Rows processed by one run of the body.
+     * @param   body
+     *          Work to measure.
+     * @return  Lowest bytes per row of the measured runs.
+     * @throws  Exception
+     *          If the body fails.
+     */
+    static double bytesPerRow(long rows, Body body) throws Exception {
+        com.sun.management.ThreadMXBean mx = mxBean();
+        long id = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) {
+            body.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long before = mx.getThreadAllocatedBytes(id);
+            body.run();
+            best = Math.min(best, mx.getThreadAllocatedBytes(id) - before);
+        }
+        return (double) best / rows;
+    }
+
+    /**
+     * Fails if {@code body} allocates more than {@code budget} bytes per row.
+     *
+     * @param   name
+     *          Entry point measured, for messages.
+     * @param   budget
+     *          Maximum bytes per row.
+     * @param   rows
+     *          Rows processed by one run of the body.
+     * @param   body
+     *          Work to measure.
+     * @throws  Exception
+     *          If the body fails.
+     */
+    static void assertWithin(String name, double budget, long rows, Body body) throws Exception {
+        double used = bytesPerRow(rows, body);
+        System.out.printf("allocation - %s: %.1f bytes/row (budget %.0f)%n", name, used, budget);
+        assertTrue(String.format("%s allocated %.1f bytes/row, budget is %.0f", name, used, budget),
+                   used <= budget);
+    }
+
+    private static com.sun.management.ThreadMXBean mxBean() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        assumeTrue(mx instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) mx;
+        assumeTrue(sun.isThreadAllocatedMemorySupported());
+        if (!sun.isThreadAllocatedMemoryEnabled()) {
+            sun.setThreadAllocatedMemoryEnabled(true);
+        }
+        return sun;
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * CsvAllocationTest.java    20 October 2026, 20:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ * Allocation budgets of the parser entry points, in bytes per row of
+ * {@link #ROW}: six cells, three numbers, a boolean and two strings.
+ *
+ * Budgets sit roughly a quarter above the measured allocation so genuine
+ * regressions fail while JIT variation does not. Lower them when an
+ * improvement lands. Text cells are tried as dates without throwing, so
+ * most of their cost is the cell string and the formatter's parse context.
+ *
+ * @author  Brett Ryan
+ */
+public class CsvAllocationTest {
+
+    private static final String ROW = "12345,apple,3.25,true,\"quoted, text\",-7";
+    private static final int ROWS = 10000;
+
+    private static Path file;
+    private static String[] rows;
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        file = Files.createTempFile("alloc", ".csv");
+        List<String> lines = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            lines.add(ROW);
+        }
+        Files.write(file, lines);
+        rows = lines.toArray(new String[0]);
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws IOException {
+        Files.delete(file);
+    }
+
+    @Test
+    public void testSplit() throws Exception {
+        AllocationBudget.assertWithin("split", 1300, ROWS, () -> {
+            for (String s : rows) {
+                Csv.split(s);
+            }
+        });
+    }
+
+    @Test
+    public void testSplitCached() throws Exception {
+        CsvFormat fmt = CsvFormat.DEFAULT.withValueCache(64);
+        AllocationBudget.assertWithin("split with value cache", 900, ROWS, () -> {
+            for (String s : rows) {
+                Csv.split(s, fmt);
+            }
+        });
+    }
+
+    @Test
+    public void testSplitToArray() throws Exception {
+        AllocationBudget.assertWithin("splitToArray", 1100, ROWS, () -> {
+            for (String s : rows) {
+                Csv.splitToArray(s);
+            }
+        });
+    }
+
+    @Test
+    public void testLines() throws Exception {
+        AllocationBudget.assertWithin("lines(Path)", 1300, ROWS, () -> {
+            try (Stream<CsvLine> s = Csv.lines(file)) {
+                s.forEach(n -> {
+                });
+            }
+        });
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        AllocationBudget.assertWithin("load", 1200, ROWS, () -> {
+            Csv.load(file.toFile(), CsvFormat.DEFAULT);
+        });
+    }
+
+    @Test
+    public void testGetters() throws Exception {
+        CsvLine[] lines = new CsvLine[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            lines[i] = Csv.split(rows[i]);
+        }
+        long[] sink = new long[1];
+        AllocationBudget.assertWithin("CsvLine primitive getters", 8, ROWS, () -> {
+            for (CsvLine n : lines) {
+                sink[0] += n.getInt(0) + n.getLong(5) + (long) n.getDouble(2) + (n.getBoolean(3) ? 1 : 0);
+            }
+        });
+        AllocationBudget.assertWithin("CsvLine getString", 8, ROWS, () -> {
+            for (CsvLine n : lines) {
+                sink[0] += n.getString(1).length() + n.getString(4).length();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * CsvBatchTest.java    20 October 2026, 09:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvBatchTest {
+
+    private Path file;
+    private List<CsvLine> expected;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("batch", ".csv");
+        List<String> rows = new ArrayList<>();
+        rows.add("name,qty,price");
+        for (int i = 0; i < 25; i++) {
+            rows.add("item " + i + "," + i + "," + (i % 3 == 0 ? "" : i + ".5"));
+        }
+        rows.add("");
+        rows.add("wide,1,2,3,true,2014-01-01");
+        Files.write(file, rows);
+        expected = Csv.loadLines(file.toFile(), CsvFormat.DEFAULT);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        System.out.println("batch - stream");
+
+        List<CsvLine> actual = new ArrayList<>();
+        try (Stream<CsvBatch> s = Csv.batches(file, CsvFormat.DEFAULT, 10)) {
+            s.forEach(b -> {
+                assertTrue(b.size() <= 10);
+                for (int r = 0; r < b.size(); r++) {
+                    actual.add(b.copyLine(r));
+                }
+            });
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i).toArray(), actual.get(i).toArray());
+        }
+    }
+
+    @Test
+    public void testRecycle() throws IOException {
+        System.out.println("batch - recycle");
+
+        try (Stream<CsvBatch> s = Csv.batches(file, CsvFormat.DEFAULT, 10)) {
+            Iterator<CsvBatch> it = s.iterator();
+            CsvBatch first = it.next();
+            assertEquals(10, first.size());
+            assertEquals(3, first.getColumnCount());
+            assertEquals(1.5, first.getDouble(2, 2, 0), 0);
+            first.recycle();
+
+            CsvBatch second = it.next();
+            assertSame(first, second);
+            assertEquals("item 9", second.getLine(0).getString(0));
+            assertTrue(second.isNull(3, 2));
+
+            CsvBatch third = it.next();
+            assertNotSame(second, third);
+            assertEquals(8, third.size());
+            assertEquals(0, third.getWidth(6));
+            assertEquals(6, third.getColumnCount());
+            assertEquals(Boolean.TRUE, third.getObject(7, 4));
+        }
+    }
+
+    @Test
+    public void testForEach() throws IOException {
+        System.out.println("batch - for each");
+
+        AtomicInteger rows = new AtomicInteger();
+        List<CsvBatch> seen = new ArrayList<>();
+        Csv.forEachBatch(file, CsvFormat.DEFAULT, 4, b -> {
+            rows.addAndGet(b.size());
+            seen.add(b);
+        });
+        assertEquals(expected.size(), rows.get());
+        assertEquals(1, seen.stream().distinct().count());
+    }
+
+    @Test
+    public void testBatchSizeCheckedFirst() throws IOException {
+        System.out.println("batch - size checked before opening");
+
+        try {
+            Csv.batches(file.resolveSibling(file.getFileName() + ".missing"), CsvFormat.DEFAULT, 0);
+            fail("Expected invalid batch size");
+        } catch (IllegalArgumentException ex) {
+            // Expected, the missing file was never opened.
+        }
+    }
+
+    @Test
+    public void testDirect() {
+        System.out.println("batch - direct fill");
+
+        CsvBatch b = new CsvBatch(2);
+        CsvParser.splitInto("a,1,true", CsvFormat.DEFAULT, b);
+        CsvParser.splitInto("b", CsvFormat.DEFAULT, b);
+        assertTrue(b.isFull());
+        assertArrayEquals(new Object[]{"a", 1.0, true}, b.getLine(0).toArray());
+        assertArrayEquals(new Object[]{"b"}, b.getLine(1).toArray());
+        assertTrue(b.isNull(1, 1));
+        b.clear();
+        assertEquals(0, b.size());
+        CsvParser.splitInto("2", CsvFormat.DEFAULT, b);
+        assertEquals(Arrays.asList(2.0), Arrays.asList(b.getLine(0).toArray()));
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * CsvBinderTest.java    19 October 2026, 19:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvBinderTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testBeanByHeader() {
+        System.out.println("binder - bean by header");
+
+        CsvBinder<Person> binder = CsvBinder.of(Person.class, "Last Name", "first_name", "age", "unknown", "born", "Status");
+        Person p = binder.bind(Csv.split("Smith,John,42,x,1974-03-02,active"));
+        assertEquals("John", p.firstName);
+        assertEquals("Smith", p.lastName);
+        assertEquals(42, p.age);
+        assertEquals(LocalDate.of(1974, 3, 2), p.born);
+        assertEquals(Status.ACTIVE, p.status);
+        assertTrue(p.viaSetter);
+    }
+
+    @Test
+    public void testShortRow() {
+        System.out.println("binder - short row");
+
+        Person p = CsvBinder.of(Person.class, "firstName", "age").bind(Csv.split("Jane"));
+        assertEquals("Jane", p.firstName);
+        assertEquals(0, p.age);
+    }
+
+    @Test
+    public void testConstructor() {
+        System.out.println("binder - constructor");
+
+        CsvBinder<Item> binder = CsvBinder.of(Item.class, "qty", "sku", "price", "taxable");
+        Item i = binder.bind(Csv.split("3,ABC-1,9.95,yes"));
+        assertEquals("ABC-1", i.sku);
+        assertEquals(3L, i.qty);
+        assertEquals(new BigDecimal("9.95"), i.price);
+        assertTrue(i.taxable);
+
+        i = binder.bind(Csv.split(",ABC-2"));
+        assertEquals(0L, i.qty);
+        assertNull(i.price);
+        assertFalse(i.taxable);
+    }
+
+    @Test
+    public void testPositional() {
+        System.out.println("binder - positional");
+
+        Item i = CsvBinder.of(Item.class).bind(new Object[]{"X", 2.0, "1.5"});
+        assertEquals("X", i.sku);
+        assertEquals(2L, i.qty);
+        assertEquals(new BigDecimal("1.5"), i.price);
+    }
+
+    @Test
+    public void testStream() {
+        System.out.println("binder - stream");
+
+        Stream<CsvLine> lines = Stream.of("sku,qty", "A,1", "B,2").map(Csv::split);
+        List<Item> items = CsvBinder.bind(lines, Item.class).collect(toList());
+        assertEquals(2, items.size());
+        assertEquals("B", items.get(1).sku);
+        assertEquals(2L, items.get(1).qty);
+    }
+
+    @Test
+    public void testStreamWithHeader() throws Exception {
+        System.out.println("binder - stream with untyped header");
+
+        Path f = tmp.newFile("codes.csv").toPath();
+        Files.write(f, Arrays.asList("y,n,2014,amount", "02134,no,007,12345678901234567890.123456789", "x,on,1,1e3"));
+        List<Code> codes;
+        try (Stream<Code> s = CsvBinder.bind(f, CsvFormat.DEFAULT, Code.class)) {
+            codes = s.collect(toList());
+        }
+        assertEquals(2, codes.size());
+        assertEquals("02134", codes.get(0).y);
+        assertEquals("no", codes.get(0).n);
+        assertEquals("007", codes.get(0).year);
+        assertEquals(new BigDecimal("12345678901234567890.123456789"), codes.get(0).amount);
+        assertEquals("on", codes.get(1).n);
+        assertEquals(new BigDecimal("1e3"), codes.get(1).amount);
+
+        try (Stream<Code> s = CsvBinder.bind(Csv.lines(f, CsvFormat.DEFAULT.withTypeInference(false), true), Code.class)) {
+            assertEquals("x", s.skip(1).findFirst().get().y);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnbindable() {
+        CsvBinder.of(Unbindable.class);
+    }
+
+
+    public enum Status {
+        ACTIVE,
+        INACTIVE
+    }
+
+
+    public static class Person {
+
+        private String firstName;
+        private String lastName;
+        private int age;
+        private LocalDate born;
+        private Status status;
+        private transient boolean viaSetter;
+
+        public void setLastName(String lastName) {
+            this.lastName = lastName;
+            this.viaSetter = true;
+        }
+
+    }
+
+
+    public static final class Item {
+
+        final String sku;
+        final long qty;
+        final BigDecimal price;
+        final boolean taxable;
+
+        public Item(@CsvColumn("sku") String sku,
+                    @CsvColumn("qty") long qty,
+                    @CsvColumn("price") BigDecimal price,
+                    @CsvColumn("taxable") boolean taxable) {
+            this.sku = sku;
+            this.qty = qty;
+            this.price = price;
+            this.taxable = taxable;
+        }
+
+    }
+
+
+    public static class Code {
+
+        private String y;
+        private String n;
+        @CsvColumn("2014")
+        private String year;
+        private BigDecimal amount;
+
+    }
+
+
+    public static final class Unbindable {
+
+        public Unbindable(Object a) {
+        }
+
+    }
+
+}
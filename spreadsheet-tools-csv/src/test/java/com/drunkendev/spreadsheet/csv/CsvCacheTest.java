@@ -0,0 +1,115 @@
+/*
+ * CsvCacheTest.java    20 October 2026, 13:30
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvCacheTest {
+
+    private Path a;
+    private Path b;
+
+    @Before
+    public void setUp() throws IOException {
+        a = Files.createTempFile("cache", ".csv");
+        b = Files.createTempFile("cache", ".csv");
+        Files.write(a, Arrays.asList("name,qty", "apple,3"));
+        Files.write(b, Arrays.asList("x,y", "1,2", "3,4"));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(a);
+        Files.delete(b);
+    }
+
+    @Test
+    public void testHit() throws IOException {
+        System.out.println("cache - hit and miss");
+
+        CsvCache cache = new CsvCache(10, 1 << 20, false);
+        List<CsvLine> first = cache.loadLines(a, CsvFormat.DEFAULT);
+        List<CsvLine> second = cache.loadLines(a, CsvFormat.DEFAULT);
+        assertSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRatio(), 0);
+
+        List<CsvLine> other = cache.loadLines(a, CsvFormat.DEFAULT.withTypeInference(false));
+        assertNotSame(first, other);
+        assertEquals("3", other.get(1).getObject(1));
+        assertEquals(2, cache.size());
+
+        assertArrayEquals(new Object[]{"apple", 3.0}, cache.load(a, CsvFormat.DEFAULT).get(1));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() throws IOException {
+        new CsvCache(10, 1 << 20, false).loadLines(a, CsvFormat.DEFAULT).clear();
+    }
+
+    @Test
+    public void testModified() throws IOException {
+        System.out.println("cache - modified file");
+
+        CsvCache cache = new CsvCache(10, 1 << 20, true);
+        assertEquals(2, cache.loadLines(a, CsvFormat.DEFAULT).size());
+        Files.write(a, Arrays.asList("name,qty", "apple,3", "pear,4"));
+        assertEquals(3, cache.loadLines(a, CsvFormat.DEFAULT).size());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        System.out.println("cache - eviction");
+
+        CsvCache cache = new CsvCache(1, 1 << 20, false);
+        cache.loadLines(a, CsvFormat.DEFAULT);
+        cache.loadLines(b, CsvFormat.DEFAULT);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        cache.loadLines(b, CsvFormat.DEFAULT);
+        assertEquals(1, cache.getHitCount());
+
+        CsvCache tiny = new CsvCache(10, 1, false);
+        tiny.loadLines(a, CsvFormat.DEFAULT);
+        assertEquals(0, tiny.size());
+        assertEquals(0, tiny.getEstimatedBytes());
+    }
+
+}
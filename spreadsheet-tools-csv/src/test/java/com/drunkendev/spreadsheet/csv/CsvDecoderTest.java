@@ -0,0 +1,190 @@
+/*
+ * CsvDecoderTest.java    20 October 2026, 12:20
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.MalformedInputException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_16BE;
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvDecoderTest {
+
+    private static final String[] PIECES = {"a", "b,", "1", "\"", " ", "\n", "\r", "\r\n", "é", "日本", "😀"};
+
+    private static List<String> decode(InputStream in) throws IOException {
+        List<String> res = new ArrayList<>();
+        try (CsvDecoder dec = new CsvDecoder(in)) {
+            CsvDecoder.Line line = new CsvDecoder.Line();
+            while (dec.readLine(line)) {
+                res.add(line.toString());
+            }
+        }
+        return res;
+    }
+
+    private static List<String> expected(String text) throws IOException {
+        return new BufferedReader(new StringReader(text)).lines().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRandom() throws IOException {
+        System.out.println("decoder - random text");
+
+        Random r = new Random(42);
+        for (int n = 0; n < 2000; n++) {
+            StringBuilder sb = new StringBuilder();
+            int len = r.nextInt(40);
+            for (int i = 0; i < len; i++) {
+                sb.append(PIECES[r.nextInt(PIECES.length)]);
+            }
+            String text = sb.toString();
+            assertEquals(text, expected(text), decode(new Trickle(text.getBytes(UTF_8), r)));
+        }
+    }
+
+    @Test
+    public void testLarge() throws IOException {
+        System.out.println("decoder - buffer boundaries");
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 40000; i++) {
+            sb.append(i % 7 == 0 ? "日本語" : "ascii").append(',').append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        String text = sb.toString();
+        assertEquals(expected(text), decode(new ByteArrayInputStream(text.getBytes(UTF_8))));
+    }
+
+    @Test
+    public void testBom() throws IOException {
+        System.out.println("decoder - byte order marks");
+
+        String text = "name,日本\n1,2";
+        assertEquals(expected(text), decode(new ByteArrayInputStream(bom(new byte[]{(byte) 0xef, (byte) 0xbb, (byte) 0xbf}, text.getBytes(UTF_8)))));
+        assertEquals(expected(text), decode(new ByteArrayInputStream(bom(new byte[]{(byte) 0xfe, (byte) 0xff}, text.getBytes(UTF_16BE)))));
+        assertEquals(expected(text), decode(new ByteArrayInputStream(bom(new byte[]{(byte) 0xff, (byte) 0xfe}, text.getBytes(UTF_16LE)))));
+        assertEquals(expected("ab"), decode(new ByteArrayInputStream("ab".getBytes(UTF_8))));
+        assertTrue(decode(new ByteArrayInputStream(new byte[0])).isEmpty());
+    }
+
+    @Test
+    public void testMalformed() throws IOException {
+        System.out.println("decoder - malformed input");
+
+        byte[][] bad = {
+            {'a', (byte) 0x80},
+            {(byte) 0xc0, (byte) 0xaf},
+            {(byte) 0xed, (byte) 0xa0, (byte) 0x80},
+            {(byte) 0xe6, (byte) 0x97},
+            {(byte) 0xf5, (byte) 0x80, (byte) 0x80, (byte) 0x80},
+        };
+        for (byte[] b : bad) {
+            try {
+                decode(new ByteArrayInputStream(b));
+                fail("Expected malformed input");
+            } catch (MalformedInputException ex) {
+                // Expected.
+            }
+        }
+    }
+
+    @Test
+    public void testPath() throws IOException {
+        System.out.println("decoder - path entry points");
+
+        Path file = Files.createTempFile("decoder", ".csv");
+        try {
+            Files.write(file, bom(new byte[]{(byte) 0xef, (byte) 0xbb, (byte) 0xbf}, "name,qty\n日本,3\n".getBytes(UTF_8)));
+            try (Stream<CsvLine> s = Csv.lines(file, CsvFormat.DEFAULT)) {
+                List<CsvLine> rows = s.collect(Collectors.toList());
+                assertEquals("name", rows.get(0).getString(0));
+                assertEquals("日本", rows.get(1).getString(0));
+                assertEquals(3, rows.get(1).getInt(1));
+            }
+            try (Stream<Object[]> s = Csv.linesArray(file, false)) {
+                List<Object[]> rows = s.collect(Collectors.toList());
+                assertEquals("name", rows.get(0)[0]);
+                assertEquals(3.0, rows.get(1)[1]);
+            }
+            try (Stream<CsvLine> s = Csv.lines(Files.newInputStream(file))) {
+                assertEquals("name", s.findFirst().get().getString(0));
+            }
+            Files.write(file, new byte[]{'a', (byte) 0xff});
+            try (Stream<CsvLine> s = Csv.lines(file, CsvFormat.DEFAULT)) {
+                assertEquals("a\uFFFD", s.findFirst().get().getString(0));
+            }
+            try (Stream<Object[]> s = Csv.linesArray(file)) {
+                assertEquals("a\uFFFD", s.findFirst().get()[0]);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static byte[] bom(byte[] mark, byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(mark, 0, mark.length);
+        out.write(content, 0, content.length);
+        return out.toByteArray();
+    }
+
+
+    /**
+     * Returns a few bytes per read so sequences are split across reads.
+     */
+    private static final class Trickle extends ByteArrayInputStream {
+
+        private final Random random;
+
+        Trickle(byte[] buf, Random random) {
+            super(buf);
+            this.random = random;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 1 + random.nextInt(3)));
+        }
+
+    }
+
+}
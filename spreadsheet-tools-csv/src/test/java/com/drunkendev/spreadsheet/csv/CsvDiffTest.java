@@ -0,0 +1,194 @@
+/*
+ * CsvDiffTest.java    20 October 2026, 16:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvDiffTest {
+
+    private Path left;
+    private Path right;
+
+    @Before
+    public void setUp() throws IOException {
+        left = Files.createTempFile("left", ".csv");
+        right = Files.createTempFile("right", ".csv");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(left);
+        Files.delete(right);
+    }
+
+    @Test
+    public void testSorted() throws IOException {
+        System.out.println("diff - sorted merge join");
+
+        Files.write(left, Arrays.asList("id,name,qty", "1,apple,3", "2,pear,4", "4,fig,1.0"));
+        Files.write(right, Arrays.asList("id,name,qty", "1,apple,3.0", "3,plum,2", "4,fig,2"));
+        Recorder r = new Recorder();
+        CsvDiff.Summary s = new CsvDiff(0).withHeader(true).diffSorted(left, right, r);
+
+        assertEquals(Arrays.asList("-2.0", "+3.0", "~4.0[2]"), r.events);
+        assertEquals(1, s.getInserted());
+        assertEquals(1, s.getDeleted());
+        assertEquals(1, s.getChanged());
+        assertEquals(1, s.getUnchanged());
+    }
+
+    @Test
+    public void testPartitioned() throws IOException {
+        System.out.println("diff - hash partitioned");
+
+        List<String> a = new ArrayList<>();
+        List<String> b = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            a.add("k" + i + "," + i + "," + (i % 3 == 0 ? "x" : "z"));
+            if (i % 10 != 0) {
+                b.add("k" + i + "," + i + "," + (i % 7 == 0 ? "w" : i % 3 == 0 ? "x" : "z"));
+            }
+        }
+        for (int i = 2000; i < 2050; i++) {
+            b.add("k" + i + "," + i + ",z");
+        }
+        Collections.shuffle(a);
+        Collections.shuffle(b);
+        Files.write(left, a);
+        Files.write(right, b);
+
+        Recorder r = new Recorder();
+        CsvDiff.Summary s = new CsvDiff(0).withPartitions(8).withParallelism(4).diff(left, right, r);
+        assertEquals(50, s.getInserted());
+        assertEquals(200, s.getDeleted());
+        long changed = 0;
+        for (int i = 0; i < 2000; i++) {
+            if (i % 10 != 0 && i % 7 == 0) {
+                changed++;
+            }
+        }
+        assertEquals(changed, s.getChanged());
+        assertEquals(1800 - changed, s.getUnchanged());
+        assertEquals(s.getInserted() + s.getDeleted() + s.getChanged(), r.events.size());
+
+        Recorder sorted = new Recorder();
+        Collections.sort(a, (x, y) -> CsvDiff.compareKeys(key(x), key(y)));
+        Collections.sort(b, (x, y) -> CsvDiff.compareKeys(key(x), key(y)));
+        Files.write(left, a);
+        Files.write(right, b);
+        new CsvDiff(0).diffSorted(left, right, sorted);
+        assertEquals(new TreeSet<>(r.events), new TreeSet<>(sorted.events));
+    }
+
+    @Test
+    public void testCompositeKey() throws IOException {
+        System.out.println("diff - composite key");
+
+        Files.write(left, Arrays.asList("a,1,x", "a,2,x", "b,1,x"));
+        Files.write(right, Arrays.asList("b,1,x", "a,2,q", "a,1,x"));
+        Recorder r = new Recorder();
+        new CsvDiff(0, 1).withPartitions(3).diff(left, right, r);
+        assertEquals(Arrays.asList("~a[2]"), r.events);
+    }
+
+    @Test
+    public void testDuplicateKeys() throws IOException {
+        System.out.println("diff - repeated keys pair in file order");
+
+        Files.write(left, Arrays.asList("1,a", "1,b", "2,c"));
+        Files.write(right, Arrays.asList("1,a", "2,c", "2,d"));
+        Recorder sorted = new Recorder();
+        CsvDiff.Summary a = new CsvDiff(0).diffSorted(left, right, sorted);
+        Recorder hashed = new Recorder();
+        CsvDiff.Summary b = new CsvDiff(0).withPartitions(2).diff(left, right, hashed);
+
+        assertEquals(Arrays.asList("-1.0", "+2.0"), sorted.events);
+        assertEquals(new TreeSet<>(sorted.events), new TreeSet<>(hashed.events));
+        assertEquals(2, a.getUnchanged());
+        assertEquals(2, b.getUnchanged());
+        assertEquals(1, b.getDeleted());
+        assertEquals(1, b.getInserted());
+        assertEquals(0, b.getChanged());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnsorted() throws IOException {
+        Files.write(left, Arrays.asList("2,a", "1,b"));
+        Files.write(right, Arrays.asList("1,b"));
+        new CsvDiff(0).diffSorted(left, right, new Recorder());
+    }
+
+    @Test
+    public void testDifferences() {
+        System.out.println("diff - typed cell equality");
+
+        assertArrayEquals(new int[0], CsvDiff.differences(Csv.split("1,a"), Csv.split("1.0,a")));
+        assertArrayEquals(new int[]{1, 2}, CsvDiff.differences(Csv.split("1,a"), Csv.split("1,b,c")));
+        assertEquals(0, CsvDiff.compareKeys(new Object[]{2.0}, new Object[]{2.0}));
+        assertEquals(-1, Integer.signum(CsvDiff.compareKeys(new Object[]{2.0}, new Object[]{10.0})));
+        assertEquals(-1, Integer.signum(CsvDiff.compareKeys(new Object[]{null}, new Object[]{"a"})));
+        assertEquals(-1, Integer.signum(CsvDiff.compareKeys(new Object[]{10.0}, new Object[]{"a"})));
+    }
+
+    private static Object[] key(String line) {
+        return new Object[]{Csv.split(line).getObject(0)};
+    }
+
+
+    private static final class Recorder implements CsvDiff.Listener {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void inserted(CsvLine right) {
+            events.add("+" + right.getString(0));
+        }
+
+        @Override
+        public void deleted(CsvLine left) {
+            events.add("-" + left.getString(0));
+        }
+
+        @Override
+        public void changed(CsvLine left, CsvLine right, int[] columns) {
+            events.add("~" + left.getString(0) + Arrays.toString(columns));
+        }
+
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * CsvFilesTest.java    19 October 2026, 22:30
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvFilesTest {
+
+    private static final int FILES = 5;
+    private static final int ROWS = 1000;
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("csv-files");
+        for (int f = 0; f < FILES; f++) {
+            List<String> lines = new ArrayList<>(ROWS);
+            for (int r = 1; r <= ROWS; r++) {
+                lines.add(f + "," + r + ",text " + r);
+            }
+            Files.write(dir.resolve("part-" + f + ".csv"), lines);
+        }
+        Files.write(dir.resolve("notes.txt"), Arrays.asList("ignored"));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> s = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) s::iterator) {
+                Files.delete(p);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testFind() throws IOException {
+        System.out.println("files - find");
+
+        List<Path> found = CsvFiles.find(dir, "*.csv");
+        assertEquals(FILES, found.size());
+        assertEquals(dir.resolve("part-0.csv"), found.get(0));
+    }
+
+    @Test
+    public void testMerged() throws IOException {
+        System.out.println("files - merged stream");
+
+        Map<Path, Long> last = new HashMap<>();
+        long count = 0;
+        try (Stream<CsvSourceLine> lines = CsvFiles.lines(CsvFiles.find(dir, "*.csv"), CsvFormat.DEFAULT, 2, 300)) {
+            for (CsvSourceLine n : (Iterable<CsvSourceLine>) lines::iterator) {
+                long prev = last.getOrDefault(n.getSource(), 0L);
+                assertEquals(prev + 1, n.getRow());
+                assertEquals(n.getRow(), n.getLong(1));
+                assertEquals("text " + n.getRow(), n.getString(2));
+                last.put(n.getSource(), n.getRow());
+                count++;
+            }
+        }
+        assertEquals(FILES * ROWS, count);
+        assertEquals(FILES, last.size());
+    }
+
+    @Test
+    public void testEarlyClose() throws IOException {
+        System.out.println("files - early close");
+
+        try (Stream<CsvSourceLine> lines = CsvFiles.lines(dir, "*.csv", CsvFormat.DEFAULT)) {
+            assertEquals(10, lines.limit(10).count());
+        }
+    }
+
+    @Test
+    public void testForEach() throws IOException, InterruptedException {
+        System.out.println("files - for each");
+
+        AtomicLong sum = new AtomicLong();
+        CsvFiles.forEach(CsvFiles.find(dir, "*.csv"), CsvFormat.DEFAULT, 3, n -> sum.addAndGet(n.getLong(1)));
+        assertEquals(FILES * (long) ROWS * (ROWS + 1) / 2, sum.get());
+    }
+
+    @Test
+    public void testMissing() throws IOException {
+        System.out.println("files - missing file");
+
+        List<Path> files = new ArrayList<>(CsvFiles.find(dir, "*.csv"));
+        files.add(dir.resolve("missing.csv"));
+        try (Stream<CsvSourceLine> lines = CsvFiles.lines(files, CsvFormat.DEFAULT, 2, 100)) {
+            lines.count();
+            throw new AssertionError("Expected failure");
+        } catch (UncheckedIOException ex) {
+            assertTrue(ex.getCause() != null);
+        }
+    }
+
+}
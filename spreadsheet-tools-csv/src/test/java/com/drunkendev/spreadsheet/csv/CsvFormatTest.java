@@ -0,0 +1,101 @@
+/*
+ * CsvFormatTest.java    19 October 2026, 16:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvFormatTest {
+
+    @Test
+    public void testDefaultMatchesLegacy() {
+        System.out.println("format - default matches legacy");
+
+        String string = "one, 2 ,\"three\",null,true,2014-01-01,=1+1,,'four'";
+        assertArrayEquals(Csv.splitToArray(string, false, ','), Csv.splitToArray(string, CsvFormat.DEFAULT));
+    }
+
+    @Test
+    public void testNullTokens() {
+        System.out.println("format - null tokens");
+
+        CsvFormat fmt = CsvFormat.DEFAULT.withNullValues("NA", "N/A", "\\N");
+        Object[] res = Csv.splitToArray("NA,N/A,\\N,NAN,N,null,\"NA\"", fmt);
+        assertArrayEquals(new Object[]{null, null, null, "NAN", false, "null", "NA"}, res);
+    }
+
+    @Test
+    public void testQuoteChars() {
+        System.out.println("format - quote chars");
+
+        CsvFormat fmt = CsvFormat.DEFAULT.withQuoteChars('"');
+        Object[] res = Csv.splitToArray("'a',\"b,c\"", fmt);
+        assertArrayEquals(new Object[]{"'a'", "b,c"}, res);
+    }
+
+    @Test
+    public void testNoTypeInference() {
+        System.out.println("format - no type inference");
+
+        CsvFormat fmt = CsvFormat.DEFAULT.withTypeInference(false).withFormulas(false);
+        Object[] res = Csv.splitToArray("1.5, true ,2014-01-01,=A1", fmt);
+        assertArrayEquals(new Object[]{"1.5", "true", "2014-01-01", "=A1"}, res);
+    }
+
+    @Test
+    public void testNoTrim() {
+        System.out.println("format - no trim");
+
+        CsvFormat fmt = CsvFormat.DEFAULT.withTrim(false);
+        Object[] res = Csv.splitToArray(" a ,2014-01-01, true", fmt);
+        assertArrayEquals(new Object[]{" a ", LocalDate.of(2014, 1, 1), " true"}, res);
+    }
+
+    @Test
+    public void testLegacyFormatReused() {
+        System.out.println("format - legacy reuse");
+
+        HashSet<String> nulls = new HashSet<>();
+        nulls.add("-");
+        CsvFormat a = CsvFormat.of(true, '|', Csv.DEFAULT_DATE_TIME, nulls);
+        CsvFormat b = CsvFormat.of(true, '|', Csv.DEFAULT_DATE_TIME, nulls);
+        assertSame(a, b);
+        assertEquals(CsvFormat.DEFAULT.withDelimiter('|').withNumberedText(true).withNullValues("-"), a);
+        assertNotEquals(CsvFormat.DEFAULT, a);
+        assertSame(CsvFormat.DEFAULT, CsvFormat.of(false, ',', Csv.DEFAULT_DATE_TIME, Csv.DEFAULT_NULL));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDelimiterQuoteClash() {
+        CsvFormat.DEFAULT.withDelimiter('\'');
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * CsvFormulaTest.java    20 October 2026, 14:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvFormulaTest {
+
+    private static final List<CsvLine> ROWS = Arrays.asList(
+            Csv.split("name,qty,price,total"),
+            Csv.split("apple,3,1.5,=B2*C2"),
+            Csv.split("pear,4,2,=B3*C3"),
+            Csv.split("fig,,2.5,=B4*C4"),
+            Csv.split("sum,=SUM(B2:B4),,=SUM(D2:D4)"));
+
+    private static Object eval(String formula) {
+        return CsvFormula.compile(formula).evaluate(CsvFormula.cells(ROWS));
+    }
+
+    @Test
+    public void testArithmetic() {
+        System.out.println("formula - arithmetic");
+
+        assertEquals(7.0, eval("1+2*3"));
+        assertEquals(9.0, eval("(1+2)*3"));
+        assertEquals(-1.0, eval("-1"));
+        assertEquals(8.0, eval("2^3"));
+        assertEquals(4.0, eval("=-2^2"));
+        assertEquals(64.0, eval("=2^3^2"));
+        assertEquals(-4.0, eval("=0-2^2"));
+        assertEquals(0.5, eval("2^-1"));
+        assertEquals(18.0, eval("2*3^2"));
+        assertEquals(2.5, eval("=5 / 2"));
+        assertEquals(1e3, eval("1e3"));
+        assertEquals(Double.POSITIVE_INFINITY, eval("1/0"));
+    }
+
+    @Test
+    public void testReferences() {
+        System.out.println("formula - references");
+
+        assertEquals(4.5, eval("B2*C2"));
+        assertEquals(4.5, eval("$B$2*C$2"));
+        assertEquals(0.0, eval("B4*C4"));
+        assertEquals(12.5, eval("D5"));
+        assertEquals(7.0, eval("B5"));
+        assertEquals("apple", eval("A2"));
+        assertEquals("AA10", CsvFormula.name(9, 26));
+    }
+
+    @Test
+    public void testFunctions() {
+        System.out.println("formula - functions");
+
+        assertEquals(7.0, eval("SUM(B2:B4)"));
+        assertEquals(3.5, eval("AVG(B2:B4)"));
+        assertEquals(3.5, eval("average(B2:B4)"));
+        assertEquals(1.5, eval("MIN(C2:C4)"));
+        assertEquals(10.0, eval("MAX(C2:C4, 10)"));
+        assertEquals(15.5, eval("SUM(B2:C3, 5)"));
+        assertEquals("big", eval("IF(B3>3,\"big\",\"small\")"));
+        assertEquals("small", eval("IF(B2>3,\"big\",\"small\")"));
+        assertEquals("apple x3", eval("CONCAT(A2, \" x\", B2)"));
+        assertEquals("apple1.5", eval("A2&C2"));
+    }
+
+    @Test
+    public void testComparisons() {
+        System.out.println("formula - comparisons");
+
+        assertEquals(true, eval("1<2"));
+        assertEquals(true, eval("2<=2"));
+        assertEquals(false, eval("1>=2"));
+        assertEquals(true, eval("1<>2"));
+        assertEquals(true, eval("A2=\"APPLE\""));
+        assertEquals(true, eval("\"a\">5"));
+    }
+
+    @Test
+    public void testCache() {
+        System.out.println("formula - cache");
+
+        assertSame(CsvFormula.compile("B2*C2"), CsvFormula.compile(new FormulaValue("=B2*C2")));
+    }
+
+    @Test(timeout = 10000)
+    public void testSharedChain() {
+        System.out.println("formula - shared references evaluated once");
+
+        Object[] row = new Object[64];
+        row[0] = 1.0;
+        for (int i = 1; i < row.length; i++) {
+            String prev = CsvFormula.name(0, i - 1);
+            row[i] = new FormulaValue("=" + prev + "+" + prev);
+        }
+        assertEquals(Math.pow(2, 63), CsvFormula.evaluate((FormulaValue) row[63], Arrays.asList(new CsvLine(row))));
+    }
+
+    @Test
+    public void testCacheEviction() {
+        System.out.println("formula - least recently used formulas evicted");
+
+        CsvFormula hot = CsvFormula.compile("1+2+3");
+        for (int i = 0; i < 10000; i++) {
+            CsvFormula.compile("1+" + i);
+            if (i % 1000 == 0) {
+                assertSame(hot, CsvFormula.compile("1+2+3"));
+            }
+        }
+        assertSame(hot, CsvFormula.compile("1+2+3"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownFunction() {
+        CsvFormula.compile("NOPE(1)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBareRange() {
+        CsvFormula.compile("A1:B2+1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSyntax() {
+        CsvFormula.compile("1+");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCircular() {
+        CsvFormula.evaluate(new FormulaValue("A1"), Arrays.asList(Csv.split("=A1")));
+    }
+
+}
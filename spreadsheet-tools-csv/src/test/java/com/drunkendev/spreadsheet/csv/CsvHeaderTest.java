@@ -0,0 +1,119 @@
+/*
+ * CsvHeaderTest.java    21 October 2026, 12:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvHeaderTest {
+
+    @Test
+    public void testIndex() {
+        System.out.println("header - index of names");
+
+        CsvHeader h = CsvHeader.of("id", "name", "", "name", null, "price");
+        assertEquals(6, h.size());
+        assertEquals(0, h.indexOf("id"));
+        assertEquals(1, h.indexOf("name"));
+        assertEquals(5, h.column("price"));
+        assertEquals(-1, h.indexOf(""));
+        assertEquals(-1, h.indexOf(null));
+        assertEquals(-1, h.indexOf("missing"));
+        assertFalse(h.contains("missing"));
+        assertNull(h.getName(4));
+        assertEquals(CsvHeader.of("id", "name", "", "name", null, "price"), h);
+
+        String[] many = new String[2000];
+        for (int i = 0; i < many.length; i++) {
+            many[i] = "col" + i;
+        }
+        CsvHeader wide = CsvHeader.of(many);
+        for (int i = 0; i < many.length; i++) {
+            assertEquals(i, wide.indexOf("col" + i));
+        }
+        assertEquals(-1, wide.indexOf("col2000"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingColumn() {
+        System.out.println("header - missing column");
+
+        CsvHeader.of("a").column("b");
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        System.out.println("header - shared by all lines");
+
+        String csv = "id,2020,when,ok\n1,3.5,2020-01-02,true\n2,,2021-05-06,false\n";
+        List<CsvLine> rows;
+        try (Stream<CsvLine> s = Csv.lines(new ByteArrayInputStream(csv.getBytes(UTF_8)),
+                                           CsvFormat.DEFAULT, true)) {
+            rows = s.collect(Collectors.toList());
+        }
+        assertEquals(2, rows.size());
+        CsvHeader h = rows.get(0).getHeader();
+        assertSame(h, rows.get(1).getHeader());
+        assertEquals("2020", h.getName(1));
+
+        CsvLine a = rows.get(0);
+        assertEquals(1, a.getInt("id"));
+        assertEquals(3.5, a.getDouble("2020"), 0);
+        assertEquals(LocalDate.of(2020, 1, 2), a.getLocalDate("when"));
+        assertTrue(a.getBoolean("ok"));
+        assertEquals(-1, rows.get(1).getDouble("2020", -1), 0);
+        assertEquals(2, rows.get(1).getInt(h.column("id")));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoHeader() {
+        System.out.println("header - line without header");
+
+        Csv.split("1,2").getInt("id");
+    }
+
+    @Test
+    public void testWithHeader() {
+        System.out.println("header - attach to a line");
+
+        CsvLine line = Csv.split("1,,pear").withHeader(CsvHeader.of("id", "note", "fruit"));
+        assertEquals("pear", line.getString("fruit"));
+        assertNull(line.getObject("note"));
+        assertEquals(1, line.getLong("id"));
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * CsvJdbcLoaderTest.java    20 October 2026, 11:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvJdbcLoaderTest {
+
+    private static final String INSERT = "INSERT INTO item VALUES (?, ?, ?, ?, ?)";
+
+    private JdbcDataSource ds;
+    private Connection keep;
+
+    @Before
+    public void setUp() throws SQLException {
+        ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:loader;DB_CLOSE_DELAY=-1");
+        keep = ds.getConnection();
+        try (Statement st = keep.createStatement()) {
+            st.execute("CREATE TABLE item (name VARCHAR(50) PRIMARY KEY, qty DOUBLE,"
+                       + " active BOOLEAN, day DATE, stamp TIMESTAMP)");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Statement st = keep.createStatement()) {
+            st.execute("DROP TABLE item");
+        }
+        keep.close();
+    }
+
+    private static Stream<CsvLine> rows(int n) {
+        return IntStream.range(0, n).mapToObj(i -> Csv.split(
+                "item " + i + "," + (i % 10 == 0 ? "" : i + ".5") + "," + (i % 2 == 0)
+                + ",2014-01-" + (10 + i % 20) + ",2014-01-01T10:15:" + (10 + i % 40), CsvFormat.DEFAULT));
+    }
+
+    private long count() throws SQLException {
+        try (Statement st = keep.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM item")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Test
+    public void testSingle() throws SQLException, InterruptedException {
+        System.out.println("jdbc - single connection");
+
+        long n = new CsvJdbcLoader(INSERT).withBatchSize(7).withCommitInterval(20).load(rows(100), keep);
+        assertEquals(100, n);
+        assertEquals(100, count());
+        assertTrue(keep.getAutoCommit());
+
+        try (Statement st = keep.createStatement();
+             ResultSet rs = st.executeQuery("SELECT * FROM item WHERE name = 'item 3'")) {
+            assertTrue(rs.next());
+            assertEquals(3.5, rs.getDouble(2), 0);
+            assertFalse(rs.getBoolean(3));
+            assertEquals(LocalDate.of(2014, 1, 13), rs.getDate(4).toLocalDate());
+            assertEquals(LocalDateTime.of(2014, 1, 1, 10, 15, 13), rs.getTimestamp(5).toLocalDateTime());
+        }
+        try (Statement st = keep.createStatement();
+             ResultSet rs = st.executeQuery("SELECT qty FROM item WHERE name = 'item 10'")) {
+            assertTrue(rs.next());
+            rs.getDouble(1);
+            assertTrue(rs.wasNull());
+        }
+    }
+
+    @Test
+    public void testPooled() throws SQLException, InterruptedException {
+        System.out.println("jdbc - multiple connections");
+
+        long n = new CsvJdbcLoader(INSERT).withBatchSize(50).withConnections(3).load(rows(1000).parallel(), ds);
+        assertEquals(1000, n);
+        assertEquals(1000, count());
+    }
+
+    @Test
+    public void testColumns() throws SQLException, InterruptedException {
+        System.out.println("jdbc - column mapping");
+
+        new CsvJdbcLoader("INSERT INTO item (qty, name) VALUES (?, ?)")
+                .withColumns(1, 0)
+                .load(Stream.of(Csv.split("a,1"), Csv.split("b,2")), keep);
+        assertEquals(2, count());
+    }
+
+    @Test
+    public void testMixedDates() throws SQLException, InterruptedException {
+        System.out.println("jdbc - column of dates with other values");
+
+        try (Statement st = keep.createStatement()) {
+            st.execute("CREATE TABLE note (k VARCHAR(10), v VARCHAR(20))");
+        }
+        try {
+            new CsvJdbcLoader("INSERT INTO note VALUES (?, ?)")
+                    .load(Stream.of(Csv.split("a,2014-01-10"), Csv.split("b,n/a"),
+                                    Csv.split("c,2014-01-11T09:30"), Csv.split("d,")), keep);
+            try (Statement st = keep.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT v FROM note ORDER BY k")) {
+                assertTrue(rs.next());
+                assertEquals("2014-01-10", rs.getString(1));
+                assertTrue(rs.next());
+                assertEquals("n/a", rs.getString(1));
+                assertTrue(rs.next());
+                assertEquals("2014-01-11", rs.getString(1));
+                assertTrue(rs.next());
+                assertNull(rs.getString(1));
+            }
+        } finally {
+            try (Statement st = keep.createStatement()) {
+                st.execute("DROP TABLE note");
+            }
+        }
+    }
+
+    @Test
+    public void testFailure() throws SQLException, InterruptedException {
+        System.out.println("jdbc - failure");
+
+        try {
+            new CsvJdbcLoader(INSERT).withBatchSize(10).withCommitInterval(0)
+                    .load(Stream.concat(rows(50), rows(1)), ds);
+            fail("Expected duplicate key");
+        } catch (SQLException ex) {
+            assertEquals(0, count());
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * CsvLenientReaderTest.java    21 October 2026, 10:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvLenientReaderTest {
+
+    private static List<CsvLine> read(byte[] data, List<CsvError> errors) throws IOException {
+        return Csv.lines(new ByteArrayInputStream(data), CsvFormat.DEFAULT, errors::add)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testMalformedRecords() throws IOException {
+        System.out.println("lenient - malformed records reported and skipped");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("a,b,c\n".getBytes(UTF_8));
+        out.write("1,\"open,3\n".getBytes(UTF_8));
+        out.write("4,5\n".getBytes(UTF_8));
+        out.write("\n".getBytes(UTF_8));
+        out.write(new byte[]{'x', ',', 'y', (byte) 0xc3, ',', 'z', '\n'});
+        out.write("7,8,9\r\n".getBytes(UTF_8));
+        List<CsvError> errors = new ArrayList<>();
+        List<CsvLine> rows = read(out.toByteArray(), errors);
+
+        assertEquals(2, rows.size());
+        assertEquals("a", rows.get(0).getString(0));
+        assertEquals(9, rows.get(1).getInt(2));
+        assertEquals(3, errors.size());
+
+        CsvError quote = errors.get(0);
+        assertEquals(CsvError.Kind.UNTERMINATED_QUOTE, quote.getKind());
+        assertEquals(2, quote.getLine());
+        assertEquals(6, quote.getOffset());
+        assertEquals(1, quote.getColumn());
+        assertEquals("1,\"open,3", quote.getText());
+
+        CsvError count = errors.get(1);
+        assertEquals(CsvError.Kind.COLUMN_COUNT, count.getKind());
+        assertEquals(3, count.getLine());
+        assertEquals(16, count.getOffset());
+        assertEquals(2, count.getColumn());
+
+        CsvError encoding = errors.get(2);
+        assertEquals(CsvError.Kind.ENCODING, encoding.getKind());
+        assertEquals(5, encoding.getLine());
+        assertEquals(24, encoding.getOffset());
+        assertEquals(1, encoding.getColumn());
+        assertEquals("x,y\uFFFD,z", encoding.getText());
+    }
+
+    @Test
+    public void testConversion() throws IOException {
+        System.out.println("lenient - schema conversion failures");
+
+        Path file = Files.createTempFile("lenient", ".csv");
+        try {
+            Files.write(file, "id,day\n1,2020-01-02\ntwo,later\n3,soon,extra\n".getBytes(UTF_8));
+            CsvSchema schema = new CsvSchema(CsvFormat.DEFAULT, true, new String[]{"id", "day"},
+                                             new CsvSchema.Type[]{CsvSchema.Type.NUMBER, CsvSchema.Type.DATE},
+                                             null);
+            List<CsvError> errors = new ArrayList<>();
+            List<CsvLine> rows;
+            try (Stream<CsvLine> s = Csv.lines(file, schema, errors::add)) {
+                rows = s.collect(Collectors.toList());
+            }
+            assertEquals(2, rows.size());
+            assertEquals(LocalDate.of(2020, 1, 2), rows.get(0).getLocalDate(1));
+            assertEquals("two", rows.get(1).getString(0));
+            assertEquals("later", rows.get(1).getString(1));
+
+            assertEquals(3, errors.size());
+            assertEquals(CsvError.Kind.CONVERSION, errors.get(0).getKind());
+            assertEquals(3, errors.get(0).getLine());
+            assertEquals(0, errors.get(0).getColumn());
+            assertEquals(CsvError.Kind.CONVERSION, errors.get(1).getKind());
+            assertEquals(1, errors.get(1).getColumn());
+            assertEquals(CsvError.Kind.COLUMN_COUNT, errors.get(2).getKind());
+            assertEquals(4, errors.get(2).getLine());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testNoExceptionOnMisses() {
+        System.out.println("lenient - type misses without exceptions");
+
+        assertFalse(CsvParser.isDouble("1.2.3"));
+        assertFalse(CsvParser.isDouble("12 apples"));
+        assertTrue(CsvParser.isDouble(" -1.5e3d "));
+        assertTrue(CsvParser.isDouble("NaN"));
+        assertEquals(-1, CsvParser.toDouble("abc", -1), 0);
+        assertEquals(2.5, CsvParser.toDouble("2.5f", -1), 0);
+
+        assertFalse(Csv.matches(Csv.DEFAULT_DATE_TIME, "apple"));
+        assertFalse(Csv.matches(Csv.DEFAULT_DATE_TIME, "2020-01-02x"));
+        assertTrue(Csv.matches(Csv.DEFAULT_DATE_TIME, "2020-01-02"));
+        assertEquals("apple", Csv.getTypedValue("apple", Csv.DEFAULT_DATE_TIME));
+
+        CsvLine line = Csv.split("apple,1 2,2020-13-01");
+        assertEquals(null, line.getLocalDate(0));
+        assertEquals("1 2", line.getString(1));
+        assertEquals(7, line.getInt(1, 7));
+        assertEquals(null, line.getLocalDate(2));
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * CsvLineTest.java    19 October 2026, 20:05
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvLineTest {
+
+    @Test
+    public void testPrimitiveAccessors() {
+        System.out.println("line - primitive accessors");
+
+        CsvLine line = Csv.split("42.7,true,text,,2014-01-01,\"12\"");
+        assertEquals(6, line.size());
+        assertEquals(42, line.getInt(0));
+        assertEquals(42L, line.getLong(0));
+        assertEquals(42.7, line.getDouble(0), 0);
+        assertTrue(line.getBoolean(1));
+        assertEquals(-1, line.getInt(1, -1));
+        assertEquals("text", line.getString(2));
+        assertTrue(line.isNull(3));
+        assertEquals(7, line.getInt(3, 7));
+        assertEquals(LocalDate.of(2014, 1, 1), line.getLocalDate(4));
+        assertEquals(12, line.getInt(5));
+        assertEquals("12", line.getObject(5));
+    }
+
+    @Test
+    public void testOutOfRange() {
+        System.out.println("line - out of range");
+
+        CsvLine line = Csv.split("1,2");
+        assertTrue(line.isNull(2));
+        assertNull(line.getObject(2));
+        assertNull(line.getString(2));
+        assertEquals(5, line.getInt(2, 5));
+        assertFalse(line.getBoolean(2));
+        assertNull(line.getLocalDate(2));
+    }
+
+    @Test
+    public void testArrayRoundTrip() {
+        System.out.println("line - array round trip");
+
+        Object[] cells = {1.5, false, null, "a", LocalDate.of(2014, 1, 1), 3};
+        CsvLine line = new CsvLine(cells);
+        assertArrayEquals(cells, line.toArray());
+        assertEquals(3, line.getInt(5));
+        assertArrayEquals(Csv.splitToArray("1,a,,'b',=A1"), Csv.split("1,a,,'b',=A1").toArray());
+    }
+
+}
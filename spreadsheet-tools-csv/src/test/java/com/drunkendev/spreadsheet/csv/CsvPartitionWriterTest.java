@@ -0,0 +1,170 @@
+/*
+ * CsvPartitionWriterTest.java    20 October 2026, 19:30
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvPartitionWriterTest {
+
+    private static final int ROWS = 5000;
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("parts");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : s.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private static Stream<CsvLine> rows() {
+        return IntStream.range(0, ROWS).mapToObj(i -> new CsvLine(new Object[]{"k" + (i % 37), (double) i, "a,b"}));
+    }
+
+    @Test
+    public void testHash() throws IOException {
+        System.out.println("partition writer - hash partitions");
+
+        Function<CsvLine, Integer> hash = CsvPartitionWriter.hash(8, 0);
+        try (CsvPartitionWriter out = new CsvPartitionWriter(dir, "part-", hash, 3, false, null)) {
+            assertEquals(ROWS, out.writeAll(rows().parallel()));
+            assertTrue(out.getOpenCount() <= 8);
+            assertEquals(8, out.getFiles().size());
+        }
+        long total = 0;
+        for (int i = 0; i < 8; i++) {
+            List<CsvLine> lines = read(dir.resolve("part-" + i + ".csv"), false);
+            for (CsvLine n : lines) {
+                assertEquals(Integer.valueOf(i), hash.apply(n));
+                assertEquals("a,b", n.getString(2));
+            }
+            total += lines.size();
+        }
+        assertEquals(ROWS, total);
+    }
+
+    @Test
+    public void testGzip() throws IOException {
+        System.out.println("partition writer - gzip with eviction");
+
+        Object[] header = {"key", "id", "text"};
+        Map<Path, Long> files;
+        try (CsvPartitionWriter out = new CsvPartitionWriter(dir, "", CsvPartitionWriter.column(0), 2, true, header)) {
+            out.writeAll(rows());
+            files = out.getFiles();
+        }
+        assertEquals(37, files.size());
+        long total = 0;
+        for (Map.Entry<Path, Long> e : files.entrySet()) {
+            assertTrue(e.getKey().getFileName().toString().endsWith(".csv.gz"));
+            List<CsvLine> lines = read(e.getKey(), true);
+            assertEquals("key", lines.get(0).getString(0));
+            assertEquals(e.getValue().longValue(), lines.size() - 1);
+            String key = lines.get(1).getString(0);
+            assertEquals(key + ".csv.gz", e.getKey().getFileName().toString());
+            for (CsvLine n : lines.subList(1, lines.size())) {
+                assertEquals(key, n.getString(0));
+            }
+            total += lines.size() - 1;
+        }
+        assertEquals(ROWS, total);
+    }
+
+    @Test
+    public void testRows() throws IOException {
+        System.out.println("partition writer - rows per file");
+
+        try (CsvPartitionWriter out = new CsvPartitionWriter(dir, CsvPartitionWriter.rows(1000))) {
+            out.writeAll(rows());
+        }
+        for (int i = 0; i < 5; i++) {
+            List<CsvLine> lines = read(dir.resolve(i + ".csv"), false);
+            assertEquals(1000, lines.size());
+            assertEquals(i * 1000, lines.get(0).getInt(1));
+        }
+    }
+
+    @Test
+    public void testRawFile() throws IOException {
+        System.out.println("partition writer - records copied byte for byte");
+
+        Path src = dir.resolve("src.txt");
+        Files.write(src, "b,02134,1.50\r\na,\"x, y\" ,yes\nb,007,1e3\n".getBytes(UTF_8));
+        Path parts = dir.resolve("parts");
+        try (CsvPartitionWriter out = new CsvPartitionWriter(parts, CsvPartitionWriter.column(0))) {
+            assertEquals(3, out.writeAll(src, CsvFormat.DEFAULT));
+            out.write(Csv.split("a,1.50"));
+        }
+        assertEquals("b,02134,1.50\nb,007,1e3\n", new String(Files.readAllBytes(parts.resolve("b.csv")), UTF_8));
+        assertEquals("a,\"x, y\" ,yes\na,1.5\n", new String(Files.readAllBytes(parts.resolve("a.csv")), UTF_8));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosed() throws IOException {
+        CsvPartitionWriter out = new CsvPartitionWriter(dir, CsvPartitionWriter.column(0));
+        out.close();
+        out.write(Csv.split("a"));
+    }
+
+    private static List<CsvLine> read(Path file, boolean gzip) throws IOException {
+        try (InputStream in = gzip ? new GZIPInputStream(Files.newInputStream(file)) : Files.newInputStream(file);
+             BufferedReader br = new BufferedReader(new InputStreamReader(in, UTF_8))) {
+            List<CsvLine> res = new ArrayList<>();
+            for (String s = br.readLine(); s != null; s = br.readLine()) {
+                res.add(Csv.split(s));
+            }
+            return res;
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * CsvPipelineTest.java    21 October 2026, 15:30
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_16;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvPipelineTest {
+
+    private static byte[] sample() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[] {(byte) 0xef, (byte) 0xbb, (byte) 0xbf});
+        StringBuilder sb = new StringBuilder("id,name,when,amount\r\n");
+        for (int i = 0; i < 5000; i++) {
+            sb.append(i).append(",\"café ").append(i % 13).append("\",2020-01-")
+                    .append(String.format("%02d", i % 28 + 1)).append(',').append(i * 0.5);
+            if (i % 500 == 7) {
+                sb.append(",\"");
+                for (int j = 0; j < 3000; j++) {
+                    sb.append('x');
+                }
+                sb.append('"');
+            }
+            sb.append(i % 3 == 0 ? "\r\n" : i % 3 == 1 ? "\n" : "\r");
+            if (i % 1000 == 11) {
+                sb.append('\n');
+            }
+        }
+        sb.append("last,row");
+        out.write(sb.toString().getBytes(UTF_8));
+        return out.toByteArray();
+    }
+
+    private static List<List<Object>> rows(Stream<CsvLine> lines) {
+        try (Stream<CsvLine> s = lines) {
+            return s.map(n -> Arrays.asList(n.toArray())).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testOrdered() throws IOException {
+        System.out.println("pipeline - ordered rows match serial parse");
+
+        byte[] data = sample();
+        List<List<Object>> expected = rows(Csv.lines(new ByteArrayInputStream(data), CsvFormat.DEFAULT));
+        List<List<Object>> actual = rows(new CsvPipeline().withWorkers(3).withSliceSize(1024)
+                .lines(new ByteArrayInputStream(data)));
+        assertEquals(5005, expected.size());
+        assertEquals(expected, actual);
+
+        List<List<Object>> single = rows(new CsvPipeline().withWorkers(1).withSliceSize(7)
+                .lines(new ByteArrayInputStream(data)));
+        assertEquals(expected, single);
+    }
+
+    @Test
+    public void testUnordered() throws IOException {
+        System.out.println("pipeline - unordered rows match serial parse");
+
+        byte[] data = sample();
+        Comparator<List<Object>> byText = Comparator.comparing(Object::toString);
+        List<List<Object>> expected = rows(Csv.lines(new ByteArrayInputStream(data), CsvFormat.DEFAULT));
+        List<List<Object>> actual = rows(new CsvPipeline().withWorkers(4).withOrdered(false).withSliceSize(512)
+                .lines(new ByteArrayInputStream(data)));
+        expected.sort(byText);
+        actual.sort(byText);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testHeader() throws IOException {
+        System.out.println("pipeline - header shared by all rows");
+
+        byte[] data = sample();
+        List<CsvLine> expected;
+        try (Stream<CsvLine> s = Csv.lines(new ByteArrayInputStream(data), CsvFormat.DEFAULT, true)) {
+            expected = s.collect(Collectors.toList());
+        }
+        List<CsvLine> actual;
+        try (Stream<CsvLine> s = new CsvPipeline().withHeader(true).withSliceSize(2048)
+                .lines(new ByteArrayInputStream(data))) {
+            actual = s.collect(Collectors.toList());
+        }
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.get(0).getHeader(), actual.get(0).getHeader());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(Arrays.asList(expected.get(i).toArray()), Arrays.asList(actual.get(i).toArray()));
+        }
+        assertEquals(4999, actual.get(actual.size() - 2).getInt("id"));
+        assertEquals("café 7", actual.get(7).getString("name"));
+    }
+
+    @Test
+    public void testMalformed() throws IOException {
+        System.out.println("pipeline - malformed input");
+
+        byte[] data = "a,b\nc,é\n".getBytes(UTF_8);
+        data[data.length - 2] = (byte) 0x41;
+        List<List<Object>> expected = rows(Csv.lines(new ByteArrayInputStream(data), CsvFormat.DEFAULT));
+        assertEquals(expected, rows(new CsvPipeline().withWorkers(2).lines(new ByteArrayInputStream(data))));
+        assertEquals("\uFFFDA", expected.get(1).get(1));
+
+        byte[] utf16 = "a,b\n".getBytes(UTF_16);
+        try {
+            rows(new CsvPipeline().lines(new ByteArrayInputStream(utf16)));
+            throw new AssertionError("Expected failure");
+        } catch (UncheckedIOException ex) {
+            // Expected.
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testError() {
+        System.out.println("pipeline - error on a pipeline thread");
+
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() {
+                throw new StackOverflowError("broken");
+            }
+        };
+        try {
+            rows(new CsvPipeline().withWorkers(2).lines(broken));
+            throw new AssertionError("Expected failure");
+        } catch (StackOverflowError ex) {
+            assertEquals("broken", ex.getMessage());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testEarlyClose() throws IOException {
+        System.out.println("pipeline - closing early stops the threads");
+
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream endless = new InputStream() {
+            private final byte[] row = "1,two,3.0\n".getBytes(UTF_8);
+            private int pos;
+
+            @Override
+            public int read() {
+                return row[pos++ % row.length];
+            }
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        List<CsvLine> first = new ArrayList<>();
+        try (Stream<CsvLine> s = new CsvPipeline().withWorkers(2).withSliceSize(256).lines(endless)) {
+            s.limit(10000).forEach(first::add);
+        }
+        assertEquals(10000, first.size());
+        assertEquals("two", first.get(9999).getString(1));
+        assertTrue(closed.get());
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * CsvProfilerTest.java    20 October 2026, 17:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvProfilerTest {
+
+    @Test
+    public void testBasic() {
+        System.out.println("profiler - basic statistics");
+
+        CsvProfile p = new CsvProfiler().profile(Arrays.asList(
+                Csv.split("1,apple,2020-01-05"),
+                Csv.split("3,pear"),
+                Csv.split(",apple,2020-03-01"),
+                Csv.split("x,apple,2019-12-31")).stream());
+
+        assertEquals(4, p.getRowCount());
+        assertEquals(3, p.getColumns().size());
+
+        CsvProfile.Column a = p.getColumn(0);
+        assertNull(a.getName());
+        assertEquals(1, a.getNullCount());
+        assertEquals(3, a.getValueCount());
+        assertEquals(Long.valueOf(2), a.getTypeCounts().get(Double.class));
+        assertEquals(Long.valueOf(1), a.getTypeCounts().get(String.class));
+        assertEquals(1.0, a.getMin());
+        assertEquals("x", a.getMax());
+        assertEquals(3, a.getDistinctCount());
+        assertEquals(1.0, a.getQuantile(0), 0);
+        assertEquals(3.0, a.getQuantile(1), 0);
+
+        CsvProfile.Column b = p.getColumn(1);
+        Iterator<Map.Entry<Object, Long>> top = b.getTopValues().entrySet().iterator();
+        Map.Entry<Object, Long> first = top.next();
+        assertEquals("apple", first.getKey());
+        assertEquals(Long.valueOf(3), first.getValue());
+        assertEquals(2, b.getDistinctCount());
+        assertTrue(Double.isNaN(b.getQuantile(0.5)));
+
+        CsvProfile.Column c = p.getColumn(2);
+        assertEquals(1, c.getNullCount());
+        assertEquals(LocalDate.of(2019, 12, 31), c.getMin());
+        assertEquals(LocalDate.of(2020, 3, 1), c.getMax());
+        assertEquals(LocalDate.of(2020, 1, 5).toEpochDay(), c.getQuantile(0.5), 0);
+    }
+
+    @Test
+    public void testParallel() {
+        System.out.println("profiler - parallel sketches");
+
+        int n = 200_000;
+        List<CsvLine> rows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rows.add(new CsvLine(new Object[]{(double) i, "k" + (i % 5000), i % 10 == 0 ? "hot" : "c" + i}));
+        }
+        CsvProfile p = new CsvProfiler().profile(rows.parallelStream());
+        assertEquals(n, p.getRowCount());
+
+        CsvProfile.Column id = p.getColumn(0);
+        assertEquals(0.0, id.getMin());
+        assertEquals(n - 1.0, id.getMax());
+        assertEquals(n, id.getDistinctCount(), n * 0.05);
+        for (double q : new double[]{0.1, 0.5, 0.9}) {
+            assertEquals(q * n, id.getQuantile(q), n * 0.02);
+        }
+
+        assertEquals(5000, p.getColumn(1).getDistinctCount(), 5000 * 0.05);
+
+        Map.Entry<Object, Long> hot = p.getColumn(2).getTopValues().entrySet().iterator().next();
+        assertEquals("hot", hot.getKey());
+        // Misra-Gries undercounts by at most n / (counters + 1).
+        assertTrue(hot.getValue() <= n / 10);
+        assertTrue(hot.getValue() >= n / 10 - n / (CsvProfiler.DEFAULT_TOP_VALUES * 8 + 1));
+
+        CsvProfile seq = new CsvProfiler().profile(IntStream.range(0, n).mapToObj(rows::get));
+        assertEquals(seq.getColumn(0).getDistinctCount(), id.getDistinctCount());
+    }
+
+    @Test
+    public void testFile() throws IOException {
+        System.out.println("profiler - file with header");
+
+        Path file = Files.createTempFile("profile", ".csv");
+        try {
+            List<String> lines = new ArrayList<>();
+            lines.add("id,name");
+            for (int i = 0; i < 5000; i++) {
+                lines.add(i + "," + (i % 2 == 0 ? "" : "n" + i));
+            }
+            Files.write(file, lines);
+            CsvProfile p = new CsvProfiler().profile(file, CsvFormat.DEFAULT, true);
+            assertEquals(5000, p.getRowCount());
+            assertEquals("id", p.getColumn(0).getName());
+            assertEquals("name", p.getColumn(1).getName());
+            assertEquals(2500, p.getColumn(1).getNullCount());
+            assertEquals(4999.0, p.getColumn(0).getMax());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * CsvPublisherTest.java    19 October 2026, 23:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import com.drunkendev.spreadsheet.csv.CsvFlow.Publisher;
+import com.drunkendev.spreadsheet.csv.CsvFlow.Subscriber;
+import com.drunkendev.spreadsheet.csv.CsvFlow.Subscription;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvPublisherTest {
+
+    private static final String TEXT = "name,qty\r\n日本語,3\n\"a, b\",1.5\r\rlast,null";
+
+    @Test
+    public void testChunks() throws IOException {
+        System.out.println("publisher - chunk boundaries");
+
+        byte[] bytes = TEXT.getBytes(UTF_8);
+        List<CsvLine> expected = Csv.lines(new ByteArrayInputStream(bytes), CsvFormat.DEFAULT)
+                .collect(Collectors.toList());
+        for (int size = 1; size <= bytes.length; size++) {
+            Rows rows = new Rows(Long.MAX_VALUE);
+            CsvPublisher p = new CsvPublisher(CsvFormat.DEFAULT);
+            p.subscribe(rows);
+            new Chunks(bytes, size, null).subscribe(p);
+            assertTrue(rows.complete);
+            assertEquals(expected.size(), rows.lines.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.get(i).toArray(), rows.lines.get(i).toArray());
+            }
+        }
+    }
+
+    @Test
+    public void testBomAndMalformed() throws IOException {
+        System.out.println("publisher - byte order mark and malformed input");
+
+        byte[] text = "a,b\nc,d\n".getBytes(UTF_8);
+        byte[] bytes = new byte[text.length + 3];
+        bytes[0] = (byte) 0xef;
+        bytes[1] = (byte) 0xbb;
+        bytes[2] = (byte) 0xbf;
+        System.arraycopy(text, 0, bytes, 3, text.length);
+        bytes[bytes.length - 2] = (byte) 0xff;
+        List<CsvLine> expected = Csv.lines(new ByteArrayInputStream(bytes), CsvFormat.DEFAULT)
+                .collect(Collectors.toList());
+        assertEquals("a", expected.get(0).getString(0));
+        assertEquals("\uFFFD", expected.get(1).getString(1));
+        for (int size = 1; size <= bytes.length; size++) {
+            Rows rows = new Rows(Long.MAX_VALUE);
+            CsvPublisher p = new CsvPublisher(CsvFormat.DEFAULT);
+            p.subscribe(rows);
+            new Chunks(bytes, size, null).subscribe(p);
+            assertEquals(expected.size(), rows.lines.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.get(i).toArray(), rows.lines.get(i).toArray());
+            }
+        }
+    }
+
+    @Test
+    public void testDemand() {
+        System.out.println("publisher - demand");
+
+        Rows rows = new Rows(1);
+        CsvPublisher p = new CsvPublisher(CsvFormat.DEFAULT);
+        Chunks chunks = new Chunks(TEXT.getBytes(UTF_8), 4, null);
+        chunks.subscribe(p);
+        p.subscribe(rows);
+        assertEquals(1, rows.lines.size());
+        assertTrue(chunks.sent < chunks.bytes.length);
+
+        rows.subscription.request(2);
+        assertEquals(3, rows.lines.size());
+        assertEquals(1.5, rows.lines.get(2).getDouble(1), 0);
+
+        rows.subscription.request(10);
+        assertEquals(5, rows.lines.size());
+        assertTrue(rows.complete);
+    }
+
+    @Test
+    public void testError() {
+        System.out.println("publisher - upstream error");
+
+        Rows rows = new Rows(Long.MAX_VALUE);
+        CsvPublisher p = new CsvPublisher(CsvFormat.DEFAULT);
+        p.subscribe(rows);
+        new Chunks(TEXT.getBytes(UTF_8), 8, new IOException("reset")).subscribe(p);
+        assertEquals("reset", rows.error.getMessage());
+        assertTrue(!rows.complete);
+    }
+
+    @Test
+    public void testSecondSubscriber() {
+        System.out.println("publisher - second subscriber");
+
+        CsvPublisher p = new CsvPublisher(CsvFormat.DEFAULT);
+        Rows first = new Rows(1);
+        Rows second = new Rows(1);
+        p.subscribe(first);
+        p.subscribe(second);
+        assertNull(first.error);
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+
+    /**
+     * Synchronous publisher of fixed size chunks.
+     */
+    private static final class Chunks implements Publisher<ByteBuffer> {
+
+        final byte[] bytes;
+        final int size;
+        final Throwable error;
+        int sent;
+
+        Chunks(byte[] bytes, int size, Throwable error) {
+            this.bytes = bytes;
+            this.size = size;
+            this.error = error;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+            subscriber.onSubscribe(new Subscription() {
+                boolean done;
+
+                @Override
+                public void request(long n) {
+                    for (long i = 0; i < n && !done; i++) {
+                        if (sent == bytes.length) {
+                            done = true;
+                            if (error == null) {
+                                subscriber.onComplete();
+                            } else {
+                                subscriber.onError(error);
+                            }
+                            return;
+                        }
+                        int len = Math.min(size, bytes.length - sent);
+                        ByteBuffer b = ByteBuffer.wrap(bytes, sent, len);
+                        sent += len;
+                        subscriber.onNext(b);
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    done = true;
+                }
+            });
+        }
+
+    }
+
+
+    /**
+     * Collects rows, requesting an initial amount.
+     */
+    private static final class Rows implements Subscriber<CsvLine> {
+
+        final long initial;
+        final List<CsvLine> lines = new ArrayList<>();
+        Subscription subscription;
+        Throwable error;
+        boolean complete;
+
+        Rows(long initial) {
+            this.initial = initial;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initial);
+        }
+
+        @Override
+        public void onNext(CsvLine item) {
+            lines.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            complete = true;
+        }
+
+    }
+
+}
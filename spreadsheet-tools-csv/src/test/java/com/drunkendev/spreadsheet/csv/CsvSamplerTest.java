@@ -0,0 +1,131 @@
+/*
+ * CsvSamplerTest.java    20 October 2026, 18:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvSamplerTest {
+
+    private static final int ROWS = 10000;
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("sample", ".csv");
+        StringBuilder sb = new StringBuilder("﻿id,text\r\n");
+        for (int i = 0; i < ROWS; i++) {
+            sb.append(i).append(",\"r").append(i).append(", é\"").append(i % 2 == 0 ? "\r\n" : "\n");
+        }
+        Files.write(file, sb.toString().getBytes(UTF_8));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Test
+    public void testReservoir() throws IOException {
+        System.out.println("sampler - reservoir");
+
+        CsvSampler s = new CsvSampler(7).withHeader(true);
+        List<CsvLine> a = s.reservoir(file, 100);
+        assertEquals(100, a.size());
+        assertValid(a);
+        assertEquals(ids(a), ids(s.reservoir(file, 100)));
+
+        assertEquals(ROWS, s.reservoir(file, ROWS * 2).size());
+
+        // Mean of many samples approaches the mean row.
+        double mean = 0;
+        for (int seed = 0; seed < 50; seed++) {
+            for (CsvLine n : new CsvSampler(seed).withHeader(true).reservoir(file, 50)) {
+                mean += n.getDouble(0);
+            }
+        }
+        assertEquals((ROWS - 1) / 2.0, mean / 2500, ROWS * 0.03);
+    }
+
+    @Test
+    public void testSeek() throws IOException {
+        System.out.println("sampler - seek");
+
+        CsvSampler s = new CsvSampler(11).withHeader(true);
+        List<CsvLine> a = s.seek(file, 200);
+        assertEquals(200, a.size());
+        assertValid(a);
+        assertEquals(ids(a), ids(s.seek(file, 200)));
+        assertTrue(!ids(a).equals(ids(new CsvSampler(12).withHeader(true).seek(file, 200))));
+
+        List<CsvLine> all = new CsvSampler(1).seek(file, ROWS * 3);
+        assertTrue(all.size() > ROWS / 2);
+        assertEquals("id", all.get(0).getString(0));
+    }
+
+    @Test
+    public void testSmall() throws IOException {
+        System.out.println("sampler - small files");
+
+        Files.write(file, Arrays.asList("h", "a"));
+        List<CsvLine> a = new CsvSampler(3).withHeader(true).seek(file, 10);
+        assertEquals(1, a.size());
+        assertEquals("a", a.get(0).getString(0));
+        Files.write(file, Arrays.asList("h"));
+        assertTrue(new CsvSampler(3).withHeader(true).seek(file, 10).isEmpty());
+        assertTrue(new CsvSampler(3).withHeader(true).reservoir(file, 10).isEmpty());
+    }
+
+    private static void assertValid(List<CsvLine> rows) {
+        int last = -1;
+        for (CsvLine n : rows) {
+            int id = n.getInt(0);
+            assertTrue(id > last);
+            assertEquals("r" + id + ", é", n.getString(1));
+            last = id;
+        }
+    }
+
+    private static List<Integer> ids(List<CsvLine> rows) {
+        List<Integer> res = new ArrayList<>();
+        for (CsvLine n : rows) {
+            res.add(n.getInt(0));
+        }
+        return res;
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * CsvSheetTest.java    20 October 2026, 15:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvSheetTest {
+
+    private static CsvSheet sheet() {
+        return new CsvSheet(Arrays.asList(
+                Csv.split("name,qty,price,total"),
+                Csv.split("apple,3,1.5,=B2*C2"),
+                Csv.split("pear,4,2,=B3*C3"),
+                Csv.split("fig,,2.5,=B4*C4"),
+                Csv.split("sum,=SUM(B2:B4),,=SUM(D2:D4)")));
+    }
+
+    @Test
+    public void testInitial() {
+        System.out.println("sheet - initial evaluation");
+
+        CsvSheet s = sheet();
+        assertEquals(5, s.getFormulaCount());
+        assertEquals(5, s.getRowCount());
+        assertEquals(4.5, s.getValue(1, 3));
+        assertEquals(12.5, s.getValue(4, 3));
+        assertEquals(7.0, s.getValue(4, 1));
+        assertEquals("B2*C2", s.getFormula(1, 3).getValue());
+        assertNull(s.getFormula(1, 1));
+        assertNull(s.getValue(9, 9));
+    }
+
+    @Test
+    public void testIncremental() {
+        System.out.println("sheet - incremental recalculation");
+
+        CsvSheet s = sheet();
+        assertEquals(0, s.recalculate());
+
+        s.set(1, 1, 10.0);
+        assertEquals(3, s.recalculate());
+        assertEquals(15.0, s.getValue(1, 3));
+        assertEquals(23.0, s.getValue(4, 3));
+        assertEquals(14.0, s.getValue(4, 1));
+
+        s.set(3, 2, 1.0);
+        assertEquals(2, s.recalculate());
+
+        s.set(3, 1, 2.0);
+        assertEquals(3, s.recalculate());
+        assertEquals(25.0, s.getValue(4, 3));
+
+        s.set(1, 3, 0.0);
+        assertEquals(1, s.recalculate());
+        assertEquals(10.0, s.getValue(4, 3));
+
+        s.set(6, 0, new FormulaValue("=D5*2"));
+        assertEquals(7, s.getRowCount());
+        assertEquals(20.0, s.getValue(6, 0));
+        s.set(2, 2, 3.0);
+        assertEquals(14.0, s.getValue(4, 3));
+        assertEquals(28.0, s.getValue(6, 0));
+    }
+
+    @Test
+    public void testCircular() {
+        System.out.println("sheet - circular references");
+
+        CsvSheet s = sheet();
+        try {
+            s.set(1, 1, new FormulaValue("=D5"));
+            fail("Expected circular reference");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+        try {
+            s.set(1, 3, new FormulaValue("=D2+1"));
+            fail("Expected circular reference");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+        assertEquals(3.0, s.getValue(1, 1));
+        assertEquals("B2*C2", s.getFormula(1, 3).getValue());
+        s.set(1, 1, 5.0);
+        assertEquals(15.5, s.getValue(4, 3));
+
+        try {
+            new CsvSheet(Arrays.asList(Csv.split("=B1,=A1")));
+            fail("Expected circular reference");
+        } catch (IllegalStateException ex) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        System.out.println("sheet - independent subgraphs");
+
+        int n = CsvSheet.PARALLEL_THRESHOLD;
+        List<CsvLine> rows = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            rows.add(Csv.split(i + ",=A" + i + "*2,=B" + i + "+1"));
+        }
+        CsvSheet s = new CsvSheet(rows);
+        for (int i = 0; i < n; i++) {
+            s.set(i, 0, (double) i * 10);
+        }
+        assertEquals(n * 2, s.recalculate());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i * 20.0 + 1, s.getValue(i, 2));
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * CsvSnifferTest.java    19 October 2026, 18:05
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import com.drunkendev.spreadsheet.csv.CsvSchema.Type;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvSnifferTest {
+
+    @Test
+    public void testSemicolonWithHeader() {
+        System.out.println("sniffer - semicolon with header");
+
+        CsvSchema schema = CsvSniffer.sniff(Arrays.asList(
+                "id;name;amount;active;joined;seen",
+                "1;\"Smith; John\";10.5;yes;25/12/2014;2014-12-25 10:00:00",
+                "2;Jones;NA;no;13/01/2015;2015-01-13 09:30:00",
+                "3;Brown;-3;true;01/02/2015;NA"));
+
+        assertEquals(';', schema.getFormat().getDelimiter());
+        assertTrue(schema.hasHeader());
+        assertEquals(6, schema.getColumnCount());
+        assertEquals("name", schema.getName(1));
+        assertEquals(Type.NUMBER, schema.getType(0));
+        assertEquals(Type.STRING, schema.getType(1));
+        assertEquals(Type.NUMBER, schema.getType(2));
+        assertEquals(Type.BOOLEAN, schema.getType(3));
+        assertEquals(Type.DATE, schema.getType(4));
+        assertEquals("dd/MM/yyyy", schema.getPattern(4));
+        assertEquals(Type.DATE_TIME, schema.getType(5));
+        assertNull(schema.getPattern(5));
+        assertTrue(schema.getFormat().getNullValues().contains("NA"));
+
+        assertArrayEquals(new Object[]{2.0, "Jones", null, false, LocalDate.of(2015, 1, 13), LocalDateTime.of(2015, 1, 13, 9, 30)},
+                          schema.splitToArray("2;Jones;NA;no;13/01/2015;2015-01-13 09:30:00"));
+    }
+
+    @Test
+    public void testTabWithoutHeader() {
+        System.out.println("sniffer - tab without header");
+
+        CsvSchema schema = CsvSniffer.sniff(Arrays.asList(
+                "a\t1\t2014-01-01",
+                "b\t2\t2014-01-02",
+                "c\t3\t2014-01-03"));
+
+        assertEquals('\t', schema.getFormat().getDelimiter());
+        assertFalse(schema.hasHeader());
+        assertEquals(Type.STRING, schema.getType(0));
+        assertEquals(Type.NUMBER, schema.getType(1));
+        assertEquals(Type.DATE, schema.getType(2));
+    }
+
+    @Test
+    public void testFallback() {
+        System.out.println("sniffer - fallback for violating cells");
+
+        CsvSchema schema = new CsvSchema(CsvFormat.DEFAULT,
+                                         false,
+                                         null,
+                                         new Type[]{Type.NUMBER, Type.DATE, Type.STRING},
+                                         new String[]{null, "dd/MM/yyyy", null});
+
+        assertArrayEquals(new Object[]{1.5, LocalDate.of(2014, 12, 25), "2"},
+                          schema.splitToArray("1.5,25/12/2014,2"));
+        assertArrayEquals(new Object[]{true, LocalDate.of(2014, 12, 25), "x", 4.0},
+                          schema.splitToArray("true,2014-12-25,x,4"));
+    }
+
+    @Test
+    public void testLinesFromFile() throws IOException {
+        System.out.println("sniffer - lines from file");
+
+        Path file = Files.createTempFile("sniff", ".csv");
+        try {
+            Files.write(file, Arrays.asList("name|qty", "a|1", "b|2", "'c|d'|3"));
+            CsvSchema schema = CsvSniffer.sniff(file);
+            assertEquals('|', schema.getFormat().getDelimiter());
+            assertArrayEquals(new char[]{'\''}, schema.getFormat().getQuoteChars());
+            try (Stream<CsvLine> lines = Csv.lines(file, schema)) {
+                List<CsvLine> rows = lines.collect(toList());
+                assertEquals(3, rows.size());
+                assertEquals("c|d", rows.get(2).getString(0));
+                assertEquals(3.0, rows.get(2).getDouble(1), 0);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCharset() throws IOException {
+        System.out.println("sniffer - charset and empty lines");
+
+        Path file = Files.createTempFile("sniff", ".csv");
+        try {
+            Files.write(file, Arrays.asList("name,qty", "café,1", "", "thé,2"), ISO_8859_1);
+            CsvSchema schema = CsvSniffer.sniff(file, ISO_8859_1, 1000, 10);
+            assertEquals(ISO_8859_1, schema.getCharset());
+            assertEquals(UTF_8, new CsvSchema(CsvFormat.DEFAULT, false, null, new Type[0], null).getCharset());
+            try (Stream<Object[]> lines = Csv.linesArray(file, schema)) {
+                List<Object[]> rows = lines.collect(toList());
+                assertEquals(3, rows.size());
+                assertArrayEquals(new Object[]{"café", 1.0}, rows.get(0));
+                assertArrayEquals(new Object[]{"thé", 2.0}, rows.get(2));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testBomAndMalformed() throws IOException {
+        System.out.println("sniffer - byte order mark and malformed input");
+
+        Path file = Files.createTempFile("sniff", ".csv");
+        try {
+            byte[] data = "\uFEFFid,name\n1,x\n2,yy\n".getBytes(UTF_8);
+            data[data.length - 2] = (byte) 0xff;
+            Files.write(file, data);
+            CsvSchema schema = CsvSniffer.sniff(file);
+            assertTrue(schema.hasHeader());
+            assertEquals("id", schema.getName(0));
+            assertEquals("name", schema.getName(1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * CsvTableTest.java    19 October 2026, 21:30
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import com.drunkendev.spreadsheet.csv.CsvTable.Storage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvTableTest {
+
+    private static final List<String> ROWS = Arrays.asList(
+            "name,qty,price,active,date,stamp,formula",
+            "apple,3,1.25,true,2014-01-01,2014-01-01T10:15:30,=A2*2",
+            "pear,,2,false,,,",
+            "\"quoted, text\",7",
+            "日本語,-1.5e3x,0.1");
+
+    @Test
+    public void testDirect() throws IOException {
+        System.out.println("table - direct");
+        roundTrip(Storage.DIRECT);
+    }
+
+    @Test
+    public void testMapped() throws IOException {
+        System.out.println("table - mapped");
+        roundTrip(Storage.MAPPED);
+    }
+
+    private void roundTrip(Storage storage) throws IOException {
+        Path file = Files.createTempFile("table", ".csv");
+        try {
+            Files.write(file, ROWS);
+            List<CsvLine> expected = Csv.loadLines(file.toFile(), CsvFormat.DEFAULT);
+            try (CsvTable table = CsvTable.load(file, CsvFormat.DEFAULT, storage)) {
+                assertEquals(expected.size(), table.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertArrayEquals(expected.get(i).toArray(), table.get(i).toArray());
+                }
+                CsvLine apple = table.get(1);
+                assertEquals(3, apple.getInt(1));
+                assertEquals(1.25, apple.getDouble(2), 0);
+                assertTrue(apple.getBoolean(3));
+                assertEquals(LocalDate.of(2014, 1, 1), apple.getLocalDate(4));
+                assertEquals(LocalDateTime.of(2014, 1, 1, 10, 15, 30), apple.getLocalDateTime(5));
+                assertEquals(new FormulaValue("A2*2"), apple.getObject(6));
+                assertTrue(table.get(2).isNull(1));
+                assertEquals("quoted, text", table.get(3).getString(0));
+                assertTrue(table.getMemoryUsed() > 0);
+
+                AtomicLong qty = new AtomicLong();
+                table.forEach(n -> qty.addAndGet(n.getLong(1)));
+                assertEquals(10, qty.get());
+                assertEquals(10, table.lines().parallel().mapToLong(n -> n.getLong(1)).sum());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosed() throws IOException {
+        CsvTable table = CsvTable.of(Arrays.asList(Csv.split("1,2")).stream(), Storage.DIRECT);
+        table.close();
+        table.get(0);
+    }
+
+    @Test
+    public void testSegments() throws IOException {
+        System.out.println("table - segments");
+
+        try (OffHeapMemory mem = new OffHeapMemory(12)) {
+            long a = mem.allocate(4000);
+            long b = mem.allocate(200);
+            assertEquals(0, a);
+            assertEquals(4096, b);
+            mem.putLong(b + 100, 42L);
+            assertEquals(42L, mem.getLong(b + 100));
+            assertEquals(8192, mem.capacity());
+
+            byte[] src = new byte[10000];
+            for (int i = 0; i < src.length; i++) {
+                src[i] = (byte) i;
+            }
+            long c = mem.allocateBytes(src.length);
+            assertEquals(4296, c);
+            mem.put(c, src);
+            byte[] dst = new byte[src.length];
+            mem.get(c, dst, dst.length);
+            assertArrayEquals(src, dst);
+        }
+    }
+
+    @Test
+    public void testLargeString() throws IOException {
+        System.out.println("table - string larger than a segment");
+
+        char[] big = new char[17 << 20];
+        Arrays.fill(big, 'x');
+        big[big.length - 1] = 'y';
+        String s = new String(big);
+        try (CsvTable table = CsvTable.of(Stream.of(new CsvLine(new Object[]{"a", s, 1.0})), Storage.DIRECT)) {
+            CsvLine row = table.iterator().next();
+            assertEquals("a", row.getString(0));
+            assertEquals(s, row.getString(1));
+            assertEquals(1.0, row.getDouble(2), 0);
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * CsvValueCacheTest.java    21 October 2026, 13:50
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvValueCacheTest {
+
+    private static final CsvFormat CACHED = CsvFormat.DEFAULT.withValueCache(512);
+
+    @Test
+    public void testSharedValues() {
+        System.out.println("value cache - repeated text shares values");
+
+        CsvLine a = CsvParser.splitLine("2020-01-02,yes,apple,=A1", CACHED);
+        CsvLine b = CsvParser.splitLine("2020-01-02,yes,apple,=A1", CACHED);
+        assertEquals(LocalDate.of(2020, 1, 2), b.getObject(0));
+        assertSame(a.getObject(0), b.getObject(0));
+        assertSame(a.getObject(2), b.getObject(2));
+        assertTrue(b.getBoolean(1));
+        assertTrue(b.getObject(3) instanceof FormulaValue);
+        assertNotSame(a.getObject(3), b.getObject(3));
+
+        CsvLine c = CsvParser.splitLine("2020-01-02,yes,apple", CsvFormat.DEFAULT);
+        CsvLine d = CsvParser.splitLine("2020-01-02,yes,apple", CsvFormat.DEFAULT);
+        assertNotSame(c.getObject(0), d.getObject(0));
+
+        CsvValueCache cache = CACHED.valueCache();
+        assertTrue(cache.getHits() >= 3);
+        assertSame(cache, CACHED.valueCache());
+        assertEquals(0, CsvFormat.DEFAULT.getValueCache());
+        assertEquals(CsvFormat.DEFAULT.withValueCache(512), CACHED);
+    }
+
+    @Test
+    public void testSameResults() {
+        System.out.println("value cache - results match uncached parse");
+
+        CsvFormat tiny = CsvFormat.DEFAULT.withValueCache(2);
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            rows.add(i + ",2020-01-" + String.format("%02d", i % 28 + 1) + "," + (i % 2 == 0 ? "true" : "false") +
+                     ",name" + (i % 37) + ", padded ,null");
+        }
+        for (String row : rows) {
+            assertEquals(Arrays.asList(Csv.splitToArray(row, CsvFormat.DEFAULT)),
+                         Arrays.asList(CsvParser.split(row, tiny)));
+            assertEquals(Arrays.asList(Csv.splitToArray(row, CsvFormat.DEFAULT)),
+                         Arrays.asList(CsvParser.split(row, CACHED)));
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        System.out.println("value cache - parallel parsing with per thread caches");
+
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            rows.add("2021-03-" + String.format("%02d", i % 30 + 1) + ",k" + (i % 100));
+        }
+        List<CsvLine> lines = rows.parallelStream()
+                .map(n -> CsvParser.splitLine(n, CACHED))
+                .collect(Collectors.toList());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(LocalDate.of(2021, 3, i % 30 + 1), lines.get(i).getLocalDate(0));
+            assertEquals("k" + (i % 100), lines.get(i).getString(1));
+        }
+    }
+
+}
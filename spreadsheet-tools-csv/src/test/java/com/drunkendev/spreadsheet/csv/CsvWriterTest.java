@@ -0,0 +1,54 @@
+/*
+ * CsvWriterTest.java    19 October 2026, 11:20
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.spreadsheet.csv;
+
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ *
+ * @author  Brett Ryan
+ */
+public class CsvWriterTest {
+
+    @Test
+    public void testFormat() {
+        System.out.println("writer - format");
+
+        assertEquals("one,2,2.5,true,,2014-01-01",
+                     CsvWriter.format(new Object[]{"one", 2.0, 2.5, true, null, LocalDate.of(2014, 1, 1)}, ',', '"'));
+        assertEquals("\"a,b\",\"say \"\"hi\"\"\",\"\",\" pad\",\"=1+1\"",
+                     CsvWriter.format(new Object[]{"a,b", "say \"hi\"", "", " pad", new FormulaValue("1+1")}, ',', '"'));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        System.out.println("writer - round trip");
+
+        Object[] row = {"a|b", 1.0, -2.25, false, null, LocalDate.of(2014, 1, 1), "it's \"quoted\"", new FormulaValue("A1*2")};
+        Object[] res = Csv.splitToArray(CsvWriter.format(row, '|', '"'), false, '|');
+        assertArrayEquals(row, res);
+    }
+
+}